@@ -119,8 +119,9 @@ private void runAnalysisFromScript(Path analysisScript) {
     }
 
     private void runAnalysisAndWriteResults(Analysis analysis, OutputSettings outputSettings) {
-        AnalysisResults analysisResults = exomiser.run(analysis);
-        AnalysisResultsWriter.writeToFile(analysis, analysisResults, outputSettings);
+        try (AnalysisResults analysisResults = exomiser.run(analysis)) {
+            AnalysisResultsWriter.writeToFile(analysis, analysisResults, outputSettings);
+        }
     }
 
 }
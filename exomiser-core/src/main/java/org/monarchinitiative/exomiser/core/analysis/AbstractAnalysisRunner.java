@@ -22,8 +22,14 @@
 
 import htsjdk.variant.vcf.VCFHeader;
 import org.monarchinitiative.exomiser.core.analysis.util.*;
+import org.monarchinitiative.exomiser.core.filters.AdaptiveVariantFilterRunner;
 import org.monarchinitiative.exomiser.core.filters.GeneFilter;
+import org.monarchinitiative.exomiser.core.filters.FilterStats;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.filters.FrequencyDataProvider;
 import org.monarchinitiative.exomiser.core.filters.GeneFilterRunner;
+import org.monarchinitiative.exomiser.core.filters.IntervalFilter;
+import org.monarchinitiative.exomiser.core.filters.VariantBlockFilterRunner;
 import org.monarchinitiative.exomiser.core.filters.VariantFilter;
 import org.monarchinitiative.exomiser.core.filters.VariantFilterRunner;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
@@ -38,6 +44,8 @@
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -93,6 +101,10 @@ public AnalysisResults run(Analysis analysis) {
         //soo many comments - this is a bad sign that this is too complicated.
         Map<String, Gene> allGenes = makeKnownGenes();
         List<VariantEvaluation> variantEvaluations = new ArrayList<>();
+        //the variant filter results are counted as they are run so that the reports don't require all the variants
+        FilterStats filterStats = new FilterStats();
+        //failed variants are only held in memory if they are not spilled to disk
+        FailedVariantStore failedVariantStore = spillsFailedVariants(analysis) ? FailedVariantStore.create(vcfHeader) : null;
 //        some kind of multi-map with ordered duplicate keys would allow for easy grouping of steps for running the groups together.
         List<List<AnalysisStep>> analysisStepGroups = analysis.getAnalysisStepsGroupedByFunction();
         boolean variantsLoaded = false;
@@ -104,12 +116,15 @@ public AnalysisResults run(Analysis analysis) {
             if (firstStep.isVariantFilter() && !variantsLoaded) {
                 //variants take up 99% of all the memory in an analysis - this scales approximately linearly with the sample size
                 //so for whole genomes this is best run as a stream to filter out the unwanted variants with as many filters as possible in one go
-                variantEvaluations = loadAndFilterVariants(vcfPath, probandSample, allGenes, analysisGroup, analysis);
+                variantEvaluations = loadAndFilterVariants(vcfPath, probandSample, allGenes, analysisGroup, analysis, filterStats, failedVariantStore);
                 //this is done here as there are GeneFilter steps which may require Variants in the genes, or the InheritanceModeDependent steps which definitely need them...
                 assignVariantsToGenes(variantEvaluations, allGenes);
+                if (failedVariantStore != null) {
+                    markGenesWithStoredFailedVariants(failedVariantStore, allGenes);
+                }
                 variantsLoaded = true;
             } else {
-                runSteps(analysisGroup, hpoIds, new ArrayList<>(allGenes.values()), inheritanceModeAnnotator);
+                runSteps(analysisGroup, hpoIds, new ArrayList<>(allGenes.values()), inheritanceModeAnnotator, filterStats);
             }
         }
         //maybe only the non-variant dependent steps have been run in which case we need to load the variants although
@@ -125,8 +140,12 @@ public AnalysisResults run(Analysis analysis) {
         }
 
         logger.info("Scoring genes");
-        GeneScorer geneScorer = new RawScoreGeneScorer(probandSample, inheritanceModeAnnotator);
-        List<Gene> genes = geneScorer.scoreGenes(getGenesWithVariants(allGenes).collect(toList()));
+        GeneScorer geneScorer = new RawScoreGeneScorer(probandSample, inheritanceModeAnnotator, analysis.getTopGenes());
+        List<Gene> genesWithVariants = getGenesWithVariants(allGenes).collect(toList());
+        if (failedVariantStore != null) {
+            genesWithVariants.addAll(getGenesWithOnlyStoredVariants(failedVariantStore, allGenes));
+        }
+        List<Gene> genes = geneScorer.scoreGenes(genesWithVariants);
         List<VariantEvaluation> variants = getFinalVariantList(variantEvaluations);
         logger.info("Analysed {} genes containing {} filtered variants", genes.size(), variants.size());
 
@@ -136,6 +155,8 @@ public AnalysisResults run(Analysis analysis) {
                 .sampleNames(sampleNames)
                 .genes(genes)
                 .variantEvaluations(variants)
+                .filterStats(filterStats)
+                .failedVariantStore(failedVariantStore)
                 .build();
 
         Duration duration = Duration.between(timeStart, Instant.now());
@@ -153,20 +174,24 @@ private Map<String, Gene> makeKnownGenes() {
                 .collect(toConcurrentMap(Gene::getGeneSymbol, Function.identity()));
     }
 
-    private List<VariantEvaluation> loadAndFilterVariants(Path vcfPath, SampleIdentifier probandSample, Map<String, Gene> allGenes, List<AnalysisStep> analysisGroup, Analysis analysis) {
+    private List<VariantEvaluation> loadAndFilterVariants(Path vcfPath, SampleIdentifier probandSample, Map<String, Gene> allGenes, List<AnalysisStep> analysisGroup, Analysis analysis, FilterStats filterStats, FailedVariantStore failedVariantStore) {
         GeneReassigner geneReassigner = createNonCodingVariantGeneReassigner(analysis, allGenes);
         List<VariantFilter> variantFilters = getVariantFilterSteps(analysisGroup);
 
         List<VariantEvaluation> filteredVariants;
         VariantLogger variantLogger = new VariantLogger();
-        try (Stream<VariantEvaluation> variantStream = loadVariants(vcfPath)) {
-            filteredVariants = variantStream
+        try (Stream<VariantEvaluation> variantStream = loadVariants(vcfPath, getVariantLoadRegions(variantFilters), getPreAnnotationFilters(variantFilters, analysis))) {
+            Stream<VariantEvaluation> filteredVariantStream = variantStream
                     .peek(variantLogger.logLoadedAndPassedVariants())
                     .filter(isObservedInProband(probandSample))
                     .map(reassignNonCodingVariantToBestGeneInJannovarAnnotations(geneReassigner))
                     .map(reassignNonCodingVariantToBestGeneInTad(geneReassigner))
-                    .filter(isAssociatedWithKnownGene(allGenes))
-                    .filter(runVariantFilters(variantFilters))
+                    .filter(isAssociatedWithKnownGene(allGenes));
+            filteredVariantStream = filterVariants(filteredVariantStream, variantFilters, analysis, filterStats);
+            if (failedVariantStore != null) {
+                filteredVariantStream = filteredVariantStream.filter(storeFailedVariant(failedVariantStore));
+            }
+            filteredVariants = filteredVariantStream
                     .peek(variantLogger.countPassedVariant())
                     .collect(toList());
         }
@@ -174,6 +199,52 @@ private List<VariantEvaluation> loadAndFilterVariants(Path vcfPath, SampleIdenti
         return filteredVariants;
     }
 
+    /**
+     * Runs the variant filters using the strategy set in the {@link Analysis}. The {@link VariantBlockFilterRunner}
+     * takes precedence over the {@link AdaptiveVariantFilterRunner}, which is only used where the failed variants are
+     * discarded. Otherwise each variant is run through the filters by the {@link #runVariantFilters(List)} predicate.
+     * The filter results are the same whichever is used.
+     */
+    private Stream<VariantEvaluation> filterVariants(Stream<VariantEvaluation> variantStream, List<VariantFilter> variantFilters, Analysis analysis, FilterStats filterStats) {
+        if (analysis.isBlockVariantFilters()) {
+            VariantBlockFilterRunner variantBlockFilterRunner = new VariantBlockFilterRunner(variantFilters, !discardsFailedVariants());
+            Predicate<VariantEvaluation> keepVariant = variantEvaluation -> !discardsFailedVariants() || variantEvaluation.passedFilters();
+            return variantBlockFilterRunner.run(variantStream)
+                    .filter(countFilterResults(keepVariant, variantFilters, filterStats));
+        }
+        if (analysis.isAdaptiveFilterOrder() && discardsFailedVariants()) {
+            AdaptiveVariantFilterRunner adaptiveVariantFilterRunner = new AdaptiveVariantFilterRunner(variantFilters);
+            return variantStream.filter(countFilterResults(adaptiveVariantFilterRunner::run, variantFilters, filterStats));
+        }
+        return variantStream.filter(countFilterResults(runVariantFilters(variantFilters), variantFilters, filterStats));
+    }
+
+    /**
+     * Counts the filter results of the variants as they are run. Where the failed variants are discarded only the
+     * variants passing all the filters are counted. Which filter a discarded variant is recorded as failing, or whether
+     * it is seen at all, depends on the pre-annotation screen, the regions read from an indexed VCF and the order in
+     * which the filters are run, whereas the passed variants are the same whichever way they are filtered.
+     */
+    private Predicate<VariantEvaluation> countFilterResults(Predicate<VariantEvaluation> variantFilterPredicate, List<VariantFilter> variantFilters, FilterStats filterStats) {
+        return variantEvaluation -> {
+            boolean passed = variantFilterPredicate.test(variantEvaluation);
+            if (passed || !discardsFailedVariants()) {
+                filterStats.addResults(variantEvaluation, variantFilters);
+            }
+            return passed;
+        };
+    }
+
+    private Predicate<VariantEvaluation> storeFailedVariant(FailedVariantStore failedVariantStore) {
+        return variantEvaluation -> {
+            if (variantEvaluation.passedFilters()) {
+                return true;
+            }
+            failedVariantStore.add(variantEvaluation);
+            return false;
+        };
+    }
+
     private GeneReassigner createNonCodingVariantGeneReassigner(Analysis analysis, Map<String, Gene> allGenes) {
         ChromosomalRegionIndex<TopologicalDomain> tadIndex = genomeAnalysisService.getTopologicallyAssociatedDomainIndex();
         PriorityType mainPriorityType = analysis.getMainPrioritiserType();
@@ -196,6 +267,80 @@ private Stream<VariantEvaluation> loadVariants(Path vcfPath) {
         return genomeAnalysisService.createVariantEvaluations(vcfPath);
     }
 
+    private Stream<VariantEvaluation> loadVariants(Path vcfPath, Collection<ChromosomalRegion> regions, List<VariantFilter> preAnnotationFilters) {
+        //WARNING!!! THIS IS NOT THREADSAFE DO NOT USE PARALLEL STREAMS
+        if (preAnnotationFilters.isEmpty()) {
+            return genomeAnalysisService.createVariantEvaluations(vcfPath, regions);
+        }
+        logger.info("Screening variants with {} before annotation", preAnnotationFilters);
+        return genomeAnalysisService.createVariantEvaluations(vcfPath, regions, variantEvaluation -> {
+            for (VariantFilter variantFilter : preAnnotationFilters) {
+                if (variantFilter.runFilter(variantEvaluation).failed()) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Returns the frequency-dependent filters which can be run on a variant before it has been annotated, as they only
+     * require the allele coordinates to fetch the frequency data. The results are not recorded, the filters are run
+     * again on the annotated variants, but most variants in a genome are common and so need never be annotated. This
+     * is only done when enabled by {@link Analysis#isPreAnnotationFrequencyScreen()}.
+     */
+    private List<VariantFilter> getPreAnnotationFilters(List<VariantFilter> variantFilters, Analysis analysis) {
+        if (!analysis.isPreAnnotationFrequencyScreen() || !discardsFailedVariants()) {
+            return Collections.emptyList();
+        }
+        return variantFilters.stream()
+                .filter(variantFilter -> variantFilter instanceof FrequencyDataProvider)
+                .filter(variantFilter -> variantFilter.getFilterType() == FilterType.FREQUENCY_FILTER || variantFilter.getFilterType() == FilterType.KNOWN_VARIANT_FILTER)
+                .collect(toList());
+    }
+
+    /**
+     * Returns the regions required by an {@link IntervalFilter} in the filters run when loading the variants. Only the
+     * variants overlapping these will be read from an indexed VCF file. An empty list means all the variants will be
+     * read. A {@link org.monarchinitiative.exomiser.core.filters.GeneSymbolFilter} is not used here as variants can be
+     * assigned to a gene from well outside its transcripts, e.g. upstream, downstream, intergenic or regulatory variants.
+     */
+    private List<ChromosomalRegion> getVariantLoadRegions(List<VariantFilter> variantFilters) {
+        if (!discardsFailedVariants()) {
+            return Collections.emptyList();
+        }
+        for (VariantFilter variantFilter : variantFilters) {
+            if (variantFilter instanceof IntervalFilter) {
+                return ((IntervalFilter) variantFilter).getChromosomalRegions();
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Defines whether the concrete runner discards the variants failing the filters run when loading the variants. If
+     * so, these variants are never seen so the runner can skip reading those which would fail an
+     * {@link IntervalFilter} and skip annotating those which would fail a frequency filter.
+     *
+     * @return true if the variants failing the filters are not reported.
+     * @since 11.0.0
+     */
+    boolean discardsFailedVariants() {
+        return false;
+    }
+
+    /**
+     * Defines whether the variants failing the filters run when loading the variants are written to a
+     * {@link FailedVariantStore} rather than kept in memory. These variants are not seen by any of the subsequent
+     * analysis steps, but are still available to the {@link AnalysisResults} for writing out. This is set by the
+     * {@link Analysis}, but only applies to runners which keep the failed variants.
+     *
+     * @return true if the variants failing the filters are spilled to disk.
+     */
+    private boolean spillsFailedVariants(Analysis analysis) {
+        return analysis.isSpillFailedVariants() && !discardsFailedVariants();
+    }
+
     private Predicate<VariantEvaluation> isObservedInProband(SampleIdentifier probandSample) {
         return variantEvaluation -> {
             // need a nicer API for this.
@@ -254,6 +399,30 @@ private void assignVariantsToGenes(List<VariantEvaluation> variantEvaluations, M
         }
     }
 
+    /**
+     * A gene with no variants in memory would otherwise be unfiltered and so pass the filters, so the genes with
+     * variants in the store are marked as having them. The filter results of the genes are left unchanged.
+     */
+    private void markGenesWithStoredFailedVariants(FailedVariantStore failedVariantStore, Map<String, Gene> allGenes) {
+        for (String geneSymbol : failedVariantStore.getGeneSymbols()) {
+            Gene gene = allGenes.get(geneSymbol);
+            if (gene != null) {
+                gene.setHasStoredFailedVariants(true);
+            }
+        }
+    }
+
+    private List<Gene> getGenesWithOnlyStoredVariants(FailedVariantStore failedVariantStore, Map<String, Gene> allGenes) {
+        List<Gene> genes = new ArrayList<>();
+        for (String geneSymbol : failedVariantStore.getGeneSymbols()) {
+            Gene gene = allGenes.get(geneSymbol);
+            if (gene != null && !gene.hasVariants()) {
+                genes.add(gene);
+            }
+        }
+        return genes;
+    }
+
     /**
      * @param allGenes
      * @return
@@ -267,14 +436,14 @@ protected Stream<Gene> getGenesWithVariants(Map<String, Gene> allGenes) {
     abstract List<VariantEvaluation> getFinalVariantList(List<VariantEvaluation> variants);
 
     //might this be a nascent class waiting to get out here?
-    private void runSteps(List<AnalysisStep> analysisSteps, List<String> hpoIds, List<Gene> genes, InheritanceModeAnnotator inheritanceModeAnnotator) {
+    private void runSteps(List<AnalysisStep> analysisSteps, List<String> hpoIds, List<Gene> genes, InheritanceModeAnnotator inheritanceModeAnnotator, FilterStats filterStats) {
         boolean inheritanceModesCalculated = false;
         for (AnalysisStep analysisStep : analysisSteps) {
             if (!inheritanceModesCalculated && analysisStep.isInheritanceModeDependent()) {
                 analyseGeneCompatibilityWithInheritanceMode(genes, inheritanceModeAnnotator);
                 inheritanceModesCalculated = true;
             }
-            runStep(analysisStep, hpoIds, genes);
+            runStep(analysisStep, hpoIds, genes, filterStats);
         }
     }
 
@@ -284,12 +453,18 @@ private void analyseGeneCompatibilityWithInheritanceMode(List<Gene> genes, Inher
         inheritanceModeAnalyser.analyseInheritanceModes(genes);
     }
 
-    private void runStep(AnalysisStep analysisStep, List<String> hpoIds, List<Gene> genes) {
+    private void runStep(AnalysisStep analysisStep, List<String> hpoIds, List<Gene> genes, FilterStats filterStats) {
         if (analysisStep instanceof VariantFilter) {
             VariantFilter filter = (VariantFilter) analysisStep;
             logger.info("Running VariantFilter: {}", filter);
             for (Gene gene : genes) {
                 variantFilterRunner.run(filter, gene.getVariantEvaluations());
+                for (VariantEvaluation variantEvaluation : gene.getVariantEvaluations()) {
+                    // as in countFilterResults, the variants which will be discarded are not counted
+                    if (variantEvaluation.passedFilters() || !discardsFailedVariants()) {
+                        filterStats.addResult(variantEvaluation, filter);
+                    }
+                }
             }
             return;
 
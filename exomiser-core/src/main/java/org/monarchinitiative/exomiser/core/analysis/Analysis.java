@@ -57,7 +57,7 @@
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
 @JsonDeserialize(builder = Analysis.Builder.class)
-@JsonPropertyOrder({"vcf", "genomeAssembly", "pedigree", "proband", "hpoIds", "inheritanceModes", "analysisMode", "frequencySources", "pathogenicitySources", "analysisSteps"})
+@JsonPropertyOrder({"vcf", "genomeAssembly", "pedigree", "proband", "hpoIds", "inheritanceModes", "analysisMode", "topGenes", "adaptiveFilterOrder", "blockVariantFilters", "spillFailedVariants", "preAnnotationFrequencyScreen", "frequencySources", "pathogenicitySources", "analysisSteps"})
 public class Analysis {
 
     private static final Logger logger = LoggerFactory.getLogger(Analysis.class);
@@ -80,6 +80,11 @@ public class Analysis {
     private final InheritanceModeOptions inheritanceModeOptions;
 
     private final AnalysisMode analysisMode;
+    private final int topGenes;
+    private final boolean adaptiveFilterOrder;
+    private final boolean blockVariantFilters;
+    private final boolean spillFailedVariants;
+    private final boolean preAnnotationFrequencyScreen;
     private final Set<FrequencySource> frequencySources;
     private final Set<PathogenicitySource> pathogenicitySources;
     private final List<AnalysisStep> analysisSteps;
@@ -93,6 +98,11 @@ private Analysis(Builder builder) {
         this.inheritanceModeOptions = builder.inheritanceModeOptions;
 
         this.analysisMode = builder.analysisMode;
+        this.topGenes = builder.topGenes;
+        this.adaptiveFilterOrder = builder.adaptiveFilterOrder;
+        this.blockVariantFilters = builder.blockVariantFilters;
+        this.spillFailedVariants = builder.spillFailedVariants;
+        this.preAnnotationFrequencyScreen = builder.preAnnotationFrequencyScreen;
         this.frequencySources = Sets.immutableEnumSet(builder.frequencySources);
         this.pathogenicitySources = Sets.immutableEnumSet(builder.pathogenicitySources);
         this.analysisSteps = ImmutableList.copyOf(builder.analysisSteps);
@@ -132,6 +142,62 @@ public AnalysisMode getAnalysisMode() {
         return analysisMode;
     }
 
+    /**
+     * Returns the number of top-ranked genes for which the gene scores are guaranteed to be identical to those of a
+     * full analysis. Genes which cannot rank within this number will not have their contributing variants calculated.
+     * A value of 0 indicates that all genes will be fully scored.
+     *
+     * @return the number of top-ranked genes to fully score, or 0 for all genes.
+     * @since 11.0.0
+     */
+    public int getTopGenes() {
+        return topGenes;
+    }
+
+    /**
+     * Returns true if the variant filters of a {@link AnalysisMode#PASS_ONLY} analysis are run in the order estimated
+     * to be the cheapest, rather than the order specified. The variants passing the filters are unchanged.
+     *
+     * @return true if the variant filters are re-ordered by their measured cost and selectivity.
+     * @since 11.0.0
+     */
+    public boolean isAdaptiveFilterOrder() {
+        return adaptiveFilterOrder;
+    }
+
+    /**
+     * Returns true if the variant filters are run over blocks of variants, one filter at a time, rather than running
+     * each variant through all the filters. The filter results are unchanged.
+     *
+     * @return true if the variant filters are run over blocks of variants.
+     * @since 11.0.0
+     */
+    public boolean isBlockVariantFilters() {
+        return blockVariantFilters;
+    }
+
+    /**
+     * Returns true if the variants failing the variant filters of a {@link AnalysisMode#FULL} analysis are written to a
+     * temporary file rather than held in memory until the results are written.
+     *
+     * @return true if the failed variants are spilled to disk.
+     * @since 11.0.0
+     */
+    public boolean isSpillFailedVariants() {
+        return spillFailedVariants;
+    }
+
+    /**
+     * Returns true if the variants of a {@link AnalysisMode#PASS_ONLY} analysis are screened by the frequency filters
+     * before they are annotated.
+     *
+     * @return true if the common variants are removed before annotation.
+     * @since 11.0.0
+     */
+    public boolean isPreAnnotationFrequencyScreen() {
+        return preAnnotationFrequencyScreen;
+    }
+
     public Set<FrequencySource> getFrequencySources() {
         return frequencySources;
     }
@@ -218,6 +284,11 @@ public Builder copy() {
 
                 .inheritanceModeOptions(inheritanceModeOptions)
                 .analysisMode(analysisMode)
+                .topGenes(topGenes)
+                .adaptiveFilterOrder(adaptiveFilterOrder)
+                .blockVariantFilters(blockVariantFilters)
+                .spillFailedVariants(spillFailedVariants)
+                .preAnnotationFrequencyScreen(preAnnotationFrequencyScreen)
                 .frequencySources(frequencySources)
                 .pathogenicitySources(pathogenicitySources)
                 .steps(analysisSteps);
@@ -234,6 +305,11 @@ public static class Builder {
         private List<String> hpoIds = new ArrayList<>();
 
         private AnalysisMode analysisMode = AnalysisMode.PASS_ONLY;
+        private int topGenes = 0;
+        private boolean adaptiveFilterOrder = false;
+        private boolean blockVariantFilters = false;
+        private boolean spillFailedVariants = false;
+        private boolean preAnnotationFrequencyScreen = false;
         private InheritanceModeOptions inheritanceModeOptions = InheritanceModeOptions.empty();
         private Set<FrequencySource> frequencySources = EnumSet.noneOf(FrequencySource.class);
         private Set<PathogenicitySource> pathogenicitySources = EnumSet.noneOf(PathogenicitySource.class);
@@ -298,6 +374,78 @@ public Builder analysisMode(AnalysisMode analysisMode) {
             return this;
         }
 
+        /**
+         * Limits the exact scoring of genes to those which could rank within the top N genes under any mode of
+         * inheritance. The gene scores of these top-ranked genes will be identical to those of a full analysis, the
+         * remaining genes are given a lower-bound score with no contributing variants. The default value of 0 scores
+         * all genes. A warning is logged when the results are written if the number of genes to show in the
+         * {@link org.monarchinitiative.exomiser.core.writers.OutputSettings} is 0 or greater than this.
+         *
+         * @param topGenes the number of top-ranked genes to fully score, or 0 for all genes.
+         * @return the current Builder object
+         * @throws IllegalArgumentException when supplied with a negative value
+         * @since 11.0.0
+         */
+        public Builder topGenes(int topGenes) {
+            if (topGenes < 0) {
+                throw new IllegalArgumentException("topGenes cannot be negative");
+            }
+            this.topGenes = topGenes;
+            return this;
+        }
+
+        /**
+         * Runs the variant filters of a {@link AnalysisMode#PASS_ONLY} analysis in the order estimated to be the
+         * cheapest. The cost and selectivity of each filter are measured on the first variants. This has no effect in
+         * {@link AnalysisMode#FULL} mode, or when blockVariantFilters is set. Defaults to false.
+         *
+         * @return the current Builder object
+         * @since 11.0.0
+         */
+        public Builder adaptiveFilterOrder(boolean adaptiveFilterOrder) {
+            this.adaptiveFilterOrder = adaptiveFilterOrder;
+            return this;
+        }
+
+        /**
+         * Runs the variant filters over blocks of variants, one filter at a time. The frequency, pathogenicity,
+         * quality, variant effect and interval filters then read the fields they require from primitive arrays in a
+         * tight loop. Defaults to false.
+         *
+         * @return the current Builder object
+         * @since 11.0.0
+         */
+        public Builder blockVariantFilters(boolean blockVariantFilters) {
+            this.blockVariantFilters = blockVariantFilters;
+            return this;
+        }
+
+        /**
+         * Writes the variants failing the variant filters of a {@link AnalysisMode#FULL} analysis to a temporary file,
+         * so that the heap used is bounded by the number of passing variants. This has no effect in
+         * {@link AnalysisMode#PASS_ONLY} mode, where the failed variants are discarded. Defaults to false.
+         *
+         * @return the current Builder object
+         * @since 11.0.0
+         */
+        public Builder spillFailedVariants(boolean spillFailedVariants) {
+            this.spillFailedVariants = spillFailedVariants;
+            return this;
+        }
+
+        /**
+         * Runs the frequency and known variant filters of a {@link AnalysisMode#PASS_ONLY} analysis on the variants
+         * before they are annotated, so that the common variants are never annotated. This has no effect in
+         * {@link AnalysisMode#FULL} mode, where every variant is reported. Defaults to false.
+         *
+         * @return the current Builder object
+         * @since 11.0.0
+         */
+        public Builder preAnnotationFrequencyScreen(boolean preAnnotationFrequencyScreen) {
+            this.preAnnotationFrequencyScreen = preAnnotationFrequencyScreen;
+            return this;
+        }
+
         public Builder frequencySources(Set<FrequencySource> frequencySources) {
             this.frequencySources = frequencySources;
             return this;
@@ -332,6 +480,11 @@ public boolean equals(Object o) {
                 Objects.equals(hpoIds, analysis.hpoIds) &&
                 inheritanceModeOptions == analysis.inheritanceModeOptions &&
                 analysisMode == analysis.analysisMode &&
+                topGenes == analysis.topGenes &&
+                adaptiveFilterOrder == analysis.adaptiveFilterOrder &&
+                blockVariantFilters == analysis.blockVariantFilters &&
+                spillFailedVariants == analysis.spillFailedVariants &&
+                preAnnotationFrequencyScreen == analysis.preAnnotationFrequencyScreen &&
                 Objects.equals(frequencySources, analysis.frequencySources) &&
                 Objects.equals(pathogenicitySources, analysis.pathogenicitySources) &&
                 Objects.equals(analysisSteps, analysis.analysisSteps);
@@ -339,11 +492,11 @@ public boolean equals(Object o) {
 
     @Override
     public int hashCode() {
-        return Objects.hash(vcfPath, genomeAssembly, pedigree, probandSampleName, hpoIds, inheritanceModeOptions, analysisMode, frequencySources, pathogenicitySources, analysisSteps);
+        return Objects.hash(vcfPath, genomeAssembly, pedigree, probandSampleName, hpoIds, inheritanceModeOptions, analysisMode, topGenes, adaptiveFilterOrder, blockVariantFilters, spillFailedVariants, preAnnotationFrequencyScreen, frequencySources, pathogenicitySources, analysisSteps);
     }
 
     @Override
     public String toString() {
-        return "Analysis{" + "vcfPath=" + vcfPath + ", genomeAssembly=" + genomeAssembly + ", pedigree=" + pedigree + ", probandSampleName=" + probandSampleName + ", hpoIds=" + hpoIds + ", inheritanceModeOptions=" + inheritanceModeOptions + ", analysisMode=" + analysisMode + ", frequencySources=" + frequencySources + ", pathogenicitySources=" + pathogenicitySources + ", analysisSteps=" + analysisSteps + '}';
+        return "Analysis{" + "vcfPath=" + vcfPath + ", genomeAssembly=" + genomeAssembly + ", pedigree=" + pedigree + ", probandSampleName=" + probandSampleName + ", hpoIds=" + hpoIds + ", inheritanceModeOptions=" + inheritanceModeOptions + ", analysisMode=" + analysisMode + ", topGenes=" + topGenes + ", adaptiveFilterOrder=" + adaptiveFilterOrder + ", blockVariantFilters=" + blockVariantFilters + ", spillFailedVariants=" + spillFailedVariants + ", preAnnotationFrequencyScreen=" + preAnnotationFrequencyScreen + ", frequencySources=" + frequencySources + ", pathogenicitySources=" + pathogenicitySources + ", analysisSteps=" + analysisSteps + '}';
     }
 }
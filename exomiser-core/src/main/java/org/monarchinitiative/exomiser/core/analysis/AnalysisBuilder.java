@@ -116,6 +116,57 @@ public AnalysisBuilder analysisMode(AnalysisMode analysisMode) {
         return this;
     }
 
+    /**
+     * Limits the exact gene scoring to the genes which could rank within the top N genes. See
+     * {@link Analysis.Builder#topGenes(int)}.
+     *
+     * @since 11.0.0
+     */
+    public AnalysisBuilder topGenes(int topGenes) {
+        builder.topGenes(topGenes);
+        return this;
+    }
+
+    /**
+     * See {@link Analysis.Builder#adaptiveFilterOrder(boolean)}.
+     *
+     * @since 11.0.0
+     */
+    public AnalysisBuilder adaptiveFilterOrder(boolean adaptiveFilterOrder) {
+        builder.adaptiveFilterOrder(adaptiveFilterOrder);
+        return this;
+    }
+
+    /**
+     * See {@link Analysis.Builder#blockVariantFilters(boolean)}.
+     *
+     * @since 11.0.0
+     */
+    public AnalysisBuilder blockVariantFilters(boolean blockVariantFilters) {
+        builder.blockVariantFilters(blockVariantFilters);
+        return this;
+    }
+
+    /**
+     * See {@link Analysis.Builder#spillFailedVariants(boolean)}.
+     *
+     * @since 11.0.0
+     */
+    public AnalysisBuilder spillFailedVariants(boolean spillFailedVariants) {
+        builder.spillFailedVariants(spillFailedVariants);
+        return this;
+    }
+
+    /**
+     * See {@link Analysis.Builder#preAnnotationFrequencyScreen(boolean)}.
+     *
+     * @since 11.0.0
+     */
+    public AnalysisBuilder preAnnotationFrequencyScreen(boolean preAnnotationFrequencyScreen) {
+        builder.preAnnotationFrequencyScreen(preAnnotationFrequencyScreen);
+        return this;
+    }
+
     public AnalysisBuilder frequencySources(Set<FrequencySource> frequencySources) {
         this.frequencySources = Sets.immutableEnumSet(frequencySources);
         builder.frequencySources(frequencySources);
@@ -204,8 +204,16 @@ private Set<OutputFormat> parseOutputFormats(Map<String, List<String>> analysisM
                     case "JSON":
                         parsedOutputFormats.add(OutputFormat.JSON);
                         break;
+                    case "PROTOBUF_GENE":
+                    case "PROTOBUF-GENE":
+                        parsedOutputFormats.add(OutputFormat.PROTOBUF_GENE);
+                        break;
+                    case "PROTOBUF_VARIANT":
+                    case "PROTOBUF-VARIANT":
+                        parsedOutputFormats.add(OutputFormat.PROTOBUF_VARIANT);
+                        break;
                     default:
-                        logger.info("{} is not a recognised output format. Please choose one or more of HTML, TSV_GENE, TSV_VARIANT, VCF, JSON - defaulting to HTML", name);
+                        logger.info("{} is not a recognised output format. Please choose one or more of HTML, TSV_GENE, TSV_VARIANT, VCF, JSON, PROTOBUF_GENE, PROTOBUF_VARIANT - defaulting to HTML", name);
                         parsedOutputFormats.add(OutputFormat.HTML);
                         break;
                 }
@@ -233,6 +241,11 @@ public Analysis construct(Map analysisMap) {
                     .hpoIds(parseHpoIds(analysisMap))
                     .inheritanceModeOptions(inheritanceModeOptions(analysisMap))
                     .analysisMode(parseAnalysisMode(analysisMap))
+                    .topGenes(parseTopGenes(analysisMap))
+                    .adaptiveFilterOrder(parseOptionalBoolean("adaptiveFilterOrder", analysisMap))
+                    .blockVariantFilters(parseOptionalBoolean("blockVariantFilters", analysisMap))
+                    .spillFailedVariants(parseOptionalBoolean("spillFailedVariants", analysisMap))
+                    .preAnnotationFrequencyScreen(parseOptionalBoolean("preAnnotationFrequencyScreen", analysisMap))
                     .frequencySources(parseFrequencySources(analysisMap))
                     .pathogenicitySources(parsePathogenicitySources(analysisMap))
                     .steps(makeAnalysisSteps(analysisMap))
@@ -372,6 +385,28 @@ private AnalysisMode parseAnalysisMode(Map<String, String> analysisMap) {
             return AnalysisMode.valueOf(value);
         }
 
+        private int parseTopGenes(Map<String, Integer> analysisMap) {
+            Integer topGenes = analysisMap.get("topGenes");
+            if (topGenes == null) {
+                return 0;
+            }
+            if (topGenes < 0) {
+                throw new AnalysisParserException(String.format("topGenes value %d cannot be negative. Use 0 to score all genes.", topGenes));
+            }
+            return topGenes;
+        }
+
+        private boolean parseOptionalBoolean(String key, Map<String, Object> analysisMap) {
+            Object value = analysisMap.get(key);
+            if (value == null) {
+                return false;
+            }
+            if (!(value instanceof Boolean)) {
+                throw new AnalysisParserException(String.format("'%s' requires a boolean value e.g. {%s: true}", key, key), analysisMap);
+            }
+            return (Boolean) value;
+        }
+
         private void warnUserAboutDeprecatedGeneScoreMode(Map analysisMap) {
             if (analysisMap.containsKey("geneScoreMode")) {
                 logger.warn("geneScoreMode is deprecated and will have no effect. " +
@@ -28,10 +28,13 @@
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.monarchinitiative.exomiser.core.filters.FilterStats;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneScore;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -42,11 +45,14 @@
 
 /**
  * The results of an Exomiser Analysis run.
+ * <p>
+ * Where the failed variants were spilled to disk, the results hold a temporary file until they are closed. These
+ * should therefore be closed once the results have been written out.
  * 
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  * @since 8.0.0
  */
-public class AnalysisResults {
+public class AnalysisResults implements AutoCloseable {
 
     private final String probandSampleName;
 
@@ -56,6 +62,10 @@ public class AnalysisResults {
     private final List<Gene> genes;
     @JsonIgnore
     private final List<VariantEvaluation> variantEvaluations;
+    @JsonIgnore
+    private final FilterStats filterStats;
+    @JsonIgnore
+    private final FailedVariantStore failedVariantStore;
 
     public AnalysisResults(Builder builder) {
         this.probandSampleName = builder.probandSampleName;
@@ -64,6 +74,8 @@ public AnalysisResults(Builder builder) {
 
         this.genes = builder.genes;
         this.variantEvaluations = builder.variantEvaluations;
+        this.filterStats = builder.filterStats;
+        this.failedVariantStore = builder.failedVariantStore;
     }
 
     /**
@@ -111,6 +123,40 @@ public List<VariantEvaluation> getVariantEvaluations() {
         return variantEvaluations;
     }
 
+    /**
+     * Returns all the variants assigned to the gene. Unlike {@link Gene#getVariantEvaluations()} this includes the
+     * variants which failed the variant filters and were spilled to disk by the {@link AnalysisRunner} rather than kept
+     * in memory. These will be read back from disk on each call, so this should only be used for writing out the
+     * results. Variants are returned in chromosomal order.
+     *
+     * @param gene a gene from the results
+     * @return the passed and failed variants of the gene
+     * @since 11.0.0
+     */
+    public List<VariantEvaluation> getAllVariantEvaluations(Gene gene) {
+        if (failedVariantStore == null) {
+            return gene.getVariantEvaluations();
+        }
+        List<VariantEvaluation> storedVariants = failedVariantStore.getVariantEvaluations(gene.getGeneSymbol());
+        if (storedVariants.isEmpty()) {
+            return gene.getVariantEvaluations();
+        }
+        storedVariants.addAll(gene.getVariantEvaluations());
+        Collections.sort(storedVariants);
+        return storedVariants;
+    }
+
+    /**
+     * The counts of the variants passing and failing each variant filter, as recorded while the filters were run. This
+     * will be empty if the results were not created by an {@link AnalysisRunner}.
+     *
+     * @return the {@link FilterStats} of the {@link Analysis}
+     * @since 11.0.0
+     */
+    public FilterStats getFilterStats() {
+        return filterStats;
+    }
+
     /**
      * Returns a list of {@link GeneScore} objects computed from the gene results. These {@link GeneScore} will be ranked
      * by the combined score and will contain the results for all {@link ModeOfInheritance}. The {@link GeneScore} objects
@@ -190,7 +236,31 @@ private Stream<GeneScore> sortedGeneScoresWithContributingVariantsForMode(ModeOf
 
     @JsonIgnore
     public List<VariantEvaluation> getUnAnnotatedVariantEvaluations() {
-        return variantEvaluations.stream().filter(varEval -> !varEval.hasTranscriptAnnotations()).collect(toList());
+        List<VariantEvaluation> unAnnotatedVariants = variantEvaluations.stream()
+                .filter(varEval -> !varEval.hasTranscriptAnnotations())
+                .collect(toList());
+        if (failedVariantStore != null) {
+            unAnnotatedVariants.addAll(failedVariantStore.getUnAnnotatedVariantEvaluations());
+            Collections.sort(unAnnotatedVariants);
+        }
+        return unAnnotatedVariants;
+    }
+
+    /**
+     * Releases the temporary file holding any variants spilled to disk by the {@link AnalysisRunner}. These will no
+     * longer be available from the results after this has been called. The other results are unaffected.
+     *
+     * @since 11.0.0
+     */
+    @Override
+    public void close() {
+        if (failedVariantStore != null) {
+            try {
+                failedVariantStore.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to close failed variant store", e);
+            }
+        }
     }
 
     @Override
@@ -231,6 +301,8 @@ public static class Builder {
 
         private List<VariantEvaluation> variantEvaluations = Collections.emptyList();
         private List<Gene> genes = Collections.emptyList();
+        private FilterStats filterStats = new FilterStats();
+        private FailedVariantStore failedVariantStore = null;
 
         public Builder probandSampleName(String probandSampleName) {
             this.probandSampleName = probandSampleName;
@@ -252,6 +324,16 @@ public Builder genes(List<Gene> geneList) {
             return this;
         }
 
+        public Builder filterStats(FilterStats filterStats) {
+            this.filterStats = filterStats;
+            return this;
+        }
+
+        Builder failedVariantStore(FailedVariantStore failedVariantStore) {
+            this.failedVariantStore = failedVariantStore;
+            return this;
+        }
+
         public AnalysisResults build() {
             return new AnalysisResults(this);
         }
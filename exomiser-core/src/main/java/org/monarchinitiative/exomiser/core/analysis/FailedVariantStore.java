@@ -0,0 +1,395 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.analysis;
+
+import com.google.common.base.Strings;
+import com.google.protobuf.InvalidProtocolBufferException;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFEncoder;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderVersion;
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.model.AlleleCall;
+import org.monarchinitiative.exomiser.core.model.SampleGenotype;
+import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.*;
+import org.monarchinitiative.exomiser.core.proto.AnnotationCacheProto.TranscriptAnnotationRecord;
+import org.monarchinitiative.exomiser.core.proto.FailedVariantProto.ClinVarRecord;
+import org.monarchinitiative.exomiser.core.proto.FailedVariantProto.FailedVariantRecord;
+import org.monarchinitiative.exomiser.core.proto.FailedVariantProto.SampleGenotypeRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Write-once store for the {@link VariantEvaluation} which failed the variant filters of an {@link AnalysisMode#FULL}
+ * analysis. The variants are serialised to a temporary file as they are added so that only the passing variants need
+ * to be held in memory. Only the file offsets of the records, indexed by gene symbol, are kept on the heap. The
+ * variants are re-created from the file when requested by the {@link AnalysisResults}, which happens only when
+ * writing out the results.
+ * <p>
+ * The temporary file is deleted when the store is closed, which is done by closing the {@link AnalysisResults}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+final class FailedVariantStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailedVariantStore.class);
+
+    private final Path path;
+    private final FileChannel fileChannel;
+    private final OutputStream outputStream;
+
+    private final VCFEncoder vcfEncoder;
+    private final VCFCodec vcfCodec;
+
+    private final Map<String, RecordPositions> geneRecords = new HashMap<>();
+    private final RecordPositions unAnnotatedRecords = new RecordPositions();
+    private long writePosition = 0;
+    private int size = 0;
+
+    private FailedVariantStore(Path path, VCFHeader vcfHeader) throws IOException {
+        this.path = path;
+        this.fileChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        this.outputStream = new BufferedOutputStream(Channels.newOutputStream(fileChannel));
+        this.vcfEncoder = new VCFEncoder(vcfHeader, true, false);
+        this.vcfCodec = new VCFCodec();
+        this.vcfCodec.setVCFHeader(vcfHeader, VCFHeaderVersion.VCF4_2);
+    }
+
+    /**
+     * Creates a new, empty, store in the default temporary-file directory. The VCF header is that of the VCF file
+     * the variants were read from.
+     */
+    static FailedVariantStore create(VCFHeader vcfHeader) {
+        try {
+            Path path = Files.createTempFile("exomiser-failed-variants", ".pb");
+            logger.info("Writing failed variants to {}", path);
+            return new FailedVariantStore(path, vcfHeader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create failed variant store", e);
+        }
+    }
+
+    synchronized void add(VariantEvaluation variantEvaluation) {
+        byte[] bytes = toRecord(variantEvaluation).toByteArray();
+        try {
+            outputStream.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write failed variant to " + path, e);
+        }
+        geneRecords.computeIfAbsent(variantEvaluation.getGeneSymbol(), key -> new RecordPositions())
+                .add(writePosition, bytes.length);
+        if (!variantEvaluation.hasTranscriptAnnotations()) {
+            unAnnotatedRecords.add(writePosition, bytes.length);
+        }
+        writePosition += bytes.length;
+        size++;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized Set<String> getGeneSymbols() {
+        return new HashSet<>(geneRecords.keySet());
+    }
+
+    /**
+     * @return the stored variants assigned to the gene, in the order they were added.
+     */
+    synchronized List<VariantEvaluation> getVariantEvaluations(String geneSymbol) {
+        RecordPositions records = geneRecords.get(geneSymbol);
+        if (records == null) {
+            return new ArrayList<>();
+        }
+        return readVariantEvaluations(records);
+    }
+
+    /**
+     * @return the stored variants with no transcript annotations, in the order they were added.
+     */
+    synchronized List<VariantEvaluation> getUnAnnotatedVariantEvaluations() {
+        return readVariantEvaluations(unAnnotatedRecords);
+    }
+
+    private List<VariantEvaluation> readVariantEvaluations(RecordPositions records) {
+        try {
+            outputStream.flush();
+            List<VariantEvaluation> variantEvaluations = new ArrayList<>(records.size);
+            for (int i = 0; i < records.size; i++) {
+                FailedVariantRecord record = readRecord(records.positions[i], records.lengths[i]);
+                variantEvaluations.add(toVariantEvaluation(record));
+            }
+            return variantEvaluations;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read failed variants from " + path, e);
+        }
+    }
+
+    private FailedVariantRecord readRecord(long position, int length) throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(length);
+        while (byteBuffer.hasRemaining()) {
+            int bytesRead = fileChannel.read(byteBuffer, position + byteBuffer.position());
+            if (bytesRead < 0) {
+                throw new InvalidProtocolBufferException("Unexpected end of file reading record at position " + position);
+            }
+        }
+        return FailedVariantRecord.parseFrom(byteBuffer.array());
+    }
+
+    /**
+     * Closes and deletes the underlying file. The stored variants are no longer available after this has been called.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            outputStream.close();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private FailedVariantRecord toRecord(VariantEvaluation variantEvaluation) {
+        FailedVariantRecord.Builder builder = FailedVariantRecord.newBuilder()
+                .setAssembly(variantEvaluation.getGenomeAssembly().name())
+                .setChromosome(variantEvaluation.getChromosome())
+                .setChromosomeName(variantEvaluation.getChromosomeName())
+                .setPosition(variantEvaluation.getPosition())
+                .setRef(variantEvaluation.getRef())
+                .setAlt(variantEvaluation.getAlt())
+                .setVcfRecord(vcfEncoder.encode(variantEvaluation.getVariantContext()))
+                .setAltAlleleId(variantEvaluation.getAltAlleleId())
+                .setQuality(variantEvaluation.getPhredScore())
+                .setVariantEffect(variantEvaluation.getVariantEffect().name())
+                .setGeneSymbol(variantEvaluation.getGeneSymbol())
+                .setGeneId(Strings.nullToEmpty(variantEvaluation.getGeneId()));
+
+        for (Map.Entry<String, SampleGenotype> entry : variantEvaluation.getSampleGenotypes().entrySet()) {
+            SampleGenotype sampleGenotype = entry.getValue();
+            SampleGenotypeRecord.Builder genotypeBuilder = SampleGenotypeRecord.newBuilder()
+                    .setSample(entry.getKey())
+                    .setPhased(sampleGenotype.isPhased());
+            for (AlleleCall alleleCall : sampleGenotype.getCalls()) {
+                genotypeBuilder.addCalls(alleleCall.name());
+            }
+            builder.addSampleGenotypes(genotypeBuilder);
+        }
+
+        for (TranscriptAnnotation annotation : variantEvaluation.getTranscriptAnnotations()) {
+            builder.addTranscriptAnnotations(TranscriptAnnotationRecord.newBuilder()
+                    .setVariantEffect(annotation.getVariantEffect() == null ? "" : annotation.getVariantEffect().name())
+                    .setGeneSymbol(Strings.nullToEmpty(annotation.getGeneSymbol()))
+                    .setAccession(Strings.nullToEmpty(annotation.getAccession()))
+                    .setHgvsGenomic(Strings.nullToEmpty(annotation.getHgvsGenomic()))
+                    .setHgvsCdna(Strings.nullToEmpty(annotation.getHgvsCdna()))
+                    .setHgvsProtein(Strings.nullToEmpty(annotation.getHgvsProtein()))
+                    .setDistanceFromNearestGene(annotation.getDistanceFromNearestGene()));
+        }
+
+        for (FilterType filterType : variantEvaluation.getPassedFilterTypes()) {
+            builder.addPassedFilters(filterType.name());
+        }
+        for (FilterType filterType : variantEvaluation.getFailedFilterTypes()) {
+            builder.addFailedFilters(filterType.name());
+        }
+
+        FrequencyData frequencyData = variantEvaluation.getFrequencyData();
+        builder.setRsId(frequencyData.getRsId().getId());
+        for (Frequency frequency : frequencyData.getKnownFrequencies()) {
+            builder.putFrequencies(frequency.getSource().name(), frequency.getFrequency());
+        }
+
+        PathogenicityData pathogenicityData = variantEvaluation.getPathogenicityData();
+        for (PathogenicityScore score : pathogenicityData.getPredictedPathogenicityScores()) {
+            builder.putPathogenicityScores(score.getSource().name(), score.getScore());
+        }
+        if (pathogenicityData.hasClinVarData()) {
+            builder.setClinVar(toClinVarRecord(pathogenicityData.getClinVarData()));
+        }
+        return builder.build();
+    }
+
+    private ClinVarRecord toClinVarRecord(ClinVarData clinVarData) {
+        ClinVarRecord.Builder builder = ClinVarRecord.newBuilder()
+                .setAlleleId(clinVarData.getAlleleId())
+                .setPrimaryInterpretation(clinVarData.getPrimaryInterpretation().name())
+                .setReviewStatus(clinVarData.getReviewStatus());
+        for (ClinVarData.ClinSig clinSig : clinVarData.getSecondaryInterpretations()) {
+            builder.addSecondaryInterpretations(clinSig.name());
+        }
+        for (Map.Entry<String, ClinVarData.ClinSig> entry : clinVarData.getIncludedAlleles().entrySet()) {
+            builder.putIncludedAlleles(entry.getKey(), entry.getValue().name());
+        }
+        return builder.build();
+    }
+
+    private VariantEvaluation toVariantEvaluation(FailedVariantRecord record) {
+        VariantContext variantContext = vcfCodec.decode(record.getVcfRecord());
+
+        Map<String, SampleGenotype> sampleGenotypes = new LinkedHashMap<>();
+        for (SampleGenotypeRecord genotypeRecord : record.getSampleGenotypesList()) {
+            AlleleCall[] alleleCalls = new AlleleCall[genotypeRecord.getCallsCount()];
+            for (int i = 0; i < alleleCalls.length; i++) {
+                alleleCalls[i] = AlleleCall.valueOf(genotypeRecord.getCalls(i));
+            }
+            sampleGenotypes.put(genotypeRecord.getSample(), genotypeRecord.getPhased() ? SampleGenotype.phased(alleleCalls) : SampleGenotype
+                    .of(alleleCalls));
+        }
+
+        List<TranscriptAnnotation> annotations = new ArrayList<>(record.getTranscriptAnnotationsCount());
+        for (TranscriptAnnotationRecord annotationRecord : record.getTranscriptAnnotationsList()) {
+            annotations.add(TranscriptAnnotation.builder()
+                    .variantEffect(annotationRecord.getVariantEffect().isEmpty() ? null : VariantEffect.valueOf(annotationRecord
+                            .getVariantEffect()))
+                    .geneSymbol(annotationRecord.getGeneSymbol())
+                    .accession(annotationRecord.getAccession())
+                    .hgvsGenomic(annotationRecord.getHgvsGenomic())
+                    .hgvsCdna(annotationRecord.getHgvsCdna())
+                    .hgvsProtein(annotationRecord.getHgvsProtein())
+                    .distanceFromNearestGene(annotationRecord.getDistanceFromNearestGene())
+                    .build());
+        }
+
+        List<FilterResult> filterResults = new ArrayList<>();
+        for (String filterType : record.getPassedFiltersList()) {
+            filterResults.add(FilterResult.pass(FilterType.valueOf(filterType)));
+        }
+        for (String filterType : record.getFailedFiltersList()) {
+            filterResults.add(FilterResult.fail(FilterType.valueOf(filterType)));
+        }
+
+        return VariantEvaluation.builder(record.getChromosome(), record.getPosition(), record.getRef(), record.getAlt())
+                .genomeAssembly(GenomeAssembly.valueOf(record.getAssembly()))
+                .chromosomeName(record.getChromosomeName())
+                .variantContext(variantContext)
+                .altAlleleId(record.getAltAlleleId())
+                .quality(record.getQuality())
+                .sampleGenotypes(sampleGenotypes)
+                .variantEffect(VariantEffect.valueOf(record.getVariantEffect()))
+                .annotations(annotations)
+                .geneSymbol(record.getGeneSymbol())
+                .geneId(record.getGeneId())
+                .filterResults(filterResults)
+                .frequencyData(toFrequencyData(record))
+                .pathogenicityData(toPathogenicityData(record))
+                .build();
+    }
+
+    private FrequencyData toFrequencyData(FailedVariantRecord record) {
+        List<Frequency> frequencies = new ArrayList<>(record.getFrequenciesCount());
+        for (Map.Entry<String, Float> entry : record.getFrequenciesMap().entrySet()) {
+            frequencies.add(Frequency.valueOf(entry.getValue(), FrequencySource.valueOf(entry.getKey())));
+        }
+        return FrequencyData.of(RsId.valueOf(record.getRsId()), frequencies);
+    }
+
+    private PathogenicityData toPathogenicityData(FailedVariantRecord record) {
+        List<PathogenicityScore> pathogenicityScores = new ArrayList<>(record.getPathogenicityScoresCount());
+        for (Map.Entry<String, Float> entry : record.getPathogenicityScoresMap().entrySet()) {
+            pathogenicityScores.add(toPathogenicityScore(PathogenicitySource.valueOf(entry.getKey()), entry.getValue()));
+        }
+        if (!record.hasClinVar()) {
+            return PathogenicityData.of(pathogenicityScores);
+        }
+        return PathogenicityData.of(toClinVarData(record.getClinVar()), pathogenicityScores);
+    }
+
+    private PathogenicityScore toPathogenicityScore(PathogenicitySource source, float value) {
+        switch (source) {
+            case POLYPHEN:
+                return PolyPhenScore.valueOf(value);
+            case MUTATION_TASTER:
+                return MutationTasterScore.valueOf(value);
+            case SIFT:
+                return SiftScore.valueOf(value);
+            case CADD:
+                return CaddScore.valueOf(value);
+            case REMM:
+                return RemmScore.valueOf(value);
+            case REVEL:
+                return RevelScore.valueOf(value);
+            case VARIANT_TYPE:
+            default:
+                // the VARIANT_TYPE score is derived from the variant effect, it has no PathogenicityScore of its own
+                throw new IllegalStateException("Unable to read pathogenicity score from unsupported source " + source);
+        }
+    }
+
+    private ClinVarData toClinVarData(ClinVarRecord clinVarRecord) {
+        Set<ClinVarData.ClinSig> secondaryInterpretations = EnumSet.noneOf(ClinVarData.ClinSig.class);
+        for (String clinSig : clinVarRecord.getSecondaryInterpretationsList()) {
+            secondaryInterpretations.add(ClinVarData.ClinSig.valueOf(clinSig));
+        }
+        Map<String, ClinVarData.ClinSig> includedAlleles = new HashMap<>();
+        for (Map.Entry<String, String> entry : clinVarRecord.getIncludedAllelesMap().entrySet()) {
+            includedAlleles.put(entry.getKey(), ClinVarData.ClinSig.valueOf(entry.getValue()));
+        }
+        return ClinVarData.builder()
+                .alleleId(clinVarRecord.getAlleleId())
+                .primaryInterpretation(ClinVarData.ClinSig.valueOf(clinVarRecord.getPrimaryInterpretation()))
+                .secondaryInterpretations(secondaryInterpretations)
+                .reviewStatus(clinVarRecord.getReviewStatus())
+                .includedAlleles(includedAlleles)
+                .build();
+    }
+
+    /**
+     * Growable arrays of the file position and length of the records.
+     */
+    private static class RecordPositions {
+
+        private long[] positions = new long[4];
+        private int[] lengths = new int[4];
+        private int size = 0;
+
+        void add(long position, int length) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            positions[size] = position;
+            lengths[size] = length;
+            size++;
+        }
+    }
+}
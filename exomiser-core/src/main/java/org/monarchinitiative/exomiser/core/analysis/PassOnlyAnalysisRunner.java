@@ -45,6 +45,15 @@ class PassOnlyAnalysisRunner extends AbstractAnalysisRunner {
         super(genomeAnalysisService, new SparseVariantFilterRunner(), new SimpleGeneFilterRunner());
     }
 
+    /**
+     * Failed variants are removed, so there is no need to read those outside the regions of an interval filter, or to
+     * annotate those failing a frequency filter.
+     */
+    @Override
+    boolean discardsFailedVariants() {
+        return true;
+    }
+
     @Override
     protected Predicate<VariantEvaluation> isAssociatedWithKnownGene(Map<String, Gene> genes) {
         return variantEvaluation -> {
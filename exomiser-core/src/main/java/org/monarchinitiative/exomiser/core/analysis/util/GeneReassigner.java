@@ -32,11 +32,10 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-
-import static java.util.stream.Collectors.toList;
+import java.util.Optional;
 
 /**
  * Reassigns regulatory non-coding variants to the gene with the best phenotype score in a topological domain
@@ -51,15 +50,18 @@ public class GeneReassigner {
     private static final Logger logger = LoggerFactory.getLogger(GeneReassigner.class);
 
     private final PriorityType priorityType;
-    private final ChromosomalRegionIndex<TopologicalDomain> tadIndex;
+    // variants are reassigned in position order so a cursor is quicker than searching the TAD index for each
+    private final ChromosomalRegionCursor<TopologicalDomain> tadCursor;
     private final Map<String, Gene> allGenes;
+    // TADs are held in the index, so can be compared by identity rather than by their contents
+    private final Map<TopologicalDomain, Optional<Gene>> tadBestGenes = new IdentityHashMap<>();
 
     /**
      * @param priorityType
      * @param tadIndex
      */
     public GeneReassigner(PriorityType priorityType, Map<String, Gene> allGenes, ChromosomalRegionIndex<TopologicalDomain> tadIndex) {
-        this.tadIndex = tadIndex;
+        this.tadCursor = tadIndex.cursor();
         this.allGenes = allGenes;
         this.priorityType = priorityType;
         logger.debug("Made new GeneReassigner for {}", priorityType);
@@ -77,12 +79,12 @@ private void assignVariantToGeneWithHighestPhenotypeScore(VariantEvaluation vari
         Gene currentlyAssignedGene = getCurrentlyAssignedGene(variantEvaluation);
         //assign this to the variant's current gene as we don't necessarily want ALL the regulatory region variants to clump into one gene.
         double bestScore = prioritiserScore(currentlyAssignedGene);
-        List<Gene> genesInTad = getGenesInTadForVariant(variantEvaluation);
 
         Gene geneWithHighestPhenotypeScore = null;
-        for (Gene gene : genesInTad) {
+        for (TopologicalDomain tad : tadCursor.getRegionsContainingVariant(variantEvaluation)) {
+            Gene gene = getGeneWithHighestPhenotypeScoreInTad(tad);
             double geneScore = prioritiserScore(gene);
-            if (geneScore > bestScore) {
+            if (gene != null && geneScore > bestScore) {
                 bestScore = geneScore;
                 geneWithHighestPhenotypeScore = gene;
             }
@@ -102,13 +104,26 @@ private void assignVariantToGeneWithHighestPhenotypeScore(VariantEvaluation vari
         }
     }
 
-    private List<Gene> getGenesInTadForVariant(VariantEvaluation variantEvaluation) {
-        return tadIndex.getRegionsContainingVariant(variantEvaluation).stream()
-                .map(TopologicalDomain::getGenes)
-                .flatMap(geneMap -> geneMap.keySet().stream())
-                .map(allGenes::get)
-                .filter(Objects::nonNull)
-                .collect(toList());
+    /**
+     * The prioritiser scores are fixed by the time the variants are reassigned, so the best gene in a TAD is only found
+     * once, however many variants the TAD contains. Ties are resolved in favour of the first gene in the TAD.
+     */
+    private Gene getGeneWithHighestPhenotypeScoreInTad(TopologicalDomain tad) {
+        return tadBestGenes.computeIfAbsent(tad, this::findGeneWithHighestPhenotypeScoreInTad).orElse(null);
+    }
+
+    private Optional<Gene> findGeneWithHighestPhenotypeScoreInTad(TopologicalDomain tad) {
+        Gene bestGene = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (String geneSymbol : tad.getGenes().keySet()) {
+            Gene gene = allGenes.get(geneSymbol);
+            double geneScore = prioritiserScore(gene);
+            if (gene != null && geneScore > bestScore) {
+                bestScore = geneScore;
+                bestGene = gene;
+            }
+        }
+        return Optional.ofNullable(bestGene);
     }
 
     private double prioritiserScore(Gene gene) {
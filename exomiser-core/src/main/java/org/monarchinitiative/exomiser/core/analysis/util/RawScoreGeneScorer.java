@@ -40,6 +40,13 @@
 /**
  * Class for scoring Genes according to their phenotype similarity to the proband, the filtered variants and the
  * inheritance mode under which these would have an effect.
+ * <p>
+ * When created with a positive number of top genes, only the genes which could rank within that number under a mode
+ * of inheritance have their contributing variants calculated for that mode. The upper bound of the combined score of a
+ * gene is calculated from its priority score and the best-scoring passed variant compatible with the mode, which is
+ * cheap to find. Genes are then scored in order of decreasing upper bound until the bound falls below the lowest
+ * score of the top genes which passed the filters and are compatible with the mode. The remaining genes cannot rank
+ * within the top genes and are given a lower-bound score with a variant score of 0 and no contributing variants.
  *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
@@ -52,6 +59,7 @@ public class RawScoreGeneScorer implements GeneScorer {
 
     private final ContributingAlleleCalculator contributingAlleleCalculator;
     private final GenePriorityScoreCalculator genePriorityScoreCalculator;
+    private final int topGenes;
 
     /**
      * @param probandSampleIdentifier  Sample id of the proband - this is the zero-based numerical position of the proband sample in the VCF.
@@ -60,11 +68,28 @@ public class RawScoreGeneScorer implements GeneScorer {
      * @since 10.0.0
      */
     public RawScoreGeneScorer(SampleIdentifier probandSampleIdentifier, InheritanceModeAnnotator inheritanceModeAnnotator) {
+        this(probandSampleIdentifier, inheritanceModeAnnotator, 0);
+    }
+
+    /**
+     * @param probandSampleIdentifier  Sample id of the proband - this is the zero-based numerical position of the proband sample in the VCF.
+     * @param inheritanceModeAnnotator An {@code InheritanceModeAnnotator} for the pedigree related to the proband.
+     * @param topGenes                 The number of top-ranked genes which are required to be fully scored under each
+     *                                 mode of inheritance. A value of 0 will fully score all genes.
+     * @throws NullPointerException     if any input arguments are null.
+     * @throws IllegalArgumentException if topGenes is negative.
+     * @since 11.0.0
+     */
+    public RawScoreGeneScorer(SampleIdentifier probandSampleIdentifier, InheritanceModeAnnotator inheritanceModeAnnotator, int topGenes) {
         Objects.requireNonNull(probandSampleIdentifier);
         Objects.requireNonNull(inheritanceModeAnnotator);
+        if (topGenes < 0) {
+            throw new IllegalArgumentException("topGenes cannot be negative");
+        }
         this.inheritanceModes = inheritanceModeAnnotator.getDefinedModes();
         this.contributingAlleleCalculator = new ContributingAlleleCalculator(probandSampleIdentifier, inheritanceModeAnnotator);
         this.genePriorityScoreCalculator = new GenePriorityScoreCalculator();
+        this.topGenes = topGenes;
     }
 
     /**
@@ -80,7 +105,7 @@ public RawScoreGeneScorer(SampleIdentifier probandSampleIdentifier, InheritanceM
     public Function<Gene, List<GeneScore>> scoreGene() {
         return gene -> {
             //Handle the scenario where no inheritance mode-dependent step was run
-            if (inheritanceModes.isEmpty() || inheritanceModes.equals(JUST_ANY)) {
+            if (isScoredOnlyForAnyMode()) {
                 GeneScore geneScore = calculateGeneScore(gene, ModeOfInheritance.ANY);
                 logger.debug("{}", geneScore);
                 return Collections.singletonList(geneScore);
@@ -99,12 +124,111 @@ public Function<Gene, List<GeneScore>> scoreGene() {
         };
     }
 
+    private boolean isScoredOnlyForAnyMode() {
+        return inheritanceModes.isEmpty() || inheritanceModes.equals(JUST_ANY);
+    }
+
+    /**
+     * Scores the genes as for the default {@link GeneScorer#scoreGenes(List)}, except that when this scorer was created
+     * with a positive number of top genes, the contributing variants are only calculated for those genes which could
+     * rank within the top genes under each mode of inheritance. The scores and ranks of the top genes are identical
+     * to those when all genes are fully scored.
+     *
+     * @since 11.0.0
+     */
+    @Override
+    public List<Gene> scoreGenes(List<Gene> genes) {
+        if (topGenes == 0 || genes.size() <= topGenes) {
+            return GeneScorer.super.scoreGenes(genes);
+        }
+        Set<ModeOfInheritance> modesToScore = isScoredOnlyForAnyMode() ? JUST_ANY : inheritanceModes;
+        List<GeneScore[]> geneScoresForModes = new ArrayList<>(modesToScore.size());
+        for (ModeOfInheritance modeOfInheritance : modesToScore) {
+            geneScoresForModes.add(scoreTopGenesForMode(genes, modeOfInheritance));
+        }
+        // add the scores for each gene in the same order as scoreGene() so that the top score of each gene is unchanged
+        for (int i = 0; i < genes.size(); i++) {
+            Gene gene = genes.get(i);
+            for (GeneScore[] geneScores : geneScoresForModes) {
+                gene.addGeneScore(geneScores[i]);
+            }
+        }
+        Collections.sort(genes);
+        return genes;
+    }
+
+    private GeneScore[] scoreTopGenesForMode(List<Gene> genes, ModeOfInheritance modeOfInheritance) {
+        int numGenes = genes.size();
+        float[] priorityScores = new float[numGenes];
+        float[] upperBounds = new float[numGenes];
+        Integer[] geneIndicesByUpperBound = new Integer[numGenes];
+        for (int i = 0; i < numGenes; i++) {
+            Gene gene = genes.get(i);
+            priorityScores[i] = (float) genePriorityScoreCalculator.calculateGenePriorityScoreForMode(gene, modeOfInheritance);
+            upperBounds[i] = calculateCombinedScore(maxVariantScoreForMode(gene, modeOfInheritance), priorityScores[i], gene.getPriorityResults().keySet());
+            geneIndicesByUpperBound[i] = i;
+        }
+        Arrays.sort(geneIndicesByUpperBound, (i, j) -> Float.compare(upperBounds[j], upperBounds[i]));
+
+        GeneScore[] geneScores = new GeneScore[numGenes];
+        // min-heap of the combined scores of the top ranking genes which passed the filters and are compatible with the mode
+        PriorityQueue<Float> topScores = new PriorityQueue<>(topGenes + 1);
+        int numPruned = 0;
+        for (int index : geneIndicesByUpperBound) {
+            Gene gene = genes.get(index);
+            if (topScores.size() == topGenes && upperBounds[index] < topScores.peek()) {
+                // the upper bounds are in descending order so this and all remaining genes cannot reach the top genes
+                geneScores[index] = calculateLowerBoundGeneScore(gene, modeOfInheritance, priorityScores[index]);
+                numPruned++;
+                continue;
+            }
+            GeneScore geneScore = calculateGeneScore(gene, modeOfInheritance, priorityScores[index]);
+            logger.debug("{}", geneScore);
+            geneScores[index] = geneScore;
+            if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
+                topScores.add(geneScore.getCombinedScore());
+                if (topScores.size() > topGenes) {
+                    topScores.poll();
+                }
+            }
+        }
+        logger.debug("Skipped calculating contributing variants for {} of {} genes under mode {}", numPruned, numGenes, modeOfInheritance);
+        return geneScores;
+    }
+
+    /**
+     * Returns the highest score of the passed variants compatible with the mode of inheritance. As the gene variant
+     * score is the average score of a subset of these variants, this cannot be exceeded by the gene variant score.
+     */
+    private float maxVariantScoreForMode(Gene gene, ModeOfInheritance modeOfInheritance) {
+        float maxVariantScore = 0;
+        for (VariantEvaluation variantEvaluation : gene.getPassedVariantEvaluations()) {
+            if (variantEvaluation.isCompatibleWith(modeOfInheritance)) {
+                maxVariantScore = Math.max(maxVariantScore, variantEvaluation.getVariantScore());
+            }
+        }
+        return maxVariantScore;
+    }
+
+    private GeneScore calculateLowerBoundGeneScore(Gene gene, ModeOfInheritance modeOfInheritance, float priorityScore) {
+        return GeneScore.builder()
+                .geneIdentifier(gene.getGeneIdentifier())
+                .modeOfInheritance(modeOfInheritance)
+                .variantScore(0f)
+                .phenotypeScore(priorityScore)
+                .combinedScore(calculateCombinedScore(0f, priorityScore, gene.getPriorityResults().keySet()))
+                .build();
+    }
+
     private GeneScore calculateGeneScore(Gene gene, ModeOfInheritance modeOfInheritance) {
+        float priorityScore = (float) genePriorityScoreCalculator.calculateGenePriorityScoreForMode(gene, modeOfInheritance);
+        return calculateGeneScore(gene, modeOfInheritance, priorityScore);
+    }
+
+    private GeneScore calculateGeneScore(Gene gene, ModeOfInheritance modeOfInheritance, float priorityScore) {
         //It is critical only the PASS variants are used in the scoring
         List<VariantEvaluation> contributingVariants = contributingAlleleCalculator.findContributingVariantsForInheritanceMode(modeOfInheritance, gene.getPassedVariantEvaluations());
 
-        float priorityScore = (float) genePriorityScoreCalculator.calculateGenePriorityScoreForMode(gene, modeOfInheritance);
-
         float variantScore = (float) contributingVariants.stream()
                 .mapToDouble(VariantEvaluation::getVariantScore)
                 .average()
@@ -127,7 +251,9 @@ private GeneScore calculateGeneScore(Gene gene, ModeOfInheritance modeOfInherita
      * gene (priorityScore) and the predicted effects of the variants
      * (variantScore).
      * <p>
-     * Note that this method assumes we have already calculated the filter and variant scores.
+     * Note that this method assumes we have already calculated the filter and variant scores. The combined score
+     * never decreases with an increase in either input score, which allows the upper bound of a gene's score to be
+     * calculated from the upper bounds of the inputs.
      */
     private float calculateCombinedScore(float variantScore, float priorityScore, Set<PriorityType> prioritiesRun) {
         if (variantScore == 0 && priorityScore == 0)  {
@@ -0,0 +1,254 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.filters;
+
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Runs a group of {@link VariantFilter} over a variant in the same way as the {@link SparseVariantFilterRunner}, only
+ * stopping at the first failed filter, but in the order which is estimated to be the cheapest rather than the order
+ * in which they were specified.
+ * <p>
+ * The first variants are used as a sample to measure the mean run time and the rejection rate of each filter. Each
+ * sampled variant is run through all the filters. After this the filters are run in ascending order of their mean run
+ * time divided by their rejection rate, so that cheap and selective filters are run first. Filters which depend on
+ * the variant data loaded by another filter, i.e. {@link VariantFilterDataProvider} of the same type, are kept in
+ * their original relative order.
+ * <p>
+ * The filters are independent, so the pass/fail status of each variant is the same whatever the order. A variant
+ * passing all the filters has them all run and recorded, so is identical to one run by the {@link SparseVariantFilterRunner}.
+ * A failed variant is recorded as having failed the first filter to reject it in the run order, which may not be the
+ * first to reject it in the specified order. In {@link org.monarchinitiative.exomiser.core.analysis.AnalysisMode#PASS_ONLY}
+ * analyses the failed variants are removed before the {@link FilterReport} are made, so the reports are unchanged.
+ * Where the failed variants are kept, the runner should be created with preserveFailedFilter set to true. In this case
+ * the results are not added to the variant as they are run. Once a variant fails a filter, any filters specified
+ * before it which were not yet run are run, then the results are added in the specified order up to and including
+ * the first failed one. The variant then has the same first failed filter and none of the filters specified after it
+ * recorded, exactly as if it had been run by the {@link SparseVariantFilterRunner}, at the cost of running the skipped
+ * filters for failed variants.
+ * <p>
+ * This class is stateful and not thread-safe. A new instance should be used for each analysis.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class AdaptiveVariantFilterRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveVariantFilterRunner.class);
+
+    private static final int DEFAULT_SAMPLE_SIZE = 1000;
+
+    private final List<VariantFilter> variantFilters;
+    private final int sampleSize;
+    private final boolean preserveFailedFilter;
+    private final LongSupplier ticker;
+
+    private final long[] runTimeNanos;
+    private final int[] failures;
+    private int sampled = 0;
+    // indices of the variantFilters in the order in which they are run once sampling is finished
+    private int[] runOrder;
+
+    public AdaptiveVariantFilterRunner(List<VariantFilter> variantFilters) {
+        this(variantFilters, DEFAULT_SAMPLE_SIZE, false);
+    }
+
+    /**
+     * @param variantFilters       the filters, in the order in which they were specified.
+     * @param sampleSize           the number of variants to run through all the filters before they are re-ordered.
+     * @param preserveFailedFilter if true failed variants will be recorded as failing the first filter to reject them
+     *                             in the specified order, rather than in the run order.
+     */
+    public AdaptiveVariantFilterRunner(List<VariantFilter> variantFilters, int sampleSize, boolean preserveFailedFilter) {
+        this(variantFilters, sampleSize, preserveFailedFilter, System::nanoTime);
+    }
+
+    /**
+     * @param ticker the source of the time, in nanoseconds, used to measure the run time of the filters while
+     *               sampling.
+     */
+    AdaptiveVariantFilterRunner(List<VariantFilter> variantFilters, int sampleSize, boolean preserveFailedFilter, LongSupplier ticker) {
+        Objects.requireNonNull(variantFilters);
+        Objects.requireNonNull(ticker);
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("sampleSize must be at least 1");
+        }
+        this.variantFilters = new ArrayList<>(variantFilters);
+        this.sampleSize = sampleSize;
+        this.preserveFailedFilter = preserveFailedFilter;
+        this.ticker = ticker;
+        this.runTimeNanos = new long[variantFilters.size()];
+        this.failures = new int[variantFilters.size()];
+    }
+
+    /**
+     * Runs the variant through the filters, adding the {@link FilterResult} to the variant.
+     *
+     * @return true if the variant passed all the filters.
+     */
+    public boolean run(VariantEvaluation variantEvaluation) {
+        if (runOrder == null) {
+            return runSample(variantEvaluation);
+        }
+        if (!preserveFailedFilter) {
+            for (int index : runOrder) {
+                FilterResult filterResult = variantFilters.get(index).runFilter(variantEvaluation);
+                variantEvaluation.addFilterResult(filterResult);
+                if (filterResult.failed()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        FilterResult[] filterResults = new FilterResult[variantFilters.size()];
+        for (int index : runOrder) {
+            FilterResult filterResult = variantFilters.get(index).runFilter(variantEvaluation);
+            filterResults[index] = filterResult;
+            if (filterResult.failed()) {
+                break;
+            }
+        }
+        return addResultsInSpecifiedOrder(variantEvaluation, filterResults);
+    }
+
+    private boolean runSample(VariantEvaluation variantEvaluation) {
+        FilterResult[] filterResults = new FilterResult[variantFilters.size()];
+        for (int i = 0; i < variantFilters.size(); i++) {
+            long start = ticker.getAsLong();
+            FilterResult filterResult = variantFilters.get(i).runFilter(variantEvaluation);
+            runTimeNanos[i] += ticker.getAsLong() - start;
+            if (filterResult.failed()) {
+                failures[i]++;
+            }
+            filterResults[i] = filterResult;
+        }
+        sampled++;
+        if (sampled == sampleSize) {
+            runOrder = calculateRunOrder();
+        }
+        return addResultsInSpecifiedOrder(variantEvaluation, filterResults);
+    }
+
+    /**
+     * Adds the results to the variant in the order the filters were specified, up to and including the first failed
+     * filter, running any preceding filters which were not yet run.
+     */
+    private boolean addResultsInSpecifiedOrder(VariantEvaluation variantEvaluation, FilterResult[] filterResults) {
+        for (int i = 0; i < filterResults.length; i++) {
+            FilterResult filterResult = filterResults[i];
+            if (filterResult == null) {
+                filterResult = variantFilters.get(i).runFilter(variantEvaluation);
+            }
+            variantEvaluation.addFilterResult(filterResult);
+            if (filterResult.failed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int[] calculateRunOrder() {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < variantFilters.size(); i++) {
+            indices.add(i);
+        }
+        List<Integer> sortedIndices = indices.stream()
+                .sorted(Comparator.comparing(this::rejectedNone).thenComparingDouble(this::expectedCostPerRejection))
+                .collect(toList());
+        keepDataProviderOrder(sortedIndices);
+
+        int[] order = sortedIndices.stream().mapToInt(Integer::intValue).toArray();
+        if (logger.isInfoEnabled()) {
+            logger.info("Variant filter order after sampling {} variants: {}", sampled, describeOrder(order));
+        }
+        return order;
+    }
+
+    private boolean rejectedNone(int index) {
+        return failures[index] == 0;
+    }
+
+    /**
+     * Filters which rejected nothing in the sample are run last, so these are only ordered by their run time.
+     */
+    private double expectedCostPerRejection(int index) {
+        double meanRunTime = (double) runTimeNanos[index] / sampled;
+        if (rejectedNone(index)) {
+            return meanRunTime;
+        }
+        double rejectionRate = (double) failures[index] / sampled;
+        return meanRunTime / rejectionRate;
+    }
+
+    /**
+     * Re-assigns the positions taken by the data providers of the same type so that they are run in the specified
+     * order.
+     */
+    private void keepDataProviderOrder(List<Integer> sortedIndices) {
+        Map<Class<?>, List<Integer>> dataProviderIndices = new LinkedHashMap<>();
+        for (int i = 0; i < variantFilters.size(); i++) {
+            VariantFilter variantFilter = variantFilters.get(i);
+            if (variantFilter instanceof VariantFilterDataProvider) {
+                dataProviderIndices.computeIfAbsent(variantFilter.getClass(), key -> new ArrayList<>()).add(i);
+            }
+        }
+        for (List<Integer> specifiedOrder : dataProviderIndices.values()) {
+            List<Integer> positions = new ArrayList<>();
+            for (int position = 0; position < sortedIndices.size(); position++) {
+                if (specifiedOrder.contains(sortedIndices.get(position))) {
+                    positions.add(position);
+                }
+            }
+            for (int i = 0; i < positions.size(); i++) {
+                sortedIndices.set(positions.get(i), specifiedOrder.get(i));
+            }
+        }
+    }
+
+    private String describeOrder(int[] order) {
+        StringJoiner stringJoiner = new StringJoiner(", ", "[", "]");
+        for (int index : order) {
+            stringJoiner.add(String.format("%s (mean %d ns, rejected %d/%d)", variantFilters.get(index)
+                    .getFilterType(), runTimeNanos[index] / sampled, failures[index], sampled));
+        }
+        return stringJoiner.toString();
+    }
+
+    /**
+     * @return the filters in the order in which they are currently being run.
+     */
+    public List<VariantFilter> getRunOrder() {
+        if (runOrder == null) {
+            return Collections.unmodifiableList(variantFilters);
+        }
+        List<VariantFilter> ordered = new ArrayList<>(runOrder.length);
+        for (int index : runOrder) {
+            ordered.add(variantFilters.get(index));
+        }
+        return Collections.unmodifiableList(ordered);
+    }
+}
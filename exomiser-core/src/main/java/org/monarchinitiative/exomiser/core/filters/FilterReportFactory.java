@@ -30,7 +30,6 @@
 import org.monarchinitiative.exomiser.core.model.Filterable;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
-import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,7 +72,8 @@ private List<Filter> getFiltersFromAnalysis(Analysis analysis) {
     /**
      * Returns a FilterReport for the AnalysisResults and the specified FilterType.
      * If the FilterType is not recognised or supported then this method will
-     * return a default report with no messages.
+     * return a default report with no messages. The variant counts are taken from the {@link FilterStats} recorded by
+     * the analysis, or if there are none, counted from the variants in the AnalysisResults.
      *
      * @param filter
      * @param analysisResults
@@ -84,25 +84,41 @@ protected FilterReport makeFilterReport(Filter filter, AnalysisResults analysisR
         Filter baseFilter = unWrapVariantFilterDataProvider(filter);
         switch (filterType) {
             case VARIANT_EFFECT_FILTER:
-                return makeTargetFilterReport((VariantEffectFilter) baseFilter, analysisResults.getVariantEvaluations());
+                return makeTargetFilterReport((VariantEffectFilter) baseFilter, getVariantFilterStats(filterType, analysisResults));
             case KNOWN_VARIANT_FILTER:
-                return makeKnownVariantFilterReport((KnownVariantFilter) baseFilter, analysisResults.getVariantEvaluations());
+                return makeKnownVariantFilterReport((KnownVariantFilter) baseFilter, getVariantFilterStats(filterType, analysisResults));
             case FREQUENCY_FILTER:
-                return makeFrequencyFilterReport((FrequencyFilter) baseFilter, analysisResults.getVariantEvaluations());
+                return makeFrequencyFilterReport((FrequencyFilter) baseFilter, getVariantFilterStats(filterType, analysisResults));
             case QUALITY_FILTER:
-                return makeQualityFilterReport((QualityFilter) baseFilter, analysisResults.getVariantEvaluations());
+                return makeQualityFilterReport((QualityFilter) baseFilter, getVariantFilterStats(filterType, analysisResults));
             case PATHOGENICITY_FILTER:
-                return makePathogenicityFilterReport((PathogenicityFilter) baseFilter, analysisResults.getVariantEvaluations());
+                return makePathogenicityFilterReport((PathogenicityFilter) baseFilter, getVariantFilterStats(filterType, analysisResults));
             case INTERVAL_FILTER:
-                return makeIntervalFilterReport((IntervalFilter) baseFilter, analysisResults.getVariantEvaluations());
+                return makeIntervalFilterReport((IntervalFilter) baseFilter, getVariantFilterStats(filterType, analysisResults));
             case INHERITANCE_FILTER:
                 return makeInheritanceFilterReport((InheritanceFilter) baseFilter, analysisResults.getGenes());
             case PRIORITY_SCORE_FILTER:
                 return makePriorityScoreFilterReport((PriorityScoreFilter) baseFilter, analysisResults.getGenes());
             default:
-                return makeDefaultVariantFilterReport(filterType, analysisResults.getVariantEvaluations());
+                return makeDefaultVariantFilterReport(filterType, getVariantFilterStats(filterType, analysisResults));
         }
     }
+
+    private FilterStats getVariantFilterStats(FilterType filterType, AnalysisResults analysisResults) {
+        FilterStats filterStats = analysisResults.getFilterStats();
+        if (!filterStats.isEmpty()) {
+            return filterStats;
+        }
+        // AnalysisResults not made by an AnalysisRunner, so count the filter results of all the variants
+        FilterStats variantFilterStats = new FilterStats();
+        for (VariantEvaluation ve : analysisResults.getVariantEvaluations()) {
+            variantFilterStats.addResult(filterType, ve.passedFilter(filterType));
+            if (filterType == FilterType.KNOWN_VARIANT_FILTER) {
+                variantFilterStats.addFrequencyData(ve.getFrequencyData());
+            }
+        }
+        return variantFilterStats;
+    }
     
     private Filter unWrapVariantFilterDataProvider(Filter filter) {
         if (VariantFilterDataProvider.class.isInstance(filter) ) {
@@ -112,40 +128,20 @@ private Filter unWrapVariantFilterDataProvider(Filter filter) {
         return filter;
     } 
 
-    private FilterReport makeTargetFilterReport(VariantEffectFilter filter, List<VariantEvaluation> variantEvaluations) {
-        FilterReport report = makeDefaultVariantFilterReport(FilterType.VARIANT_EFFECT_FILTER, variantEvaluations);
+    private FilterReport makeTargetFilterReport(VariantEffectFilter filter, FilterStats filterStats) {
+        FilterReport report = makeDefaultVariantFilterReport(FilterType.VARIANT_EFFECT_FILTER, filterStats);
         report.addMessage(String.format("Removed variants with effects of type: %s", filter.getOffTargetVariantTypes()));
         return report;
     }
 
-    private FilterReport makeKnownVariantFilterReport(KnownVariantFilter filter, List<VariantEvaluation> variantEvaluations) {
-        FilterReport report = makeDefaultVariantFilterReport(FilterType.KNOWN_VARIANT_FILTER, variantEvaluations);
-
-        int numNotInDatabase = 0;
-        int numDbSnpFreqData = 0;
-        int numDbSnpRsId = 0;
-        int numEspFreqData = 0;
-        int numExaCFreqData = 0;
-
-        for (VariantEvaluation ve : variantEvaluations) {
-            FrequencyData frequencyData = ve.getFrequencyData();
+    private FilterReport makeKnownVariantFilterReport(KnownVariantFilter filter, FilterStats filterStats) {
+        FilterReport report = makeDefaultVariantFilterReport(FilterType.KNOWN_VARIANT_FILTER, filterStats);
 
-            if (!frequencyData.isRepresentedInDatabase()) {
-                numNotInDatabase++;
-            }
-            if (frequencyData.hasDbSnpData()) {
-                numDbSnpFreqData++;
-            }
-            if (frequencyData.hasDbSnpRsID()) {
-                numDbSnpRsId++;
-            }
-            if (frequencyData.hasEspData()) {
-                numEspFreqData++;
-            }
-            if (frequencyData.hasExacData()) {
-                numExaCFreqData++;
-            }
-        }
+        int numNotInDatabase = filterStats.getNotInDatabaseCount();
+        int numDbSnpFreqData = filterStats.getDbSnpFrequencyDataCount();
+        int numDbSnpRsId = filterStats.getDbSnpRsIdCount();
+        int numEspFreqData = filterStats.getEspFrequencyDataCount();
+        int numExaCFreqData = filterStats.getExacFrequencyDataCount();
 
         int total = report.getPassed() + report.getFailed();
 
@@ -161,22 +157,22 @@ private double asPercent(double number, int total) {
         return 100f * number / total;
     }
 
-    private FilterReport makeFrequencyFilterReport(FrequencyFilter filter, List<VariantEvaluation> variantEvaluations) {
-        FilterReport report = makeDefaultVariantFilterReport(FilterType.FREQUENCY_FILTER, variantEvaluations);
+    private FilterReport makeFrequencyFilterReport(FrequencyFilter filter, FilterStats filterStats) {
+        FilterReport report = makeDefaultVariantFilterReport(FilterType.FREQUENCY_FILTER, filterStats);
 
         report.addMessage(String.format("Variants filtered for maximum allele frequency of %.2f%%", filter.getMaxFreq()));
         return report;
     }
 
-    private FilterReport makeQualityFilterReport(QualityFilter filter, List<VariantEvaluation> variantEvaluations) {
-        FilterReport report = makeDefaultVariantFilterReport(FilterType.QUALITY_FILTER, variantEvaluations);
+    private FilterReport makeQualityFilterReport(QualityFilter filter, FilterStats filterStats) {
+        FilterReport report = makeDefaultVariantFilterReport(FilterType.QUALITY_FILTER, filterStats);
 
         report.addMessage(String.format("Variants filtered for mimimum PHRED quality of %.1f", filter.getMimimumQualityThreshold()));
         return report;
     }
 
-    private FilterReport makePathogenicityFilterReport(PathogenicityFilter filter, List<VariantEvaluation> variantEvaluations) {
-        FilterReport report = makeDefaultVariantFilterReport(FilterType.PATHOGENICITY_FILTER, variantEvaluations);
+    private FilterReport makePathogenicityFilterReport(PathogenicityFilter filter, FilterStats filterStats) {
+        FilterReport report = makeDefaultVariantFilterReport(FilterType.PATHOGENICITY_FILTER, filterStats);
 
         if (filter.keepNonPathogenic()) {
             report.addMessage("Retained all non-pathogenic variants of all types. Scoring was applied, but the filter passed all variants.");
@@ -193,8 +189,8 @@ private FilterReport makePathogenicityFilterReport(PathogenicityFilter filter, L
         return report;
     }
 
-    private FilterReport makeIntervalFilterReport(IntervalFilter filter, List<VariantEvaluation> variantEvaluations) {
-        FilterReport report = makeDefaultVariantFilterReport(FilterType.INTERVAL_FILTER, variantEvaluations);
+    private FilterReport makeIntervalFilterReport(IntervalFilter filter, FilterStats filterStats) {
+        FilterReport report = makeDefaultVariantFilterReport(FilterType.INTERVAL_FILTER, filterStats);
 
         report.addMessage(String.format("Restricted variants to interval: %s", filter.getGeneticInterval()));
 
@@ -221,26 +217,8 @@ private FilterReport makePriorityScoreFilterReport(PriorityScoreFilter filter, L
         return report;
     }
 
-    /**
-     *
-     * @param filterType
-     * @param variantEvaluations
-     * @return
-     */
-    private FilterReport makeDefaultVariantFilterReport(FilterType filterType, List<VariantEvaluation> variantEvaluations) {
-        int passed = countVariantsPassingFilter(variantEvaluations, filterType);
-        int failed = variantEvaluations.size() - passed;
-        return new FilterReport(filterType, passed, failed);
-    }
-
-    private int countVariantsPassingFilter(List<VariantEvaluation> variantEvaluations, FilterType filterType) {
-        int passed = 0;
-        for (VariantEvaluation ve : variantEvaluations) {
-            if (ve.passedFilter(filterType)) {
-                passed++;
-            }
-        }
-        return passed;
+    private FilterReport makeDefaultVariantFilterReport(FilterType filterType, FilterStats filterStats) {
+        return new FilterReport(filterType, filterStats.getPassed(filterType), filterStats.getFailed(filterType));
     }
 
     private FilterReport makeDefaultGeneFilterReport(FilterType filterType, List<Gene> genes) {
@@ -0,0 +1,146 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.filters;
+
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Thread-safe counts of the variants passing and failing each {@link VariantFilter} of an analysis. These are
+ * accumulated while the filters are run so that the {@link FilterReport} can be made by the {@link FilterReportFactory}
+ * without holding on to, and re-scanning, every variant once per filter. The frequency data of the variants run through
+ * the {@link KnownVariantFilter} are also counted for its report.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class FilterStats {
+
+    private final AtomicIntegerArray passed = new AtomicIntegerArray(FilterType.values().length);
+    private final AtomicIntegerArray failed = new AtomicIntegerArray(FilterType.values().length);
+
+    private final AtomicInteger notInDatabase = new AtomicInteger();
+    private final AtomicInteger dbSnpFrequencyData = new AtomicInteger();
+    private final AtomicInteger dbSnpRsId = new AtomicInteger();
+    private final AtomicInteger espFrequencyData = new AtomicInteger();
+    private final AtomicInteger exacFrequencyData = new AtomicInteger();
+
+    public void addResult(FilterType filterType, boolean passedFilter) {
+        if (passedFilter) {
+            passed.incrementAndGet(filterType.ordinal());
+        } else {
+            failed.incrementAndGet(filterType.ordinal());
+        }
+    }
+
+    /**
+     * Counts the results of the filters recorded in the {@link VariantEvaluation}. Filters which have not been run
+     * on the variant, for instance because it failed a previous filter, are not counted.
+     */
+    public void addResults(VariantEvaluation variantEvaluation, List<VariantFilter> variantFilters) {
+        for (VariantFilter variantFilter : variantFilters) {
+            addResult(variantEvaluation, variantFilter);
+        }
+    }
+
+    public void addResult(VariantEvaluation variantEvaluation, VariantFilter variantFilter) {
+        FilterType filterType = variantFilter.getFilterType();
+        if (variantEvaluation.passedFilter(filterType)) {
+            addResult(filterType, true);
+        } else if (variantEvaluation.getFailedFilterTypes().contains(filterType)) {
+            addResult(filterType, false);
+        } else {
+            return;
+        }
+        if (filterType == FilterType.KNOWN_VARIANT_FILTER) {
+            addFrequencyData(variantEvaluation.getFrequencyData());
+        }
+    }
+
+    public void addFrequencyData(FrequencyData frequencyData) {
+        if (!frequencyData.isRepresentedInDatabase()) {
+            notInDatabase.incrementAndGet();
+        }
+        if (frequencyData.hasDbSnpData()) {
+            dbSnpFrequencyData.incrementAndGet();
+        }
+        if (frequencyData.hasDbSnpRsID()) {
+            dbSnpRsId.incrementAndGet();
+        }
+        if (frequencyData.hasEspData()) {
+            espFrequencyData.incrementAndGet();
+        }
+        if (frequencyData.hasExacData()) {
+            exacFrequencyData.incrementAndGet();
+        }
+    }
+
+    public int getPassed(FilterType filterType) {
+        return passed.get(filterType.ordinal());
+    }
+
+    public int getFailed(FilterType filterType) {
+        return failed.get(filterType.ordinal());
+    }
+
+    /**
+     * @return true if no filter results have been counted.
+     */
+    public boolean isEmpty() {
+        for (int i = 0; i < passed.length(); i++) {
+            if (passed.get(i) != 0 || failed.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getNotInDatabaseCount() {
+        return notInDatabase.get();
+    }
+
+    public int getDbSnpFrequencyDataCount() {
+        return dbSnpFrequencyData.get();
+    }
+
+    public int getDbSnpRsIdCount() {
+        return dbSnpRsId.get();
+    }
+
+    public int getEspFrequencyDataCount() {
+        return espFrequencyData.get();
+    }
+
+    public int getExacFrequencyDataCount() {
+        return exacFrequencyData.get();
+    }
+
+    @Override
+    public String toString() {
+        return "FilterStats{" +
+                "passed=" + passed +
+                ", failed=" + failed +
+                '}';
+    }
+}
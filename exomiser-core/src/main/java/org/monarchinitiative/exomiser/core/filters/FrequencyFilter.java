@@ -34,7 +34,7 @@
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  * @version 0.09 (April 28, 2013)
  */
-public class FrequencyFilter implements VariantFilter {
+public class FrequencyFilter implements VariantBlockFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(FrequencyFilter.class);
 
@@ -99,6 +99,21 @@ public FilterResult runFilter(VariantEvaluation variantEvaluation) {
         return PASS;
     }
 
+    /**
+     * Fails the variants with a maximum frequency over the threshold, as for {@link #runFilter(VariantEvaluation)}.
+     *
+     * @since 11.0.0
+     */
+    @Override
+    public void runFilter(VariantBlock variantBlock) {
+        float[] maxFrequencies = variantBlock.getMaxFrequencies();
+        for (int i = 0; i < variantBlock.size(); i++) {
+            if (variantBlock.isSelected(i)) {
+                variantBlock.recordResult(i, maxFrequencies[i] <= maxFreq);
+            }
+        }
+    }
+
     @Override
     public int hashCode() {
         int hash = 7;
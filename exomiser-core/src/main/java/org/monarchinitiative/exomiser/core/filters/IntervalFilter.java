@@ -22,6 +22,7 @@
 
 import com.google.common.collect.ImmutableList;
 import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegionCursor;
 import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
 import org.monarchinitiative.exomiser.core.model.GeneticInterval;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
@@ -45,7 +46,7 @@
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  * @version 0.08 (April 28, 2013)
  */
-public class IntervalFilter implements VariantFilter {
+public class IntervalFilter implements VariantBlockFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(IntervalFilter.class);
 
@@ -58,6 +59,9 @@ public class IntervalFilter implements VariantFilter {
     // Jannovar class underlying the ChromosomalRegionIndex does not implement these.
     private final List<ChromosomalRegion> intervals;
     private final ChromosomalRegionIndex<ChromosomalRegion> intervalIndex;
+    // Variants are usually filtered in position order, so a cursor is quicker than searching the index. A filter can be
+    // shared by analyses running on different threads, hence one cursor per thread.
+    private final ThreadLocal<ChromosomalRegionCursor<ChromosomalRegion>> intervalCursor;
 
     /**
      * Constructor defining the genetic interval.
@@ -81,6 +85,7 @@ public IntervalFilter(Collection<ChromosomalRegion> chromosomalRegions) {
         assertNotEmpty(chromosomalRegions);
         this.intervals = copySortDeDup(chromosomalRegions);
         this.intervalIndex = ChromosomalRegionIndex.of(chromosomalRegions);
+        this.intervalCursor = ThreadLocal.withInitial(intervalIndex::cursor);
     }
 
     private void assertNotEmpty(Collection<ChromosomalRegion> chromosomalRegions) {
@@ -124,7 +129,7 @@ public FilterType getFilterType() {
 
     @Override
     public FilterResult runFilter(VariantEvaluation variantEvaluation) {
-        if (intervalIndex.hasRegionContainingVariant(variantEvaluation)) {
+        if (intervalCursor.get().hasRegionContainingVariant(variantEvaluation)) {
             logger.trace("{} passes filter", variantEvaluation);
             return PASS;
         }
@@ -132,6 +137,21 @@ public FilterResult runFilter(VariantEvaluation variantEvaluation) {
         return FAIL;
     }
 
+    /**
+     * @since 11.0.0
+     */
+    @Override
+    public void runFilter(VariantBlock variantBlock) {
+        ChromosomalRegionCursor<ChromosomalRegion> cursor = intervalCursor.get();
+        int[] chromosomes = variantBlock.getChromosomes();
+        int[] positions = variantBlock.getPositions();
+        for (int i = 0; i < variantBlock.size(); i++) {
+            if (variantBlock.isSelected(i)) {
+                variantBlock.recordResult(i, cursor.hasRegionContainingPosition(chromosomes[i], positions[i]));
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.core.filters;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +35,7 @@
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  * @version 0.09 (29 December, 2012).
  */
-public class PathogenicityFilter implements VariantFilter {
+public class PathogenicityFilter implements VariantBlockFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(PathogenicityFilter.class);
     private static final FilterType filterType = FilterType.PATHOGENICITY_FILTER;
@@ -42,6 +43,8 @@ public class PathogenicityFilter implements VariantFilter {
     private static final FilterResult PASS = FilterResult.pass(filterType);
     private static final FilterResult FAIL = FilterResult.fail(filterType);
 
+    private static final int MISSENSE_VARIANT_ORDINAL = VariantEffect.MISSENSE_VARIANT.ordinal();
+
     private final boolean keepNonPathogenic;
 
     /**
@@ -87,6 +90,31 @@ public FilterResult runFilter(VariantEvaluation variantEvaluation) {
         return FAIL;
     }
 
+    /**
+     * Passes the variants which are predicted to be pathogenic, as for {@link VariantEvaluation#isPredictedPathogenic()}.
+     *
+     * @since 11.0.0
+     */
+    @Override
+    public void runFilter(VariantBlock variantBlock) {
+        if (keepNonPathogenic) {
+            for (int i = 0; i < variantBlock.size(); i++) {
+                if (variantBlock.isSelected(i)) {
+                    variantBlock.recordResult(i, true);
+                }
+            }
+            return;
+        }
+        int[] variantEffectOrdinals = variantBlock.getVariantEffectOrdinals();
+        float[] pathogenicityScores = variantBlock.getPathogenicityScores();
+        for (int i = 0; i < variantBlock.size(); i++) {
+            if (variantBlock.isSelected(i)) {
+                boolean predictedPathogenic = variantEffectOrdinals[i] == MISSENSE_VARIANT_ORDINAL || pathogenicityScores[i] >= VariantEvaluation.DEFAULT_PATHOGENICITY_THRESHOLD;
+                variantBlock.recordResult(i, predictedPathogenic);
+            }
+        }
+    }
+
     @Override
     public int hashCode() {
         int hash = 5;
@@ -32,7 +32,7 @@
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  * @version 0.09 (18 December, 2013).
  */
-public class QualityFilter implements VariantFilter {
+public class QualityFilter implements VariantBlockFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(QualityFilter.class);
 
@@ -87,6 +87,19 @@ public FilterResult runFilter(VariantEvaluation variantEvaluation) {
         return FAIL;
     }
 
+    /**
+     * @since 11.0.0
+     */
+    @Override
+    public void runFilter(VariantBlock variantBlock) {
+        double[] qualities = variantBlock.getQualities();
+        for (int i = 0; i < variantBlock.size(); i++) {
+            if (variantBlock.isSelected(i)) {
+                variantBlock.recordResult(i, overQualityThreshold(qualities[i]));
+            }
+        }
+    }
+
     protected boolean overQualityThreshold(double qualityScore) {
         return qualityScore >= mimimumQualityThreshold;
     }
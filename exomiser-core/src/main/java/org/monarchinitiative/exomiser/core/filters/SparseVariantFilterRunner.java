@@ -50,6 +50,9 @@
  *
  * key: X = failed filter, + = passed filter, blank = filter not run.
  *
+ * The {@link AdaptiveVariantFilterRunner} can be used to find a cheap order for a group of filters while recording the
+ * same results as this runner would for the specified order.
+ *
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
 public class SparseVariantFilterRunner implements VariantFilterRunner {
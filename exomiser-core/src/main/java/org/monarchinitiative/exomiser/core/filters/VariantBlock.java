@@ -0,0 +1,224 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.filters;
+
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+
+import java.util.List;
+
+/**
+ * A fixed-capacity block of {@link VariantEvaluation} for running a {@link VariantBlockFilter} over many variants in a
+ * tight loop. The fields used by the filters are copied into primitive arrays, indexed by the position of the variant
+ * in the block, so that the filters read these sequentially rather than chasing the pointers of each variant. The
+ * arrays returned by the getters have the length of the block capacity, only the first {@link #size()} elements are
+ * valid.
+ * <p>
+ * The chromosome, position, quality and variant effect of a variant do not change, so are copied when the block is
+ * loaded. The frequency and pathogenicity data are added to the variants by the {@link VariantFilterDataProvider}
+ * during filtering, so the maximum frequencies and the pathogenicity scores are copied on first request for the
+ * variants selected for the current filter. As the variants selected for a filter are a subset of those selected for
+ * the previous filters, these remain valid until the {@link VariantBlockFilterRunner} provides new variant data.
+ * <p>
+ * The results of the filters are recorded as bitsets of the indices of the filters run and failed by each variant,
+ * and are only added to the variants by the {@link VariantBlockFilterRunner} once all the filters have been run.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public final class VariantBlock {
+
+    /**
+     * The maximum number of filters which can be run over a block. The remaining bit of the failed filter bitset
+     * records the variants which had already failed a filter before the block was loaded.
+     */
+    static final int MAX_FILTERS = Long.SIZE - 1;
+
+    private static final long FAILED_BEFORE_LOADING = Long.MIN_VALUE;
+
+    private final VariantEvaluation[] variantEvaluations;
+    private int size = 0;
+
+    private final int[] chromosomes;
+    private final int[] positions;
+    private final double[] qualities;
+    private final int[] variantEffectOrdinals;
+
+    private final float[] maxFrequencies;
+    private final float[] pathogenicityScores;
+    private boolean variantDataColumnsLoaded = false;
+
+    private final long[] filtersRun;
+    private final long[] filtersFailed;
+    private long currentFilter = 0;
+    private boolean selectFailedVariants = false;
+
+    VariantBlock(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.variantEvaluations = new VariantEvaluation[capacity];
+        this.chromosomes = new int[capacity];
+        this.positions = new int[capacity];
+        this.qualities = new double[capacity];
+        this.variantEffectOrdinals = new int[capacity];
+        this.maxFrequencies = new float[capacity];
+        this.pathogenicityScores = new float[capacity];
+        this.filtersRun = new long[capacity];
+        this.filtersFailed = new long[capacity];
+    }
+
+    /**
+     * Replaces the contents of the block with the variants, clearing any previous filter results.
+     */
+    void load(List<VariantEvaluation> variants) {
+        if (variants.size() > variantEvaluations.length) {
+            throw new IllegalArgumentException(String.format("Cannot load %d variants into a block of capacity %d", variants.size(), variantEvaluations.length));
+        }
+        size = variants.size();
+        for (int i = 0; i < size; i++) {
+            VariantEvaluation variantEvaluation = variants.get(i);
+            variantEvaluations[i] = variantEvaluation;
+            chromosomes[i] = variantEvaluation.getChromosome();
+            positions[i] = variantEvaluation.getPosition();
+            qualities[i] = variantEvaluation.getPhredScore();
+            VariantEffect variantEffect = variantEvaluation.getVariantEffect();
+            variantEffectOrdinals[i] = variantEffect == null ? -1 : variantEffect.ordinal();
+            filtersRun[i] = 0;
+            filtersFailed[i] = variantEvaluation.passedFilters() ? 0 : FAILED_BEFORE_LOADING;
+        }
+        // clear references to the variants of the previous block
+        for (int i = size; i < variantEvaluations.length && variantEvaluations[i] != null; i++) {
+            variantEvaluations[i] = null;
+        }
+        variantDataColumnsLoaded = false;
+        currentFilter = 0;
+    }
+
+    /**
+     * Selects the variants to be run through the filter with the given index. These are either all the variants, or
+     * only those which have not yet failed a filter.
+     */
+    void startFilter(int filterIndex, boolean selectFailedVariants) {
+        this.currentFilter = 1L << filterIndex;
+        this.selectFailedVariants = selectFailedVariants;
+    }
+
+    /**
+     * Marks the frequency and pathogenicity columns as stale after new variant data has been provided to the variants.
+     */
+    void invalidateVariantDataColumns() {
+        variantDataColumnsLoaded = false;
+    }
+
+    long getFiltersRun(int index) {
+        return filtersRun[index];
+    }
+
+    long getFiltersFailed(int index) {
+        return filtersFailed[index];
+    }
+
+    boolean hasSelectedVariants() {
+        for (int i = 0; i < size; i++) {
+            if (isSelected(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public VariantEvaluation getVariantEvaluation(int index) {
+        return variantEvaluations[index];
+    }
+
+    /**
+     * @return true if the variant at the index is to be run through the current filter.
+     */
+    public boolean isSelected(int index) {
+        return selectFailedVariants || filtersFailed[index] == 0;
+    }
+
+    /**
+     * Records the result of the current filter for the variant at the index.
+     */
+    public void recordResult(int index, boolean passed) {
+        filtersRun[index] |= currentFilter;
+        if (!passed) {
+            filtersFailed[index] |= currentFilter;
+        }
+    }
+
+    public int[] getChromosomes() {
+        return chromosomes;
+    }
+
+    public int[] getPositions() {
+        return positions;
+    }
+
+    public double[] getQualities() {
+        return qualities;
+    }
+
+    /**
+     * @return the {@link VariantEffect#ordinal()} of the variant effects, or -1 where this is null.
+     */
+    public int[] getVariantEffectOrdinals() {
+        return variantEffectOrdinals;
+    }
+
+    /**
+     * @return the {@link org.monarchinitiative.exomiser.core.model.frequency.FrequencyData#getMaxFreq()} of the
+     * selected variants.
+     */
+    public float[] getMaxFrequencies() {
+        loadVariantDataColumns();
+        return maxFrequencies;
+    }
+
+    /**
+     * @return the {@link VariantEvaluation#getPathogenicityScore()} of the selected variants.
+     */
+    public float[] getPathogenicityScores() {
+        loadVariantDataColumns();
+        return pathogenicityScores;
+    }
+
+    private void loadVariantDataColumns() {
+        if (variantDataColumnsLoaded) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (isSelected(i)) {
+                VariantEvaluation variantEvaluation = variantEvaluations[i];
+                maxFrequencies[i] = variantEvaluation.getFrequencyData().getMaxFreq();
+                pathogenicityScores[i] = variantEvaluation.getPathogenicityScore();
+            }
+        }
+        variantDataColumnsLoaded = true;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.filters;
+
+/**
+ * A {@link VariantFilter} which can also be run over a {@link VariantBlock} of variants in one call, reading the
+ * primitive columns of the block in a tight loop. The result recorded for each variant must be the same as that of
+ * {@link #runFilter(org.monarchinitiative.exomiser.core.model.VariantEvaluation)}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public interface VariantBlockFilter extends VariantFilter {
+
+    /**
+     * Runs the filter over the selected variants of the block, recording the result for each using
+     * {@link VariantBlock#recordResult(int, boolean)}.
+     *
+     * @param variantBlock the variants to be filtered
+     */
+    void runFilter(VariantBlock variantBlock);
+
+}
@@ -0,0 +1,175 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.filters;
+
+import com.google.common.collect.Iterators;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs a group of {@link VariantFilter} over blocks of variants, one filter at a time, rather than running each variant
+ * through all the filters. Filters implementing {@link VariantBlockFilter} are run over the primitive columns of a
+ * {@link VariantBlock} in a tight loop. Other filters are run over each selected variant of the block in turn. Any
+ * {@link VariantFilterDataProvider} first provides the data for the selected variants of the block before its
+ * decorated filter is run.
+ * <p>
+ * When failed variants are not filtered any further, the filters are only run over the variants which passed all the
+ * previous filters, as for the {@link SparseVariantFilterRunner}. Otherwise all the filters are run over all the
+ * variants, as for the {@link SimpleVariantFilterRunner}. Once all the filters have been run over a block, the
+ * {@link FilterResult} are added to each variant, so the variants are identical to those run by the equivalent runner.
+ * <p>
+ * This class is stateful and not thread-safe. A new instance should be used for each analysis.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class VariantBlockFilterRunner {
+
+    private static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private final List<VariantFilter> variantFilters;
+    private final int blockSize;
+    private final boolean filterFailedVariants;
+
+    private final FilterResult[] passResults;
+    private final FilterResult[] failResults;
+    private final VariantBlock variantBlock;
+
+    public VariantBlockFilterRunner(List<VariantFilter> variantFilters, boolean filterFailedVariants) {
+        this(variantFilters, DEFAULT_BLOCK_SIZE, filterFailedVariants);
+    }
+
+    /**
+     * @param variantFilters       the filters, in the order in which they are to be run.
+     * @param blockSize            the maximum number of variants to run through the filters at a time.
+     * @param filterFailedVariants if true all the filters are run over all the variants, otherwise the filters are only
+     *                             run over the variants which passed all the previous filters.
+     */
+    public VariantBlockFilterRunner(List<VariantFilter> variantFilters, int blockSize, boolean filterFailedVariants) {
+        Objects.requireNonNull(variantFilters);
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be at least 1");
+        }
+        if (variantFilters.size() > VariantBlock.MAX_FILTERS) {
+            throw new IllegalArgumentException(String.format("Cannot run more than %d filters over a variant block", VariantBlock.MAX_FILTERS));
+        }
+        this.variantFilters = new ArrayList<>(variantFilters);
+        this.blockSize = blockSize;
+        this.filterFailedVariants = filterFailedVariants;
+        this.passResults = new FilterResult[variantFilters.size()];
+        this.failResults = new FilterResult[variantFilters.size()];
+        for (int i = 0; i < variantFilters.size(); i++) {
+            FilterType filterType = variantFilters.get(i).getFilterType();
+            passResults[i] = FilterResult.pass(filterType);
+            failResults[i] = FilterResult.fail(filterType);
+        }
+        this.variantBlock = new VariantBlock(blockSize);
+    }
+
+    /**
+     * Runs the variants through the filters a block at a time, adding the {@link FilterResult} to the variants.
+     *
+     * @param variantEvaluations the variants to be filtered.
+     * @return the input variants.
+     */
+    public List<VariantEvaluation> run(List<VariantEvaluation> variantEvaluations) {
+        for (int start = 0; start < variantEvaluations.size(); start += blockSize) {
+            int end = Math.min(start + blockSize, variantEvaluations.size());
+            runBlock(variantEvaluations.subList(start, end));
+        }
+        return variantEvaluations;
+    }
+
+    /**
+     * Lazily runs the streamed variants through the filters a block at a time. The returned stream contains all the
+     * input variants, in the same order, with the {@link FilterResult} added. Closing the returned stream closes the
+     * input stream.
+     *
+     * @param variantEvaluations the variants to be filtered.
+     * @return a stream of the filtered variants.
+     */
+    public Stream<VariantEvaluation> run(Stream<VariantEvaluation> variantEvaluations) {
+        Iterator<List<VariantEvaluation>> blocks = Iterators.partition(variantEvaluations.iterator(), blockSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(blocks, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(block -> {
+                    runBlock(block);
+                    return block.stream();
+                })
+                .onClose(variantEvaluations::close);
+    }
+
+    private void runBlock(List<VariantEvaluation> variantEvaluations) {
+        variantBlock.load(variantEvaluations);
+        for (int filterIndex = 0; filterIndex < variantFilters.size(); filterIndex++) {
+            variantBlock.startFilter(filterIndex, filterFailedVariants);
+            if (!variantBlock.hasSelectedVariants()) {
+                break;
+            }
+            runFilter(variantFilters.get(filterIndex));
+        }
+        addFilterResults();
+    }
+
+    private void runFilter(VariantFilter variantFilter) {
+        VariantFilter filter = variantFilter;
+        while (filter instanceof VariantFilterDataProvider) {
+            VariantFilterDataProvider dataProvider = (VariantFilterDataProvider) filter;
+            for (int i = 0; i < variantBlock.size(); i++) {
+                if (variantBlock.isSelected(i)) {
+                    dataProvider.provideVariantData(variantBlock.getVariantEvaluation(i));
+                }
+            }
+            variantBlock.invalidateVariantDataColumns();
+            filter = dataProvider.getDecoratedFilter();
+        }
+        if (filter instanceof VariantBlockFilter) {
+            ((VariantBlockFilter) filter).runFilter(variantBlock);
+            return;
+        }
+        for (int i = 0; i < variantBlock.size(); i++) {
+            if (variantBlock.isSelected(i)) {
+                FilterResult filterResult = filter.runFilter(variantBlock.getVariantEvaluation(i));
+                variantBlock.recordResult(i, filterResult.passed());
+            }
+        }
+    }
+
+    private void addFilterResults() {
+        for (int i = 0; i < variantBlock.size(); i++) {
+            VariantEvaluation variantEvaluation = variantBlock.getVariantEvaluation(i);
+            long filtersRun = variantBlock.getFiltersRun(i);
+            long filtersFailed = variantBlock.getFiltersFailed(i);
+            for (int filterIndex = 0; filterIndex < variantFilters.size(); filterIndex++) {
+                long filterBit = 1L << filterIndex;
+                if ((filtersRun & filterBit) != 0) {
+                    variantEvaluation.addFilterResult((filtersFailed & filterBit) == 0 ? passResults[filterIndex] : failResults[filterIndex]);
+                }
+            }
+        }
+    }
+}
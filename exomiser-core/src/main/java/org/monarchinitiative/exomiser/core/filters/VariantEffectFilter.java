@@ -36,7 +36,7 @@
  * @author Peter N Robinson
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
-public class VariantEffectFilter implements VariantFilter {
+public class VariantEffectFilter implements VariantBlockFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(VariantEffectFilter.class);
 
@@ -46,9 +46,13 @@ public class VariantEffectFilter implements VariantFilter {
     private static final FilterResult FAIL = FilterResult.fail(filterType);
 
     private final Set<VariantEffect> offTargetVariantTypes;
-    
+    // indexed by VariantEffect ordinal for filtering a VariantBlock
+    private final boolean[] offTargetVariantEffectOrdinals;
+
     public VariantEffectFilter(Set<VariantEffect> notWanted) {
         offTargetVariantTypes = Sets.immutableEnumSet(notWanted);
+        offTargetVariantEffectOrdinals = new boolean[VariantEffect.values().length];
+        offTargetVariantTypes.forEach(variantEffect -> offTargetVariantEffectOrdinals[variantEffect.ordinal()] = true);
     }
 
     public Set<VariantEffect> getOffTargetVariantTypes() {
@@ -69,6 +73,20 @@ public FilterResult runFilter(VariantEvaluation filterable) {
         return PASS;
     }
 
+    /**
+     * @since 11.0.0
+     */
+    @Override
+    public void runFilter(VariantBlock variantBlock) {
+        int[] variantEffectOrdinals = variantBlock.getVariantEffectOrdinals();
+        for (int i = 0; i < variantBlock.size(); i++) {
+            if (variantBlock.isSelected(i)) {
+                int ordinal = variantEffectOrdinals[i];
+                variantBlock.recordResult(i, ordinal < 0 || !offTargetVariantEffectOrdinals[ordinal]);
+            }
+        }
+    }
+
     @Override
     public int hashCode() {
         int hash = 7;
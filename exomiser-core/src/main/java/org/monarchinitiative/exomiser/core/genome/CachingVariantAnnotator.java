@@ -0,0 +1,60 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.genome;
+
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+
+/**
+ * {@link VariantAnnotator} decorator which returns previously created annotations from a {@link VariantAnnotationCache}
+ * rather than re-annotating them. As the cache can outlive a single analysis, the same commonly occurring variants
+ * seen across many samples will only be annotated once by the underlying annotator.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class CachingVariantAnnotator implements VariantAnnotator {
+
+    private final GenomeAssembly genomeAssembly;
+    private final VariantAnnotator variantAnnotator;
+    private final VariantAnnotationCache variantAnnotationCache;
+
+    public CachingVariantAnnotator(GenomeAssembly genomeAssembly, VariantAnnotator variantAnnotator, VariantAnnotationCache variantAnnotationCache) {
+        this.genomeAssembly = genomeAssembly;
+        this.variantAnnotator = variantAnnotator;
+        this.variantAnnotationCache = variantAnnotationCache;
+    }
+
+    @Override
+    public VariantAnnotation annotate(String chr, int pos, String ref, String alt) {
+        return variantAnnotationCache.get(genomeAssembly, chr, pos, ref, alt, () -> variantAnnotator.annotate(chr, pos, ref, alt));
+    }
+
+    /**
+     * Locating an allele is cheap, so this is not cached.
+     */
+    @Override
+    public VariantAnnotation locate(String chr, int pos, String ref, String alt) {
+        return variantAnnotator.locate(chr, pos, ref, alt);
+    }
+
+    public VariantAnnotationCache getVariantAnnotationCache() {
+        return variantAnnotationCache;
+    }
+}
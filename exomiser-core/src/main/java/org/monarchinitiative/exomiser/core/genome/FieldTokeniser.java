@@ -0,0 +1,289 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.genome;
+
+import java.util.Arrays;
+
+/**
+ * Re-usable, zero-copy tokeniser for delimited lines such as those found in VCF, tabix and dbNSFP files. Unlike
+ * {@link String#split(String)} this only records the delimiter offsets of the current line, so no array or
+ * {@code String} is created for columns which are never read. Requested columns can be read as {@link CharSequence}
+ * views, compared in-place or parsed directly to primitives.
+ *
+ * Instances hold the state of the last line passed to {@link #tokenise(CharSequence)} and are therefore NOT thread-safe.
+ * They are cheap to create, so callers should create a new instance for each call which parses a line, or a set of
+ * lines such as the results of a tabix query, and not share instances between calls or threads.
+ * Empty trailing fields are retained, so a line ending with the delimiter has an extra, empty, final field.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class FieldTokeniser {
+
+    // 2^24 - the largest integer mantissa which can be exactly represented as a float
+    private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
+    // all the powers of ten which can be exactly represented as a float
+    private static final float[] EXACT_FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    private final char delimiter;
+
+    private CharSequence line = "";
+    // fieldEnds[i] is the exclusive end of field i, the next field starts at fieldEnds[i] + 1
+    private int[] fieldEnds = new int[32];
+    private int numFields = 0;
+
+    public FieldTokeniser(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public static FieldTokeniser tabDelimited() {
+        return new FieldTokeniser('\t');
+    }
+
+    /**
+     * Sets the current line and records the positions of its fields. The input is not copied so any subsequent changes
+     * to a mutable {@link CharSequence} will be reflected in the fields returned from this instance.
+     *
+     * @param line the line to tokenise
+     * @return this instance for use in a fluent style
+     */
+    public FieldTokeniser tokenise(CharSequence line) {
+        this.line = line;
+        int fieldCount = 0;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(i) == delimiter) {
+                fieldCount = addFieldEnd(fieldCount, i);
+            }
+        }
+        this.numFields = addFieldEnd(fieldCount, length);
+        return this;
+    }
+
+    private int addFieldEnd(int fieldCount, int end) {
+        if (fieldCount == fieldEnds.length) {
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldEnds.length * 2);
+        }
+        fieldEnds[fieldCount] = end;
+        return fieldCount + 1;
+    }
+
+    public int size() {
+        return numFields;
+    }
+
+    /**
+     * @return the offset in the line of the first character of the field at the given index.
+     */
+    public int fieldStart(int index) {
+        checkIndex(index);
+        return index == 0 ? 0 : fieldEnds[index - 1] + 1;
+    }
+
+    /**
+     * @return the offset in the line directly after the last character of the field at the given index.
+     */
+    public int fieldEnd(int index) {
+        checkIndex(index);
+        return fieldEnds[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= numFields) {
+            throw new IndexOutOfBoundsException("Field index " + index + " out of bounds for line with " + numFields + " fields");
+        }
+    }
+
+    /**
+     * Returns a view of the field at the given index. This does not copy the underlying characters.
+     */
+    public CharSequence get(int index) {
+        return new FieldView(line, fieldStart(index), fieldEnd(index));
+    }
+
+    public String getString(int index) {
+        return line.subSequence(fieldStart(index), fieldEnd(index)).toString();
+    }
+
+    public int fieldLength(int index) {
+        return fieldEnd(index) - fieldStart(index);
+    }
+
+    public boolean fieldEquals(int index, CharSequence value) {
+        int start = fieldStart(index);
+        int length = fieldEnd(index) - start;
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the field at the given index contains the character, for example a sub-field separator.
+     */
+    public boolean fieldContains(int index, char c) {
+        int end = fieldEnd(index);
+        for (int i = fieldStart(index); i < end; i++) {
+            if (line.charAt(i) == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the field at the given index as a base 10 int with the same semantics as {@link Integer#parseInt(String)}.
+     *
+     * @throws NumberFormatException if the field is not a parsable int.
+     */
+    public int getInt(int index) {
+        int start = fieldStart(index);
+        int end = fieldEnd(index);
+        if (start == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        boolean negative = false;
+        int pos = start;
+        char first = line.charAt(pos);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            pos++;
+            if (pos == end) {
+                throw numberFormatException(start, end);
+            }
+        }
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = line.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormatException(start, end);
+            }
+            value = value * 10 + digit;
+            if (value > limit) {
+                throw numberFormatException(start, end);
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Parses the field at the given index as a float with the same semantics as {@link Float#parseFloat(String)}.
+     * Plain decimal values with up to seven significant figures, which covers the vast majority of the scores and
+     * frequencies in the Exomiser data sources, are parsed without creating an intermediate {@code String}. These
+     * values are exactly representable as a float quotient of two exact floats, so the result is identical to that of
+     * {@link Float#parseFloat(String)}. Any other input is delegated to {@link Float#parseFloat(String)}.
+     *
+     * @throws NumberFormatException if the field is not a parsable float.
+     */
+    public float getFloat(int index) {
+        int start = fieldStart(index);
+        int end = fieldEnd(index);
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (line.charAt(pos) == '-' || line.charAt(pos) == '+')) {
+            negative = line.charAt(pos) == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int numDigits = 0;
+        int fractionDigits = -1;
+        for (; pos < end; pos++) {
+            char c = line.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                numDigits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (mantissa > MAX_EXACT_FLOAT_MANTISSA || fractionDigits >= EXACT_FLOAT_POWERS_OF_TEN.length) {
+                    return Float.parseFloat(getString(index));
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                // exponents, NaN, Infinity, whitespace, type suffixes or malformed input
+                return Float.parseFloat(getString(index));
+            }
+        }
+        if (numDigits == 0) {
+            return Float.parseFloat(getString(index));
+        }
+        float value = fractionDigits > 0 ? mantissa / EXACT_FLOAT_POWERS_OF_TEN[fractionDigits] : (float) mantissa;
+        return negative ? -value : value;
+    }
+
+    private NumberFormatException numberFormatException(int start, int end) {
+        return new NumberFormatException("For input string: \"" + line.subSequence(start, end) + "\"");
+    }
+
+    @Override
+    public String toString() {
+        return "FieldTokeniser{" +
+                "delimiter=" + delimiter +
+                ", numFields=" + numFields +
+                ", line=" + line +
+                '}';
+    }
+
+    private static class FieldView implements CharSequence {
+
+        private final CharSequence source;
+        private final int start;
+        private final int end;
+
+        private FieldView(CharSequence source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + length());
+            }
+            return source.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int subStart, int subEnd) {
+            if (subStart < 0 || subEnd > length() || subStart > subEnd) {
+                throw new IndexOutOfBoundsException("start " + subStart + ", end " + subEnd + ", length " + length());
+            }
+            return new FieldView(source, start + subStart, start + subEnd);
+        }
+
+        @Override
+        public String toString() {
+            return source.subSequence(start, end).toString();
+        }
+    }
+}
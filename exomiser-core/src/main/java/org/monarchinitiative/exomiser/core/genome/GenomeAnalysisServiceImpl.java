@@ -29,6 +29,7 @@
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -69,11 +70,21 @@ public List<RegulatoryFeature> getRegulatoryFeatures() {
         return genomeDataService.getRegulatoryFeatures();
     }
 
+    @Override
+    public ChromosomalRegionIndex<RegulatoryFeature> getRegulatoryRegionIndex() {
+        return genomeDataService.getRegulatoryRegionIndex();
+    }
+
     @Override
     public List<TopologicalDomain> getTopologicallyAssociatedDomains() {
         return genomeDataService.getTopologicallyAssociatedDomains();
     }
 
+    @Override
+    public ChromosomalRegionIndex<TopologicalDomain> getTopologicallyAssociatedDomainIndex() {
+        return genomeDataService.getTopologicallyAssociatedDomainIndex();
+    }
+
     @Override
     public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySource> frequencySources) {
         return variantDataService.getVariantFrequencyData(variant, frequencySources);
@@ -88,4 +99,9 @@ public PathogenicityData getVariantPathogenicityData(Variant variant, Set<Pathog
     public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream) {
         return variantFactory.createVariantEvaluations(variantContextStream);
     }
+
+    @Override
+    public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream, Predicate<VariantEvaluation> preAnnotationFilter) {
+        return variantFactory.createVariantEvaluations(variantContextStream, preAnnotationFilter);
+    }
 }
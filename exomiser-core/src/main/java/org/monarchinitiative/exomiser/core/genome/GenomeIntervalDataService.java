@@ -0,0 +1,75 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.genome;
+
+import org.monarchinitiative.exomiser.core.genome.dao.GenomeIntervalFile;
+import org.monarchinitiative.exomiser.core.model.*;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link GenomeDataService} which serves the regulatory features and TADs from a pre-compiled
+ * {@link GenomeIntervalFile} rather than querying the genome database. The region indexes are built once, when the file
+ * is loaded, rather than each time they are requested.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class GenomeIntervalDataService implements GenomeDataService {
+
+    private final GeneFactory geneFactory;
+    private final GenomeIntervalFile genomeIntervalFile;
+
+    public GenomeIntervalDataService(GeneFactory geneFactory, GenomeIntervalFile genomeIntervalFile) {
+        this.geneFactory = geneFactory;
+        this.genomeIntervalFile = genomeIntervalFile;
+    }
+
+    @Override
+    public List<Gene> getKnownGenes() {
+        return geneFactory.createKnownGenes();
+    }
+
+    @Override
+    public Set<GeneIdentifier> getKnownGeneIdentifiers() {
+        return geneFactory.getGeneIdentifiers();
+    }
+
+    @Override
+    public List<RegulatoryFeature> getRegulatoryFeatures() {
+        return genomeIntervalFile.getRegulatoryFeatures();
+    }
+
+    @Override
+    public ChromosomalRegionIndex<RegulatoryFeature> getRegulatoryRegionIndex() {
+        return genomeIntervalFile.getRegulatoryRegionIndex();
+    }
+
+    @Override
+    public List<TopologicalDomain> getTopologicallyAssociatedDomains() {
+        return genomeIntervalFile.getTopologicallyAssociatedDomains();
+    }
+
+    @Override
+    public ChromosomalRegionIndex<TopologicalDomain> getTopologicallyAssociatedDomainIndex() {
+        return genomeIntervalFile.getTopologicallyAssociatedDomainIndex();
+    }
+}
@@ -72,6 +72,20 @@ public VariantAnnotations annotateVariant(String contig, int pos, String ref, St
         return annotateGenomeVariant(genomeVariant);
     }
 
+    /**
+     * @return the integer identifier of the contig in the reference dictionary, or 0 if it is unknown.
+     */
+    public int getChromosomeId(String contig) {
+        return getIntValueOfChromosomeOrZero(contig);
+    }
+
+    /**
+     * @return the name of the chromosome in the reference dictionary, or null if it is unknown.
+     */
+    public String getChromosomeName(int chr) {
+        return referenceDictionary.getContigIDToName().get(chr);
+    }
+
     private GenomeVariant buildOneBasedFwdStrandGenomicVariant(String contig, int pos, String ref, String alt) {
         int chr = getIntValueOfChromosomeOrZero(contig);
         GenomePosition genomePosition = new GenomePosition(referenceDictionary, Strand.FWD, chr, pos, PositionType.ONE_BASED);
@@ -45,12 +45,13 @@ public class JannovarVariantAnnotator implements VariantAnnotator {
 
     private final GenomeAssembly genomeAssembly;
     private final JannovarAnnotationService jannovarAnnotationService;
-    private final ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex;
+    // annotators are shared between analyses, but the variants of each are annotated in position order on one thread
+    private final ThreadLocal<ChromosomalRegionCursor<RegulatoryFeature>> regulatoryRegionCursor;
 
     public JannovarVariantAnnotator(GenomeAssembly genomeAssembly, JannovarData jannovarData, ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex) {
         this.genomeAssembly = genomeAssembly;
         this.jannovarAnnotationService = new JannovarAnnotationService(jannovarData);
-        this.regulatoryRegionIndex = regulatoryRegionIndex;
+        this.regulatoryRegionCursor = ThreadLocal.withInitial(regulatoryRegionIndex::cursor);
     }
 
     /**
@@ -94,6 +95,25 @@ public VariantAnnotation annotate(String contig, int pos, String ref, String alt
         return buildVariantAlleleAnnotation(genomeAssembly, contig, trimmedAllele, variantAnnotations);
     }
 
+    /**
+     * Trims the allele in the same way as {@link #annotate(String, int, String, String)} but does not annotate it.
+     * This only requires the contig to be looked-up in the reference dictionary.
+     */
+    @Override
+    public VariantAnnotation locate(String contig, int pos, String ref, String alt) {
+        AllelePosition trimmedAllele = AllelePosition.trim(pos, ref, alt);
+        int chr = jannovarAnnotationService.getChromosomeId(contig);
+        String chrName = jannovarAnnotationService.getChromosomeName(chr);
+        return VariantAnnotation.builder()
+                .genomeAssembly(genomeAssembly)
+                .chromosome(chr)
+                .chromosomeName(chrName == null ? contig : chrName)
+                .position(trimmedAllele.getPos())
+                .ref(trimmedAllele.getRef())
+                .alt(trimmedAllele.getAlt())
+                .build();
+    }
+
     private VariantAnnotation buildVariantAlleleAnnotation(GenomeAssembly genomeAssembly, String contig, AllelePosition allelePosition, VariantAnnotations variantAnnotations) {
         int chr = variantAnnotations.getChr();
         GenomeVariant genomeVariant = variantAnnotations.getGenomeVariant();
@@ -196,7 +216,7 @@ private String buildGeneSymbol(Annotation annotation) {
     //Adds the missing REGULATORY_REGION_VARIANT effect to variants - this isn't in the Jannovar data set.
     private VariantEffect checkRegulatoryRegionVariantEffect(VariantEffect variantEffect, int chr, int pos) {
         //n.b this check here is important as ENSEMBLE can have regulatory regions overlapping with missense variants.
-        if (isIntergenicOrUpstreamOfGene(variantEffect) && regulatoryRegionIndex.hasRegionContainingPosition(chr, pos)) {
+        if (isIntergenicOrUpstreamOfGene(variantEffect) && regulatoryRegionCursor.get().hasRegionContainingPosition(chr, pos)) {
             //the effect is the same for all regulatory regions, so for the sake of speed, just assign it here rather than look it up from the list
             return VariantEffect.REGULATORY_REGION_VARIANT;
         }
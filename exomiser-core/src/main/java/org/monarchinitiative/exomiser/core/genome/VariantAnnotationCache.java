@@ -0,0 +1,317 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.genome;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import org.monarchinitiative.exomiser.core.model.AllelePosition;
+import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+import org.monarchinitiative.exomiser.core.proto.AnnotationCacheProto.AnnotationCacheHeader;
+import org.monarchinitiative.exomiser.core.proto.AnnotationCacheProto.TranscriptAnnotationRecord;
+import org.monarchinitiative.exomiser.core.proto.AnnotationCacheProto.VariantAnnotationRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, thread-safe cache of {@link VariantAnnotation} keyed on the {@link GenomeAssembly}, contig and the
+ * {@link AllelePosition#trim(int, String, String)} trimmed allele. As the key includes the assembly a single instance
+ * can be shared between the annotators of several assemblies. The least recently used annotations are evicted once the
+ * maximum size is reached.
+ * <p>
+ * The contents of the cache can be written to a file using {@link #writeTo(Path)} and re-loaded using
+ * {@link #readFrom(Path)} so that commonly seen variants do not need to be re-annotated after a restart. The cached
+ * annotations are only valid for the transcript data they were created with, so the data version, assembly and
+ * transcript source of the cache are written to the file header and a file with a different header is not loaded.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class VariantAnnotationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantAnnotationCache.class);
+
+    static final byte[] MAGIC_BYTES = {'E', 'X', 'A', 'C'};
+
+    private final AnnotationCacheHeader header;
+    private final Cache<AlleleKey, VariantAnnotation> cache;
+
+    /**
+     * Creates a cache with no transcript data identifiers. This can only read files written by another such cache.
+     */
+    public VariantAnnotationCache(long maximumSize) {
+        this(maximumSize, AnnotationCacheHeader.getDefaultInstance());
+    }
+
+    /**
+     * Creates a cache for the annotations created from the transcript data of the given data version, assembly and
+     * transcript source e.g. 1807, HG19, ucsc.
+     */
+    public VariantAnnotationCache(long maximumSize, String dataVersion, GenomeAssembly genomeAssembly, String transcriptSource) {
+        this(maximumSize, AnnotationCacheHeader.newBuilder()
+                .setDataVersion(dataVersion)
+                .setAssembly(genomeAssembly.name())
+                .setTranscriptSource(transcriptSource)
+                .build());
+    }
+
+    private VariantAnnotationCache(long maximumSize, AnnotationCacheHeader header) {
+        this.header = header;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached annotation for the allele, or the annotation from the supplier if this has not been seen before.
+     * The supplied annotation is expected to be that of the trimmed allele.
+     */
+    public VariantAnnotation get(GenomeAssembly genomeAssembly, String contig, int pos, String ref, String alt, Supplier<VariantAnnotation> annotationSupplier) {
+        AllelePosition trimmedAllele = AllelePosition.trim(pos, ref, alt);
+        AlleleKey key = new AlleleKey(genomeAssembly, contig, trimmedAllele.getPos(), trimmedAllele.getRef(), trimmedAllele
+                .getAlt());
+        VariantAnnotation cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        VariantAnnotation annotation = annotationSupplier.get();
+        cache.put(key, annotation);
+        return annotation;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return the hit, miss and eviction counts of the cache since it was created.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the ratio of lookups which were returned from the cache, or 1.0 if there have been no lookups.
+     */
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * Writes all the currently cached annotations to the file, replacing any existing content.
+     */
+    public void writeTo(Path path) {
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path))) {
+            outputStream.write(MAGIC_BYTES);
+            header.writeDelimitedTo(outputStream);
+            for (Map.Entry<AlleleKey, VariantAnnotation> entry : cache.asMap().entrySet()) {
+                toRecord(entry.getKey(), entry.getValue()).writeDelimitedTo(outputStream);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write variant annotation cache to " + path, e);
+        }
+        logger.info("Written {} variant annotations to {} - {}", cache.size(), path, cache.stats());
+    }
+
+    /**
+     * Adds the annotations written to the file by {@link #writeTo(Path)} to the cache. Loaded entries are not counted
+     * as hits or misses. Files written for different transcript data to that of this cache are ignored, and will be
+     * overwritten by the next call to {@link #writeTo(Path)}.
+     */
+    public void readFrom(Path path) {
+        int count = 0;
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+            byte[] bytes = new byte[MAGIC_BYTES.length];
+            int bytesRead = inputStream.read(bytes);
+            if (bytesRead != bytes.length || !Arrays.equals(bytes, MAGIC_BYTES)) {
+                throw new IllegalArgumentException(path + " is not an Exomiser variant annotation cache file");
+            }
+            AnnotationCacheHeader fileHeader = AnnotationCacheHeader.parseDelimitedFrom(inputStream);
+            if (!header.equals(fileHeader)) {
+                logger.info("Ignoring variant annotation cache {} as this was written for {} not {}", path, toString(fileHeader), toString(header));
+                return;
+            }
+            VariantAnnotationRecord record;
+            while ((record = VariantAnnotationRecord.parseDelimitedFrom(inputStream)) != null) {
+                cache.put(toKey(record), toVariantAnnotation(record));
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read variant annotation cache from " + path, e);
+        }
+        logger.info("Loaded {} variant annotations from {}", count, path);
+    }
+
+    private static String toString(AnnotationCacheHeader header) {
+        if (header == null) {
+            return "unknown data";
+        }
+        return String.format("data version '%s' assembly '%s' transcript source '%s'", header.getDataVersion(), header.getAssembly(), header
+                .getTranscriptSource());
+    }
+
+    private static VariantAnnotationRecord toRecord(AlleleKey key, VariantAnnotation annotation) {
+        VariantAnnotationRecord.Builder builder = VariantAnnotationRecord.newBuilder()
+                .setAssembly(key.genomeAssembly.name())
+                .setContig(key.contig)
+                .setChromosome(annotation.getChromosome())
+                .setChromosomeName(Strings.nullToEmpty(annotation.getChromosomeName()))
+                .setPosition(key.pos)
+                .setRef(key.ref)
+                .setAlt(key.alt)
+                .setVariantEffect(effectName(annotation.getVariantEffect()));
+        // the optional fields are only set where present so that they are read back as null rather than empty
+        if (annotation.getGeneSymbol() != null) {
+            builder.setGeneSymbol(annotation.getGeneSymbol());
+        }
+        if (annotation.getGeneId() != null) {
+            builder.setGeneId(annotation.getGeneId());
+        }
+        for (TranscriptAnnotation transcriptAnnotation : annotation.getTranscriptAnnotations()) {
+            builder.addTranscriptAnnotations(toTranscriptRecord(transcriptAnnotation));
+        }
+        return builder.build();
+    }
+
+    private static TranscriptAnnotationRecord toTranscriptRecord(TranscriptAnnotation transcriptAnnotation) {
+        TranscriptAnnotationRecord.Builder builder = TranscriptAnnotationRecord.newBuilder()
+                .setVariantEffect(effectName(transcriptAnnotation.getVariantEffect()))
+                .setDistanceFromNearestGene(transcriptAnnotation.getDistanceFromNearestGene());
+        if (transcriptAnnotation.getGeneSymbol() != null) {
+            builder.setGeneSymbol(transcriptAnnotation.getGeneSymbol());
+        }
+        if (transcriptAnnotation.getAccession() != null) {
+            builder.setAccession(transcriptAnnotation.getAccession());
+        }
+        if (transcriptAnnotation.getHgvsGenomic() != null) {
+            builder.setHgvsGenomic(transcriptAnnotation.getHgvsGenomic());
+        }
+        if (transcriptAnnotation.getHgvsCdna() != null) {
+            builder.setHgvsCdna(transcriptAnnotation.getHgvsCdna());
+        }
+        if (transcriptAnnotation.getHgvsProtein() != null) {
+            builder.setHgvsProtein(transcriptAnnotation.getHgvsProtein());
+        }
+        return builder.build();
+    }
+
+    private static AlleleKey toKey(VariantAnnotationRecord record) {
+        return new AlleleKey(GenomeAssembly.valueOf(record.getAssembly()), record.getContig(), record.getPosition(), record
+                .getRef(), record.getAlt());
+    }
+
+    private static VariantAnnotation toVariantAnnotation(VariantAnnotationRecord record) {
+        List<TranscriptAnnotation> transcriptAnnotations = new ArrayList<>(record.getTranscriptAnnotationsCount());
+        for (TranscriptAnnotationRecord transcriptRecord : record.getTranscriptAnnotationsList()) {
+            transcriptAnnotations.add(TranscriptAnnotation.builder()
+                    .variantEffect(toEffect(transcriptRecord.getVariantEffect()))
+                    .geneSymbol(transcriptRecord.getGeneSymbolValueCase() == TranscriptAnnotationRecord.GeneSymbolValueCase.GENE_SYMBOL ? transcriptRecord
+                            .getGeneSymbol() : null)
+                    .accession(transcriptRecord.getAccessionValueCase() == TranscriptAnnotationRecord.AccessionValueCase.ACCESSION ? transcriptRecord
+                            .getAccession() : null)
+                    .hgvsGenomic(transcriptRecord.getHgvsGenomicValueCase() == TranscriptAnnotationRecord.HgvsGenomicValueCase.HGVS_GENOMIC ? transcriptRecord
+                            .getHgvsGenomic() : null)
+                    .hgvsCdna(transcriptRecord.getHgvsCdnaValueCase() == TranscriptAnnotationRecord.HgvsCdnaValueCase.HGVS_CDNA ? transcriptRecord
+                            .getHgvsCdna() : null)
+                    .hgvsProtein(transcriptRecord.getHgvsProteinValueCase() == TranscriptAnnotationRecord.HgvsProteinValueCase.HGVS_PROTEIN ? transcriptRecord
+                            .getHgvsProtein() : null)
+                    .distanceFromNearestGene(transcriptRecord.getDistanceFromNearestGene())
+                    .build());
+        }
+        return VariantAnnotation.builder()
+                .genomeAssembly(GenomeAssembly.valueOf(record.getAssembly()))
+                .chromosome(record.getChromosome())
+                .chromosomeName(record.getChromosomeName())
+                .position(record.getPosition())
+                .ref(record.getRef())
+                .alt(record.getAlt())
+                .geneSymbol(record.getGeneSymbolValueCase() == VariantAnnotationRecord.GeneSymbolValueCase.GENE_SYMBOL ? record
+                        .getGeneSymbol() : null)
+                .geneId(record.getGeneIdValueCase() == VariantAnnotationRecord.GeneIdValueCase.GENE_ID ? record.getGeneId() : null)
+                .variantEffect(toEffect(record.getVariantEffect()))
+                .annotations(transcriptAnnotations)
+                .build();
+    }
+
+    private static String effectName(VariantEffect variantEffect) {
+        return variantEffect == null ? "" : variantEffect.name();
+    }
+
+    private static VariantEffect toEffect(String name) {
+        return name.isEmpty() ? null : VariantEffect.valueOf(name);
+    }
+
+    private static final class AlleleKey {
+
+        private final GenomeAssembly genomeAssembly;
+        private final String contig;
+        private final int pos;
+        private final String ref;
+        private final String alt;
+
+        private AlleleKey(GenomeAssembly genomeAssembly, String contig, int pos, String ref, String alt) {
+            this.genomeAssembly = genomeAssembly;
+            this.contig = contig;
+            this.pos = pos;
+            this.ref = ref;
+            this.alt = alt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            AlleleKey alleleKey = (AlleleKey) o;
+            return pos == alleleKey.pos &&
+                    genomeAssembly == alleleKey.genomeAssembly &&
+                    contig.equals(alleleKey.contig) &&
+                    ref.equals(alleleKey.ref) &&
+                    alt.equals(alleleKey.alt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(genomeAssembly, contig, pos, ref, alt);
+        }
+    }
+}
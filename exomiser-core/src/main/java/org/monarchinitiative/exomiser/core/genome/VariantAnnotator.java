@@ -29,4 +29,15 @@ public interface VariantAnnotator {
 
     public VariantAnnotation annotate(String chr, int pos, String ref, String alt);
 
+    /**
+     * Returns the genome assembly and the normalised coordinates of the allele exactly as they would be returned by
+     * {@link #annotate}, without any of the gene or transcript annotations. Implementations should override this where
+     * locating an allele is cheaper than annotating it.
+     *
+     * @since 11.0.0
+     */
+    public default VariantAnnotation locate(String chr, int pos, String ref, String alt) {
+        return annotate(chr, pos, ref, alt);
+    }
+
 }
@@ -21,9 +21,12 @@
 package org.monarchinitiative.exomiser.core.genome;
 
 import htsjdk.variant.variantcontext.VariantContext;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -39,6 +42,39 @@ default Stream<VariantEvaluation> createVariantEvaluations(Path vcfPath) {
         return createVariantEvaluations(VcfFiles.readVariantContexts(vcfPath));
     }
 
+    /**
+     * Creates the {@link VariantEvaluation} from the VCF records overlapping the regions. Only the relevant parts of
+     * the file are read if it has a tabix index, otherwise all the records are returned. An empty collection of
+     * regions will return all the records.
+     *
+     * @since 11.0.0
+     */
+    default Stream<VariantEvaluation> createVariantEvaluations(Path vcfPath, Collection<ChromosomalRegion> regions) {
+        return createVariantEvaluations(VcfFiles.readVariantContexts(vcfPath, regions));
+    }
+
+    /**
+     * As {@link #createVariantEvaluations(Path, Collection)}, but removing the alleles which fail the
+     * preAnnotationFilter.
+     *
+     * @since 11.0.0
+     */
+    default Stream<VariantEvaluation> createVariantEvaluations(Path vcfPath, Collection<ChromosomalRegion> regions, Predicate<VariantEvaluation> preAnnotationFilter) {
+        return createVariantEvaluations(VcfFiles.readVariantContexts(vcfPath, regions), preAnnotationFilter);
+    }
+
     Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream);
 
+    /**
+     * Creates the {@link VariantEvaluation} removing those which fail the preAnnotationFilter. The filter may be run
+     * on a variant with only the genome assembly, normalised coordinates and VCF record, before it has been annotated, so
+     * it must only depend on these. For example a filter on the allele frequency. Implementations where this is
+     * cheaper than annotating every variant should override this default, which filters the annotated variants.
+     *
+     * @since 11.0.0
+     */
+    default Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream, Predicate<VariantEvaluation> preAnnotationFilter) {
+        return createVariantEvaluations(variantContextStream).filter(preAnnotationFilter);
+    }
+
 }
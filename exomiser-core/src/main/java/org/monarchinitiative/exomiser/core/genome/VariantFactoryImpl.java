@@ -42,10 +42,12 @@
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -79,6 +81,40 @@ public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext>
                 .onClose(counter::logCount);
     }
 
+    /**
+     * Alleles are first located, i.e. trimmed and placed on a chromosome, and only those passing the
+     * preAnnotationFilter are annotated. As the annotation is the most costly part of creating a variant, this is much
+     * quicker where the filter removes most of them. Any frequency data added to the variant by the filter is kept so
+     * that it need not be fetched again.
+     */
+    @Override
+    public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream, Predicate<VariantEvaluation> preAnnotationFilter) {
+        logger.info("Screening variant records before annotating, trimming sequences and normalising positions...");
+        VariantCounter counter = new VariantCounter();
+        return variantContextStream
+                .peek(counter.countVariantContext())
+                .flatMap(toScreenedVariantEvaluations(preAnnotationFilter, counter))
+                .peek(counter.countAnnotatedVariant())
+                .onClose(counter::logCount);
+    }
+
+    private Function<VariantContext, Stream<VariantEvaluation>> toScreenedVariantEvaluations(Predicate<VariantEvaluation> preAnnotationFilter, VariantCounter counter) {
+        return variantContext -> variantContext.getAlternateAlleles().stream()
+                .filter(allele -> alleleIsObservedInGenotypes(allele, variantContext.getGenotypes()))
+                .map(allele -> variantContext.getAlleleIndex(allele) - 1)
+                .map(altAlleleId -> {
+                    VariantEvaluation unannotated = buildUnannotatedVariantEvaluation(variantContext, altAlleleId);
+                    if (!preAnnotationFilter.test(unannotated)) {
+                        counter.countScreenedVariant();
+                        return null;
+                    }
+                    VariantEvaluation annotated = buildVariantEvaluation(variantContext, altAlleleId);
+                    annotated.setFrequencyData(unannotated.getFrequencyData());
+                    return annotated;
+                })
+                .filter(Objects::nonNull);
+    }
+
     /**
      * An Exomiser VariantEvaluation is a single-allele variant whereas the VariantContext can have multiple alleles.
      * This means that a multi allele Variant record in a VCF can result in several VariantEvaluations - one for each
@@ -131,6 +167,25 @@ private VariantAnnotation annotateVariantAllele(VariantContext variantContext, i
         return variantAnnotator.annotate(contig, pos, ref, alt);
     }
 
+    /**
+     * Creates a VariantEvaluation with only the normalised coordinates and the VCF record for the allele.
+     */
+    private VariantEvaluation buildUnannotatedVariantEvaluation(VariantContext variantContext, int altAlleleId) {
+        String contig = variantContext.getContig();
+        int pos = variantContext.getStart();
+        String ref = variantContext.getReference().getBaseString();
+        String alt = variantContext.getAlternateAllele(altAlleleId).getBaseString();
+        VariantAnnotation alleleLocation = variantAnnotator.locate(contig, pos, ref, alt);
+
+        return VariantEvaluation.builder(alleleLocation.getChromosome(), alleleLocation.getPosition(), alleleLocation.getRef(), alleleLocation.getAlt())
+                .genomeAssembly(alleleLocation.getGenomeAssembly())
+                .chromosomeName(alleleLocation.getChromosomeName())
+                .variantContext(variantContext)
+                .altAlleleId(altAlleleId)
+                .quality(variantContext.getPhredScaledQual())
+                .build();
+    }
+
     private VariantEvaluation buildVariantEvaluation(VariantContext variantContext, int altAlleleId, VariantAnnotation variantAnnotation) {
 
         //See also notes in InheritanceModeAnnotator.
@@ -178,6 +233,7 @@ private class VariantCounter {
         final AtomicInteger variantRecords = new AtomicInteger(0);
         final AtomicInteger unannotatedVariants = new AtomicInteger(0);
         final AtomicInteger annotatedVariants = new AtomicInteger(0);
+        final AtomicInteger screenedVariants = new AtomicInteger(0);
         final Instant start = Instant.now();
 
         Consumer<VariantContext> countVariantContext() {
@@ -194,7 +250,14 @@ Consumer<VariantEvaluation> countAnnotatedVariant() {
             };
         }
 
+        void countScreenedVariant() {
+            screenedVariants.incrementAndGet();
+        }
+
         void logCount() {
+            if (screenedVariants.get() > 0) {
+                logger.info("Removed {} single allele variants before annotation", screenedVariants.get());
+            }
             if (unannotatedVariants.get() > 0) {
                 logger.info("Processed {} variant records into {} single allele variants, {} are missing annotations, most likely due to non-numeric chromosome designations", variantRecords
                         .get(), annotatedVariants.get(), unannotatedVariants.get());
@@ -20,14 +20,18 @@
 
 package org.monarchinitiative.exomiser.core.genome;
 
+import htsjdk.samtools.util.CloseableIterator;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFFileReader;
 import htsjdk.variant.vcf.VCFHeader;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
+import org.monarchinitiative.exomiser.core.model.GeneticInterval;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
-import java.util.Objects;
+import java.util.*;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -57,6 +61,93 @@ public static Stream<VariantContext> readVariantContexts(Path vcfPath) {
         }
     }
 
+    /**
+     * Creates a {@code Stream} of {@code VariantContext} overlapping the given regions from the indicated VCF file. If
+     * the file is block-gzipped and has a tabix index only the blocks containing the regions are read, otherwise, or if
+     * no regions are given, the whole file is read. Consequently the caller should still filter the variants against
+     * the regions. The returned stream holds the file open until it is closed.
+     *
+     * @param vcfPath path of the VCF file
+     * @param regions the regions from which to read the variants
+     * @return a {@code Stream} of {@code VariantContext}
+     * @since 11.0.0
+     */
+    public static Stream<VariantContext> readVariantContexts(Path vcfPath, Collection<ChromosomalRegion> regions) {
+        Objects.requireNonNull(vcfPath, "Cannot read from null vcfPath");
+        Objects.requireNonNull(regions, "Cannot read from null regions");
+        if (regions.isEmpty()) {
+            return readVariantContexts(vcfPath);
+        }
+        VCFFileReader vcfReader = new VCFFileReader(vcfPath, false);
+        if (!vcfReader.isQueryable()) {
+            vcfReader.close();
+            logger.info("No tabix index found for VCF file {} - unable to read only the {} requested regions", vcfPath, regions.size());
+            return readVariantContexts(vcfPath);
+        }
+        List<ChromosomalRegion> mergedRegions = mergeRegions(regions);
+        logger.info("Reading variants in {} regions from indexed VCF file {}", mergedRegions.size(), vcfPath);
+        return queryRegions(vcfReader, mergedRegions).onClose(vcfReader::close);
+    }
+
+    /**
+     * Sorts the regions and merges any which overlap or are adjacent, so that each VCF record is read once.
+     */
+    private static List<ChromosomalRegion> mergeRegions(Collection<ChromosomalRegion> regions) {
+        List<ChromosomalRegion> sortedRegions = new ArrayList<>(regions);
+        Collections.sort(sortedRegions);
+        List<ChromosomalRegion> mergedRegions = new ArrayList<>();
+        ChromosomalRegion current = sortedRegions.get(0);
+        for (ChromosomalRegion next : sortedRegions.subList(1, sortedRegions.size())) {
+            if (next.getChromosome() == current.getChromosome() && next.getStart() <= current.getEnd() + 1) {
+                current = new GeneticInterval(current.getChromosome(), current.getStart(), Math.max(current.getEnd(), next.getEnd()));
+            } else {
+                mergedRegions.add(current);
+                current = next;
+            }
+        }
+        mergedRegions.add(current);
+        return mergedRegions;
+    }
+
+    /**
+     * Each region is queried lazily, as the stream is consumed, as the reader only supports a single open iterator.
+     */
+    private static Stream<VariantContext> queryRegions(VCFFileReader vcfReader, List<ChromosomalRegion> mergedRegions) {
+        return IntStream.range(0, mergedRegions.size())
+                .boxed()
+                .flatMap(i -> {
+                    ChromosomalRegion region = mergedRegions.get(i);
+                    ChromosomalRegion previous = i == 0 ? null : mergedRegions.get(i - 1);
+                    // a record spanning two regions will be returned by both queries, so only keep it from the first
+                    int previousEnd = (previous != null && previous.getChromosome() == region.getChromosome()) ? previous.getEnd() : 0;
+                    return contigNames(region.getChromosome()).stream()
+                            .flatMap(contig -> query(vcfReader, contig, region.getStart(), region.getEnd()))
+                            .filter(variantContext -> variantContext.getStart() > previousEnd);
+                });
+    }
+
+    private static Stream<VariantContext> query(VCFFileReader vcfReader, String contig, int start, int end) {
+        CloseableIterator<VariantContext> iterator = vcfReader.query(contig, start, end);
+        return iterator.stream().onClose(iterator::close);
+    }
+
+    /**
+     * Returns the possible names of the chromosome in a VCF file, as these may or may not have a 'chr' prefix.
+     * Contigs not present in the index are simply not found.
+     */
+    private static List<String> contigNames(int chromosome) {
+        switch (chromosome) {
+            case 23:
+                return Arrays.asList("X", "chrX");
+            case 24:
+                return Arrays.asList("Y", "chrY");
+            case 25:
+                return Arrays.asList("MT", "chrM", "M", "chrMT");
+            default:
+                return Arrays.asList(String.valueOf(chromosome), "chr" + chromosome);
+        }
+    }
+
     /**
      * Reads the header of the provided VCF file and returns a {@code VCFHeader}.
      *
@@ -26,6 +26,7 @@
 package org.monarchinitiative.exomiser.core.genome.dao;
 
 import htsjdk.tribble.readers.TabixReader;
+import org.monarchinitiative.exomiser.core.genome.FieldTokeniser;
 import org.monarchinitiative.exomiser.core.model.AllelePosition;
 import org.monarchinitiative.exomiser.core.model.Variant;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.CaddScore;
@@ -73,17 +74,16 @@ private PathogenicityData getCaddPathogenicityData(TabixDataSource tabixDataSour
         try {
             TabixReader.Iterator results = tabixDataSource.query(chromosome + ":" + start + "-" + start);
             String line;
+            FieldTokeniser fields = FieldTokeniser.tabDelimited();
             //there can be 0 - N results in this format:
             //#Chrom  Pos     Ref     Alt     RawScore        PHRED
             //2       14962   C       CA      -0.138930       1.458
             //2       14962   C       CAA     -0.155009       1.356
             //2       14962   CA      C       0.194173        4.618
             while ((line = results.next()) != null) {
-                String[] elements = line.split("\t");
-                String caddRef = elements[2];
-                String caddAlt = elements[3];
-                if (caddRef.equals(ref) && caddAlt.equals(alt)) {
-                    return makeCaddPathData(elements[5]);
+                fields.tokenise(line);
+                if (fields.fieldEquals(2, ref) && fields.fieldEquals(3, alt)) {
+                    return makeCaddPathData(fields.getFloat(5));
                 }
             }
         } catch (IOException e) {
@@ -92,15 +92,9 @@ private PathogenicityData getCaddPathogenicityData(TabixDataSource tabixDataSour
         return PathogenicityData.empty();
     }
  
-    private PathogenicityData makeCaddPathData(String phredScaledCaddScore) {
-        CaddScore caddScore = parseCaddScore(phredScaledCaddScore);
-        return PathogenicityData.of(caddScore);
-    }
-
-    private CaddScore parseCaddScore(String phredScaledCaddScore) {
-        float score = Float.parseFloat(phredScaledCaddScore);
-        float cadd = rescaleLogTenBasedScore(score);
-        return CaddScore.valueOf(cadd);
+    private PathogenicityData makeCaddPathData(float phredScaledCaddScore) {
+        float cadd = rescaleLogTenBasedScore(phredScaledCaddScore);
+        return PathogenicityData.of(CaddScore.valueOf(cadd));
     }
  
     /**
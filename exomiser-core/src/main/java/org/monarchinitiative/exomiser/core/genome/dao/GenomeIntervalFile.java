@@ -0,0 +1,286 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.model.TopologicalDomain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Pre-compiled binary file of the {@link RegulatoryFeature} and {@link TopologicalDomain} intervals for a genome
+ * assembly. Loading this file replaces the full-table queries run by the {@link RegulatoryFeatureDao} and
+ * {@link TadDao} against the genome H2 database, so that an analysis can be started without the database.
+ * <p>
+ * The file is memory-mapped and read straight into chromosome-partitioned lists which are used to build the
+ * {@link ChromosomalRegionIndex} objects. All values are big-endian and the layout is:
+ * <pre>
+ * magic bytes 'EXGI', int format version
+ * int number of feature types, then for each: UTF-8 string of the {@link RegulatoryFeature.FeatureType} name
+ * int number of chromosomes, then for each: int chromosome, int number of features,
+ *     then for each feature: int start, int end, byte index of the feature type
+ * int number of chromosomes, then for each: int chromosome, int number of TADs,
+ *     then for each TAD: int start, int end, int number of genes, then for each gene: int gene id, UTF-8 string symbol
+ * </pre>
+ * where a UTF-8 string is written as a short byte length followed by the bytes.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class GenomeIntervalFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenomeIntervalFile.class);
+
+    private static final byte[] MAGIC_BYTES = {'E', 'X', 'G', 'I'};
+    private static final int FORMAT_VERSION = 1;
+
+    private final List<RegulatoryFeature> regulatoryFeatures;
+    private final ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex;
+    private final List<TopologicalDomain> topologicalDomains;
+    private final ChromosomalRegionIndex<TopologicalDomain> topologicalDomainIndex;
+
+    private GenomeIntervalFile(Map<Integer, List<RegulatoryFeature>> regulatoryFeaturesByChromosome, Map<Integer, List<TopologicalDomain>> topologicalDomainsByChromosome) {
+        this.regulatoryFeatures = flatten(regulatoryFeaturesByChromosome);
+        this.regulatoryRegionIndex = ChromosomalRegionIndex.ofChromosomes(regulatoryFeaturesByChromosome);
+        this.topologicalDomains = flatten(topologicalDomainsByChromosome);
+        this.topologicalDomainIndex = ChromosomalRegionIndex.ofChromosomes(topologicalDomainsByChromosome);
+    }
+
+    private static <T> List<T> flatten(Map<Integer, List<T>> regionsByChromosome) {
+        List<T> regions = new ArrayList<>();
+        regionsByChromosome.values().forEach(regions::addAll);
+        return Collections.unmodifiableList(regions);
+    }
+
+    public List<RegulatoryFeature> getRegulatoryFeatures() {
+        return regulatoryFeatures;
+    }
+
+    public ChromosomalRegionIndex<RegulatoryFeature> getRegulatoryRegionIndex() {
+        return regulatoryRegionIndex;
+    }
+
+    public List<TopologicalDomain> getTopologicallyAssociatedDomains() {
+        return topologicalDomains;
+    }
+
+    public ChromosomalRegionIndex<TopologicalDomain> getTopologicallyAssociatedDomainIndex() {
+        return topologicalDomainIndex;
+    }
+
+    /**
+     * Writes the regions out to the specified file. Duplicate regions are removed and the regions are written sorted
+     * by chromosome and start position.
+     *
+     * @param path               the file to write
+     * @param regulatoryFeatures the regulatory features for the genome assembly
+     * @param topologicalDomains the TADs for the genome assembly
+     */
+    public static void write(Path path, Collection<RegulatoryFeature> regulatoryFeatures, Collection<TopologicalDomain> topologicalDomains) {
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            outputStream.write(MAGIC_BYTES);
+            outputStream.writeInt(FORMAT_VERSION);
+
+            RegulatoryFeature.FeatureType[] featureTypes = RegulatoryFeature.FeatureType.values();
+            outputStream.writeInt(featureTypes.length);
+            for (RegulatoryFeature.FeatureType featureType : featureTypes) {
+                writeString(outputStream, featureType.name());
+            }
+            Map<Integer, List<RegulatoryFeature>> regulatoryFeaturesByChromosome = partitionByChromosome(regulatoryFeatures);
+            outputStream.writeInt(regulatoryFeaturesByChromosome.size());
+            for (Map.Entry<Integer, List<RegulatoryFeature>> entry : regulatoryFeaturesByChromosome.entrySet()) {
+                outputStream.writeInt(entry.getKey());
+                outputStream.writeInt(entry.getValue().size());
+                for (RegulatoryFeature regulatoryFeature : entry.getValue()) {
+                    outputStream.writeInt(regulatoryFeature.getStart());
+                    outputStream.writeInt(regulatoryFeature.getEnd());
+                    outputStream.writeByte(regulatoryFeature.getFeatureType().ordinal());
+                }
+            }
+
+            Map<Integer, List<TopologicalDomain>> topologicalDomainsByChromosome = partitionByChromosome(topologicalDomains);
+            outputStream.writeInt(topologicalDomainsByChromosome.size());
+            for (Map.Entry<Integer, List<TopologicalDomain>> entry : topologicalDomainsByChromosome.entrySet()) {
+                outputStream.writeInt(entry.getKey());
+                outputStream.writeInt(entry.getValue().size());
+                for (TopologicalDomain topologicalDomain : entry.getValue()) {
+                    outputStream.writeInt(topologicalDomain.getStart());
+                    outputStream.writeInt(topologicalDomain.getEnd());
+                    Map<String, Integer> genes = topologicalDomain.getGenes();
+                    outputStream.writeInt(genes.size());
+                    for (Map.Entry<String, Integer> gene : genes.entrySet()) {
+                        outputStream.writeInt(gene.getValue());
+                        writeString(outputStream, gene.getKey());
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write genome intervals to " + path, ex);
+        }
+        logger.info("Written {} regulatory features and {} TADs to {}", regulatoryFeatures.size(), topologicalDomains.size(), path);
+    }
+
+    private static <T extends ChromosomalRegion> Map<Integer, List<T>> partitionByChromosome(Collection<T> regions) {
+        Map<Integer, List<T>> regionsByChromosome = new TreeMap<>();
+        for (T region : new LinkedHashSet<>(regions)) {
+            regionsByChromosome.computeIfAbsent(region.getChromosome(), key -> new ArrayList<>()).add(region);
+        }
+        for (List<T> chromosomeRegions : regionsByChromosome.values()) {
+            chromosomeRegions.sort(Comparator.comparingInt(ChromosomalRegion::getStart).thenComparingInt(ChromosomalRegion::getEnd));
+        }
+        return regionsByChromosome;
+    }
+
+    private static void writeString(DataOutputStream outputStream, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        outputStream.writeShort(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    /**
+     * Loads the regions from a file written by the {@link #write(Path, Collection, Collection)} method.
+     *
+     * @param path the file to load
+     * @return the loaded regions
+     * @throws GenomeIntervalFileException if the file is not a genome interval file of the supported version
+     */
+    public static GenomeIntervalFile load(Path path) {
+        logger.debug("Loading genome intervals from {}", path);
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            checkHeader(path, buffer);
+            Map<Integer, List<RegulatoryFeature>> regulatoryFeatures = readRegulatoryFeatures(buffer);
+            Map<Integer, List<TopologicalDomain>> topologicalDomains = readTopologicalDomains(buffer);
+            GenomeIntervalFile genomeIntervalFile = new GenomeIntervalFile(regulatoryFeatures, topologicalDomains);
+            logger.info("Loaded {} regulatory features and {} TADs from {}", genomeIntervalFile.regulatoryFeatures.size(), genomeIntervalFile.topologicalDomains
+                    .size(), path);
+            return genomeIntervalFile;
+        } catch (BufferUnderflowException ex) {
+            throw new GenomeIntervalFileException(path + " is truncated", ex);
+        } catch (IOException ex) {
+            throw new GenomeIntervalFileException("Unable to read genome intervals from " + path, ex);
+        }
+    }
+
+    private static void checkHeader(Path path, ByteBuffer buffer) {
+        byte[] magicBytes = new byte[MAGIC_BYTES.length];
+        if (buffer.remaining() < magicBytes.length + Integer.BYTES) {
+            throw new GenomeIntervalFileException(path + " is not an Exomiser genome interval file");
+        }
+        buffer.get(magicBytes);
+        if (!Arrays.equals(magicBytes, MAGIC_BYTES)) {
+            throw new GenomeIntervalFileException(path + " is not an Exomiser genome interval file");
+        }
+        int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new GenomeIntervalFileException(path + " has unsupported format version " + version + " - expected " + FORMAT_VERSION);
+        }
+    }
+
+    private static Map<Integer, List<RegulatoryFeature>> readRegulatoryFeatures(ByteBuffer buffer) {
+        int numFeatureTypes = buffer.getInt();
+        RegulatoryFeature.FeatureType[] featureTypes = new RegulatoryFeature.FeatureType[numFeatureTypes];
+        for (int i = 0; i < numFeatureTypes; i++) {
+            featureTypes[i] = toFeatureType(readString(buffer));
+        }
+
+        int numChromosomes = buffer.getInt();
+        Map<Integer, List<RegulatoryFeature>> regulatoryFeatures = new LinkedHashMap<>();
+        for (int i = 0; i < numChromosomes; i++) {
+            int chromosome = buffer.getInt();
+            int numFeatures = buffer.getInt();
+            List<RegulatoryFeature> chromosomeFeatures = new ArrayList<>(numFeatures);
+            for (int j = 0; j < numFeatures; j++) {
+                int start = buffer.getInt();
+                int end = buffer.getInt();
+                RegulatoryFeature.FeatureType featureType = featureTypes[buffer.get()];
+                chromosomeFeatures.add(new RegulatoryFeature(chromosome, start, end, featureType));
+            }
+            regulatoryFeatures.put(chromosome, chromosomeFeatures);
+        }
+        return regulatoryFeatures;
+    }
+
+    private static RegulatoryFeature.FeatureType toFeatureType(String name) {
+        try {
+            return RegulatoryFeature.FeatureType.valueOf(name);
+        } catch (IllegalArgumentException ex) {
+            //a file written by a later version with a new feature type
+            return RegulatoryFeature.FeatureType.UNKNOWN;
+        }
+    }
+
+    private static Map<Integer, List<TopologicalDomain>> readTopologicalDomains(ByteBuffer buffer) {
+        int numChromosomes = buffer.getInt();
+        Map<Integer, List<TopologicalDomain>> topologicalDomains = new LinkedHashMap<>();
+        for (int i = 0; i < numChromosomes; i++) {
+            int chromosome = buffer.getInt();
+            int numTads = buffer.getInt();
+            List<TopologicalDomain> chromosomeTads = new ArrayList<>(numTads);
+            for (int j = 0; j < numTads; j++) {
+                int start = buffer.getInt();
+                int end = buffer.getInt();
+                int numGenes = buffer.getInt();
+                Map<String, Integer> genes = new LinkedHashMap<>();
+                for (int k = 0; k < numGenes; k++) {
+                    int geneId = buffer.getInt();
+                    genes.put(readString(buffer), geneId);
+                }
+                chromosomeTads.add(new TopologicalDomain(chromosome, start, end, genes));
+            }
+            topologicalDomains.put(chromosome, chromosomeTads);
+        }
+        return topologicalDomains;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static class GenomeIntervalFileException extends RuntimeException {
+
+        private GenomeIntervalFileException(String message) {
+            super(message);
+        }
+
+        private GenomeIntervalFileException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.core.genome.dao;
 
 import htsjdk.tribble.readers.TabixReader;
+import org.monarchinitiative.exomiser.core.genome.FieldTokeniser;
 import org.monarchinitiative.exomiser.core.model.Variant;
 import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
@@ -73,12 +74,11 @@ private FrequencyData getPositionFrequencyData(String chromosome, int start, Str
         try {
             TabixReader.Iterator results = tabixDataSource.query(chromosome + ":" + start + "-" + start);
             String line;
+            FieldTokeniser fields = FieldTokeniser.tabDelimited();
             while ((line = results.next()) != null) {
-                String[] elements = line.split("\t");
-                String refField = elements[2];
-                String altField = elements[3];
-                if (refField.equals(ref) && altField.equals(alt)) {
-                    return parseLocalFrequency(elements[4]);
+                fields.tokenise(line);
+                if (fields.fieldEquals(2, ref) && fields.fieldEquals(3, alt)) {
+                    return parseLocalFrequency(fields.getFloat(4));
                 }
             }
         } catch (IOException e) {
@@ -87,9 +87,8 @@ private FrequencyData getPositionFrequencyData(String chromosome, int start, Str
         return FrequencyData.empty();
     }
 
-    private FrequencyData parseLocalFrequency(String frequencyInPercentField) {
-        float value = Float.parseFloat(frequencyInPercentField);
-        Frequency localFreq = Frequency.valueOf(value, FrequencySource.LOCAL);
+    private FrequencyData parseLocalFrequency(float frequencyInPercent) {
+        Frequency localFreq = Frequency.valueOf(frequencyInPercent, FrequencySource.LOCAL);
         return FrequencyData.of(RsId.empty(), localFreq);
     }
 }
@@ -27,6 +27,7 @@
 
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import htsjdk.tribble.readers.TabixReader;
+import org.monarchinitiative.exomiser.core.genome.FieldTokeniser;
 import org.monarchinitiative.exomiser.core.model.Variant;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.RemmScore;
@@ -103,12 +104,13 @@ private synchronized PathogenicityData getRemmData(String chromosome, int start,
             String line;
 //            logger.info("Running tabix with " + chromosome + ":" + start + "-" + end);
             TabixReader.Iterator results = remmTabixDataSource.query(chromosome + ":" + start + "-" + end);
+            FieldTokeniser fields = FieldTokeniser.tabDelimited();
             while ((line = results.next()) != null) {
-                String[] elements = line.split("\t");
+                float score = fields.tokenise(line).getFloat(2);
                 if (Float.isNaN(remm)) {
-                    remm = Float.parseFloat(elements[2]);
+                    remm = score;
                 } else {
-                    remm = Math.max(remm, Float.parseFloat(elements[2]));
+                    remm = Math.max(remm, score);
                 }
             }
             //logger.info("Final score " + remm);
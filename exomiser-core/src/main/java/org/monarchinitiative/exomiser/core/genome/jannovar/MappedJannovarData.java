@@ -0,0 +1,302 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.jannovar;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.InvalidProtocolBufferException;
+import de.charite.compbio.jannovar.data.Chromosome;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.impl.intervals.IntervalArray;
+import de.charite.compbio.jannovar.reference.TranscriptIntervalEndExtractor;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import org.monarchinitiative.exomiser.core.proto.JannovarProto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Uncompressed, memory-mappable alternative to the {@link JannovarDataProtoSerialiser} format. Rather than one large
+ * gzipped message the transcript models are written as one uncompressed protobuf block per chromosome, preceded by an
+ * index of block offsets. Opening a file only reads the {@link ReferenceDictionary} and the index, the transcript models
+ * and interval tree of a chromosome are only decoded when that chromosome is first requested.
+ * <p>
+ * The file layout is, using little-endian byte order:
+ * <pre>
+ * magic bytes 'J','T','M','F'
+ * int32 reference dictionary length, followed by the ReferenceDictionary proto
+ * int32 number of chromosomes n
+ * n * (int32 chromosome id, int64 block offset, int32 block length)
+ * n * JannovarData proto blocks containing only the transcript models for that chromosome
+ * </pre>
+ * Jannovar's {@link de.charite.compbio.jannovar.annotation.VariantAnnotator} requires all chromosomes up-front, so
+ * {@link #toJannovarData()} and {@link #load(Path)} eagerly decode all the blocks concurrently. Loading via
+ * {@link JannovarData} therefore only saves the decompression and single-threaded parsing of the other formats, not the
+ * decoding itself. Direct users of this class can use the {@link #getTranscriptModels(int)} and
+ * {@link #getChromosome(int)} methods to only pay for the chromosomes they use.
+ * <p>
+ * Each chromosome block is mapped as a separate region, so files larger than the 2 GB limit of a single
+ * {@link MappedByteBuffer} can be opened provided that no single chromosome block exceeds this.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class MappedJannovarData {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedJannovarData.class);
+
+    static final byte[] MAGIC_BYTES = {'J', 'T', 'M', 'F'};
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int INDEX_ENTRY_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final ReferenceDictionary referenceDictionary;
+    private final Map<Integer, ByteBuffer> chromosomeBlocks;
+    private final ConcurrentMap<Integer, List<TranscriptModel>> transcriptModelsCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Chromosome> chromosomeCache = new ConcurrentHashMap<>();
+
+    private MappedJannovarData(ReferenceDictionary referenceDictionary, Map<Integer, ByteBuffer> chromosomeBlocks) {
+        this.referenceDictionary = referenceDictionary;
+        this.chromosomeBlocks = chromosomeBlocks;
+    }
+
+    /**
+     * Writes the {@link JannovarData} to the mapped format at the given path.
+     */
+    public static void save(Path outFilePath, JannovarData jannovarData) {
+        logger.info("Writing mapped Jannovar data to {}", outFilePath);
+        byte[] refDictBytes = JannovarProtoConverter.toProtoReferenceDictionary(jannovarData.getRefDict()).toByteArray();
+
+        Set<TranscriptModel> uniqueTranscriptModels = new HashSet<>(jannovarData.getTmByAccession().values());
+        Map<Integer, List<TranscriptModel>> transcriptModelsByChr = uniqueTranscriptModels.stream()
+                .collect(groupingBy(TranscriptModel::getChr, TreeMap::new, toList()));
+
+        List<byte[]> blocks = new ArrayList<>(transcriptModelsByChr.size());
+        for (List<TranscriptModel> transcriptModels : transcriptModelsByChr.values()) {
+            JannovarProto.JannovarData block = JannovarProto.JannovarData.newBuilder()
+                    .addAllTranscriptModels(transcriptModels.stream()
+                            .map(JannovarProtoConverter.toProtoTranscriptModel())
+                            .collect(toList()))
+                    .build();
+            blocks.add(block.toByteArray());
+        }
+
+        int numChromosomes = transcriptModelsByChr.size();
+        int headerSize = MAGIC_BYTES.length + Integer.BYTES + refDictBytes.length + Integer.BYTES + numChromosomes * INDEX_ENTRY_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(headerSize).order(BYTE_ORDER);
+        header.put(MAGIC_BYTES);
+        header.putInt(refDictBytes.length);
+        header.put(refDictBytes);
+        header.putInt(numChromosomes);
+        long offset = headerSize;
+        int i = 0;
+        for (Integer chrId : transcriptModelsByChr.keySet()) {
+            byte[] block = blocks.get(i++);
+            header.putInt(chrId);
+            header.putLong(offset);
+            header.putInt(block.length);
+            offset += block.length;
+        }
+
+        try (OutputStream outputStream = Files.newOutputStream(outFilePath)) {
+            outputStream.write(header.array());
+            for (byte[] block : blocks) {
+                outputStream.write(block);
+            }
+        } catch (IOException e) {
+            throw new MappedJannovarDataException("Unable to write mapped Jannovar data to " + outFilePath, e);
+        }
+        logger.info("Done");
+    }
+
+    /**
+     * Returns true if the file at the given path starts with the magic bytes of the mapped format. This is a cheap check
+     * which allows callers to decide which loader to use for a transcript file.
+     */
+    public static boolean isMappedFormat(Path path) {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] bytes = new byte[MAGIC_BYTES.length];
+            int bytesRead = inputStream.read(bytes);
+            return bytesRead == bytes.length && Arrays.equals(bytes, MAGIC_BYTES);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Maps the file at the given path into memory and reads the reference dictionary and chromosome index. No transcript
+     * models are decoded at this point.
+     */
+    public static MappedJannovarData open(Path path) {
+        Instant start = Instant.now();
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = fileChannel.size();
+            // the mappings remain valid after the channel is closed. The header is always well within the 2 GB limit of
+            // a single mapping, but the whole file may not be, so each chromosome block is mapped separately.
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(fileSize, Integer.MAX_VALUE));
+            buffer.order(BYTE_ORDER);
+            checkMagicBytes(path, buffer);
+
+            int refDictLength = buffer.getInt();
+            ByteBuffer refDictBuffer = slice(buffer, buffer.position(), refDictLength);
+            buffer.position(buffer.position() + refDictLength);
+            ReferenceDictionary referenceDictionary = JannovarProtoConverter.toReferenceDictionary(JannovarProto.ReferenceDictionary
+                    .parseFrom(refDictBuffer));
+
+            int numChromosomes = buffer.getInt();
+            Map<Integer, ByteBuffer> chromosomeBlocks = new LinkedHashMap<>();
+            for (int i = 0; i < numChromosomes; i++) {
+                int chrId = buffer.getInt();
+                long offset = buffer.getLong();
+                int length = buffer.getInt();
+                if (offset < 0 || length < 0 || offset + length > fileSize) {
+                    throw new InvalidFileFormatException(path + " is truncated or corrupt - block for chromosome " + chrId + " lies outside the file.");
+                }
+                chromosomeBlocks.put(chrId, fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+            }
+            logger.info("Opened mapped Jannovar data {} containing {} chromosomes in {} ms", path, numChromosomes, Duration
+                    .between(start, Instant.now())
+                    .toMillis());
+            return new MappedJannovarData(referenceDictionary, Collections.unmodifiableMap(chromosomeBlocks));
+        } catch (IOException e) {
+            throw new MappedJannovarDataException("Unable to read mapped Jannovar data from " + path, e);
+        }
+    }
+
+    /**
+     * Convenience method equivalent to {@code MappedJannovarData.open(path).toJannovarData()}. Note that this eagerly
+     * decodes all the transcript models, as required by the Jannovar annotator.
+     */
+    public static JannovarData load(Path path) {
+        return open(path).toJannovarData();
+    }
+
+    private static void checkMagicBytes(Path path, ByteBuffer buffer) {
+        byte[] bytes = new byte[MAGIC_BYTES.length];
+        if (buffer.remaining() < bytes.length) {
+            throw new InvalidFileFormatException(path + " not an Exomiser mapped format Jannovar transcript database.");
+        }
+        buffer.get(bytes);
+        if (!Arrays.equals(bytes, MAGIC_BYTES)) {
+            throw new InvalidFileFormatException(path + " not an Exomiser mapped format Jannovar transcript database.");
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.limit(offset + length);
+        return duplicate.slice();
+    }
+
+    public ReferenceDictionary getRefDict() {
+        return referenceDictionary;
+    }
+
+    /**
+     * @return the ids of the chromosomes which have transcript models in this file.
+     */
+    public Set<Integer> getChromosomeIds() {
+        return chromosomeBlocks.keySet();
+    }
+
+    /**
+     * Returns the transcript models for the given chromosome, decoding them from the mapped file on first access. An
+     * empty list is returned for chromosomes with no transcripts.
+     */
+    public List<TranscriptModel> getTranscriptModels(int chrId) {
+        ByteBuffer block = chromosomeBlocks.get(chrId);
+        if (block == null) {
+            return ImmutableList.of();
+        }
+        return transcriptModelsCache.computeIfAbsent(chrId, id -> decodeBlock(id, block));
+    }
+
+    /**
+     * Returns the Jannovar {@link Chromosome}, including the transcript interval tree, for the given chromosome id
+     * building it on first access. In the same way as {@link JannovarData#getChromosomes()} contigs in the reference
+     * dictionary without any transcripts have an empty interval tree and unknown contigs return null.
+     */
+    public Chromosome getChromosome(int chrId) {
+        if (!referenceDictionary.getContigIDToName().containsKey(chrId)) {
+            return null;
+        }
+        return chromosomeCache.computeIfAbsent(chrId, id -> {
+            IntervalArray<TranscriptModel> intervalTree = new IntervalArray<>(getTranscriptModels(id), new TranscriptIntervalEndExtractor());
+            return new Chromosome(referenceDictionary, id, intervalTree);
+        });
+    }
+
+    /**
+     * Eagerly decodes all of the chromosomes concurrently and returns them as a {@link JannovarData} for use with the
+     * Jannovar {@link de.charite.compbio.jannovar.annotation.VariantAnnotator}.
+     */
+    public JannovarData toJannovarData() {
+        Instant start = Instant.now();
+        ImmutableList<TranscriptModel> transcriptModels = chromosomeBlocks.keySet()
+                .parallelStream()
+                .map(this::getTranscriptModels)
+                .flatMap(List::stream)
+                .collect(ImmutableList.toImmutableList());
+        JannovarData jannovarData = new JannovarData(referenceDictionary, transcriptModels);
+        logger.info("Decoded {} transcript models in {} ms", transcriptModels.size(), Duration.between(start, Instant.now())
+                .toMillis());
+        return jannovarData;
+    }
+
+    private List<TranscriptModel> decodeBlock(int chrId, ByteBuffer block) {
+        try {
+            // use a duplicate so that concurrent reads of different blocks don't share a position
+            JannovarProto.JannovarData protoBlock = JannovarProto.JannovarData.parseFrom(block.duplicate());
+            return protoBlock.getTranscriptModelsList()
+                    .stream()
+                    .map(JannovarProtoConverter.toTranscriptModel(referenceDictionary))
+                    .collect(ImmutableList.toImmutableList());
+        } catch (InvalidProtocolBufferException e) {
+            throw new MappedJannovarDataException("Unable to decode transcript models for chromosome " + chrId, e);
+        }
+    }
+
+    public static class MappedJannovarDataException extends RuntimeException {
+
+        private MappedJannovarDataException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
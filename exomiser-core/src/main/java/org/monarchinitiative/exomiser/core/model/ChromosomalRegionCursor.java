@@ -0,0 +1,149 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.model;
+
+import com.google.common.collect.ImmutableList;
+import de.charite.compbio.jannovar.impl.intervals.Interval;
+import de.charite.compbio.jannovar.impl.intervals.IntervalArray;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stateful sweep-line cursor over the regions of a {@link ChromosomalRegionIndex} for answering overlap queries from a
+ * stream of positions in chromosome and position order, such as the variants read from a sorted VCF file. Rather than
+ * searching the index for each position, the cursor advances through the start-sorted regions of the current
+ * chromosome, keeping the set of regions overlapping the last queried position. Sorted queries are therefore answered
+ * in amortised constant time without allocating a new result list.
+ * <p>
+ * Queries for a position behind the last one, or too far ahead to be worth sweeping to, are answered from the index
+ * and the cursor restarts from that position, so the results are always the same as those of the
+ * {@link ChromosomalRegionIndex}, whether the input is sorted or not. Results are in order of region start and end.
+ * <p>
+ * Instances are not thread-safe and the returned lists are views which are only valid until the next query. Create
+ * these using {@link ChromosomalRegionIndex#cursor()}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class ChromosomalRegionCursor<T extends ChromosomalRegion> {
+
+    // the maximum number of regions to sweep over before jumping to a position using the index
+    private static final int MAX_SWEEP_LENGTH = 64;
+
+    private static final Comparator<ChromosomalRegion> START_END_ORDER = Comparator.comparingInt(ChromosomalRegion::getStart)
+            .thenComparingInt(ChromosomalRegion::getEnd);
+
+    private final Map<Integer, IntervalArray<T>> index;
+
+    private int chromosome = Integer.MIN_VALUE;
+    private int position = Integer.MIN_VALUE;
+    private IntervalArray<T> intervalArray;
+    private List<Interval<T>> intervals = ImmutableList.of();
+    // index of the first interval starting after the current position
+    private int next = 0;
+    // regions overlapping the current position
+    private final List<T> overlapping = new ArrayList<>();
+    private final List<T> overlappingView = Collections.unmodifiableList(overlapping);
+
+    ChromosomalRegionCursor(Map<Integer, IntervalArray<T>> index) {
+        this.index = index;
+    }
+
+    public boolean hasRegionContainingVariant(VariantCoordinates variantCoordinates) {
+        return !getRegionsOverlappingPosition(variantCoordinates.getChromosome(), variantCoordinates.getPosition()).isEmpty();
+    }
+
+    public boolean hasRegionContainingPosition(int chromosome, int position) {
+        return !getRegionsOverlappingPosition(chromosome, position).isEmpty();
+    }
+
+    public List<T> getRegionsContainingVariant(VariantCoordinates variantCoordinates) {
+        return getRegionsOverlappingPosition(variantCoordinates.getChromosome(), variantCoordinates.getPosition());
+    }
+
+    /**
+     * Use one-based co-ordinates for this method.
+     *
+     * @param chromosome chromosome of the position of interest
+     * @param position   1-based position to be tested for inclusion within the regions of the index
+     * @return a view of the regions containing the position which is only valid until the next call to this cursor
+     */
+    public List<T> getRegionsOverlappingPosition(int chromosome, int position) {
+        if (chromosome != this.chromosome || position < this.position || isTooFarAhead(position)) {
+            jumpTo(chromosome, position);
+        } else if (position > this.position) {
+            sweepTo(position);
+        }
+        return overlappingView;
+    }
+
+    private boolean isTooFarAhead(int position) {
+        int lookAhead = next + MAX_SWEEP_LENGTH;
+        // interval begin is zero-based
+        return lookAhead < intervals.size() && intervals.get(lookAhead).getBegin() < position;
+    }
+
+    private void jumpTo(int chromosome, int position) {
+        if (chromosome != this.chromosome) {
+            this.chromosome = chromosome;
+            this.intervalArray = index.get(chromosome);
+            this.intervals = intervalArray == null ? ImmutableList.of() : intervalArray.getIntervals();
+        }
+        this.position = position;
+        overlapping.clear();
+        if (intervalArray == null) {
+            next = 0;
+            return;
+        }
+        overlapping.addAll(intervalArray.findOverlappingWithPoint(position - 1).getEntries());
+        overlapping.sort(START_END_ORDER);
+        next = firstIntervalStartingAfter(position);
+    }
+
+    private int firstIntervalStartingAfter(int position) {
+        int low = 0;
+        int high = intervals.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (intervals.get(mid).getBegin() < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void sweepTo(int position) {
+        this.position = position;
+        overlapping.removeIf(region -> region.getEnd() < position);
+        while (next < intervals.size() && intervals.get(next).getBegin() < position) {
+            T region = intervals.get(next).getValue();
+            if (region.getEnd() >= position) {
+                overlapping.add(region);
+            }
+            next++;
+        }
+    }
+}
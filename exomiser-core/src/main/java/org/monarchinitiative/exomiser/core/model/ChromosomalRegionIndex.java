@@ -70,6 +70,24 @@ public static <T extends ChromosomalRegion> ChromosomalRegionIndex<T> of(Collect
         return new ChromosomalRegionIndex<>(intervalTreeIndex);
     }
 
+    /**
+     * Static constructor for creating a {@link ChromosomalRegionIndex} from {@link ChromosomalRegion} objects which have
+     * already been partitioned by chromosome, for example when loaded from a pre-compiled file. Unlike
+     * {@link #of(Collection)}, duplicate regions are not removed.
+     *
+     * @param chromosomalRegions The {@link ChromosomalRegion} objects to add to the index keyed by their chromosome
+     * @param <T> The type of {@link ChromosomalRegion} this index contains
+     * @return a {@link ChromosomalRegionIndex} containing the input {@link ChromosomalRegion} objects
+     * @since 11.0.0
+     */
+    public static <T extends ChromosomalRegion> ChromosomalRegionIndex<T> ofChromosomes(Map<Integer, ? extends Collection<T>> chromosomalRegions) {
+        Map<Integer, IntervalArray<T>> intervalTreeIndex = new HashMap<>();
+        for (Map.Entry<Integer, ? extends Collection<T>> entry : chromosomalRegions.entrySet()) {
+            intervalTreeIndex.put(entry.getKey(), new IntervalArray<>(entry.getValue(), new ChromosomalRegionEndExtractor<>()));
+        }
+        return new ChromosomalRegionIndex<>(intervalTreeIndex);
+    }
+
     /**
      * Returns an empty index. Useful for testing.
      * @return An empty index
@@ -118,6 +136,17 @@ public List<T> getRegionsOverlappingPosition(int chromosome, int position) {
         return queryResult.getEntries();
     }
 
+    /**
+     * Returns a new {@link ChromosomalRegionCursor} over the regions in this index. This will answer queries from
+     * position-sorted input more quickly than the methods of the index itself, but is not thread-safe.
+     *
+     * @return a new cursor positioned before the start of the index
+     * @since 11.0.0
+     */
+    public ChromosomalRegionCursor<T> cursor() {
+        return new ChromosomalRegionCursor<>(index);
+    }
+
     /**
      * Returns the number of intervals stored in the index.
      * @return the number of intervals stored in the index.
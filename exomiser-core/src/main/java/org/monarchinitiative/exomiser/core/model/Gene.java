@@ -87,6 +87,7 @@ public class Gene implements Comparable<Gene>, Filterable, Inheritable {
      * A list of all of the variants that affect this gene.
      */
     private final List<VariantEvaluation> variantEvaluations = new ArrayList<>();
+    private boolean hasStoredFailedVariants = false;
     private Set<ModeOfInheritance> inheritanceModes = EnumSet.noneOf(ModeOfInheritance.class);
 
     /**
@@ -199,6 +200,23 @@ public boolean hasVariants() {
         return !variantEvaluations.isEmpty();
     }
 
+    /**
+     * Returns true if variants of this gene failed the variant filters and were stored outside of the gene rather than
+     * added to it. Such a gene is not unfiltered, even if it has no variants.
+     *
+     * @since 11.0.0
+     */
+    public boolean hasStoredFailedVariants() {
+        return hasStoredFailedVariants;
+    }
+
+    /**
+     * @since 11.0.0
+     */
+    public void setHasStoredFailedVariants(boolean hasStoredFailedVariants) {
+        this.hasStoredFailedVariants = hasStoredFailedVariants;
+    }
+
     /**
      * This function adds additional variants to the current gene. The variants
      * have been identified by parsing the VCF file.
@@ -409,7 +427,8 @@ public float getCombinedScoreForMode(ModeOfInheritance modeOfInheritance) {
     /**
      * Returns true if the gene has passed all filters and at least one Variant
      * associated with the Gene has also passed all filters. Will also return
-     * true if the gene has no variants associated with it.
+     * true if the gene has no variants associated with it, unless it has
+     * stored failed variants.
      */
     @Override
     public boolean passedFilters() {
@@ -417,7 +436,7 @@ public boolean passedFilters() {
     }
 
     private boolean isUnfiltered() {
-        return failedFilterTypes.isEmpty() && variantEvaluations.isEmpty();
+        return failedFilterTypes.isEmpty() && variantEvaluations.isEmpty() && !hasStoredFailedVariants;
     }
 
     private boolean atLeastOneVariantPassedFilters() {
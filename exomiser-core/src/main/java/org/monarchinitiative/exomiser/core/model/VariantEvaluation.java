@@ -50,7 +50,7 @@
 public class VariantEvaluation implements Comparable<VariantEvaluation>, Filterable, Inheritable, Variant {
 
     //threshold over which a variant effect score is considered pathogenic
-    private static final float DEFAULT_PATHOGENICITY_THRESHOLD = 0.5f;
+    public static final float DEFAULT_PATHOGENICITY_THRESHOLD = 0.5f;
 
     // HTSJDK {@link VariantContext} instance of this allele
     @JsonIgnore
@@ -27,6 +27,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -159,15 +160,18 @@ skip it. The gene will be given a (low) default score in
                  */
                 continue;
             }
-            //Get the column we need, this has the distances of ALL genes to the current gene
-            FloatMatrix column = randomWalkMatrix.getColumnMatrixForGene(seedGeneEntrezId);
+            //Get the column we need, this has the distances of ALL genes to the current gene. This is read in place
+            //and summed into the resulting vector so that no intermediate column copies are made.
+            FloatBuffer column = randomWalkMatrix.getColumnBufferForGene(seedGeneEntrezId);
 
             // for the first column/known gene we have to init the resulting vector
             if (first) {
-                combinedProximityVector = column;
+                combinedProximityVector = FloatMatrix.zeros(column.limit(), 1);
                 first = false;
-            } else {
-                combinedProximityVector = combinedProximityVector.add(column);
+            }
+            float[] combined = combinedProximityVector.data;
+            for (int i = 0; i < combined.length; i++) {
+                combined[i] += column.get(i);
             }
         }
     }
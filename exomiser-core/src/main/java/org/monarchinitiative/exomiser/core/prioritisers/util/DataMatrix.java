@@ -22,6 +22,7 @@
 
 import org.jblas.FloatMatrix;
 
+import java.nio.FloatBuffer;
 import java.util.Map;
 
 /**
@@ -90,4 +91,21 @@ public static DataMatrix empty() {
      */
     public FloatMatrix getColumnMatrixForGene(int entrezGeneId);
 
+    /**
+     * Finds the column values for the argument gene identifier as a {@code FloatBuffer} indexed from zero.
+     * Implementations backed by a buffer should return a view of their data rather than a copy. The default
+     * implementation wraps the values of {@link #getColumnMatrixForGene(int)}.
+     *
+     * @param entrezGeneId the entrez gene identifier of the gene
+     * @return a {@code FloatBuffer} of the column values for this gene identifier or {@code null} if not present.
+     * @since 11.0.0
+     */
+    public default FloatBuffer getColumnBufferForGene(int entrezGeneId) {
+        FloatMatrix column = getColumnMatrixForGene(entrezGeneId);
+        if (column == null) {
+            return null;
+        }
+        return FloatBuffer.wrap(column.data);
+    }
+
 }
@@ -27,7 +27,10 @@
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.zip.GZIPInputStream;
@@ -85,14 +88,104 @@ public static void convertToMap(String matrixFileZip, String entrezId2indexFileZ
         mvStore.close();
     }
 
+    /**
+     * Converts the gzipped {@code matrixFileZip} and {@code entrezId2indexFileZip} into a {@link MappedDataMatrix} file
+     * saved to the {@code outfileName} argument.
+     *
+     * @param matrixFileZip         a {@code String} containing the full system path to the gzipped random walk matrix file.
+     * @param entrezId2indexFileZip a {@code String} containing the full system path to the gzipped index of the random
+     *                              walk matrix file.
+     * @param outfileName           the writable {@code Path} of the desired output file.
+     * @since 11.0.0
+     */
+    public static void convertToMappedFile(String matrixFileZip, String entrezId2indexFileZip, Path outfileName) {
+        DataMatrix dataMatrix = loadInMemoryDataMatrixFromFile(matrixFileZip, entrezId2indexFileZip, true);
+        writeMappedDataMatrix(dataMatrix, outfileName);
+    }
+
+    /**
+     * Converts an existing {@link MVStore} {@code DataMatrix} into a {@link MappedDataMatrix} file saved to the
+     * {@code outfileName} argument. The columns are copied one at a time so the whole matrix is never held in memory.
+     *
+     * @param ppiMapPath  the {@code Path} to the {@link MVStore} containing the {@code DataMatrix} data.
+     * @param outfileName the writable {@code Path} of the desired output file.
+     * @since 11.0.0
+     */
+    public static void convertMapToMappedFile(Path ppiMapPath, Path outfileName) {
+        OffHeapDataMatrix offHeapDataMatrix = OffHeapDataMatrix.load(ppiMapPath);
+        try {
+            writeMappedDataMatrix(offHeapDataMatrix, outfileName);
+        } finally {
+            offHeapDataMatrix.close();
+        }
+    }
+
+    /**
+     * Writes the {@code dataMatrix} to the {@code outfileName} in the flat, little-endian format read by the
+     * {@link MappedDataMatrix}.
+     *
+     * @param dataMatrix  the {@code DataMatrix} to write.
+     * @param outfileName the writable {@code Path} of the desired output file.
+     * @since 11.0.0
+     */
+    public static void writeMappedDataMatrix(DataMatrix dataMatrix, Path outfileName) {
+        int numGenes = dataMatrix.numRows();
+        int[] geneIds = new int[numGenes];
+        for (Map.Entry<Integer, Integer> geneIdToIndex : dataMatrix.getEntrezIdToRowIndex().entrySet()) {
+            geneIds[geneIdToIndex.getValue()] = geneIdToIndex.getKey();
+        }
+        logger.info("Writing {} gene mapped data matrix to {}", numGenes, outfileName);
+        try (FileChannel fileChannel = FileChannel.open(outfileName, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate((int) MappedDataMatrix.headerSize(numGenes))
+                    .order(MappedDataMatrix.BYTE_ORDER);
+            header.put(MappedDataMatrix.MAGIC_BYTES);
+            header.putInt(numGenes);
+            for (int geneId : geneIds) {
+                header.putInt(geneId);
+            }
+            header.flip();
+            writeFully(fileChannel, header);
+
+            ByteBuffer columnBuffer = ByteBuffer.allocate(numGenes * Float.BYTES).order(MappedDataMatrix.BYTE_ORDER);
+            for (int geneId : geneIds) {
+                float[] columnValues = dataMatrix.getColumnMatrixForGene(geneId).toArray();
+                columnBuffer.clear();
+                columnBuffer.asFloatBuffer().put(columnValues);
+                writeFully(fileChannel, columnBuffer);
+            }
+        } catch (IOException e) {
+            throw new DataMatrixIoException("Unable to write mapped data matrix to " + outfileName, e);
+        }
+    }
+
+    private static void writeFully(FileChannel fileChannel, ByteBuffer byteBuffer) throws IOException {
+        while (byteBuffer.hasRemaining()) {
+            fileChannel.write(byteBuffer);
+        }
+    }
+
+    /**
+     * Loads a memory-mapped {@code DataMatrix} from a file written by the {@code writeMappedDataMatrix} method. This has
+     * practically no start-up time or heap overhead and column reads require no deserialisation. The mapped file is
+     * held in the OS page cache so can be shared by other processes on the same machine.
+     *
+     * @param mappedMatrixPath the {@code Path} to the mapped {@code DataMatrix} file.
+     * @return a memory-mapped instance of the {@code DataMatrix}
+     * @since 11.0.0
+     */
+    public static DataMatrix loadMappedDataMatrix(Path mappedMatrixPath) {
+        logger.debug("Loading memory-mapped PPI data matrix from file...");
+        return MappedDataMatrix.load(mappedMatrixPath);
+    }
+
     /**
      * Loads an off-heap {@code DataMatrix} backed by an {@link MVStore} map. This is preferable to use in most scenarios
      * as it takes no start-up time and has very low memory overhead. For cases where a IO might be an issue in a long-running
      * process it might be preferable to use the {@code loadInMemoryDataMatrix} method, at the expense of initial start-up
      * time and high RAM requirements.
      *
-     * @param ppiMapPath the {@code Path} to the {@link MVStore} containing the {@code DataMatrix) data.
-     * @return an off-heap instance of the {@code DataMatrix)
+     * @param ppiMapPath the {@code Path} to the {@link MVStore} containing the {@code DataMatrix} data.
+     * @return an off-heap instance of the {@code DataMatrix}
      * @since 10.0.0
      */
     public static DataMatrix loadOffHeapDataMatrix(Path ppiMapPath) {
@@ -104,8 +197,8 @@ public static DataMatrix loadOffHeapDataMatrix(Path ppiMapPath) {
      * Loads an in memory {@code DataMatrix} from the input {@code Path} argument. This is inferior to using one the off-heap
      * map-backed method as it takes a few seconds to load and requires ~1GB more RAM however it has zero IO once loaded.
      *
-     * @param ppiMapPath the {@code Path} to the {@link MVStore} containing the {@code DataMatrix) data.
-     * @return an in-memory instance of the {@code DataMatrix)
+     * @param ppiMapPath the {@code Path} to the {@link MVStore} containing the {@code DataMatrix} data.
+     * @return an in-memory instance of the {@code DataMatrix}
      * @since 10.0.0
      */
     public static DataMatrix loadInMemoryDataMatrix(Path ppiMapPath) {
@@ -127,7 +220,7 @@ public static DataMatrix loadInMemoryDataMatrix(Path ppiMapPath) {
      * @param entrezId2indexFileZip a {@code String} containing the full system path to the gzipped index of the random
      *                              walk matrix file.
      * @param shouldUseExponent     flag to indicate whether or not to use the exponent of the values
-     * @return an in-memory instance of the {@code DataMatrix)
+     * @return an in-memory instance of the {@code DataMatrix}
      * @since 10.0.0
      */
     public static DataMatrix loadInMemoryDataMatrixFromFile(String matrixFileZip, String entrezId2indexFileZip, boolean shouldUseExponent) {
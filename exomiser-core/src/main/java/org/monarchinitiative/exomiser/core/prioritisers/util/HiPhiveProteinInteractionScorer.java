@@ -28,6 +28,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.FloatBuffer;
 import java.util.*;
 
 /**
@@ -106,9 +107,13 @@ private FloatMatrix makeWeightedHighQualityProteinInteractionMatrix(DataMatrix d
         FloatMatrix highQualityPpiMatrix = FloatMatrix.zeros(rows, cols);
         for (GeneColumnIndex geneColumnIndex : highQualityPhenotypeMappings) {
             //The original DataMatrix is a symmetrical matrix this new one is asymmetrical with the original rows but only high-quality columns.
-            FloatMatrix column = dataMatrix.getColumnMatrixForGene(geneColumnIndex.geneId);
-            FloatMatrix weightedColumn = column.mul((float) geneColumnIndex.phenoScore);
-            highQualityPpiMatrix.putColumn(geneColumnIndex.columnIndex, weightedColumn);
+            // read the column in place and write the weighted values straight into the column-major data array
+            FloatBuffer column = dataMatrix.getColumnBufferForGene(geneColumnIndex.geneId);
+            float weight = (float) geneColumnIndex.phenoScore;
+            int offset = geneColumnIndex.columnIndex * rows;
+            for (int row = 0; row < rows; row++) {
+                highQualityPpiMatrix.data[offset + row] = column.get(row) * weight;
+            }
         }
         logger.debug("Made high quality interaction matrix ({} rows * {} columns)", highQualityPpiMatrix.getRows(), highQualityPpiMatrix
                 .getColumns());
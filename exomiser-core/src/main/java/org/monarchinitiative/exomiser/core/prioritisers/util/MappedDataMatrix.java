@@ -0,0 +1,204 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.prioritisers.util;
+
+import com.google.common.collect.ImmutableMap;
+import org.jblas.FloatMatrix;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Memory-mapped {@code DataMatrix} implementation backed by a single flat file of little-endian values. Unlike the
+ * {@link OffHeapDataMatrix} there is no page lookup or deserialisation of a column on access, and the mapped pages
+ * are held in the OS page cache so they can be shared between JVMs on the same host.
+ * <p>
+ * The file layout is:
+ * <pre>
+ *     4 bytes   magic bytes 'E', 'X', 'M', 'M'
+ *     int32     n - the number of genes
+ *     int32[n]  the entrez gene id for each row/column index
+ *     float[n*n] the matrix data in column-major order i.e. the n values of column 0 followed by column 1 ...
+ * </pre>
+ * These files can be created from the existing gzipped or {@link org.h2.mvstore.MVStore} data using the
+ * {@link DataMatrixIO#writeMappedDataMatrix} methods.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class MappedDataMatrix implements DataMatrix {
+
+    static final byte[] MAGIC_BYTES = {'E', 'X', 'M', 'M'};
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final int numGenes;
+    private final Map<Integer, Integer> rowIndex;
+    // A MappedByteBuffer is limited to Integer.MAX_VALUE bytes so the columns are split across several buffers
+    private final int columnsPerBuffer;
+    private final FloatBuffer[] columnBuffers;
+
+    // lazily copied onto the heap by getMatrix() as this is only required by some prioritisers
+    private volatile FloatMatrix floatMatrix = null;
+
+    public static MappedDataMatrix load(Path mappedMatrixPath) {
+        Objects.requireNonNull(mappedMatrixPath);
+        try (FileChannel fileChannel = FileChannel.open(mappedMatrixPath, StandardOpenOption.READ)) {
+            return new MappedDataMatrix(fileChannel);
+        } catch (IOException e) {
+            throw new DataMatrixIO.DataMatrixIoException("Unable to load mapped data matrix " + mappedMatrixPath, e);
+        }
+    }
+
+    private MappedDataMatrix(FileChannel fileChannel) throws IOException {
+        ByteBuffer preamble = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, MAGIC_BYTES.length + Integer.BYTES)
+                .order(BYTE_ORDER);
+        byte[] magicBytes = new byte[MAGIC_BYTES.length];
+        preamble.get(magicBytes);
+        if (!Arrays.equals(magicBytes, MAGIC_BYTES)) {
+            throw new IllegalArgumentException("File is not an Exomiser mapped data matrix");
+        }
+        this.numGenes = preamble.getInt();
+
+        long headerSize = headerSize(numGenes);
+        long columnBytes = (long) numGenes * Float.BYTES;
+        if (fileChannel.size() != headerSize + columnBytes * numGenes) {
+            throw new IllegalArgumentException("Expected file of " + (headerSize + columnBytes * numGenes) + " bytes for " + numGenes + " genes but was " + fileChannel.size());
+        }
+
+        IntBuffer geneIds = fileChannel.map(FileChannel.MapMode.READ_ONLY, MAGIC_BYTES.length + Integer.BYTES, (long) numGenes * Integer.BYTES)
+                .order(BYTE_ORDER)
+                .asIntBuffer();
+        ImmutableMap.Builder<Integer, Integer> indexBuilder = ImmutableMap.builder();
+        for (int i = 0; i < numGenes; i++) {
+            indexBuilder.put(geneIds.get(i), i);
+        }
+        this.rowIndex = indexBuilder.build();
+
+        this.columnsPerBuffer = (int) Math.max(1, Integer.MAX_VALUE / Math.max(1, columnBytes));
+        int numBuffers = numGenes == 0 ? 0 : (numGenes + columnsPerBuffer - 1) / columnsPerBuffer;
+        this.columnBuffers = new FloatBuffer[numBuffers];
+        for (int i = 0; i < numBuffers; i++) {
+            int numColumnsInBuffer = Math.min(columnsPerBuffer, numGenes - i * columnsPerBuffer);
+            long position = headerSize + i * columnsPerBuffer * columnBytes;
+            MappedByteBuffer mappedByteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, position, numColumnsInBuffer * columnBytes);
+            columnBuffers[i] = mappedByteBuffer.order(BYTE_ORDER).asFloatBuffer();
+        }
+    }
+
+    static long headerSize(int numGenes) {
+        return MAGIC_BYTES.length + Integer.BYTES + (long) numGenes * Integer.BYTES;
+    }
+
+    /**
+     * Returns a read-only view of the mapped column data for the gene. No data is copied, values are read directly
+     * from the mapped file.
+     *
+     * @param entrezGeneId the entrez gene identifier of the gene
+     * @return a read-only {@code FloatBuffer} of the column values for this gene identifier or {@code null} if not present.
+     */
+    @Override
+    public FloatBuffer getColumnBufferForGene(int entrezGeneId) {
+        Integer index = rowIndex.get(entrezGeneId);
+        if (index == null) {
+            return null;
+        }
+        return columnBuffer(index);
+    }
+
+    private FloatBuffer columnBuffer(int columnIndex) {
+        FloatBuffer duplicate = columnBuffers[columnIndex / columnsPerBuffer].duplicate();
+        int start = (columnIndex % columnsPerBuffer) * numGenes;
+        duplicate.position(start);
+        duplicate.limit(start + numGenes);
+        return duplicate.slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public Map<Integer, Integer> getEntrezIdToRowIndex() {
+        return rowIndex;
+    }
+
+    @Override
+    public FloatMatrix getMatrix() {
+        FloatMatrix matrix = floatMatrix;
+        if (matrix == null) {
+            synchronized (this) {
+                matrix = floatMatrix;
+                if (matrix == null) {
+                    matrix = copyMatrix();
+                    floatMatrix = matrix;
+                }
+            }
+        }
+        return matrix;
+    }
+
+    private FloatMatrix copyMatrix() {
+        //this will copy the entire matrix onto the heap
+        FloatMatrix matrix = new FloatMatrix(numGenes, numGenes);
+        for (int i = 0; i < numGenes; i++) {
+            // FloatMatrix data is stored in column-major order too
+            columnBuffer(i).get(matrix.data, i * numGenes, numGenes);
+        }
+        return matrix;
+    }
+
+    @Override
+    public int numRows() {
+        return numGenes;
+    }
+
+    @Override
+    public int numColumns() {
+        return numGenes;
+    }
+
+    @Override
+    public boolean containsGene(Integer entrezGeneId) {
+        return rowIndex.containsKey(entrezGeneId);
+    }
+
+    @Override
+    public Integer getRowIndexForGene(int entrezGeneId) {
+        return rowIndex.get(entrezGeneId);
+    }
+
+    @Override
+    public FloatMatrix getColumnMatrixForGene(int entrezGeneId) {
+        FloatBuffer columnBuffer = getColumnBufferForGene(entrezGeneId);
+        if (columnBuffer == null) {
+            return null;
+        }
+        float[] columnValues = new float[numGenes];
+        columnBuffer.get(columnValues);
+        return new FloatMatrix(columnValues);
+    }
+}
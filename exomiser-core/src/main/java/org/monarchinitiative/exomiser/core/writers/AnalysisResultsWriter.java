@@ -46,6 +46,10 @@ private AnalysisResultsWriter() {
     public static void writeToFile(Analysis analysis, AnalysisResults analysisResults, OutputSettings outputSettings) {
         ResultsWriterFactory resultsWriterFactory = new ResultsWriterFactory();
         logger.info("Writing results...");
+        if (showsGenesBelowTopGenes(analysis, outputSettings)) {
+            logger.warn("Showing {} genes but only the top {} genes were fully scored - the genes ranked below these have lower-bound scores and no contributing variants. Set numGenes to between 1 and {} to show only the fully scored genes.",
+                    outputSettings.getNumberOfGenesToShow() == 0 ? "all" : outputSettings.getNumberOfGenesToShow(), analysis.getTopGenes(), analysis.getTopGenes());
+        }
 
         Set<OutputFormat> outputFormatsForAnyMoi = EnumSet.noneOf(OutputFormat.class);
         for (OutputFormat outputFormat : outputSettings.getOutputFormats()) {
@@ -72,6 +76,17 @@ public static void writeToFile(Analysis analysis, AnalysisResults analysisResult
         }
     }
 
+    /**
+     * Returns true if the analysis only fully scored the top genes, but more genes than these are to be shown.
+     *
+     * @since 11.0.0
+     */
+    static boolean showsGenesBelowTopGenes(Analysis analysis, OutputSettings outputSettings) {
+        int topGenes = analysis.getTopGenes();
+        int numberOfGenesToShow = outputSettings.getNumberOfGenesToShow();
+        return topGenes > 0 && (numberOfGenesToShow == 0 || numberOfGenesToShow > topGenes);
+    }
+
     private static void writeForInheritanceMode(ModeOfInheritance modeOfInheritance, Set<OutputFormat> outputFormats, Analysis analysis, AnalysisResults analysisResults, OutputSettings outputSettings, ResultsWriterFactory resultsWriterFactory) {
         for (OutputFormat outFormat : outputFormats) {
             writeResultsToFileForMoiWithFormat(modeOfInheritance, outFormat, analysis, analysisResults, outputSettings, resultsWriterFactory);
@@ -37,7 +37,9 @@ public enum OutputFormat {
     TSV_GENE("genes.tsv"),
     TSV_VARIANT("variants.tsv"),
     PHENOGRID("phenogrid.json"),
-    JSON("json");
+    JSON("json"),
+    PROTOBUF_GENE("genes.pb"),
+    PROTOBUF_VARIANT("variants.pb");
 
     private final String fileExtension;
 
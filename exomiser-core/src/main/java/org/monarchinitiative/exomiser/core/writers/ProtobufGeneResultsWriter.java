@@ -0,0 +1,117 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.prioritisers.HiPhivePriorityResult;
+import org.monarchinitiative.exomiser.core.prioritisers.OmimPriorityResult;
+import org.monarchinitiative.exomiser.core.prioritisers.PriorityResult;
+import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
+import org.monarchinitiative.exomiser.core.proto.ResultsProto.GeneResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Writes the same gene data as the {@link TsvGeneResultsWriter} as length-delimited protobuf {@link GeneResult}
+ * records so that the output can be bulk-loaded without any text parsing. Files written by this class can be read
+ * using the {@link ProtobufResultsReader}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class ProtobufGeneResultsWriter implements ResultsWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProtobufGeneResultsWriter.class);
+
+    private static final OutputFormat OUTPUT_FORMAT = OutputFormat.PROTOBUF_GENE;
+
+    @Override
+    public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
+        String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
+        Path outFile = Paths.get(outFileName);
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(outFile))) {
+            outputStream.write(ProtobufResultsReader.GENE_RESULTS_MAGIC_BYTES);
+            for (Gene gene : analysisResults.getGenes()) {
+                if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
+                    makeGeneRecord(modeOfInheritance, gene).writeDelimitedTo(outputStream);
+                }
+            }
+        } catch (IOException ex) {
+            logger.error("Unable to write results to file {}", outFileName, ex);
+        }
+        logger.info("{} {} results written to file {}", OUTPUT_FORMAT, modeOfInheritance.getAbbreviation(), outFileName);
+    }
+
+    /**
+     * Returns the protobuf text format representation of the gene records. This is intended for inspection and
+     * debugging, use the {@link #writeFile} method for the binary output.
+     */
+    @Override
+    public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Gene gene : analysisResults.getGenes()) {
+            if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
+                stringBuilder.append(makeGeneRecord(modeOfInheritance, gene));
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    private GeneResult makeGeneRecord(ModeOfInheritance modeOfInheritance, Gene gene) {
+        GeneResult.Builder builder = GeneResult.newBuilder()
+                .setGeneSymbol(gene.getGeneSymbol())
+                .setEntrezGeneId(gene.getEntrezGeneID())
+                .setGenePhenoScore(gene.getPriorityScoreForMode(modeOfInheritance))
+                .setGeneVariantScore(gene.getVariantScoreForMode(modeOfInheritance))
+                .setGeneCombinedScore(gene.getCombinedScoreForMode(modeOfInheritance));
+
+        for (PriorityResult prioritiserResult : gene.getPriorityResults().values()) {
+            PriorityType type = prioritiserResult.getPriorityType();
+            if (type == PriorityType.HIPHIVE_PRIORITY) {
+                HiPhivePriorityResult phenoScore = (HiPhivePriorityResult) prioritiserResult;
+                builder.setPhiveAllSpeciesScore(phenoScore.getScore())
+                        .setHumanPhenoScore(phenoScore.getHumanScore())
+                        .setMousePhenoScore(phenoScore.getMouseScore())
+                        .setFishPhenoScore(phenoScore.getFishScore())
+                        .setWalkerScore(phenoScore.getPpiScore())
+                        .setPhenoEvidence(phenoScore.getPhenotypeEvidenceText())
+                        .setMatchesCandidateGene(phenoScore.isCandidateGeneMatch());
+            } else if (type == PriorityType.OMIM_PRIORITY) {
+                OmimPriorityResult omimPriorityResult = (OmimPriorityResult) prioritiserResult;
+                builder.setOmimScore(omimPriorityResult.getScoreForMode(modeOfInheritance));
+            } else if (type == PriorityType.EXOMEWALKER_PRIORITY) {
+                builder.setWalkerScore(prioritiserResult.getScore());
+            }
+        }
+        return builder.build();
+    }
+
+}
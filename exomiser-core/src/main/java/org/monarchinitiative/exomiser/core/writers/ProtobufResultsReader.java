@@ -0,0 +1,145 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import org.monarchinitiative.exomiser.core.proto.ResultsProto.GeneResult;
+import org.monarchinitiative.exomiser.core.proto.ResultsProto.VariantResult;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the length-delimited protobuf records written by the {@link ProtobufGeneResultsWriter} and
+ * {@link ProtobufVariantResultsWriter}. The record schema is defined in results.proto. The returned streams hold
+ * an open file handle so should be used in a try-with-resources block.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class ProtobufResultsReader {
+
+    static final byte[] GENE_RESULTS_MAGIC_BYTES = {'E', 'X', 'G', 'R'};
+    static final byte[] VARIANT_RESULTS_MAGIC_BYTES = {'E', 'X', 'V', 'R'};
+
+    private ProtobufResultsReader() {
+        //un-instantiable utility class
+    }
+
+    public static Stream<GeneResult> readGeneResults(Path path) {
+        return readRecords(path, GENE_RESULTS_MAGIC_BYTES, GeneResult.parser());
+    }
+
+    public static Stream<VariantResult> readVariantResults(Path path) {
+        return readRecords(path, VARIANT_RESULTS_MAGIC_BYTES, VariantResult.parser());
+    }
+
+    private static <T extends MessageLite> Stream<T> readRecords(Path path, byte[] magicBytes, Parser<T> parser) {
+        InputStream inputStream = openAndCheckMagicBytes(path, magicBytes);
+        Iterator<T> iterator = new DelimitedRecordIterator<>(inputStream, parser);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> closeUnchecked(inputStream));
+    }
+
+    private static InputStream openAndCheckMagicBytes(Path path, byte[] magicBytes) {
+        try {
+            InputStream inputStream = new BufferedInputStream(Files.newInputStream(path));
+            byte[] bytes = new byte[magicBytes.length];
+            int bytesRead = inputStream.read(bytes);
+            if (bytesRead != bytes.length || !Arrays.equals(bytes, magicBytes)) {
+                closeUnchecked(inputStream);
+                throw new ProtobufResultsReaderException(path + " is not an Exomiser protobuf results file of the expected type");
+            }
+            return inputStream;
+        } catch (IOException e) {
+            throw new ProtobufResultsReaderException("Unable to read results from " + path, e);
+        }
+    }
+
+    private static void closeUnchecked(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class DelimitedRecordIterator<T extends MessageLite> implements Iterator<T> {
+
+        private final InputStream inputStream;
+        private final Parser<T> parser;
+        private T next;
+
+        private DelimitedRecordIterator(InputStream inputStream, Parser<T> parser) {
+            this.inputStream = inputStream;
+            this.parser = parser;
+            this.next = readNext();
+        }
+
+        private T readNext() {
+            try {
+                // returns null at the end of the stream
+                return parser.parseDelimitedFrom(inputStream);
+            } catch (IOException e) {
+                throw new ProtobufResultsReaderException("Unable to parse record", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            T current = next;
+            next = readNext();
+            return current;
+        }
+    }
+
+    public static class ProtobufResultsReaderException extends RuntimeException {
+
+        private ProtobufResultsReaderException(String message) {
+            super(message);
+        }
+
+        private ProtobufResultsReaderException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
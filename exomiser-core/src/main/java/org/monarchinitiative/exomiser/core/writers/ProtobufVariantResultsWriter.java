@@ -0,0 +1,194 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityScore;
+import org.monarchinitiative.exomiser.core.proto.ResultsProto.VariantResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+/**
+ * Writes the same variant data as the {@link TsvVariantResultsWriter} as length-delimited protobuf
+ * {@link VariantResult} records so that the output can be bulk-loaded without any text parsing. Files written by this
+ * class can be read using the {@link ProtobufResultsReader}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class ProtobufVariantResultsWriter implements ResultsWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProtobufVariantResultsWriter.class);
+
+    private static final OutputFormat OUTPUT_FORMAT = OutputFormat.PROTOBUF_VARIANT;
+
+    @Override
+    public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
+        String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
+        Path outFile = Paths.get(outFileName);
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(outFile))) {
+            outputStream.write(ProtobufResultsReader.VARIANT_RESULTS_MAGIC_BYTES);
+            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), record -> writeDelimited(record, outputStream));
+        } catch (IOException | WriterException ex) {
+            logger.error("Unable to write results to file {}", outFileName, ex);
+        }
+        logger.info("{} {} results written to file {}", OUTPUT_FORMAT, modeOfInheritance.getAbbreviation(), outFileName);
+    }
+
+    /**
+     * Returns the protobuf text format representation of the variant records. This is intended for inspection and
+     * debugging, use the {@link #writeFile} method for the binary output.
+     */
+    @Override
+    public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
+        StringBuilder stringBuilder = new StringBuilder();
+        writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), stringBuilder::append);
+        return stringBuilder.toString();
+    }
+
+    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, Consumer<VariantResult> recordConsumer) {
+        for (Gene gene : analysisResults.getGenes()) {
+            if (writeOnlyContributingVariants) {
+                if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
+                    for (VariantEvaluation ve : gene.getGeneScoreForMode(modeOfInheritance).getContributingVariants()) {
+                        recordConsumer.accept(buildVariantRecord(modeOfInheritance, ve, gene));
+                    }
+                }
+            } else {
+                //don't check that the variant is compatible under a particular mode of inheritance as otherwise a failing variant won't appear in the output.
+                for (VariantEvaluation ve : analysisResults.getAllVariantEvaluations(gene)) {
+                    recordConsumer.accept(buildVariantRecord(modeOfInheritance, ve, gene));
+                }
+            }
+        }
+    }
+
+    private void writeDelimited(VariantResult record, OutputStream outputStream) {
+        try {
+            record.writeDelimitedTo(outputStream);
+        } catch (IOException ex) {
+            throw new WriterException(ex);
+        }
+    }
+
+    private VariantResult buildVariantRecord(ModeOfInheritance modeOfInheritance, VariantEvaluation ve, Gene gene) {
+        VariantContext variantContext = ve.getVariantContext();
+        VariantResult.Builder builder = VariantResult.newBuilder()
+                .setContig(variantContext.getContig())
+                .setPosition(variantContext.getStart())
+                .setRef(variantContext.getReference().getDisplayString())
+                .setAlt(variantContext.getAlternateAllele(ve.getAltAlleleId()).getDisplayString())
+                .setQual(ve.getPhredScore())
+                .setGenotype(ve.getGenotypeString())
+                .setFunctionalClass(ve.getVariantEffect().getSequenceOntologyTerm())
+                .setHgvs(getRepresentativeAnnotation(ve.getTranscriptAnnotations()))
+                .setGeneSymbol(ve.getGeneSymbol())
+                .setVariantScore(ve.getVariantScore())
+                .setGenePhenoScore(gene.getPriorityScoreForMode(modeOfInheritance))
+                .setGeneVariantScore(gene.getVariantScoreForMode(modeOfInheritance))
+                .setGeneCombinedScore(gene.getCombinedScoreForMode(modeOfInheritance))
+                .setContributingVariant(ve.contributesToGeneScoreUnderMode(modeOfInheritance));
+
+        if (variantContext.hasAttribute("DP")) {
+            builder.setCoverage(variantContext.getAttributeAsInt("DP", 0));
+        }
+
+        addFilterStatus(modeOfInheritance, ve, builder);
+
+        for (PathogenicityScore score : ve.getPathogenicityData().getPredictedPathogenicityScores()) {
+            builder.putPathogenicityScores(score.getSource().name(), score.getScore());
+        }
+
+        FrequencyData frequencyData = ve.getFrequencyData();
+        if (!frequencyData.getRsId().isEmpty()) {
+            builder.setRsId(frequencyData.getRsId().toString());
+        }
+        builder.setMaxFrequency(frequencyData.getMaxFreq());
+        for (Frequency frequency : frequencyData.getKnownFrequencies()) {
+            builder.putFrequencies(frequency.getSource().name(), frequency.getFrequency());
+        }
+        return builder.build();
+    }
+
+    private void addFilterStatus(ModeOfInheritance modeOfInheritance, VariantEvaluation variantEvaluation, VariantResult.Builder builder) {
+        //under some modes a variant should not pass, but others it will, so we need to check this here
+        //otherwise when running FULL or SPARSE modes alleles will be reported as having passed under the wrong MOI
+        switch (variantEvaluation.getFilterStatusForMode(modeOfInheritance)) {
+            case FAILED:
+                builder.setFilterStatus(VariantResult.FilterStatus.FAILED);
+                for (FilterType filterType : variantEvaluation.getFailedFilterTypesForMode(modeOfInheritance)) {
+                    builder.addFailedFilters(filterType.toVcfValue());
+                }
+                break;
+            case PASSED:
+                builder.setFilterStatus(VariantResult.FilterStatus.PASSED);
+                break;
+            case UNFILTERED:
+            default:
+                builder.setFilterStatus(VariantResult.FilterStatus.UNFILTERED);
+        }
+    }
+
+    /**
+     * @return An annotation for a single transcript, representing one of the
+     * annotations with the most pathogenic annotation.
+     */
+    private String getRepresentativeAnnotation(List<TranscriptAnnotation> annotations) {
+        if (annotations.isEmpty()) {
+            return "?";
+        }
+
+        TranscriptAnnotation anno = annotations.get(0);
+
+        StringJoiner stringJoiner = new StringJoiner(":");
+        stringJoiner.add(anno.getGeneSymbol());
+        stringJoiner.add(anno.getAccession());
+        stringJoiner.add(anno.getHgvsCdna());
+        stringJoiner.add(anno.getHgvsProtein());
+        return stringJoiner.toString();
+    }
+
+    private static class WriterException extends RuntimeException {
+
+        private WriterException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
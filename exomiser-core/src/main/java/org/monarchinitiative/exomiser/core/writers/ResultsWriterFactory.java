@@ -53,6 +53,10 @@ public ResultsWriter getResultsWriter(OutputFormat outputFormat) {
                 return new PhenogridWriter();
             case JSON:
                 return new JsonResultsWriter();
+            case PROTOBUF_GENE:
+                return new ProtobufGeneResultsWriter();
+            case PROTOBUF_VARIANT:
+                return new ProtobufVariantResultsWriter();
             case HTML:
             default:
                 return new HtmlResultsWriter();
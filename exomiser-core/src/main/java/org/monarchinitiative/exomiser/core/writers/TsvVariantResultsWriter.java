@@ -106,7 +106,7 @@ private void writeData(ModeOfInheritance modeOfInheritance, Analysis analysis, A
             }
         } else {
             for (Gene gene : analysisResults.getGenes()) {
-                writeAllVariantsOfGene(modeOfInheritance, gene, printer);
+                writeAllVariantsOfGene(modeOfInheritance, gene, analysisResults.getAllVariantEvaluations(gene), printer);
             }
         }
     }
@@ -119,8 +119,8 @@ private void writeOnlyContributingVariantsOfGene(ModeOfInheritance modeOfInherit
         }
     }
 
-    private void writeAllVariantsOfGene(ModeOfInheritance modeOfInheritance, Gene gene, CSVPrinter printer) throws IOException {
-        for (VariantEvaluation ve : gene.getVariantEvaluations()) {
+    private void writeAllVariantsOfGene(ModeOfInheritance modeOfInheritance, Gene gene, List<VariantEvaluation> variantEvaluations, CSVPrinter printer) throws IOException {
+        for (VariantEvaluation ve : variantEvaluations) {
             //don't check that the variant is compatible under a particular mode of inheritance as otherwise a failing variant won't appear in the output.
             List<Object> record = buildVariantRecord(modeOfInheritance, ve, gene);
             printer.printRecord(record);
@@ -187,7 +187,7 @@ private void writeOnlyContributingData(ModeOfInheritance modeOfInheritance, Anal
     private void writeAllSampleData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, VariantContextWriter writer) {
         for (Gene gene : analysisResults.getGenes()) {
                 logger.debug("updating variant records for gene {}", gene);
-                List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, gene, gene.getVariantEvaluations());
+                List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, gene, analysisResults.getAllVariantEvaluations(gene));
                 updatedRecords.forEach(writer::add);
         }
     }
@@ -193,6 +193,156 @@ public void testParseAnalysisSparseAnalysisModeReturnsPassOnlyDefault() {
         assertThat(analysis.getAnalysisMode(), equalTo(AnalysisMode.PASS_ONLY));
     }
 
+    @Test
+    public void testParseAnalysisTopGenesDefaultsToAllGenes() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    ");
+        assertThat(analysis.getTopGenes(), equalTo(0));
+    }
+
+    @Test
+    public void testParseAnalysisTopGenes() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    topGenes: 20 \n"
+                        + "    ");
+        assertThat(analysis.getTopGenes(), equalTo(20));
+    }
+
+    @Test
+    public void testParseAnalysisNegativeTopGenesThrowsException() {
+        assertThrows(AnalysisParserException.class, () ->
+                instance.parseAnalysis(
+                        "analysis:\n"
+                                + "    vcf: test.vcf\n"
+                                + "    topGenes: -1 \n"
+                                + "    ")
+        );
+    }
+
+    @Test
+    public void testParseAnalysisPreAnnotationFrequencyScreenDefaultsToFalse() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    ");
+        assertThat(analysis.isPreAnnotationFrequencyScreen(), is(false));
+    }
+
+    @Test
+    public void testParseAnalysisPreAnnotationFrequencyScreen() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    preAnnotationFrequencyScreen: true\n"
+                        + "    ");
+        assertThat(analysis.isPreAnnotationFrequencyScreen(), is(true));
+    }
+
+    @Test
+    public void testParseAnalysisNonBooleanPreAnnotationFrequencyScreenThrowsException() {
+        assertThrows(AnalysisParserException.class, () ->
+                instance.parseAnalysis(
+                        "analysis:\n"
+                                + "    vcf: test.vcf\n"
+                                + "    preAnnotationFrequencyScreen: 20\n"
+                                + "    ")
+        );
+    }
+
+    @Test
+    public void testParseAnalysisAdaptiveFilterOrderDefaultsToFalse() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    ");
+        assertThat(analysis.isAdaptiveFilterOrder(), is(false));
+    }
+
+    @Test
+    public void testParseAnalysisAdaptiveFilterOrder() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    adaptiveFilterOrder: true\n"
+                        + "    ");
+        assertThat(analysis.isAdaptiveFilterOrder(), is(true));
+    }
+
+    @Test
+    public void testParseAnalysisNonBooleanAdaptiveFilterOrderThrowsException() {
+        assertThrows(AnalysisParserException.class, () ->
+                instance.parseAnalysis(
+                        "analysis:\n"
+                                + "    vcf: test.vcf\n"
+                                + "    adaptiveFilterOrder: 20\n"
+                                + "    ")
+        );
+    }
+
+    @Test
+    public void testParseAnalysisBlockVariantFiltersDefaultsToFalse() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    ");
+        assertThat(analysis.isBlockVariantFilters(), is(false));
+    }
+
+    @Test
+    public void testParseAnalysisBlockVariantFilters() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    blockVariantFilters: true\n"
+                        + "    ");
+        assertThat(analysis.isBlockVariantFilters(), is(true));
+    }
+
+    @Test
+    public void testParseAnalysisNonBooleanBlockVariantFiltersThrowsException() {
+        assertThrows(AnalysisParserException.class, () ->
+                instance.parseAnalysis(
+                        "analysis:\n"
+                                + "    vcf: test.vcf\n"
+                                + "    blockVariantFilters: 20\n"
+                                + "    ")
+        );
+    }
+
+    @Test
+    public void testParseAnalysisSpillFailedVariantsDefaultsToFalse() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    ");
+        assertThat(analysis.isSpillFailedVariants(), is(false));
+    }
+
+    @Test
+    public void testParseAnalysisSpillFailedVariants() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    spillFailedVariants: true\n"
+                        + "    ");
+        assertThat(analysis.isSpillFailedVariants(), is(true));
+    }
+
+    @Test
+    public void testParseAnalysisNonBooleanSpillFailedVariantsThrowsException() {
+        assertThrows(AnalysisParserException.class, () ->
+                instance.parseAnalysis(
+                        "analysis:\n"
+                                + "    vcf: test.vcf\n"
+                                + "    spillFailedVariants: 20\n"
+                                + "    ")
+        );
+    }
+
     @Test
     public void testParseAnalysisNotSettingGenomeBuildReturnsDefault() {
         Analysis analysis = instance.parseAnalysis(
@@ -655,8 +805,8 @@ public void testParseOutputSettingsAllSupportedOutputFormats() {
                 + "    outputPassVariantsOnly: true\n"
                 + "    numGenes: 1\n"
                 + "    outputPrefix: results/Pfeiffer-hiphive\n"
-                + "    outputFormats: [HTML, JSON, TSV-GENE, TSV-VARIANT, VCF]\n");
-        Set<OutputFormat> outputFormats = EnumSet.of(OutputFormat.HTML, OutputFormat.JSON, OutputFormat.TSV_GENE, OutputFormat.TSV_VARIANT, OutputFormat.VCF);
+                + "    outputFormats: [HTML, JSON, TSV-GENE, TSV-VARIANT, VCF, PROTOBUF_GENE, PROTOBUF_VARIANT]\n");
+        Set<OutputFormat> outputFormats = EnumSet.of(OutputFormat.HTML, OutputFormat.JSON, OutputFormat.TSV_GENE, OutputFormat.TSV_VARIANT, OutputFormat.VCF, OutputFormat.PROTOBUF_GENE, OutputFormat.PROTOBUF_VARIANT);
         assertThat(outputSettings.getOutputFormats(), equalTo((outputFormats)));
     }
 
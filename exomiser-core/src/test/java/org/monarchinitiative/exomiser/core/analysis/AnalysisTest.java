@@ -147,6 +147,71 @@ public void analysisCanSpecifyAlternativeAnalysisMode() {
         assertThat(instance.getAnalysisMode(), equalTo(AnalysisMode.FULL));
     }
 
+    @Test
+    public void topGenesDefaultsToAllGenes() {
+        assertThat(DEFAULT_ANALYSIS.getTopGenes(), equalTo(0));
+    }
+
+    @Test
+    public void analysisCanSpecifyTopGenes() {
+        Analysis instance = newBuilder()
+                .topGenes(20)
+                .build();
+        assertThat(instance.getTopGenes(), equalTo(20));
+    }
+
+    @Test
+    public void preAnnotationFrequencyScreenDefaultsToFalse() {
+        assertThat(DEFAULT_ANALYSIS.isPreAnnotationFrequencyScreen(), is(false));
+    }
+
+    @Test
+    public void analysisCanSpecifyPreAnnotationFrequencyScreen() {
+        Analysis instance = newBuilder()
+                .preAnnotationFrequencyScreen(true)
+                .build();
+        assertThat(instance.isPreAnnotationFrequencyScreen(), is(true));
+    }
+
+    @Test
+    public void adaptiveFilterOrderDefaultsToFalse() {
+        assertThat(DEFAULT_ANALYSIS.isAdaptiveFilterOrder(), is(false));
+    }
+
+    @Test
+    public void analysisCanSpecifyAdaptiveFilterOrder() {
+        Analysis instance = newBuilder()
+                .adaptiveFilterOrder(true)
+                .build();
+        assertThat(instance.isAdaptiveFilterOrder(), is(true));
+    }
+
+    @Test
+    public void blockVariantFiltersDefaultsToFalse() {
+        assertThat(DEFAULT_ANALYSIS.isBlockVariantFilters(), is(false));
+    }
+
+    @Test
+    public void analysisCanSpecifyBlockVariantFilters() {
+        Analysis instance = newBuilder()
+                .blockVariantFilters(true)
+                .build();
+        assertThat(instance.isBlockVariantFilters(), is(true));
+    }
+
+    @Test
+    public void spillFailedVariantsDefaultsToFalse() {
+        assertThat(DEFAULT_ANALYSIS.isSpillFailedVariants(), is(false));
+    }
+
+    @Test
+    public void analysisCanSpecifySpillFailedVariants() {
+        Analysis instance = newBuilder()
+                .spillFailedVariants(true)
+                .build();
+        assertThat(instance.isSpillFailedVariants(), is(true));
+    }
+
     @Test
     public void testFrequencySourcesAreEmptyByDefault() {
         assertThat(DEFAULT_ANALYSIS.getFrequencySources().isEmpty(), is(true));
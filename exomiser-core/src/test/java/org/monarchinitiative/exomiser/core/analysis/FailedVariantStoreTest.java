@@ -0,0 +1,162 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.analysis;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import htsjdk.variant.vcf.VCFFormatHeaderLine;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLine;
+import htsjdk.variant.vcf.VCFHeaderLineType;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.model.SampleGenotype;
+import org.monarchinitiative.exomiser.core.model.SampleIdentifier;
+import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.*;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class FailedVariantStoreTest {
+
+    private static final String SAMPLE = SampleIdentifier.defaultSample().getId();
+
+    private final VCFHeader vcfHeader = new VCFHeader(
+            ImmutableSet.<VCFHeaderLine>of(new VCFFormatHeaderLine("GT", 1, VCFHeaderLineType.String, "Genotype")),
+            ImmutableList.of(SAMPLE));
+
+    private VariantEvaluation failedVariant(String geneSymbol, int pos) {
+        return VariantEvaluation.builder(1, pos, "A", "T")
+                .quality(200)
+                .geneSymbol(geneSymbol)
+                .geneId("12345")
+                .variantEffect(VariantEffect.MISSENSE_VARIANT)
+                .annotations(ImmutableList.of(TranscriptAnnotation.builder()
+                        .variantEffect(VariantEffect.MISSENSE_VARIANT)
+                        .geneSymbol(geneSymbol)
+                        .accession("ENST00000123456")
+                        .hgvsCdna("c.12A>T")
+                        .hgvsProtein("p.(Lys4Asn)")
+                        .build()))
+                .sampleGenotypes(ImmutableMap.of(SAMPLE, SampleGenotype.het()))
+                .frequencyData(FrequencyData.of(RsId.valueOf(12345), Frequency.valueOf(1.5f, FrequencySource.EXAC_NON_FINNISH_EUROPEAN)))
+                .pathogenicityData(PathogenicityData.of(ClinVarData.builder()
+                        .alleleId("54321")
+                        .primaryInterpretation(ClinVarData.ClinSig.BENIGN)
+                        .reviewStatus("criteria_provided,_single_submitter")
+                        .build(), PolyPhenScore.valueOf(0.2f), SiftScore.valueOf(0.8f)))
+                .filterResults(FilterResult.fail(FilterType.FREQUENCY_FILTER), FilterResult.pass(FilterType.QUALITY_FILTER))
+                .build();
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        try (FailedVariantStore instance = FailedVariantStore.create(vcfHeader)) {
+            assertThat(instance.size(), equalTo(0));
+            assertThat(instance.getGeneSymbols().isEmpty(), is(true));
+            assertThat(instance.getVariantEvaluations("GENE1").isEmpty(), is(true));
+            assertThat(instance.getUnAnnotatedVariantEvaluations().isEmpty(), is(true));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        VariantEvaluation variantEvaluation = failedVariant("GENE1", 12345);
+        try (FailedVariantStore instance = FailedVariantStore.create(vcfHeader)) {
+            instance.add(variantEvaluation);
+
+            List<VariantEvaluation> stored = instance.getVariantEvaluations("GENE1");
+            assertThat(stored.size(), equalTo(1));
+
+            VariantEvaluation result = stored.get(0);
+            assertThat(result, equalTo(variantEvaluation));
+            assertThat(result.getChromosomeName(), equalTo(variantEvaluation.getChromosomeName()));
+            assertThat(result.getPhredScore(), equalTo(variantEvaluation.getPhredScore()));
+            assertThat(result.getGeneId(), equalTo(variantEvaluation.getGeneId()));
+            assertThat(result.getVariantEffect(), equalTo(variantEvaluation.getVariantEffect()));
+            assertThat(result.getTranscriptAnnotations(), equalTo(variantEvaluation.getTranscriptAnnotations()));
+            assertThat(result.getSampleGenotypes(), equalTo(variantEvaluation.getSampleGenotypes()));
+            assertThat(result.getFrequencyData(), equalTo(variantEvaluation.getFrequencyData()));
+            assertThat(result.getPathogenicityData(), equalTo(variantEvaluation.getPathogenicityData()));
+            assertThat(result.getPassedFilterTypes(), equalTo(variantEvaluation.getPassedFilterTypes()));
+            assertThat(result.getFailedFilterTypes(), equalTo(variantEvaluation.getFailedFilterTypes()));
+            assertThat(result.getVariantContext().getContig(), equalTo(variantEvaluation.getVariantContext().getContig()));
+            assertThat(result.getVariantContext().getStart(), equalTo(variantEvaluation.getVariantContext().getStart()));
+            assertThat(result.getVariantContext().getAlleles(), equalTo(variantEvaluation.getVariantContext().getAlleles()));
+            assertThat(result.getGenotypeString(), equalTo(variantEvaluation.getGenotypeString()));
+        }
+    }
+
+    @Test
+    public void testRoundTripPathogenicityScores() throws IOException {
+        PathogenicityData pathogenicityData = PathogenicityData.of(PolyPhenScore.valueOf(0.1f), MutationTasterScore.valueOf(0.2f), SiftScore
+                .valueOf(0.3f), CaddScore.valueOf(0.4f), RemmScore.valueOf(0.5f), RevelScore.valueOf(0.6f));
+        VariantEvaluation variantEvaluation = VariantEvaluation.builder(1, 12345, "A", "T")
+                .geneSymbol("GENE1")
+                .pathogenicityData(pathogenicityData)
+                .filterResults(FilterResult.fail(FilterType.PATHOGENICITY_FILTER))
+                .build();
+        try (FailedVariantStore instance = FailedVariantStore.create(vcfHeader)) {
+            instance.add(variantEvaluation);
+
+            VariantEvaluation result = instance.getVariantEvaluations("GENE1").get(0);
+            assertThat(result.getPathogenicityData(), equalTo(pathogenicityData));
+        }
+    }
+
+    @Test
+    public void testVariantsAreIndexedByGene() throws IOException {
+        VariantEvaluation gene1Variant1 = failedVariant("GENE1", 1000);
+        VariantEvaluation gene2Variant = failedVariant("GENE2", 2000);
+        VariantEvaluation gene1Variant2 = failedVariant("GENE1", 3000);
+        VariantEvaluation unAnnotatedVariant = VariantEvaluation.builder(1, 4000, "G", "C")
+                .filterResults(FilterResult.fail(FilterType.VARIANT_EFFECT_FILTER))
+                .build();
+
+        try (FailedVariantStore instance = FailedVariantStore.create(vcfHeader)) {
+            instance.add(gene1Variant1);
+            instance.add(gene2Variant);
+            instance.add(gene1Variant2);
+            instance.add(unAnnotatedVariant);
+
+            assertThat(instance.size(), equalTo(4));
+            assertThat(instance.getGeneSymbols(), equalTo(ImmutableSet.of("GENE1", "GENE2", ".")));
+            assertThat(instance.getVariantEvaluations("GENE1"), equalTo(ImmutableList.of(gene1Variant1, gene1Variant2)));
+            assertThat(instance.getVariantEvaluations("GENE2"), equalTo(ImmutableList.of(gene2Variant)));
+            assertThat(instance.getUnAnnotatedVariantEvaluations(), equalTo(ImmutableList.of(unAnnotatedVariant)));
+        }
+    }
+}
@@ -25,14 +25,18 @@
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
 import org.monarchinitiative.exomiser.core.analysis.util.TestPedigrees;
 import org.monarchinitiative.exomiser.core.filters.*;
+import org.monarchinitiative.exomiser.core.genome.VariantDataServiceMock;
 import org.monarchinitiative.exomiser.core.model.*;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
 import org.monarchinitiative.exomiser.core.prioritisers.MockPrioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.Prioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
 
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -125,6 +129,150 @@ public void testRunAnalysisFailVariantFilterOnlyOneVariantPasses() {
         assertThat(passedVariant.getAlt(), equalTo("C"));
     }
 
+    /**
+     * Records the variants the wrapped {@link FrequencyFilter} was run on before they were annotated.
+     */
+    private static class UnannotatedVariantRecordingFilter implements VariantFilter {
+
+        private final FrequencyFilter frequencyFilter = new FrequencyFilter(1f);
+        private final List<VariantEvaluation> unannotatedVariants = new ArrayList<>();
+
+        @Override
+        public FilterType getFilterType() {
+            return frequencyFilter.getFilterType();
+        }
+
+        @Override
+        public FilterResult runFilter(VariantEvaluation variantEvaluation) {
+            if (!variantEvaluation.hasTranscriptAnnotations()) {
+                unannotatedVariants.add(variantEvaluation);
+            }
+            return frequencyFilter.runFilter(variantEvaluation);
+        }
+    }
+
+    private VariantFilter commonVariantFrequencyFilter(VariantFilter frequencyFilter) {
+        //1	145508800	rs12345678	T	C	123.15	PASS	GENE=RBM8A	GT:DP	1/1:33
+        VariantEvaluation commonVariant = VariantEvaluation.builder(1, 145508800, "T", "C").build();
+        VariantDataServiceMock variantDataService = new VariantDataServiceMock();
+        variantDataService.put(commonVariant, FrequencyData.of(RsId.valueOf(12345678), Frequency.valueOf(5f, FrequencySource.ESP_ALL)));
+        return new FrequencyDataProvider(variantDataService, EnumSet.allOf(FrequencySource.class), frequencyFilter);
+    }
+
+    @Test
+    public void testRunAnalysisFrequencyFilterCommonVariantIsRemovedBeforeAnnotationWithPreAnnotationFrequencyScreen() {
+        VariantEvaluation commonVariant = VariantEvaluation.builder(1, 145508800, "T", "C").build();
+        UnannotatedVariantRecordingFilter recordingFilter = new UnannotatedVariantRecordingFilter();
+
+        AnalysisResults allResults = instance.run(makeAnalysis(vcfPath));
+        Analysis analysis = makeAnalysis(vcfPath, commonVariantFrequencyFilter(recordingFilter)).copy()
+                .preAnnotationFrequencyScreen(true)
+                .build();
+        AnalysisResults analysisResults = instance.run(analysis);
+        printResults(analysisResults);
+
+        assertThat(recordingFilter.unannotatedVariants.contains(commonVariant), is(true));
+        assertThat(analysisResults.getVariantEvaluations().size(), equalTo(allResults.getVariantEvaluations().size() - 1));
+        assertThat(analysisResults.getVariantEvaluations().contains(commonVariant), is(false));
+        for (VariantEvaluation variantEvaluation : analysisResults.getVariantEvaluations()) {
+            assertThat(variantEvaluation.getPassedFilterTypes(), equalTo(EnumSet.of(FilterType.FREQUENCY_FILTER)));
+            assertThat(variantEvaluation.hasTranscriptAnnotations(), is(true));
+        }
+    }
+
+    @Test
+    public void testRunAnalysisFrequencyFilterIsOnlyRunOnAnnotatedVariantsWithoutPreAnnotationFrequencyScreen() {
+        VariantEvaluation commonVariant = VariantEvaluation.builder(1, 145508800, "T", "C").build();
+        UnannotatedVariantRecordingFilter recordingFilter = new UnannotatedVariantRecordingFilter();
+
+        AnalysisResults allResults = instance.run(makeAnalysis(vcfPath));
+        AnalysisResults analysisResults = instance.run(makeAnalysis(vcfPath, commonVariantFrequencyFilter(recordingFilter)));
+        printResults(analysisResults);
+
+        assertThat(recordingFilter.unannotatedVariants.isEmpty(), is(true));
+        assertThat(analysisResults.getVariantEvaluations().size(), equalTo(allResults.getVariantEvaluations().size() - 1));
+        assertThat(analysisResults.getVariantEvaluations().contains(commonVariant), is(false));
+    }
+
+    @Test
+    public void testRunAnalysisOnlyCountsPassedVariantsInFilterStats() {
+        VariantEvaluation commonVariant = VariantEvaluation.builder(1, 145508800, "T", "C").build();
+        VariantDataServiceMock variantDataService = new VariantDataServiceMock();
+        variantDataService.put(commonVariant, FrequencyData.of(RsId.valueOf(12345678), Frequency.valueOf(5f, FrequencySource.ESP_ALL)));
+        VariantFilter frequencyFilter = new FrequencyDataProvider(variantDataService, EnumSet.allOf(FrequencySource.class), new FrequencyFilter(1f));
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145510000));
+
+        AnalysisResults analysisResults = instance.run(makeAnalysis(vcfPath, intervalFilter, frequencyFilter));
+        printResults(analysisResults);
+
+        FilterStats filterStats = analysisResults.getFilterStats();
+        int numPassed = analysisResults.getVariantEvaluations().size();
+        assertThat(filterStats.getPassed(FilterType.INTERVAL_FILTER), equalTo(numPassed));
+        assertThat(filterStats.getFailed(FilterType.INTERVAL_FILTER), equalTo(0));
+        assertThat(filterStats.getPassed(FilterType.FREQUENCY_FILTER), equalTo(numPassed));
+        assertThat(filterStats.getFailed(FilterType.FREQUENCY_FILTER), equalTo(0));
+    }
+
+    @Test
+    public void testRunAnalysisOnlyCountsPassedVariantsInFilterStatsForVariantFilterRunAfterLoading() {
+        Map<String, Float> geneSymbolPrioritiserScores = new HashMap<>();
+        geneSymbolPrioritiserScores.put("GNRHR2", 0.75f);
+        geneSymbolPrioritiserScores.put("RBM8A", 0.65f);
+        Prioritiser prioritiser = new MockPrioritiser(PriorityType.HIPHIVE_PRIORITY, geneSymbolPrioritiserScores);
+        GeneFilter priorityScoreFilter = new PriorityScoreFilter(PriorityType.HIPHIVE_PRIORITY, 0.5f);
+        VariantFilter qualityFilter = new QualityFilter(120);
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+
+        // the interval filter is run on the loaded variants, after the gene filter
+        AnalysisResults analysisResults = instance.run(makeAnalysis(vcfPath, qualityFilter, prioritiser, priorityScoreFilter, intervalFilter));
+        printResults(analysisResults);
+
+        FilterStats filterStats = analysisResults.getFilterStats();
+        int numPassed = analysisResults.getVariantEvaluations().size();
+        assertThat(numPassed, equalTo(1));
+        assertThat(filterStats.getPassed(FilterType.INTERVAL_FILTER), equalTo(numPassed));
+        assertThat(filterStats.getFailed(FilterType.INTERVAL_FILTER), equalTo(0));
+    }
+
+    @Test
+    public void testRunAnalysisBlockVariantFiltersOnlyOneVariantPasses() {
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+        VariantFilter qualityFilter = new QualityFilter(120);
+
+        Analysis analysis = makeAnalysis(vcfPath, intervalFilter, qualityFilter).copy()
+                .blockVariantFilters(true)
+                .build();
+        AnalysisResults analysisResults = instance.run(analysis);
+        printResults(analysisResults);
+        assertThat(analysisResults.getGenes().size(), equalTo(1));
+
+        Gene passedGene = analysisResults.getGenes().get(0);
+        assertThat(passedGene.getGeneSymbol(), equalTo("RBM8A"));
+        assertThat(passedGene.getNumberOfVariants(), equalTo(1));
+
+        VariantEvaluation passedVariant = passedGene.getVariantEvaluations().get(0);
+        assertThat(passedVariant.getPosition(), equalTo(145508800));
+        assertThat(passedVariant.getPassedFilterTypes(), equalTo(EnumSet.of(FilterType.INTERVAL_FILTER, FilterType.QUALITY_FILTER)));
+    }
+
+    @Test
+    public void testRunAnalysisAdaptiveFilterOrderOnlyOneVariantPasses() {
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+        VariantFilter qualityFilter = new QualityFilter(120);
+
+        Analysis analysis = makeAnalysis(vcfPath, intervalFilter, qualityFilter).copy()
+                .adaptiveFilterOrder(true)
+                .build();
+        AnalysisResults analysisResults = instance.run(analysis);
+        printResults(analysisResults);
+        assertThat(analysisResults.getGenes().size(), equalTo(1));
+
+        Gene passedGene = analysisResults.getGenes().get(0);
+        assertThat(passedGene.getGeneSymbol(), equalTo("RBM8A"));
+        assertThat(passedGene.getNumberOfVariants(), equalTo(1));
+        assertThat(passedGene.getVariantEvaluations().get(0).getPosition(), equalTo(145508800));
+    }
+
     @Test
     public void testRunAnalysisTwoVariantFiltersAllVariantsFail() {
         VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
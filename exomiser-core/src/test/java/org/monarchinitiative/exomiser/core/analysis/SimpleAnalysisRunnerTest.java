@@ -32,12 +32,15 @@
 import org.monarchinitiative.exomiser.core.prioritisers.Prioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
 
+import java.io.UncheckedIOException;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -123,6 +126,112 @@ public void testRunAnalysisTwoVariantFiltersAllVariantsFailFiltersVariantsShould
         assertThat(rbm8Variant2.getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.QUALITY_FILTER)));
     }
 
+    @Test
+    public void testRunAnalysisBlockVariantFiltersAllVariantsFailFiltersVariantsShouldHaveAllVariantFilterResults() {
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+        VariantFilter qualityFilter = new QualityFilter(9999999f);
+
+        Analysis analysis = makeAnalysis(vcfPath, intervalFilter, qualityFilter).copy()
+                .blockVariantFilters(true)
+                .build();
+        AnalysisResults analysisResults = instance.run(analysis);
+        printResults(analysisResults);
+        assertThat(analysisResults.getGenes().size(), equalTo(2));
+
+        Map<String, Gene> results = makeResults(analysisResults.getGenes());
+
+        Gene gnrh2 = results.get("GNRHR2");
+        assertThat(gnrh2.passedFilters(), is(false));
+        assertThat(gnrh2.getVariantEvaluations().get(0).getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.INTERVAL_FILTER, FilterType.QUALITY_FILTER)));
+
+        Gene rbm8a = results.get("RBM8A");
+        assertThat(rbm8a.passedFilters(), is(false));
+        assertThat(rbm8a.getNumberOfVariants(), equalTo(2));
+        assertThat(rbm8a.getVariantEvaluations().get(0).getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.INTERVAL_FILTER, FilterType.QUALITY_FILTER)));
+        VariantEvaluation rbm8Variant2 = rbm8a.getVariantEvaluations().get(1);
+        assertThat(rbm8Variant2.passedFilter(FilterType.INTERVAL_FILTER), is(true));
+        assertThat(rbm8Variant2.getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.QUALITY_FILTER)));
+    }
+
+    @Test
+    public void testRunAnalysisSpillingFailedVariantsOnlyPassedVariantsKeptInGenes() {
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+
+        Analysis analysis = makeAnalysis(vcfPath, intervalFilter).copy()
+                .spillFailedVariants(true)
+                .build();
+        AnalysisResults analysisResults = instance.run(analysis);
+        printResults(analysisResults);
+        assertThat(analysisResults.getGenes().size(), equalTo(2));
+
+        Map<String, Gene> results = makeResults(analysisResults.getGenes());
+
+        Gene gnrh2 = results.get("GNRHR2");
+        assertThat(gnrh2.passedFilters(), is(false));
+        assertThat(gnrh2.hasStoredFailedVariants(), is(true));
+        assertThat(gnrh2.getNumberOfVariants(), equalTo(0));
+        List<VariantEvaluation> gnrh2Variants = analysisResults.getAllVariantEvaluations(gnrh2);
+        assertThat(gnrh2Variants.size(), equalTo(1));
+        assertThat(gnrh2Variants.get(0).getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.INTERVAL_FILTER)));
+
+        Gene rbm8a = results.get("RBM8A");
+        assertThat(rbm8a.passedFilters(), is(true));
+        assertThat(rbm8a.getNumberOfVariants(), equalTo(1));
+        List<VariantEvaluation> rbm8aVariants = analysisResults.getAllVariantEvaluations(rbm8a);
+        assertThat(rbm8aVariants.size(), equalTo(2));
+        assertThat(rbm8aVariants.get(0).passedFilters(), is(false));
+        assertThat(rbm8aVariants.get(1).passedFilters(), is(true));
+        assertThat(rbm8aVariants.get(1).getPosition(), equalTo(145508800));
+    }
+
+    @Test
+    public void testRunAnalysisSpillingFailedVariantsAreReleasedOnClose() {
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+
+        Analysis analysis = makeAnalysis(vcfPath, intervalFilter).copy()
+                .spillFailedVariants(true)
+                .build();
+        AnalysisResults analysisResults = instance.run(analysis);
+        Gene gnrh2 = makeResults(analysisResults.getGenes()).get("GNRHR2");
+        assertThat(analysisResults.getAllVariantEvaluations(gnrh2).size(), equalTo(1));
+
+        analysisResults.close();
+        assertThrows(UncheckedIOException.class, () -> analysisResults.getAllVariantEvaluations(gnrh2));
+    }
+
+    @Test
+    public void testRunAnalysisSpillingFailedVariantsAllVariantsFailFilters() {
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+        VariantFilter qualityFilter = new QualityFilter(9999999f);
+
+        Analysis analysis = makeAnalysis(vcfPath, intervalFilter, qualityFilter).copy()
+                .spillFailedVariants(true)
+                .build();
+        AnalysisResults analysisResults = instance.run(analysis);
+        printResults(analysisResults);
+        assertThat(analysisResults.getGenes().size(), equalTo(2));
+        assertThat(analysisResults.getVariantEvaluations().isEmpty(), is(true));
+
+        Map<String, Gene> results = makeResults(analysisResults.getGenes());
+
+        Gene gnrh2 = results.get("GNRHR2");
+        assertThat(gnrh2.passedFilters(), is(false));
+        assertThat(gnrh2.hasStoredFailedVariants(), is(true));
+        assertThat(gnrh2.getNumberOfVariants(), equalTo(0));
+        List<VariantEvaluation> gnrh2Variants = analysisResults.getAllVariantEvaluations(gnrh2);
+        assertThat(gnrh2Variants.size(), equalTo(1));
+        assertThat(gnrh2Variants.get(0).getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.INTERVAL_FILTER, FilterType.QUALITY_FILTER)));
+
+        Gene rbm8a = results.get("RBM8A");
+        assertThat(rbm8a.passedFilters(), is(false));
+        assertThat(rbm8a.getNumberOfVariants(), equalTo(0));
+        List<VariantEvaluation> rbm8aVariants = analysisResults.getAllVariantEvaluations(rbm8a);
+        assertThat(rbm8aVariants.size(), equalTo(2));
+        assertThat(rbm8aVariants.get(0).getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.INTERVAL_FILTER, FilterType.QUALITY_FILTER)));
+        assertThat(rbm8aVariants.get(1).passedFilter(FilterType.INTERVAL_FILTER), is(true));
+        assertThat(rbm8aVariants.get(1).getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.QUALITY_FILTER)));
+    }
+
     @Test
     public void testRunAnalysisTwoVariantFiltersOnePrioritiserVariantsShouldHaveAllVariantFilterResults() {
         VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
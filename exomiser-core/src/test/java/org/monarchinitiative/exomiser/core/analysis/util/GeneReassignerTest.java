@@ -290,6 +290,47 @@ public void assignsRegulatoryVariantToBestPhenotypicMatchVariantAssociatedWithGe
         assertThat(variant, isAssignedTo(gene2));
     }
 
+    @Test
+    public void assignsAllRegulatoryVariantsInTadToBestPhenotypicMatch() {
+        addPriorityResultWithScore(gene1, 0.2d);
+        addPriorityResultWithScore(gene2, 0.8d);
+
+        TopologicalDomain tad = makeTad(1, 1, 20000, gene1, gene2);
+        instance = makeInstance(PriorityType.HIPHIVE_PRIORITY, tad);
+
+        VariantEvaluation first = variant(1, 100, "A", "T", VariantEffect.REGULATORY_REGION_VARIANT, gene1);
+        VariantEvaluation second = variant(1, 15000, "A", "T", VariantEffect.REGULATORY_REGION_VARIANT, gene1);
+        VariantEvaluation third = variant(1, 19000, "A", "T", VariantEffect.REGULATORY_REGION_VARIANT, gene2);
+        instance.reassignRegulatoryRegionVariantToMostPhenotypicallySimilarGeneInTad(first);
+        instance.reassignRegulatoryRegionVariantToMostPhenotypicallySimilarGeneInTad(second);
+        instance.reassignRegulatoryRegionVariantToMostPhenotypicallySimilarGeneInTad(third);
+
+        assertThat(first, isAssignedTo(gene2));
+        assertThat(second, isAssignedTo(gene2));
+        assertThat(third, isAssignedTo(gene2));
+    }
+
+    @Test
+    public void assignsRegulatoryVariantInOverlappingTadsToBestPhenotypicMatchInEitherTad() {
+        Gene gene3 = new Gene("GENE3", 3333);
+        allGenes.put(gene3.getGeneSymbol(), gene3);
+        addPriorityResultWithScore(gene1, 0.2d);
+        addPriorityResultWithScore(gene2, 0.5d);
+        addPriorityResultWithScore(gene3, 0.8d);
+
+        TopologicalDomain tad1 = makeTad(1, 1, 20000, gene1, gene2);
+        TopologicalDomain tad2 = makeTad(1, 10000, 40000, gene3);
+        instance = makeInstance(PriorityType.HIPHIVE_PRIORITY, tad1, tad2);
+
+        VariantEvaluation inTad1Only = variant(1, 5000, "A", "T", VariantEffect.REGULATORY_REGION_VARIANT, gene1);
+        VariantEvaluation inBothTads = variant(1, 15000, "A", "T", VariantEffect.REGULATORY_REGION_VARIANT, gene1);
+        instance.reassignRegulatoryRegionVariantToMostPhenotypicallySimilarGeneInTad(inTad1Only);
+        instance.reassignRegulatoryRegionVariantToMostPhenotypicallySimilarGeneInTad(inBothTads);
+
+        assertThat(inTad1Only, isAssignedTo(gene2));
+        assertThat(inBothTads, isAssignedTo(gene3));
+    }
+
     @Test
     public void assignsRegulatoryVariantToBestPhenotypicMatchIgnoresNonRegulatoryVariant() {
         addPriorityResultWithScore(gene1, 1d);
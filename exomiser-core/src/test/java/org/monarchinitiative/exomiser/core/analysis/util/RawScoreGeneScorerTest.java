@@ -43,6 +43,7 @@
 import org.monarchinitiative.exomiser.core.prioritisers.MockPriorityResult;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -52,6 +53,7 @@
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.monarchinitiative.exomiser.core.analysis.util.TestAlleleFactory.*;
 
 /**
@@ -525,6 +527,79 @@ public void testGenesAreRankedAccordingToScore() {
         assertThat(genes.indexOf(last), equalTo(2));
     }
 
+    private List<Gene> topGenesTestGenes() {
+        List<Gene> genes = new ArrayList<>();
+        double[] priorityScores = {0.9, 0.1, 0.75, 0.5, 0.3, 0.95, 0.6, 0.2, 0.85, 0.4};
+        for (int i = 0; i < priorityScores.length; i++) {
+            Gene gene = new Gene("GENE" + i, i + 1);
+            // alternate the variant effects so that the phenotype and variant scores disagree on the ranks
+            switch (i % 3) {
+                case 0:
+                    gene.addVariant(passAllSynonymous());
+                    break;
+                case 1:
+                    gene.addVariant(passAllFrameShift());
+                    break;
+                default:
+                    gene.addVariant(passAllMissense());
+                    gene.addVariant(failFreq());
+            }
+            gene.addPriorityResult(new MockPriorityResult(PriorityType.HIPHIVE_PRIORITY, gene.getEntrezGeneID(), gene.getGeneSymbol(), priorityScores[i]));
+            genes.add(gene);
+        }
+        return genes;
+    }
+
+    @Test
+    public void testScoreGenesWithTopGenesRanksTopGenesIdenticallyToFullScoring() {
+        InheritanceModeAnnotator inheritanceModeAnnotator = new InheritanceModeAnnotator(Pedigree.justProband("sample"), InheritanceModeOptions.empty());
+
+        RawScoreGeneScorer fullScorer = new RawScoreGeneScorer(SampleIdentifier.of("sample", 0), inheritanceModeAnnotator);
+        List<Gene> fullyScoredGenes = fullScorer.scoreGenes(topGenesTestGenes());
+
+        int topGenes = 3;
+        RawScoreGeneScorer topGenesScorer = new RawScoreGeneScorer(SampleIdentifier.of("sample", 0), inheritanceModeAnnotator, topGenes);
+        List<Gene> topScoredGenes = topGenesScorer.scoreGenes(topGenesTestGenes());
+
+        assertThat(topScoredGenes.size(), equalTo(fullyScoredGenes.size()));
+        for (int i = 0; i < topGenes; i++) {
+            Gene expected = fullyScoredGenes.get(i);
+            Gene actual = topScoredGenes.get(i);
+            assertThat(actual.getGeneSymbol(), equalTo(expected.getGeneSymbol()));
+            assertThat(actual.getGeneScores(), equalTo(expected.getGeneScores()));
+        }
+    }
+
+    @Test
+    public void testScoreGenesWithTopGenesGivesLowerBoundScoreToGenesOutsideTopGenes() {
+        InheritanceModeAnnotator inheritanceModeAnnotator = new InheritanceModeAnnotator(Pedigree.justProband("sample"), InheritanceModeOptions.empty());
+        RawScoreGeneScorer instance = new RawScoreGeneScorer(SampleIdentifier.of("sample", 0), inheritanceModeAnnotator, 1);
+
+        Gene top = new Gene("TOP", 1111);
+        top.addVariant(passAllFrameShift());
+        top.addPriorityResult(new MockPriorityResult(PriorityType.HIPHIVE_PRIORITY, top.getEntrezGeneID(), top.getGeneSymbol(), 1d));
+
+        Gene bottom = new Gene("BOTTOM", 2222);
+        bottom.addVariant(passAllSynonymous());
+        bottom.addPriorityResult(new MockPriorityResult(PriorityType.HIPHIVE_PRIORITY, bottom.getEntrezGeneID(), bottom.getGeneSymbol(), 0.5d));
+
+        List<Gene> genes = instance.scoreGenes(Lists.newArrayList(bottom, top));
+
+        assertThat(genes, equalTo(ImmutableList.of(top, bottom)));
+        assertThat(top.getGeneScoreForMode(ModeOfInheritance.ANY).getContributingVariants(), equalTo(top.getPassedVariantEvaluations()));
+
+        GeneScore bottomScore = bottom.getGeneScoreForMode(ModeOfInheritance.ANY);
+        assertThat(bottomScore.getPhenotypeScore(), equalTo(0.5f));
+        assertThat(bottomScore.getVariantScore(), equalTo(0f));
+        assertThat(bottomScore.getContributingVariants().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testNegativeTopGenesThrowsException() {
+        InheritanceModeAnnotator inheritanceModeAnnotator = new InheritanceModeAnnotator(Pedigree.justProband("sample"), InheritanceModeOptions.empty());
+        assertThrows(IllegalArgumentException.class, () -> new RawScoreGeneScorer(SampleIdentifier.of("sample", 0), inheritanceModeAnnotator, -1));
+    }
+
     ///Priority and Combined score tests
     @Test
     public void testCalculateCombinedScoreFromUnoptimisedPrioritiser() {
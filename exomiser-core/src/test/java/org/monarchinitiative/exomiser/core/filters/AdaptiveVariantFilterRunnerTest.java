@@ -0,0 +1,196 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.filters;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.VariantDataService;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class AdaptiveVariantFilterRunnerTest {
+
+    // the filters advance this clock by their cost in place of taking any time to run
+    private final AtomicLong clock = new AtomicLong();
+
+    // rejects nothing and costs much more than the others
+    private final VariantFilter slowFilter = new TestVariantFilter(FilterType.FREQUENCY_FILTER, 1000, variant -> true);
+    // rejects variants on odd positions
+    private final VariantFilter cheapFilter = new TestVariantFilter(FilterType.QUALITY_FILTER, 1, variant -> variant.getPosition() % 2 == 0);
+    // rejects every third position
+    private final VariantFilter expensiveFilter = new TestVariantFilter(FilterType.PATHOGENICITY_FILTER, 100, variant -> variant.getPosition() % 3 != 0);
+
+    private static List<VariantEvaluation> makeVariants(int numVariants) {
+        List<VariantEvaluation> variants = new ArrayList<>();
+        for (int i = 1; i <= numVariants; i++) {
+            variants.add(VariantEvaluation.builder(1, i, "A", "T").build());
+        }
+        return variants;
+    }
+
+    private AdaptiveVariantFilterRunner newRunner(List<VariantFilter> variantFilters, int sampleSize, boolean preserveFailedFilter) {
+        return new AdaptiveVariantFilterRunner(variantFilters, sampleSize, preserveFailedFilter, clock::get);
+    }
+
+    private static List<FilterType> filterTypes(List<VariantFilter> variantFilters) {
+        return variantFilters.stream().map(VariantFilter::getFilterType).collect(toList());
+    }
+
+    @Test
+    public void throwsExceptionWithSampleSizeLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveVariantFilterRunner(new ArrayList<>(), 0, false));
+    }
+
+    @Test
+    public void runOrderIsSpecifiedOrderUntilSamplingIsFinished() {
+        AdaptiveVariantFilterRunner instance = newRunner(ImmutableList.of(slowFilter, expensiveFilter, cheapFilter), 4, false);
+        List<VariantEvaluation> variants = makeVariants(3);
+        variants.forEach(instance::run);
+        assertThat(filterTypes(instance.getRunOrder()), equalTo(ImmutableList.of(FilterType.FREQUENCY_FILTER, FilterType.PATHOGENICITY_FILTER, FilterType.QUALITY_FILTER)));
+    }
+
+    @Test
+    public void runOrderAfterSamplingPutsCheapSelectiveFiltersFirstAndNonRejectingFiltersLast() {
+        AdaptiveVariantFilterRunner instance = newRunner(ImmutableList.of(slowFilter, expensiveFilter, cheapFilter), 6, false);
+        makeVariants(6).forEach(instance::run);
+        assertThat(filterTypes(instance.getRunOrder()), equalTo(ImmutableList.of(FilterType.QUALITY_FILTER, FilterType.PATHOGENICITY_FILTER, FilterType.FREQUENCY_FILTER)));
+    }
+
+    @Test
+    public void runOrderAfterSamplingIsByCostPerRejection() {
+        // rejects half the variants but costs ten times more per rejection than the less selective cheapFilter
+        VariantFilter selectiveFilter = new TestVariantFilter(FilterType.INHERITANCE_FILTER, 10, variant -> variant.getPosition() % 2 == 0);
+        VariantFilter lessSelectiveFilter = new TestVariantFilter(FilterType.QUALITY_FILTER, 1, variant -> variant.getPosition() % 3 != 0);
+        AdaptiveVariantFilterRunner instance = newRunner(ImmutableList.of(selectiveFilter, lessSelectiveFilter), 6, false);
+        makeVariants(6).forEach(instance::run);
+        assertThat(filterTypes(instance.getRunOrder()), equalTo(ImmutableList.of(FilterType.QUALITY_FILTER, FilterType.INHERITANCE_FILTER)));
+    }
+
+    @Test
+    public void passedVariantsAreTheSameAsTheSparseRunner() {
+        List<VariantFilter> variantFilters = ImmutableList.of(slowFilter, expensiveFilter, cheapFilter);
+        AdaptiveVariantFilterRunner instance = newRunner(variantFilters, 6, false);
+        List<VariantEvaluation> adaptiveVariants = makeVariants(30);
+        List<Boolean> adaptiveStatus = adaptiveVariants.stream().map(instance::run).collect(toList());
+
+        List<VariantEvaluation> sparseVariants = makeVariants(30);
+        SparseVariantFilterRunner sparseVariantFilterRunner = new SparseVariantFilterRunner();
+        variantFilters.forEach(variantFilter -> sparseVariantFilterRunner.run(variantFilter, sparseVariants));
+
+        for (int i = 0; i < adaptiveVariants.size(); i++) {
+            VariantEvaluation sparseVariant = sparseVariants.get(i);
+            VariantEvaluation adaptiveVariant = adaptiveVariants.get(i);
+            assertThat(adaptiveStatus.get(i), is(sparseVariant.passedFilters()));
+            assertThat(adaptiveVariant.passedFilters(), is(sparseVariant.passedFilters()));
+            if (sparseVariant.passedFilters()) {
+                assertThat(adaptiveVariant.getPassedFilterTypes(), equalTo(sparseVariant.getPassedFilterTypes()));
+            }
+        }
+    }
+
+    @Test
+    public void failedVariantsAreAttributedToTheFirstFailedFilterInTheRunOrder() {
+        AdaptiveVariantFilterRunner instance = newRunner(ImmutableList.of(slowFilter, expensiveFilter, cheapFilter), 6, false);
+        makeVariants(6).forEach(instance::run);
+
+        // fails both the expensive and the cheap filters
+        VariantEvaluation variant = VariantEvaluation.builder(1, 9, "A", "T").build();
+        assertThat(instance.run(variant), is(false));
+        assertThat(variant.getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.QUALITY_FILTER)));
+        assertThat(variant.getPassedFilterTypes().isEmpty(), is(true));
+    }
+
+    @Test
+    public void failedVariantsAreTheSameAsTheSparseRunnerWhenPreservingFailedFilter() {
+        List<VariantFilter> variantFilters = ImmutableList.of(slowFilter, expensiveFilter, cheapFilter);
+        AdaptiveVariantFilterRunner instance = newRunner(variantFilters, 6, true);
+        List<VariantEvaluation> adaptiveVariants = makeVariants(30);
+        adaptiveVariants.forEach(instance::run);
+
+        List<VariantEvaluation> sparseVariants = makeVariants(30);
+        SparseVariantFilterRunner sparseVariantFilterRunner = new SparseVariantFilterRunner();
+        variantFilters.forEach(variantFilter -> sparseVariantFilterRunner.run(variantFilter, sparseVariants));
+
+        assertThat(filterTypes(instance.getRunOrder()), equalTo(ImmutableList.of(FilterType.QUALITY_FILTER, FilterType.PATHOGENICITY_FILTER, FilterType.FREQUENCY_FILTER)));
+        for (int i = 0; i < adaptiveVariants.size(); i++) {
+            VariantEvaluation sparseVariant = sparseVariants.get(i);
+            VariantEvaluation adaptiveVariant = adaptiveVariants.get(i);
+            assertThat(adaptiveVariant.passedFilters(), is(sparseVariant.passedFilters()));
+            assertThat(adaptiveVariant.getPassedFilterTypes(), equalTo(sparseVariant.getPassedFilterTypes()));
+            assertThat(adaptiveVariant.getFailedFilterTypes(), equalTo(sparseVariant.getFailedFilterTypes()));
+        }
+    }
+
+    @Test
+    public void dataProvidersOfTheSameTypeKeepTheirSpecifiedOrder() {
+        VariantDataService variantDataService = mock(VariantDataService.class);
+        when(variantDataService.getVariantFrequencyData(any(), any())).thenReturn(FrequencyData.empty());
+
+        VariantFilter slowDataProvider = new FrequencyDataProvider(variantDataService, EnumSet.allOf(FrequencySource.class), slowFilter);
+        VariantFilter cheapDataProvider = new FrequencyDataProvider(variantDataService, EnumSet.allOf(FrequencySource.class), cheapFilter);
+
+        AdaptiveVariantFilterRunner instance = newRunner(ImmutableList.of(slowDataProvider, expensiveFilter, cheapDataProvider), 6, false);
+        makeVariants(6).forEach(instance::run);
+        assertThat(filterTypes(instance.getRunOrder()), equalTo(ImmutableList.of(FilterType.FREQUENCY_FILTER, FilterType.PATHOGENICITY_FILTER, FilterType.QUALITY_FILTER)));
+    }
+
+    private class TestVariantFilter implements VariantFilter {
+
+        private final FilterType filterType;
+        private final long cost;
+        private final Predicate<VariantEvaluation> passes;
+
+        private TestVariantFilter(FilterType filterType, long cost, Predicate<VariantEvaluation> passes) {
+            this.filterType = filterType;
+            this.cost = cost;
+            this.passes = passes;
+        }
+
+        @Override
+        public FilterType getFilterType() {
+            return filterType;
+        }
+
+        @Override
+        public FilterResult runFilter(VariantEvaluation variantEvaluation) {
+            clock.addAndGet(cost);
+            return passes.test(variantEvaluation) ? new PassFilterResult(filterType) : new FailFilterResult(filterType);
+        }
+    }
+}
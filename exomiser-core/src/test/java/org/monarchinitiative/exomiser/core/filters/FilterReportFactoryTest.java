@@ -239,6 +239,30 @@ public void testMakeQualityFilterReport() {
         assertThat(result, equalTo(report));
     }
 
+    @Test
+    public void testMakeQualityFilterReportUsesFilterStatsRecordedDuringAnalysis() {
+        Filter filter = new QualityFilter(100.0f);
+        FilterType filterType = filter.getFilterType();
+        //the failed variant was not retained in the results, but was counted when the filter was run
+        variantEvaluations.add(makePassedVariant(filterType));
+        FilterStats filterStats = new FilterStats();
+        filterStats.addResult(filterType, true);
+        filterStats.addResult(filterType, false);
+
+        AnalysisResults passOnlyResults = AnalysisResults.builder()
+                .variantEvaluations(variantEvaluations)
+                .genes(genes)
+                .filterStats(filterStats)
+                .build();
+
+        FilterReport report = new FilterReport(filterType, 1, 1);
+        report.addMessage("Variants filtered for mimimum PHRED quality of 100.0");
+
+        FilterReport result = instance.makeFilterReport(filter, passOnlyResults);
+
+        assertThat(result, equalTo(report));
+    }
+
     @Test
     public void testMakePathogenicityFilterReportWhenRemovePathFilterCutOffIsTrue() {
         Filter filter = new PathogenicityFilter(true);
@@ -0,0 +1,120 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.filters;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class FilterStatsTest {
+
+    private final VariantFilter knownVariantFilter = new KnownVariantFilter();
+    private final VariantFilter qualityFilter = new QualityFilter(100);
+
+    private VariantEvaluation variantWithFrequencyData(FrequencyData frequencyData) {
+        return VariantEvaluation.builder(1, 1, "A", "T").frequencyData(frequencyData).build();
+    }
+
+    @Test
+    public void testEmpty() {
+        FilterStats instance = new FilterStats();
+        assertThat(instance.isEmpty(), is(true));
+        for (FilterType filterType : FilterType.values()) {
+            assertThat(instance.getPassed(filterType), equalTo(0));
+            assertThat(instance.getFailed(filterType), equalTo(0));
+        }
+    }
+
+    @Test
+    public void testAddResult() {
+        FilterStats instance = new FilterStats();
+        instance.addResult(FilterType.QUALITY_FILTER, true);
+        instance.addResult(FilterType.QUALITY_FILTER, true);
+        instance.addResult(FilterType.QUALITY_FILTER, false);
+
+        assertThat(instance.isEmpty(), is(false));
+        assertThat(instance.getPassed(FilterType.QUALITY_FILTER), equalTo(2));
+        assertThat(instance.getFailed(FilterType.QUALITY_FILTER), equalTo(1));
+        assertThat(instance.getPassed(FilterType.FREQUENCY_FILTER), equalTo(0));
+    }
+
+    @Test
+    public void testAddResultsCountsOnlyFiltersRunOnVariant() {
+        List<VariantFilter> variantFilters = ImmutableList.of(knownVariantFilter, qualityFilter);
+
+        VariantEvaluation known = variantWithFrequencyData(FrequencyData.of(RsId.valueOf(12345)));
+        known.addFilterResult(knownVariantFilter.runFilter(known));
+
+        VariantEvaluation novel = variantWithFrequencyData(FrequencyData.empty());
+        novel.addFilterResult(knownVariantFilter.runFilter(novel));
+        novel.addFilterResult(qualityFilter.runFilter(novel));
+
+        FilterStats instance = new FilterStats();
+        instance.addResults(known, variantFilters);
+        instance.addResults(novel, variantFilters);
+
+        assertThat(instance.getPassed(FilterType.KNOWN_VARIANT_FILTER), equalTo(1));
+        assertThat(instance.getFailed(FilterType.KNOWN_VARIANT_FILTER), equalTo(1));
+        assertThat(instance.getPassed(FilterType.QUALITY_FILTER) + instance.getFailed(FilterType.QUALITY_FILTER), equalTo(1));
+    }
+
+    @Test
+    public void testAddResultCountsFrequencyDataForKnownVariantFilter() {
+        VariantEvaluation known = variantWithFrequencyData(FrequencyData.of(RsId.valueOf(12345)));
+        known.addFilterResult(knownVariantFilter.runFilter(known));
+
+        VariantEvaluation novel = variantWithFrequencyData(FrequencyData.empty());
+        novel.addFilterResult(knownVariantFilter.runFilter(novel));
+        novel.addFilterResult(qualityFilter.runFilter(novel));
+
+        FilterStats instance = new FilterStats();
+        instance.addResult(known, knownVariantFilter);
+        instance.addResult(novel, knownVariantFilter);
+        //frequency data is only counted for the known variant filter
+        instance.addResult(novel, qualityFilter);
+
+        assertThat(instance.getNotInDatabaseCount(), equalTo(1));
+        assertThat(instance.getDbSnpRsIdCount(), equalTo(1));
+        assertThat(instance.getDbSnpFrequencyDataCount(), equalTo(0));
+        assertThat(instance.getEspFrequencyDataCount(), equalTo(0));
+        assertThat(instance.getExacFrequencyDataCount(), equalTo(0));
+    }
+
+    @Test
+    public void testAddResultIsThreadSafe() {
+        FilterStats instance = new FilterStats();
+        IntStream.range(0, 10_000).parallel().forEach(i -> instance.addResult(FilterType.QUALITY_FILTER, i % 2 == 0));
+
+        assertThat(instance.getPassed(FilterType.QUALITY_FILTER), equalTo(5_000));
+        assertThat(instance.getFailed(FilterType.QUALITY_FILTER), equalTo(5_000));
+    }
+}
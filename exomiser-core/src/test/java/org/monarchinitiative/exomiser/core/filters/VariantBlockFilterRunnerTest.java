@@ -0,0 +1,160 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.filters;
+
+import com.google.common.collect.ImmutableList;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.VariantDataServiceMock;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
+import org.monarchinitiative.exomiser.core.model.FilterStatus;
+import org.monarchinitiative.exomiser.core.model.GeneticInterval;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PolyPhenScore;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class VariantBlockFilterRunnerTest {
+
+    private static final VariantEffect[] VARIANT_EFFECTS = {VariantEffect.MISSENSE_VARIANT, VariantEffect.SYNONYMOUS_VARIANT, VariantEffect.FRAMESHIFT_VARIANT, VariantEffect.INTRON_VARIANT, VariantEffect.STOP_GAINED};
+
+    private static final int NUM_VARIANTS = 200;
+
+    private final VariantDataServiceMock variantDataService = makeVariantDataService();
+
+    private final List<VariantFilter> variantFilters = ImmutableList.of(
+            new IntervalFilter(ImmutableList.<ChromosomalRegion>of(new GeneticInterval(1, 1, 1000), new GeneticInterval(2, 500, 2000))),
+            new QualityFilter(10),
+            new FrequencyDataProvider(variantDataService, EnumSet.allOf(FrequencySource.class), new FrequencyFilter(2f)),
+            new KnownVariantFilter(),
+            new PathogenicityFilter(false),
+            new VariantEffectFilter(EnumSet.of(VariantEffect.INTRON_VARIANT))
+    );
+
+    private static VariantDataServiceMock makeVariantDataService() {
+        VariantDataServiceMock variantDataService = new VariantDataServiceMock();
+        for (VariantEvaluation variantEvaluation : makeVariants()) {
+            int position = variantEvaluation.getPosition();
+            if (position % 4 == 0) {
+                // some of these are known variants and some are over the maximum frequency
+                RsId rsId = position % 8 == 0 ? RsId.valueOf(position) : RsId.empty();
+                variantDataService.put(variantEvaluation, FrequencyData.of(rsId, Frequency.valueOf(position % 7, FrequencySource.ESP_ALL)));
+            }
+        }
+        return variantDataService;
+    }
+
+    private static List<VariantEvaluation> makeVariants() {
+        List<VariantEvaluation> variants = new ArrayList<>();
+        for (int i = 1; i <= NUM_VARIANTS; i++) {
+            variants.add(VariantEvaluation.builder(i % 3 + 1, i * 10, "A", "T")
+                    .quality(i % 30)
+                    .variantEffect(VARIANT_EFFECTS[i % VARIANT_EFFECTS.length])
+                    .pathogenicityData(PathogenicityData.of(PolyPhenScore.valueOf((i % 10) / 10f)))
+                    // a few variants have failed a filter before being run through these
+                    .filterResults(i % 50 == 0 ? FilterResult.fail(FilterType.FAILED_VARIANT_FILTER) : FilterResult.pass(FilterType.FAILED_VARIANT_FILTER))
+                    .build());
+        }
+        return variants;
+    }
+
+    private static void assertSameFilterResults(List<VariantEvaluation> actual, List<VariantEvaluation> expected) {
+        assertThat(actual.size(), equalTo(expected.size()));
+        for (int i = 0; i < actual.size(); i++) {
+            VariantEvaluation actualVariant = actual.get(i);
+            VariantEvaluation expectedVariant = expected.get(i);
+            assertThat(actualVariant, equalTo(expectedVariant));
+            assertThat(actualVariant.getPassedFilterTypes(), equalTo(expectedVariant.getPassedFilterTypes()));
+            assertThat(actualVariant.getFailedFilterTypes(), equalTo(expectedVariant.getFailedFilterTypes()));
+            assertThat(actualVariant.getFrequencyData(), equalTo(expectedVariant.getFrequencyData()));
+        }
+    }
+
+    @Test
+    public void throwsExceptionWithBlockSizeLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> new VariantBlockFilterRunner(variantFilters, 0, false));
+    }
+
+    @Test
+    public void filterResultsAreTheSameAsTheSparseRunner() {
+        List<VariantEvaluation> blockVariants = makeVariants();
+        VariantBlockFilterRunner instance = new VariantBlockFilterRunner(variantFilters, 16, false);
+        instance.run(blockVariants);
+
+        List<VariantEvaluation> sparseVariants = makeVariants();
+        SparseVariantFilterRunner sparseVariantFilterRunner = new SparseVariantFilterRunner();
+        variantFilters.forEach(variantFilter -> sparseVariantFilterRunner.run(variantFilter, sparseVariants));
+
+        assertSameFilterResults(blockVariants, sparseVariants);
+        // check there is something to compare
+        assertThat(blockVariants.stream().anyMatch(VariantEvaluation::passedFilters), is(true));
+    }
+
+    @Test
+    public void filterResultsAreTheSameAsTheSimpleRunnerWhenFilteringFailedVariants() {
+        List<VariantEvaluation> blockVariants = makeVariants();
+        VariantBlockFilterRunner instance = new VariantBlockFilterRunner(variantFilters, 16, true);
+        instance.run(blockVariants);
+
+        List<VariantEvaluation> simpleVariants = makeVariants();
+        SimpleVariantFilterRunner simpleVariantFilterRunner = new SimpleVariantFilterRunner();
+        variantFilters.forEach(variantFilter -> simpleVariantFilterRunner.run(variantFilter, simpleVariants));
+
+        assertSameFilterResults(blockVariants, simpleVariants);
+    }
+
+    @Test
+    public void streamedVariantsAreFilteredInOrder() {
+        List<VariantEvaluation> listVariants = makeVariants();
+        new VariantBlockFilterRunner(variantFilters, 16, false).run(listVariants);
+
+        List<VariantEvaluation> streamedVariants;
+        VariantBlockFilterRunner instance = new VariantBlockFilterRunner(variantFilters, 16, false);
+        try (Stream<VariantEvaluation> variantStream = instance.run(makeVariants().stream())) {
+            streamedVariants = variantStream.collect(toList());
+        }
+
+        assertSameFilterResults(streamedVariants, listVariants);
+    }
+
+    @Test
+    public void noFilterResultsAddedWithoutFilters() {
+        List<VariantEvaluation> variants = ImmutableList.of(VariantEvaluation.builder(1, 1, "A", "T").build());
+        new VariantBlockFilterRunner(ImmutableList.of(), false).run(variants);
+        assertThat(variants.get(0).getFilterStatus(), equalTo(FilterStatus.UNFILTERED));
+    }
+}
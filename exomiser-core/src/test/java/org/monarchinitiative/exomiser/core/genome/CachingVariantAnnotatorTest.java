@@ -0,0 +1,73 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.genome;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class CachingVariantAnnotatorTest {
+
+    private final JannovarVariantAnnotator jannovarVariantAnnotator = new JannovarVariantAnnotator(TestFactory.getDefaultGenomeAssembly(), TestFactory
+            .buildDefaultJannovarData(), ChromosomalRegionIndex.empty());
+
+    private final VariantAnnotationCache cache = new VariantAnnotationCache(100);
+    private final CachingVariantAnnotator instance = new CachingVariantAnnotator(TestFactory.getDefaultGenomeAssembly(), jannovarVariantAnnotator, cache);
+
+    @Test
+    public void annotateReturnsSameAnnotationAsDelegate() {
+        VariantAnnotation annotation = instance.annotate("10", 123256215, "T", "G");
+        assertThat(annotation, equalTo(jannovarVariantAnnotator.annotate("10", 123256215, "T", "G")));
+        assertThat(cache.size(), equalTo(1L));
+        assertThat(cache.stats().missCount(), equalTo(1L));
+    }
+
+    @Test
+    public void annotateReturnsCachedAnnotationForRepeatedAllele() {
+        VariantAnnotation first = instance.annotate("10", 123256215, "T", "G");
+        VariantAnnotation second = instance.annotate("10", 123256215, "T", "G");
+        assertThat(second, sameInstance(first));
+        assertThat(cache.stats().hitCount(), equalTo(1L));
+        assertThat(cache.hitRate(), equalTo(0.5));
+    }
+
+    @Test
+    public void annotateUntrimmedAlleleUsesCachedTrimmedAllele() {
+        VariantAnnotation trimmed = instance.annotate("10", 123256215, "T", "G");
+        // same SNV, as it might appear from a multi-allelic site
+        VariantAnnotation untrimmed = instance.annotate("10", 123256215, "TA", "GA");
+        assertThat(untrimmed, sameInstance(trimmed));
+        assertThat(cache.size(), equalTo(1L));
+    }
+
+    @Test
+    public void locateIsNotCached() {
+        VariantAnnotation located = instance.locate("10", 123256215, "T", "G");
+        assertThat(located, equalTo(jannovarVariantAnnotator.locate("10", 123256215, "T", "G")));
+        assertThat(cache.size(), equalTo(0L));
+    }
+}
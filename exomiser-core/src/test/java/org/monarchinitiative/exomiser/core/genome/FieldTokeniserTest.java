@@ -0,0 +1,190 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.genome;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class FieldTokeniserTest {
+
+    private final FieldTokeniser instance = FieldTokeniser.tabDelimited();
+
+    @Test
+    public void tokenisesAllFields() {
+        instance.tokenise("1\t12345\tA\tT\t23.0");
+        assertThat(instance.size(), equalTo(5));
+        assertThat(instance.getString(0), equalTo("1"));
+        assertThat(instance.getString(1), equalTo("12345"));
+        assertThat(instance.getString(2), equalTo("A"));
+        assertThat(instance.getString(3), equalTo("T"));
+        assertThat(instance.getString(4), equalTo("23.0"));
+    }
+
+    @Test
+    public void emptyLineHasSingleEmptyField() {
+        instance.tokenise("");
+        assertThat(instance.size(), equalTo(1));
+        assertThat(instance.getString(0), equalTo(""));
+    }
+
+    @Test
+    public void retainsEmptyFields() {
+        instance.tokenise("\tA\t\t");
+        assertThat(instance.size(), equalTo(4));
+        assertThat(instance.getString(0), equalTo(""));
+        assertThat(instance.getString(1), equalTo("A"));
+        assertThat(instance.getString(2), equalTo(""));
+        assertThat(instance.getString(3), equalTo(""));
+    }
+
+    @Test
+    public void tokenisesLinesWithManyFields() {
+        StringBuilder stringBuilder = new StringBuilder("0");
+        for (int i = 1; i < 500; i++) {
+            stringBuilder.append('\t').append(i);
+        }
+        instance.tokenise(stringBuilder);
+        assertThat(instance.size(), equalTo(500));
+        assertThat(instance.getInt(0), equalTo(0));
+        assertThat(instance.getInt(250), equalTo(250));
+        assertThat(instance.getInt(499), equalTo(499));
+    }
+
+    @Test
+    public void reusedForNextLine() {
+        instance.tokenise("1\t2\t3\t4\t5\t6");
+        instance.tokenise("X\tY");
+        assertThat(instance.size(), equalTo(2));
+        assertThat(instance.getString(1), equalTo("Y"));
+        assertThrows(IndexOutOfBoundsException.class, () -> instance.get(2));
+    }
+
+    @Test
+    public void throwsExceptionForNegativeIndex() {
+        instance.tokenise("A\tB");
+        assertThrows(IndexOutOfBoundsException.class, () -> instance.get(-1));
+    }
+
+    @Test
+    public void fieldOffsets() {
+        instance.tokenise("chr1\t12345\tA");
+        assertThat(instance.fieldStart(1), equalTo(5));
+        assertThat(instance.fieldEnd(1), equalTo(10));
+        assertThat(instance.fieldLength(1), equalTo(5));
+    }
+
+    @Test
+    public void getReturnsView() {
+        instance.tokenise("chr1\t12345\tA");
+        CharSequence field = instance.get(1);
+        assertThat(field.length(), equalTo(5));
+        assertThat(field.charAt(0), equalTo('1'));
+        assertThat(field.toString(), equalTo("12345"));
+        assertThat(field.subSequence(1, 3).toString(), equalTo("23"));
+        assertThrows(IndexOutOfBoundsException.class, () -> field.charAt(5));
+    }
+
+    @Test
+    public void otherDelimiter() {
+        FieldTokeniser commaTokeniser = new FieldTokeniser(',');
+        commaTokeniser.tokenise("A,T\tG,C");
+        assertThat(commaTokeniser.size(), equalTo(3));
+        assertThat(commaTokeniser.getString(1), equalTo("T\tG"));
+    }
+
+    @Test
+    public void fieldEquals() {
+        instance.tokenise("1\t12345\tA\tAT\t.");
+        assertThat(instance.fieldEquals(2, "A"), equalTo(true));
+        assertThat(instance.fieldEquals(2, "AT"), equalTo(false));
+        assertThat(instance.fieldEquals(3, "A"), equalTo(false));
+        assertThat(instance.fieldEquals(3, "AT"), equalTo(true));
+        assertThat(instance.fieldEquals(4, "."), equalTo(true));
+    }
+
+    @Test
+    public void fieldContains() {
+        instance.tokenise("0.1;0.2\t0.3");
+        assertThat(instance.fieldContains(0, ';'), equalTo(true));
+        assertThat(instance.fieldContains(1, ';'), equalTo(false));
+    }
+
+    @Test
+    public void getInt() {
+        instance.tokenise("12345\t-1\t+7\t2147483647\t-2147483648\t0");
+        assertThat(instance.getInt(0), equalTo(12345));
+        assertThat(instance.getInt(1), equalTo(-1));
+        assertThat(instance.getInt(2), equalTo(7));
+        assertThat(instance.getInt(3), equalTo(Integer.MAX_VALUE));
+        assertThat(instance.getInt(4), equalTo(Integer.MIN_VALUE));
+        assertThat(instance.getInt(5), equalTo(0));
+    }
+
+    @Test
+    public void getIntThrowsNumberFormatException() {
+        instance.tokenise("\t-\t1.0\t2147483648\t.\t12a");
+        for (int i = 0; i < instance.size(); i++) {
+            int index = i;
+            assertThrows(NumberFormatException.class, () -> instance.getInt(index));
+        }
+    }
+
+    @Test
+    public void getFloat() {
+        instance.tokenise("23.0\t-0.138930\t1.458\t0.000001234\t1e-5\t3\t.5\t-0.0\tNaN\t0.12345678912");
+        assertThat(instance.getFloat(0), equalTo(23.0f));
+        assertThat(instance.getFloat(1), equalTo(-0.138930f));
+        assertThat(instance.getFloat(2), equalTo(1.458f));
+        assertThat(instance.getFloat(3), equalTo(0.000001234f));
+        assertThat(instance.getFloat(4), equalTo(1e-5f));
+        assertThat(instance.getFloat(5), equalTo(3f));
+        assertThat(instance.getFloat(6), equalTo(0.5f));
+        assertThat(instance.getFloat(7), equalTo(-0.0f));
+        assertThat(instance.getFloat(8), equalTo(Float.NaN));
+        assertThat(instance.getFloat(9), equalTo(0.12345678912f));
+    }
+
+    @Test
+    public void getFloatThrowsNumberFormatException() {
+        instance.tokenise("\t.\t-\t0.1.2\tD");
+        for (int i = 0; i < instance.size(); i++) {
+            int index = i;
+            assertThrows(NumberFormatException.class, () -> instance.getFloat(index));
+        }
+    }
+
+    @Test
+    public void getFloatIsIdenticalToFloatParseFloat() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            String value = String.format("%." + random.nextInt(8) + "f", random.nextDouble() * Math.pow(10, random.nextInt(6) - 3));
+            instance.tokenise(value);
+            assertThat(value, Float.floatToIntBits(instance.getFloat(0)), equalTo(Float.floatToIntBits(Float.parseFloat(value))));
+        }
+    }
+}
@@ -262,4 +262,24 @@ public void testGetAnnotationsForUnTrimmedDeletionTrimmedWithAllelePosition() {
         assertThat(variantAnnotation.hasTranscriptAnnotations(), is(false));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testLocateReturnsSameCoordinatesAsAnnotate() {
+        VariantAnnotation annotations = instance.annotate("10", 123256214, "AT", "AG");
+        VariantAnnotation location = instance.locate("10", 123256214, "AT", "AG");
+        assertThat(location.getGenomeAssembly(), equalTo(annotations.getGenomeAssembly()));
+        assertThat(location.getChromosome(), equalTo(annotations.getChromosome()));
+        assertThat(location.getChromosomeName(), equalTo(annotations.getChromosomeName()));
+        assertThat(location.getPosition(), equalTo(123256215));
+        assertThat(location.getRef(), equalTo("T"));
+        assertThat(location.getAlt(), equalTo("G"));
+        assertThat(location.hasTranscriptAnnotations(), is(false));
+    }
+
+    @Test
+    public void testLocateUnknownContigVariant() {
+        VariantAnnotation location = instance.locate("UNKNOWN", 1, "A", "T");
+        assertThat(location.getChromosome(), equalTo(0));
+        assertThat(location.getChromosomeName(), equalTo("UNKNOWN"));
+        assertThat(location.getPosition(), equalTo(1));
+    }
+}
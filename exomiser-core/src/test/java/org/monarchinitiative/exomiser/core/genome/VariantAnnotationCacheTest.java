@@ -0,0 +1,184 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.genome;
+
+import com.google.common.collect.ImmutableList;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
+import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class VariantAnnotationCacheTest {
+
+    private final JannovarVariantAnnotator jannovarVariantAnnotator = new JannovarVariantAnnotator(TestFactory.getDefaultGenomeAssembly(), TestFactory
+            .buildDefaultJannovarData(), ChromosomalRegionIndex.empty());
+
+    private VariantAnnotation annotate(VariantAnnotationCache instance, GenomeAssembly genomeAssembly, String contig, int pos, String ref, String alt) {
+        return instance.get(genomeAssembly, contig, pos, ref, alt, () -> jannovarVariantAnnotator.annotate(contig, pos, ref, alt));
+    }
+
+    @Test
+    public void keyIncludesGenomeAssembly() {
+        VariantAnnotationCache instance = new VariantAnnotationCache(10);
+        annotate(instance, GenomeAssembly.HG19, "10", 123256215, "T", "G");
+        annotate(instance, GenomeAssembly.HG38, "10", 123256215, "T", "G");
+        assertThat(instance.size(), equalTo(2L));
+        assertThat(instance.stats().hitCount(), equalTo(0L));
+    }
+
+    @Test
+    public void sizeIsBounded() {
+        VariantAnnotationCache instance = new VariantAnnotationCache(2);
+        annotate(instance, GenomeAssembly.HG19, "10", 123256215, "T", "G");
+        annotate(instance, GenomeAssembly.HG19, "10", 123256216, "A", "G");
+        annotate(instance, GenomeAssembly.HG19, "10", 123256217, "C", "G");
+        assertThat(instance.size(), equalTo(2L));
+        assertThat(instance.stats().evictionCount(), equalTo(1L));
+    }
+
+    @Test
+    public void hitRateIsOneWhenEmpty() {
+        VariantAnnotationCache instance = new VariantAnnotationCache(10);
+        assertThat(instance.hitRate(), equalTo(1.0));
+    }
+
+    @Test
+    public void writeToAndReadFrom() throws Exception {
+        VariantAnnotationCache instance = new VariantAnnotationCache(10);
+        VariantAnnotation missense = annotate(instance, GenomeAssembly.HG19, "10", 123256215, "T", "G");
+        VariantAnnotation unknownContig = annotate(instance, GenomeAssembly.HG19, "UNKNOWN", 1, "A", "T");
+
+        Path cacheFile = Files.createTempDirectory("exomiser_test").resolve("annotation.cache");
+        instance.writeTo(cacheFile);
+
+        VariantAnnotationCache loaded = new VariantAnnotationCache(10);
+        loaded.readFrom(cacheFile);
+        assertThat(loaded.size(), equalTo(2L));
+
+        VariantAnnotation cachedMissense = loaded.get(GenomeAssembly.HG19, "10", 123256215, "T", "G", VariantAnnotation::empty);
+        assertThat(cachedMissense, equalTo(missense));
+        VariantAnnotation cachedUnknownContig = loaded.get(GenomeAssembly.HG19, "UNKNOWN", 1, "A", "T", VariantAnnotation::empty);
+        assertThat(cachedUnknownContig, equalTo(unknownContig));
+        assertThat(loaded.stats().hitCount(), equalTo(2L));
+    }
+
+    @Test
+    public void writeToAndReadFromKeepsNullAndEmptyFields() throws Exception {
+        TranscriptAnnotation nullFields = TranscriptAnnotation.builder()
+                .variantEffect(VariantEffect.INTERGENIC_VARIANT)
+                .geneSymbol(null)
+                .accession(null)
+                .hgvsGenomic(null)
+                .hgvsCdna(null)
+                .hgvsProtein(null)
+                .build();
+        TranscriptAnnotation emptyFields = TranscriptAnnotation.builder()
+                .variantEffect(VariantEffect.INTERGENIC_VARIANT)
+                .build();
+        VariantAnnotation variantAnnotation = VariantAnnotation.builder()
+                .genomeAssembly(GenomeAssembly.HG19)
+                .chromosome(1)
+                .chromosomeName("1")
+                .position(12345)
+                .ref("A")
+                .alt("T")
+                .geneSymbol(null)
+                .geneId(null)
+                .variantEffect(VariantEffect.INTERGENIC_VARIANT)
+                .annotations(ImmutableList.of(nullFields, emptyFields))
+                .build();
+        VariantAnnotationCache instance = new VariantAnnotationCache(10);
+        instance.get(GenomeAssembly.HG19, "1", 12345, "A", "T", () -> variantAnnotation);
+
+        Path cacheFile = Files.createTempDirectory("exomiser_test").resolve("annotation.cache");
+        instance.writeTo(cacheFile);
+
+        VariantAnnotationCache loaded = new VariantAnnotationCache(10);
+        loaded.readFrom(cacheFile);
+        VariantAnnotation cached = loaded.get(GenomeAssembly.HG19, "1", 12345, "A", "T", VariantAnnotation::empty);
+        assertThat(cached.getGeneSymbol(), is(nullValue()));
+        assertThat(cached.getGeneId(), is(nullValue()));
+
+        TranscriptAnnotation cachedNullFields = cached.getTranscriptAnnotations().get(0);
+        assertThat(cachedNullFields.getGeneSymbol(), is(nullValue()));
+        assertThat(cachedNullFields.getAccession(), is(nullValue()));
+        assertThat(cachedNullFields.getHgvsGenomic(), is(nullValue()));
+        assertThat(cachedNullFields.getHgvsCdna(), is(nullValue()));
+        assertThat(cachedNullFields.getHgvsProtein(), is(nullValue()));
+
+        assertThat(cached.getTranscriptAnnotations().get(1), equalTo(emptyFields));
+        assertThat(cached.getTranscriptAnnotations().get(1).getHgvsCdna(), equalTo(""));
+    }
+
+    @Test
+    public void readFromLoadsFileWrittenForSameTranscriptData() throws Exception {
+        VariantAnnotationCache instance = new VariantAnnotationCache(10, "1807", GenomeAssembly.HG19, "ucsc");
+        annotate(instance, GenomeAssembly.HG19, "10", 123256215, "T", "G");
+
+        Path cacheFile = Files.createTempDirectory("exomiser_test").resolve("annotation.cache");
+        instance.writeTo(cacheFile);
+
+        VariantAnnotationCache loaded = new VariantAnnotationCache(10, "1807", GenomeAssembly.HG19, "ucsc");
+        loaded.readFrom(cacheFile);
+        assertThat(loaded.size(), equalTo(1L));
+    }
+
+    @Test
+    public void readFromIgnoresFileWrittenForDifferentTranscriptData() throws Exception {
+        VariantAnnotationCache instance = new VariantAnnotationCache(10, "1807", GenomeAssembly.HG19, "ucsc");
+        annotate(instance, GenomeAssembly.HG19, "10", 123256215, "T", "G");
+
+        Path cacheFile = Files.createTempDirectory("exomiser_test").resolve("annotation.cache");
+        instance.writeTo(cacheFile);
+
+        VariantAnnotationCache newDataVersion = new VariantAnnotationCache(10, "1811", GenomeAssembly.HG19, "ucsc");
+        newDataVersion.readFrom(cacheFile);
+        assertThat(newDataVersion.size(), equalTo(0L));
+
+        VariantAnnotationCache otherAssembly = new VariantAnnotationCache(10, "1807", GenomeAssembly.HG38, "ucsc");
+        otherAssembly.readFrom(cacheFile);
+        assertThat(otherAssembly.size(), equalTo(0L));
+
+        VariantAnnotationCache otherTranscriptSource = new VariantAnnotationCache(10, "1807", GenomeAssembly.HG19, "refseq");
+        otherTranscriptSource.readFrom(cacheFile);
+        assertThat(otherTranscriptSource.size(), equalTo(0L));
+    }
+
+    @Test
+    public void readFromThrowsExceptionForWrongFileType() throws Exception {
+        Path notACache = Files.createTempDirectory("exomiser_test").resolve("not.cache");
+        Files.write(notACache, "wibble".getBytes());
+        VariantAnnotationCache instance = new VariantAnnotationCache(10);
+        assertThrows(IllegalArgumentException.class, () -> instance.readFrom(notACache));
+    }
+}
@@ -36,9 +36,14 @@
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataProtoSerialiser;
 import org.monarchinitiative.exomiser.core.model.*;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -380,4 +385,46 @@ private JannovarData loadJannovarData() {
         Path transcriptFilePath = Paths.get("C:/Users/hhx640/Documents/exomiser-data/1806_hg19/1806_hg19_transcripts_ucsc.ser");
         return JannovarDataProtoSerialiser.load(transcriptFilePath);
     }
+
+    @Test
+    public void testCreateVariantsWithPreAnnotationFilterReturnsSameVariantsAsUnfiltered() {
+        Path vcfPath = Paths.get("src/test/resources/multiAlleleGenotypes.vcf");
+        List<VariantEvaluation> expected = instance.createVariantEvaluations(vcfPath).collect(toList());
+        List<VariantEvaluation> variants = instance.createVariantEvaluations(VcfFiles.readVariantContexts(vcfPath), variant -> true)
+                .collect(toList());
+        assertThat(variants, equalTo(expected));
+        for (int i = 0; i < variants.size(); i++) {
+            assertThat(variants.get(i).getGeneSymbol(), equalTo(expected.get(i).getGeneSymbol()));
+            assertThat(variants.get(i).getTranscriptAnnotations(), equalTo(expected.get(i).getTranscriptAnnotations()));
+            assertThat(variants.get(i).getSampleGenotypes(), equalTo(expected.get(i).getSampleGenotypes()));
+        }
+    }
+
+    @Test
+    public void testCreateVariantsWithPreAnnotationFilterIsGivenUnannotatedVariants() {
+        Stream<VariantContext> variantContexts = TestVcfParser.forSamples("Sample")
+                .parseVariantContext("10\t123256214\t.\tAT\tAG,AC\t100\tPASS\t.\tGT\t1/2");
+        List<VariantEvaluation> screened = new ArrayList<>();
+        FrequencyData frequencyData = FrequencyData.of(RsId.valueOf(12345), Frequency.valueOf(0.1f, FrequencySource.ESP_ALL));
+
+        List<VariantEvaluation> variants = instance.createVariantEvaluations(variantContexts, variant -> {
+            screened.add(variant);
+            variant.setFrequencyData(frequencyData);
+            return variant.getAlt().equals("G");
+        }).collect(toList());
+
+        assertThat(screened.size(), equalTo(2));
+        for (VariantEvaluation variant : screened) {
+            assertThat(variant.getChromosome(), equalTo(10));
+            assertThat(variant.getPosition(), equalTo(123256215));
+            assertThat(variant.hasTranscriptAnnotations(), is(false));
+        }
+
+        assertThat(variants.size(), equalTo(1));
+        VariantEvaluation variant = variants.get(0);
+        assertThat(variant.getAlt(), equalTo("G"));
+        assertThat(variant.getGeneSymbol(), equalTo("FGFR2"));
+        assertThat(variant.hasTranscriptAnnotations(), is(true));
+        assertThat(variant.getFrequencyData(), equalTo(frequencyData));
+    }
 }
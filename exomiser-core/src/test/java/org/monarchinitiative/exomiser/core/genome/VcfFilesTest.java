@@ -21,13 +21,25 @@
 package org.monarchinitiative.exomiser.core.genome;
 
 import com.google.common.collect.ImmutableList;
+import htsjdk.samtools.util.BlockCompressedOutputStream;
 import htsjdk.tribble.TribbleException;
+import htsjdk.tribble.index.Index;
+import htsjdk.tribble.index.IndexFactory;
+import htsjdk.tribble.util.TabixUtils;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
 import htsjdk.variant.vcf.VCFHeader;
 import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
+import org.monarchinitiative.exomiser.core.model.GeneticInterval;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -86,4 +98,69 @@ public void testReadVcfHeader() {
         VCFHeader header = VcfFiles.readVcfHeader(vcfPath);
         assertThat(header.getGenotypeSamples(), equalTo(ImmutableList.of("sample")));
     }
-}
\ No newline at end of file
+
+    private static final String INDEXED_VCF_RECORDS = "##fileformat=VCFv4.1\n" +
+            "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tsample\n" +
+            "chr1\t100\t.\tA\tT\t100\tPASS\t.\tGT\t0/1\n" +
+            "chr1\t200\t.\tACGTACGTAC\tA\t100\tPASS\t.\tGT\t0/1\n" +
+            "chr1\t300\t.\tA\tT\t100\tPASS\t.\tGT\t0/1\n" +
+            "chr2\t100\t.\tA\tT\t100\tPASS\t.\tGT\t0/1\n" +
+            "chrX\t100\t.\tA\tT\t100\tPASS\t.\tGT\t0/1\n";
+
+    private Path writeVcf(Path vcfPath, boolean tabixIndex) throws IOException {
+        try (OutputStream outputStream = new BlockCompressedOutputStream(vcfPath.toFile())) {
+            outputStream.write(INDEXED_VCF_RECORDS.getBytes(StandardCharsets.UTF_8));
+        }
+        if (tabixIndex) {
+            Index index = IndexFactory.createIndex(vcfPath.toFile(), new VCFCodec(), IndexFactory.IndexType.TABIX);
+            index.write(Paths.get(vcfPath.toString() + TabixUtils.STANDARD_INDEX_EXTENSION));
+        }
+        return vcfPath;
+    }
+
+    private List<Integer> readStartPositions(Path vcfPath, List<ChromosomalRegion> regions) {
+        try (Stream<VariantContext> variantStream = VcfFiles.readVariantContexts(vcfPath, regions)) {
+            return variantStream.map(VariantContext::getStart).collect(toList());
+        }
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsNullRegions() {
+        Path vcfPath = Paths.get("src/test/resources/smallTest.vcf");
+        assertThrows(NullPointerException.class, () -> VcfFiles.readVariantContexts(vcfPath, null));
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsNoRegionsReadsAllVariants() throws IOException {
+        Path vcfPath = writeVcf(Files.createTempDirectory("exomiser_test").resolve("indexed.vcf.gz"), true);
+        assertThat(readStartPositions(vcfPath, Collections.emptyList()), equalTo(ImmutableList.of(100, 200, 300, 100, 100)));
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsIndexedFile() throws IOException {
+        Path vcfPath = writeVcf(Files.createTempDirectory("exomiser_test").resolve("indexed.vcf.gz"), true);
+        List<ChromosomalRegion> regions = ImmutableList.of(new GeneticInterval(23, 1, 1000), new GeneticInterval(1, 205, 350));
+        assertThat(readStartPositions(vcfPath, regions), equalTo(ImmutableList.of(200, 300, 100)));
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsIndexedFileRecordOverlappingTwoRegionsIsOnlyReadOnce() throws IOException {
+        Path vcfPath = writeVcf(Files.createTempDirectory("exomiser_test").resolve("indexed.vcf.gz"), true);
+        List<ChromosomalRegion> regions = ImmutableList.of(new GeneticInterval(1, 195, 203), new GeneticInterval(1, 205, 206), new GeneticInterval(1, 201, 202));
+        assertThat(readStartPositions(vcfPath, regions), equalTo(ImmutableList.of(200)));
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsIndexedFileUnknownContig() throws IOException {
+        Path vcfPath = writeVcf(Files.createTempDirectory("exomiser_test").resolve("indexed.vcf.gz"), true);
+        List<ChromosomalRegion> regions = ImmutableList.of(new GeneticInterval(3, 1, 1000));
+        assertThat(readStartPositions(vcfPath, regions), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsUnindexedFileReadsAllVariants() throws IOException {
+        Path vcfPath = writeVcf(Files.createTempDirectory("exomiser_test").resolve("unindexed.vcf.gz"), false);
+        List<ChromosomalRegion> regions = ImmutableList.of(new GeneticInterval(1, 250, 350));
+        assertThat(readStartPositions(vcfPath, regions), equalTo(ImmutableList.of(100, 200, 300, 100, 100)));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.model.TopologicalDomain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class GenomeIntervalFileTest {
+
+    private final RegulatoryFeature enhancer = new RegulatoryFeature(1, 1000, 2000, RegulatoryFeature.FeatureType.ENHANCER);
+    private final RegulatoryFeature promoter = new RegulatoryFeature(1, 100, 500, RegulatoryFeature.FeatureType.PROMOTER);
+    private final RegulatoryFeature fantom = new RegulatoryFeature(2, 5000, 6000, RegulatoryFeature.FeatureType.FANTOM_PERMISSIVE);
+
+    private final TopologicalDomain tad1 = new TopologicalDomain(1, 770137, 1250137, genes("ISG15", 9636, "TNFRSF4", 7293));
+    private final TopologicalDomain tad2 = new TopologicalDomain(2, 30346496, 30906496, genes("LBH", 81606, "YPEL5", 51646));
+    private final TopologicalDomain emptyTad = new TopologicalDomain(2, 100, 200, Collections.emptyMap());
+
+    private static Map<String, Integer> genes(Object... symbolsAndIds) {
+        Map<String, Integer> genes = new LinkedHashMap<>();
+        for (int i = 0; i < symbolsAndIds.length; i += 2) {
+            genes.put((String) symbolsAndIds[i], (Integer) symbolsAndIds[i + 1]);
+        }
+        return genes;
+    }
+
+    private Path getTempFile() throws IOException {
+        Path tempFile = Files.createTempFile("exomiser_test", ".bin");
+        tempFile.toFile().deleteOnExit();
+        return tempFile;
+    }
+
+    private GenomeIntervalFile writeAndLoad(List<RegulatoryFeature> regulatoryFeatures, List<TopologicalDomain> topologicalDomains) throws IOException {
+        Path path = getTempFile();
+        GenomeIntervalFile.write(path, regulatoryFeatures, topologicalDomains);
+        return GenomeIntervalFile.load(path);
+    }
+
+    @Test
+    public void roundTripSortsByChromosomeAndStart() throws Exception {
+        GenomeIntervalFile instance = writeAndLoad(Arrays.asList(fantom, enhancer, promoter), Arrays.asList(tad2, tad1, emptyTad));
+
+        assertThat(instance.getRegulatoryFeatures(), equalTo(Arrays.asList(promoter, enhancer, fantom)));
+        assertThat(instance.getTopologicallyAssociatedDomains(), equalTo(Arrays.asList(tad1, emptyTad, tad2)));
+    }
+
+    @Test
+    public void roundTripPreservesGeneOrder() throws Exception {
+        GenomeIntervalFile instance = writeAndLoad(Collections.emptyList(), Collections.singletonList(tad1));
+
+        TopologicalDomain loaded = instance.getTopologicallyAssociatedDomains().get(0);
+        assertThat(loaded.getGenes().keySet(), equalTo(tad1.getGenes().keySet()));
+        assertThat(loaded.getGenes(), equalTo(tad1.getGenes()));
+    }
+
+    @Test
+    public void removesDuplicates() throws Exception {
+        GenomeIntervalFile instance = writeAndLoad(Arrays.asList(enhancer, enhancer, promoter), Arrays.asList(tad1, tad1));
+
+        assertThat(instance.getRegulatoryFeatures(), equalTo(Arrays.asList(promoter, enhancer)));
+        assertThat(instance.getTopologicallyAssociatedDomains(), equalTo(Collections.singletonList(tad1)));
+    }
+
+    @Test
+    public void indexesMatchThoseBuiltFromTheDatabase() throws Exception {
+        List<RegulatoryFeature> regulatoryFeatures = Arrays.asList(enhancer, promoter, fantom);
+        List<TopologicalDomain> topologicalDomains = Arrays.asList(tad1, tad2);
+        GenomeIntervalFile instance = writeAndLoad(regulatoryFeatures, topologicalDomains);
+
+        assertThat(instance.getRegulatoryRegionIndex().size(), equalTo(3));
+        assertThat(instance.getRegulatoryRegionIndex().getRegionsOverlappingPosition(1, 1500), equalTo(Collections.singletonList(enhancer)));
+        assertThat(instance.getRegulatoryRegionIndex().hasRegionContainingPosition(2, 4999), is(false));
+        assertThat(instance.getTopologicallyAssociatedDomainIndex()
+                .getRegionsOverlappingPosition(2, 30500000), equalTo(Collections.singletonList(tad2)));
+    }
+
+    @Test
+    public void emptyFile() throws Exception {
+        GenomeIntervalFile instance = writeAndLoad(Collections.emptyList(), Collections.emptyList());
+
+        assertThat(instance.getRegulatoryFeatures().isEmpty(), is(true));
+        assertThat(instance.getTopologicallyAssociatedDomainIndex().size(), equalTo(0));
+    }
+
+    @Test
+    public void throwsExceptionWithWrongMagicBytes() throws Exception {
+        Path path = getTempFile();
+        Files.write(path, "EXGR0000".getBytes());
+        assertThrows(GenomeIntervalFile.GenomeIntervalFileException.class, () -> GenomeIntervalFile.load(path));
+    }
+
+    @Test
+    public void throwsExceptionWhenTruncated() throws Exception {
+        Path path = getTempFile();
+        GenomeIntervalFile.write(path, Arrays.asList(enhancer, promoter), Collections.singletonList(tad1));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 6));
+        assertThrows(GenomeIntervalFile.GenomeIntervalFileException.class, () -> GenomeIntervalFile.load(path));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.jannovar;
+
+import de.charite.compbio.jannovar.data.Chromosome;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class MappedJannovarDataTest {
+
+    private final JannovarData testData = TestFactory.buildDefaultJannovarData();
+
+    private Path getTempFile() throws IOException {
+        Path tempFile = Files.createTempFile("exomiser_test", ".tmp");
+        tempFile.toFile().deleteOnExit();
+        return tempFile;
+    }
+
+    private MappedJannovarData saveAndOpenTestData() throws IOException {
+        Path mappedJannovarPath = getTempFile();
+        MappedJannovarData.save(mappedJannovarPath, testData);
+        return MappedJannovarData.open(mappedJannovarPath);
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        JannovarData jannovarData = saveAndOpenTestData().toJannovarData();
+
+        assertThat(jannovarData.getRefDict().getContigNameToID(), equalTo(testData.getRefDict().getContigNameToID()));
+        assertThat(jannovarData.getRefDict().getContigIDToLength(), equalTo(testData.getRefDict().getContigIDToLength()));
+        assertThat(jannovarData.getRefDict().getContigIDToName(), equalTo(testData.getRefDict().getContigIDToName()));
+
+        assertThat(jannovarData.getTmByAccession(), equalTo(testData.getTmByAccession()));
+        assertThat(jannovarData.getTmByGeneSymbol(), equalTo(testData.getTmByGeneSymbol()));
+        assertThat(jannovarData.getChromosomes().keySet(), equalTo(testData.getChromosomes().keySet()));
+    }
+
+    @Test
+    public void load() throws Exception {
+        Path mappedJannovarPath = getTempFile();
+        MappedJannovarData.save(mappedJannovarPath, testData);
+
+        JannovarData jannovarData = MappedJannovarData.load(mappedJannovarPath);
+        assertThat(jannovarData.getTmByAccession(), equalTo(testData.getTmByAccession()));
+    }
+
+    @Test
+    public void getChromosomeIds() throws Exception {
+        MappedJannovarData instance = saveAndOpenTestData();
+        Set<Integer> chromosomesWithTranscripts = testData.getChromosomes()
+                .values()
+                .stream()
+                .filter(chromosome -> chromosome.getTMIntervalTree().size() > 0)
+                .map(Chromosome::getChrID)
+                .collect(toSet());
+        assertThat(instance.getChromosomeIds(), equalTo(chromosomesWithTranscripts));
+    }
+
+    @Test
+    public void getTranscriptModelsForChromosome() throws Exception {
+        MappedJannovarData instance = saveAndOpenTestData();
+        for (Chromosome chromosome : testData.getChromosomes().values()) {
+            int chrId = chromosome.getChrID();
+            List<TranscriptModel> transcriptModels = instance.getTranscriptModels(chrId);
+            assertThat(transcriptModels.size(), equalTo(chromosome.getTMIntervalTree().size()));
+            transcriptModels.forEach(transcriptModel -> assertThat(transcriptModel.getChr(), equalTo(chrId)));
+            // decoded blocks are cached
+            assertThat(instance.getTranscriptModels(chrId), sameInstance(transcriptModels));
+        }
+    }
+
+    @Test
+    public void getTranscriptModelsForUnknownChromosomeIsEmpty() throws Exception {
+        MappedJannovarData instance = saveAndOpenTestData();
+        assertThat(instance.getTranscriptModels(Integer.MAX_VALUE).isEmpty(), is(true));
+    }
+
+    @Test
+    public void getChromosome() throws Exception {
+        MappedJannovarData instance = saveAndOpenTestData();
+        for (Chromosome expected : testData.getChromosomes().values()) {
+            Chromosome chromosome = instance.getChromosome(expected.getChrID());
+            assertThat(chromosome.getChromosomeName(), equalTo(expected.getChromosomeName()));
+            assertThat(chromosome.getTMIntervalTree().size(), equalTo(expected.getTMIntervalTree().size()));
+            assertThat(instance.getChromosome(expected.getChrID()), sameInstance(chromosome));
+        }
+    }
+
+    @Test
+    public void getChromosomeForUnknownChromosomeIsNull() throws Exception {
+        MappedJannovarData instance = saveAndOpenTestData();
+        assertThat(instance.getChromosome(Integer.MAX_VALUE), is(nullValue()));
+    }
+
+    @Test
+    public void isMappedFormat() throws Exception {
+        Path mappedJannovarPath = getTempFile();
+        MappedJannovarData.save(mappedJannovarPath, testData);
+        assertThat(MappedJannovarData.isMappedFormat(mappedJannovarPath), is(true));
+
+        Path protoJannovarPath = getTempFile();
+        JannovarDataProtoSerialiser.save(protoJannovarPath, testData);
+        assertThat(MappedJannovarData.isMappedFormat(protoJannovarPath), is(false));
+    }
+
+    @Test
+    public void incorrectFileFormatThrowsException() throws Exception {
+        Path emptyPath = getTempFile();
+        assertThrows(InvalidFileFormatException.class, () -> MappedJannovarData.open(emptyPath));
+    }
+
+    @Test
+    public void truncatedFileThrowsException() throws Exception {
+        Path mappedJannovarPath = getTempFile();
+        MappedJannovarData.save(mappedJannovarPath, testData);
+        byte[] bytes = Files.readAllBytes(mappedJannovarPath);
+        Files.write(mappedJannovarPath, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(InvalidFileFormatException.class, () -> MappedJannovarData.open(mappedJannovarPath));
+    }
+}
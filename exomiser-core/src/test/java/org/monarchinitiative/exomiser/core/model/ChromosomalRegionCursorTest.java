@@ -0,0 +1,126 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.core.model;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class ChromosomalRegionCursorTest {
+
+    private final GeneticInterval region1 = new GeneticInterval(1, 1, 100);
+    private final GeneticInterval region2 = new GeneticInterval(1, 150, 300);
+    private final GeneticInterval region3 = new GeneticInterval(1, 250, 350);
+    private final GeneticInterval region4 = new GeneticInterval(1, 400, 500);
+    private final GeneticInterval region5 = new GeneticInterval(2, 600, 800);
+
+    private final ChromosomalRegionIndex<GeneticInterval> index = ChromosomalRegionIndex.of(ImmutableList.of(region1, region2, region3, region4, region5));
+
+    @Test
+    public void emptyIndex() {
+        ChromosomalRegionCursor<GeneticInterval> instance = ChromosomalRegionIndex.<GeneticInterval>empty().cursor();
+        assertThat(instance.getRegionsOverlappingPosition(1, 50), equalTo(ImmutableList.of()));
+        assertThat(instance.hasRegionContainingPosition(1, 60), is(false));
+    }
+
+    @Test
+    public void sortedPositions() {
+        ChromosomalRegionCursor<GeneticInterval> instance = index.cursor();
+        assertThat(instance.getRegionsOverlappingPosition(1, 1), equalTo(ImmutableList.of(region1)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 100), equalTo(ImmutableList.of(region1)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 101), equalTo(ImmutableList.of()));
+        assertThat(instance.getRegionsOverlappingPosition(1, 250), equalTo(ImmutableList.of(region2, region3)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 250), equalTo(ImmutableList.of(region2, region3)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 301), equalTo(ImmutableList.of(region3)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 450), equalTo(ImmutableList.of(region4)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 501), equalTo(ImmutableList.of()));
+        assertThat(instance.getRegionsOverlappingPosition(2, 1), equalTo(ImmutableList.of()));
+        assertThat(instance.getRegionsOverlappingPosition(2, 800), equalTo(ImmutableList.of(region5)));
+        assertThat(instance.getRegionsOverlappingPosition(3, 800), equalTo(ImmutableList.of()));
+    }
+
+    @Test
+    public void unsortedPositions() {
+        ChromosomalRegionCursor<GeneticInterval> instance = index.cursor();
+        assertThat(instance.getRegionsOverlappingPosition(2, 700), equalTo(ImmutableList.of(region5)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 260), equalTo(ImmutableList.of(region2, region3)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 50), equalTo(ImmutableList.of(region1)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 320), equalTo(ImmutableList.of(region3)));
+        assertThat(instance.getRegionsOverlappingPosition(2, 600), equalTo(ImmutableList.of(region5)));
+        assertThat(instance.getRegionsOverlappingPosition(1, 200), equalTo(ImmutableList.of(region2)));
+    }
+
+    @Test
+    public void variantCoordinates() {
+        ChromosomalRegionCursor<GeneticInterval> instance = index.cursor();
+        VariantCoordinates variant = new SimpleVariantCoordinates(GenomeAssembly.HG19, 1, 275, "A", "T");
+        assertThat(instance.getRegionsContainingVariant(variant), equalTo(ImmutableList.of(region2, region3)));
+        assertThat(instance.hasRegionContainingVariant(variant), is(true));
+    }
+
+    @Test
+    public void matchesIndexForSortedAndUnsortedPositions() {
+        Random random = new Random(42);
+        List<GeneticInterval> regions = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int chr = 1 + random.nextInt(3);
+            int start = 1 + random.nextInt(100_000);
+            regions.add(new GeneticInterval(chr, start, start + random.nextInt(5_000)));
+        }
+        ChromosomalRegionIndex<GeneticInterval> randomIndex = ChromosomalRegionIndex.of(regions);
+
+        List<GeneticInterval> positions = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int chr = 1 + random.nextInt(4);
+            int pos = 1 + random.nextInt(110_000);
+            positions.add(new GeneticInterval(chr, pos, pos));
+        }
+
+        ChromosomalRegionCursor<GeneticInterval> unsortedCursor = randomIndex.cursor();
+        for (GeneticInterval position : positions) {
+            assertMatchesIndex(randomIndex, unsortedCursor, position);
+        }
+
+        Collections.sort(positions);
+        ChromosomalRegionCursor<GeneticInterval> sortedCursor = randomIndex.cursor();
+        for (GeneticInterval position : positions) {
+            assertMatchesIndex(randomIndex, sortedCursor, position);
+        }
+    }
+
+    private void assertMatchesIndex(ChromosomalRegionIndex<GeneticInterval> index, ChromosomalRegionCursor<GeneticInterval> cursor, GeneticInterval position) {
+        List<GeneticInterval> expected = new ArrayList<>(index.getRegionsOverlappingPosition(position.getChromosome(), position.getStart()));
+        expected.sort(null);
+        List<GeneticInterval> actual = cursor.getRegionsOverlappingPosition(position.getChromosome(), position.getStart());
+        assertThat(position.toString(), actual, equalTo(expected));
+    }
+}
@@ -235,6 +235,18 @@ public void testPassesFiltersTrueWhenNoFiltersHaveBeenApplied() {
         assertThat(instance.passedFilters(), is(true));
     }
 
+    @Test
+    public void testHasStoredFailedVariantsFalseByDefault() {
+        assertThat(instance.hasStoredFailedVariants(), is(false));
+    }
+
+    @Test
+    public void testPassedFiltersFalseWhenNoVariantsAndHasStoredFailedVariants() {
+        instance.setHasStoredFailedVariants(true);
+        assertThat(instance.hasStoredFailedVariants(), is(true));
+        assertThat(instance.passedFilters(), is(false));
+    }
+
     @Test
     public void testPassedFiltersTrueWhenPassesGeneFilterOnly() {
         instance.addFilterResult(PASS_GENE_FILTER_RESULT);
@@ -27,6 +27,7 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -115,6 +116,40 @@ private void testMatrixEquality(FloatMatrix mapMatrix, FloatMatrix fileMatrix) {
         }
     }
 
+    @Test
+    public void testConvertToMappedFile() throws Exception {
+        String dataPath = "src/test/resources/prioritisers/";
+        String indexPath = dataPath + "test_ppi_matrix_id2index.gz";
+        String matrixPath = dataPath + "test_ppi_matrix.gz";
+
+        Path mappedMatrixFile = Files.createTempFile("test_ppi_matrix", ".mmap");
+        DataMatrixIO.convertToMappedFile(matrixPath, indexPath, mappedMatrixFile);
+
+        DataMatrix mappedMatrix = DataMatrixIO.loadMappedDataMatrix(mappedMatrixFile);
+        DataMatrix fromFile = DataMatrixIO.loadInMemoryDataMatrixFromFile(matrixPath, indexPath, true);
+
+        assertThat(mappedMatrix.getEntrezIdToRowIndex(), equalTo(fromFile.getEntrezIdToRowIndex()));
+        testMatrixEquality(mappedMatrix.getMatrix(), fromFile.getMatrix());
+        mappedMatrixFile.toFile().deleteOnExit();
+    }
+
+    @Test
+    public void testConvertMapToMappedFile() throws Exception {
+        // copy the map as the original may be open and locked by another test
+        Path mapPath = Files.createTempFile("test_ppi_matrix", ".mv");
+        Files.copy(Paths.get("src/test/resources/prioritisers/test_ppi_matrix.mv"), mapPath, StandardCopyOption.REPLACE_EXISTING);
+        Path mappedMatrixFile = Files.createTempFile("test_ppi_matrix", ".mmap");
+        DataMatrixIO.convertMapToMappedFile(mapPath, mappedMatrixFile);
+
+        DataMatrix mappedMatrix = DataMatrixIO.loadMappedDataMatrix(mappedMatrixFile);
+        DataMatrix inMemoryMapMatrix = DataMatrixIO.loadInMemoryDataMatrix(mapPath);
+
+        assertThat(mappedMatrix.getEntrezIdToRowIndex(), equalTo(inMemoryMapMatrix.getEntrezIdToRowIndex()));
+        testMatrixEquality(mappedMatrix.getMatrix(), inMemoryMapMatrix.getMatrix());
+        mappedMatrixFile.toFile().deleteOnExit();
+        Files.delete(mapPath);
+    }
+
     @Test
     public void loadDataMatrixFromMap() {
         Path mapPath = Paths.get("src/test/resources/prioritisers/test_ppi_matrix.mv");
@@ -30,6 +30,7 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.FloatBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -142,6 +143,14 @@ public void testGetColumnMatrixForGeneInIndex() {
         }
     }
 
+    @Test
+    public void testGetColumnBufferForGeneInIndex() {
+        FloatBuffer columnBuffer = instance.getColumnBufferForGene(3333);
+        assertThat(columnBuffer.remaining(), equalTo(4));
+        assertThat(columnBuffer.get(0), equalTo(0.3f));
+        assertThat(columnBuffer.get(3), equalTo(3.3f));
+    }
+
     @Test
     public void testMakeSubMatrix() {
         float[][] matrix = {{0.0f, 0.1f, 0.2f}, {1.0f, 1.1f, 1.2f}, {2.0f, 2.1f, 2.2f}};
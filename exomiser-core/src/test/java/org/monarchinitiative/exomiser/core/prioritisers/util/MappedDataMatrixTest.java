@@ -0,0 +1,137 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.prioritisers.util;
+
+import org.jblas.FloatMatrix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class MappedDataMatrixTest {
+
+    private Path mappedMatrixPath;
+    private FloatMatrix floatMatrix;
+    private Map<Integer, Integer> entrezIdToRowIndex;
+
+    private MappedDataMatrix instance;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        float[][] matrix = {
+                {0.0f, 0.1f, 0.2f, 0.3f},
+                {1.0f, 1.1f, 1.2f, 1.3f},
+                {2.0f, 2.1f, 2.2f, 2.3f},
+                {3.0f, 3.1f, 3.2f, 3.3f}
+        };
+        floatMatrix = new FloatMatrix(matrix);
+
+        entrezIdToRowIndex = new TreeMap<>();
+        entrezIdToRowIndex.put(0000, 0);
+        entrezIdToRowIndex.put(1111, 1);
+        entrezIdToRowIndex.put(2222, 2);
+        entrezIdToRowIndex.put(3333, 3);
+
+        mappedMatrixPath = Files.createTempFile("test_ppi_matrix", ".mmap");
+        DataMatrixIO.writeMappedDataMatrix(new InMemoryDataMatrix(floatMatrix, entrezIdToRowIndex), mappedMatrixPath);
+        instance = MappedDataMatrix.load(mappedMatrixPath);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        instance = null;
+        // on some platforms the file cannot be deleted while it is still mapped
+        mappedMatrixPath.toFile().deleteOnExit();
+    }
+
+    @Test
+    public void testGetEntrezIdToRowIndex() {
+        assertThat(instance.getEntrezIdToRowIndex(), equalTo(entrezIdToRowIndex));
+    }
+
+    @Test
+    public void testGetMatrix() {
+        assertThat(instance.getMatrix(), equalTo(floatMatrix));
+    }
+
+    @Test
+    public void testGetMatrixOnlyCopiesMatrixOnce() {
+        assertThat(instance.getMatrix(), sameInstance(instance.getMatrix()));
+    }
+
+    @Test
+    public void testNumRowsAndColumns() {
+        assertThat(instance.numRows(), equalTo(4));
+        assertThat(instance.numColumns(), equalTo(4));
+    }
+
+    @Test
+    public void testContainsGene() {
+        assertThat(instance.containsGene(0000), is(true));
+        assertThat(instance.containsGene(9999), is(false));
+    }
+
+    @Test
+    public void testGetRowIndexForGene() {
+        assertThat(instance.getRowIndexForGene(3333), equalTo(3));
+        assertThat(instance.getRowIndexForGene(9999), nullValue());
+    }
+
+    @Test
+    public void testGetColumnMatrixForGeneInIndex() {
+        FloatMatrix expected = new FloatMatrix(new float[]{0.3f, 1.3f, 2.3f, 3.3f});
+        assertThat(instance.getColumnMatrixForGene(3333), equalTo(expected));
+    }
+
+    @Test
+    public void testGetColumnMatrixForGeneNotInIndex() {
+        assertThat(instance.getColumnMatrixForGene(9999), nullValue());
+    }
+
+    @Test
+    public void testGetColumnBufferForGene() {
+        FloatBuffer columnBuffer = instance.getColumnBufferForGene(1111);
+        assertThat(columnBuffer.isReadOnly(), is(true));
+        assertThat(columnBuffer.remaining(), equalTo(4));
+        assertThat(columnBuffer.get(0), equalTo(0.1f));
+        assertThat(columnBuffer.get(3), equalTo(3.1f));
+    }
+
+    @Test
+    public void testLoadThrowsExceptionForNonMappedMatrixFile() throws Exception {
+        Path notAMatrix = Files.createTempFile("not_a_matrix", ".mmap");
+        Files.write(notAMatrix, new byte[]{'W', 'I', 'B', 'B', 'L', 'E', '!', '!'});
+        assertThrows(IllegalArgumentException.class, () -> MappedDataMatrix.load(notAMatrix));
+        notAMatrix.toFile().deleteOnExit();
+    }
+}
@@ -184,4 +184,20 @@ public void testWriteToFileDoesNotOutputsSingleHtmlFileIfAbsentFromSettings() th
         Path outputPath = Paths.get(String.format("%s.%s", outputPrefix, OutputFormat.HTML.getFileExtension()));
         assertThat(outputPath.toFile().exists(), is(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testShowsGenesBelowTopGenes() {
+        Analysis allGenesScored = Analysis.builder().build();
+        Analysis topGenesScored = Analysis.builder().topGenes(20).build();
+
+        OutputSettings showAllGenes = OutputSettings.builder().numberOfGenesToShow(0).build();
+        OutputSettings showTopGenes = OutputSettings.builder().numberOfGenesToShow(20).build();
+        OutputSettings showMoreThanTopGenes = OutputSettings.builder().numberOfGenesToShow(21).build();
+
+        assertThat(AnalysisResultsWriter.showsGenesBelowTopGenes(allGenesScored, showAllGenes), is(false));
+        assertThat(AnalysisResultsWriter.showsGenesBelowTopGenes(allGenesScored, showMoreThanTopGenes), is(false));
+        assertThat(AnalysisResultsWriter.showsGenesBelowTopGenes(topGenesScored, showAllGenes), is(true));
+        assertThat(AnalysisResultsWriter.showsGenesBelowTopGenes(topGenesScored, showTopGenes), is(false));
+        assertThat(AnalysisResultsWriter.showsGenesBelowTopGenes(topGenesScored, showMoreThanTopGenes), is(true));
+    }
+}
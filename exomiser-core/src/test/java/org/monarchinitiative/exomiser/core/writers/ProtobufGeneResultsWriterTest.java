@@ -0,0 +1,114 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.proto.ResultsProto.GeneResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class ProtobufGeneResultsWriterTest {
+
+    private static final GeneResult FGFR2_GENE_RESULT = GeneResult.newBuilder()
+            .setGeneSymbol("FGFR2")
+            .setEntrezGeneId(2263)
+            .build();
+    private static final GeneResult RBM8A_GENE_RESULT = GeneResult.newBuilder()
+            .setGeneSymbol("RBM8A")
+            .setEntrezGeneId(9939)
+            .build();
+
+    private final ProtobufGeneResultsWriter instance = new ProtobufGeneResultsWriter();
+
+    private final OutputSettings.Builder settingsBuilder = OutputSettings.builder()
+            .outputFormats(EnumSet.of(OutputFormat.PROTOBUF_GENE));
+    private final Analysis analysis = Analysis.builder().build();
+    private AnalysisResults analysisResults;
+
+    @BeforeEach
+    public void setUp() {
+        Gene fgfr2 = TestFactory.newGeneFGFR2();
+        fgfr2.setCompatibleInheritanceModes(EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT));
+        Gene rbm8a = TestFactory.newGeneRBM8A();
+        rbm8a.setCompatibleInheritanceModes(EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT));
+        analysisResults = AnalysisResults.builder().genes(Arrays.asList(fgfr2, rbm8a)).build();
+    }
+
+    @Test
+    public void testWriteFileCanBeReadBack() throws Exception {
+        Path tempFolder = Files.createTempDirectory("exomiser_test");
+        String outPrefix = tempFolder.resolve("testWrite").toString();
+        OutputSettings settings = settingsBuilder.outputPrefix(outPrefix).build();
+
+        instance.writeFile(ModeOfInheritance.AUTOSOMAL_DOMINANT, analysis, analysisResults, settings);
+
+        Path outputPath = tempFolder.resolve("testWrite_AD.genes.pb");
+        assertThat(outputPath.toFile().exists(), is(true));
+
+        try (Stream<GeneResult> geneResults = ProtobufResultsReader.readGeneResults(outputPath)) {
+            List<GeneResult> results = geneResults.collect(Collectors.toList());
+            assertThat(results, equalTo(Arrays.asList(FGFR2_GENE_RESULT, RBM8A_GENE_RESULT)));
+        }
+        Files.delete(outputPath);
+        Files.delete(tempFolder);
+    }
+
+    @Test
+    public void testWriteFileIncompatibleModeIsEmpty() throws Exception {
+        Path tempFolder = Files.createTempDirectory("exomiser_test");
+        String outPrefix = tempFolder.resolve("testWrite").toString();
+        OutputSettings settings = settingsBuilder.outputPrefix(outPrefix).build();
+
+        instance.writeFile(ModeOfInheritance.AUTOSOMAL_RECESSIVE, analysis, analysisResults, settings);
+
+        Path outputPath = tempFolder.resolve("testWrite_AR.genes.pb");
+        try (Stream<GeneResult> geneResults = ProtobufResultsReader.readGeneResults(outputPath)) {
+            assertThat(geneResults.count(), equalTo(0L));
+        }
+        Files.delete(outputPath);
+        Files.delete(tempFolder);
+    }
+
+    @Test
+    public void testWriteString() {
+        String outString = instance.writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, analysis, analysisResults, settingsBuilder.build());
+        assertThat(outString, equalTo(FGFR2_GENE_RESULT.toString() + RBM8A_GENE_RESULT.toString()));
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import com.google.common.collect.ImmutableList;
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import de.charite.compbio.jannovar.pedigree.Genotype;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+import org.monarchinitiative.exomiser.core.genome.TestVariantFactory;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneScore;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PolyPhenScore;
+import org.monarchinitiative.exomiser.core.proto.ResultsProto.VariantResult;
+import org.monarchinitiative.exomiser.core.proto.ResultsProto.VariantResult.FilterStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class ProtobufVariantResultsWriterTest {
+
+    private final TestVariantFactory varFactory = new TestVariantFactory();
+
+    private final ProtobufVariantResultsWriter instance = new ProtobufVariantResultsWriter();
+
+    private final OutputSettings.Builder settingsBuilder = OutputSettings.builder()
+            .outputFormats(EnumSet.of(OutputFormat.PROTOBUF_VARIANT));
+    private final Analysis analysis = Analysis.builder().build();
+    private AnalysisResults analysisResults;
+
+    private final VariantResult passVariantResult = VariantResult.newBuilder()
+            .setContig("chr10")
+            .setPosition(123256214)
+            .setRef("A")
+            .setAlt("G")
+            .setQual(2.2)
+            .setFilterStatus(FilterStatus.PASSED)
+            .setGenotype("0/1")
+            .setFunctionalClass("missense_variant")
+            .setHgvs("FGFR2:uc021pzz.1:c.1695G>C:p.(Glu565Asp)")
+            .setGeneSymbol("FGFR2")
+            .putPathogenicityScores("POLYPHEN", 0.89f)
+            .setRsId("rs12345")
+            .setMaxFrequency(0.02f)
+            .putFrequencies("THOUSAND_GENOMES", 0.01f)
+            .putFrequencies("EXAC_FINNISH", 0.02f)
+            // the variant score is a combination of the pathogenicity and frequency scores
+            .setVariantScore(makePassVariant().getVariantScore())
+            .build();
+
+    private static final VariantResult FAIL_VARIANT_RESULT = VariantResult.newBuilder()
+            .setContig("chr7")
+            .setPosition(155604800)
+            .setRef("C")
+            .setAlt("CTT")
+            .setQual(1.0)
+            .setFilterStatus(FilterStatus.FAILED)
+            .addFailedFilters("var-effect")
+            .setGenotype("0/1")
+            .setFunctionalClass("frameshift_variant")
+            .setHgvs("SHH:uc003wmk.1:c.16_17insAA:p.(Arg6Lysfs*6)")
+            .setGeneSymbol("SHH")
+            .setVariantScore(1.0f)
+            .build();
+
+    @BeforeEach
+    public void setUp() {
+        Gene fgfr2 = TestFactory.newGeneFGFR2();
+        fgfr2.addVariant(makePassVariant());
+
+        Gene shh = TestFactory.newGeneSHH();
+        shh.addVariant(makeFailVariant());
+
+        analysisResults = AnalysisResults.builder()
+                .genes(Arrays.asList(fgfr2, shh))
+                .build();
+    }
+
+    private VariantEvaluation makeFailVariant() {
+        VariantEvaluation variant = varFactory.buildVariant(7, 155604800, "C", "CTT", Genotype.HETEROZYGOUS, 30, 0, 1.0);
+        variant.addFilterResult(FilterResult.fail(FilterType.VARIANT_EFFECT_FILTER));
+        return variant;
+    }
+
+    private VariantEvaluation makePassVariant() {
+        VariantEvaluation variant = varFactory.buildVariant(10, 123256214, "A", "G", Genotype.HETEROZYGOUS, 30, 0, 2.2);
+        variant.addFilterResult(FilterResult.pass(FilterType.VARIANT_EFFECT_FILTER));
+        variant.setPathogenicityData(PathogenicityData.of(PolyPhenScore.valueOf(0.89f)));
+        variant.setFrequencyData(FrequencyData.of(RsId.valueOf(12345),
+                Frequency.valueOf(0.01f, FrequencySource.THOUSAND_GENOMES),
+                Frequency.valueOf(0.02f, FrequencySource.EXAC_FINNISH)));
+        return variant;
+    }
+
+    private List<VariantResult> writeAndReadBack(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings.Builder settingsBuilder) throws Exception {
+        Path tempFolder = Files.createTempDirectory("exomiser_test");
+        String outPrefix = tempFolder.resolve("testWrite").toString();
+        OutputSettings settings = settingsBuilder.outputPrefix(outPrefix).build();
+
+        instance.writeFile(modeOfInheritance, analysis, analysisResults, settings);
+        Path outputPath = Paths.get(ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), outPrefix, OutputFormat.PROTOBUF_VARIANT, modeOfInheritance));
+        assertThat(outputPath.toFile().exists(), is(true));
+
+        List<VariantResult> results;
+        try (Stream<VariantResult> variantResults = ProtobufResultsReader.readVariantResults(outputPath)) {
+            results = variantResults.collect(Collectors.toList());
+        }
+        Files.delete(outputPath);
+        Files.delete(tempFolder);
+        return results;
+    }
+
+    @Test
+    public void testWriteFileCanBeReadBackWithAllVariants() throws Exception {
+        List<VariantResult> results = writeAndReadBack(ModeOfInheritance.ANY, analysisResults, settingsBuilder);
+        assertThat(results, equalTo(Arrays.asList(passVariantResult, FAIL_VARIANT_RESULT)));
+    }
+
+    @Test
+    public void testWriteFileCoverageIsUnsetWithoutReadDepth() throws Exception {
+        List<VariantResult> results = writeAndReadBack(ModeOfInheritance.ANY, analysisResults, settingsBuilder);
+        for (VariantResult result : results) {
+            assertThat(result.getCoverageValueCase(), equalTo(VariantResult.CoverageValueCase.COVERAGEVALUE_NOT_SET));
+        }
+    }
+
+    @Test
+    public void testWriteFileCoverageIsReadDepth() throws Exception {
+        VariantEvaluation passVariant = makePassVariant();
+        VariantEvaluation variantWithDepth = VariantEvaluation.builder(10, 123256214, "A", "G")
+                .variantContext(new VariantContextBuilder(passVariant.getVariantContext()).attribute("DP", 33).make())
+                .geneSymbol("FGFR2")
+                .build();
+        Gene fgfr2 = TestFactory.newGeneFGFR2();
+        fgfr2.addVariant(variantWithDepth);
+
+        AnalysisResults results = AnalysisResults.builder()
+                .genes(Collections.singletonList(fgfr2))
+                .build();
+
+        List<VariantResult> variantResults = writeAndReadBack(ModeOfInheritance.ANY, results, settingsBuilder);
+        assertThat(variantResults.size(), equalTo(1));
+        assertThat(variantResults.get(0).getCoverage(), equalTo(33));
+    }
+
+    @Test
+    public void testWriteFileContributingVariantsOnly() throws Exception {
+        Gene fgfr2 = TestFactory.newGeneFGFR2();
+        fgfr2.setCompatibleInheritanceModes(EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT));
+
+        VariantEvaluation passVariant = makePassVariant();
+        passVariant.setCompatibleInheritanceModes(EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT));
+        fgfr2.addVariant(passVariant);
+
+        VariantEvaluation contributingVariant = makePassVariant();
+        contributingVariant.setCompatibleInheritanceModes(EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT));
+        contributingVariant.setContributesToGeneScoreUnderMode(ModeOfInheritance.AUTOSOMAL_DOMINANT);
+        fgfr2.addVariant(contributingVariant);
+
+        fgfr2.addGeneScore(GeneScore.builder()
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_DOMINANT)
+                .geneIdentifier(fgfr2.getGeneIdentifier())
+                .variantScore(0.89f)
+                .combinedScore(0.5f)
+                .contributingVariants(ImmutableList.of(contributingVariant))
+                .build());
+
+        AnalysisResults results = AnalysisResults.builder()
+                .genes(Collections.singletonList(fgfr2))
+                .build();
+
+        List<VariantResult> variantResults = writeAndReadBack(ModeOfInheritance.AUTOSOMAL_DOMINANT, results, settingsBuilder.outputContributingVariantsOnly(true));
+
+        VariantResult expected = passVariantResult.toBuilder()
+                .setGeneVariantScore(0.89f)
+                .setGeneCombinedScore(0.5f)
+                .setContributingVariant(true)
+                .build();
+        assertThat(variantResults, equalTo(Collections.singletonList(expected)));
+    }
+
+    @Test
+    public void testWriteString() {
+        String outString = instance.writeString(ModeOfInheritance.ANY, analysis, analysisResults, settingsBuilder.build());
+        assertThat(outString, equalTo(passVariantResult.toString() + FAIL_VARIANT_RESULT.toString()));
+    }
+
+    @Test
+    public void testReadGeneResultsFromVariantsFileThrowsException() throws Exception {
+        Path tempFolder = Files.createTempDirectory("exomiser_test");
+        String outPrefix = tempFolder.resolve("testWrite").toString();
+        instance.writeFile(ModeOfInheritance.ANY, analysis, analysisResults, settingsBuilder.outputPrefix(outPrefix).build());
+        Path outputPath = tempFolder.resolve("testWrite.variants.pb");
+
+        assertThrows(ProtobufResultsReader.ProtobufResultsReaderException.class, () -> ProtobufResultsReader.readGeneResults(outputPath));
+
+        Files.delete(outputPath);
+        Files.delete(tempFolder);
+    }
+}
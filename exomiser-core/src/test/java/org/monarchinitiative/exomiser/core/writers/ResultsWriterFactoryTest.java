@@ -80,4 +80,18 @@ public void testGetJsonResultsWriter() {
         assertThat(result, instanceOf(JsonResultsWriter.class));
     }
 
+    @Test
+    public void testGetProtobufGeneResultsWriter() {
+        OutputFormat outputFormat = OutputFormat.PROTOBUF_GENE;
+        ResultsWriter result = instance.getResultsWriter(outputFormat);
+        assertThat(result, instanceOf(ProtobufGeneResultsWriter.class));
+    }
+
+    @Test
+    public void testGetProtobufVariantResultsWriter() {
+        OutputFormat outputFormat = OutputFormat.PROTOBUF_VARIANT;
+        ResultsWriter result = instance.getResultsWriter(outputFormat);
+        assertThat(result, instanceOf(ProtobufVariantResultsWriter.class));
+    }
+
 }
@@ -0,0 +1,197 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome;
+
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
+import org.springframework.boot.ApplicationArguments;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Parses and validates the command-line options shared by the {@link Hg37BuildRunner} and {@link Hg38BuildRunner} and
+ * runs the build step they select. Invalid options cause an {@link IllegalArgumentException} with a usage message.
+ * <ul>
+ * <li>--parallelism=n only applies to the sort-merge build and implies --sort-merge</li>
+ * <li>--parser-threads=n sets the number of threads parsing each resource</li>
+ * <li>--checkpoint keeps the indexed resources so that a failed build can be resumed. This implies --sort-merge</li>
+ * <li>--check-db=&lt;path to variants.mv.db&gt; validates an existing database and writes a statistics report rather
+ * than building. Adding --compact-to=&lt;path&gt; also writes a compacted copy of the database for read-only use and
+ * --check-threads=n sets the number of threads scanning the database.</li>
+ * <li>--update=&lt;resource name&gt; --existing-db=&lt;path to variants.mv.db&gt; applies a single new resource
+ * release to an existing database rather than re-building from all the resources</li>
+ * <li>--convert-transcripts=&lt;path to transcripts .ser&gt; --transcripts-out=&lt;path&gt; writes a copy of the
+ * transcript data in the memory-mappable format</li>
+ * <li>--genome-intervals=&lt;path to genome.h2.db&gt; writes the regulatory features and TADs from an existing genome
+ * database to the pre-compiled genome intervals file. This is written to the build directory unless a path is given
+ * using --intervals-out=&lt;path&gt;</li>
+ * </ul>
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+class BuildOptions {
+
+    private final int parallelism;
+    private final int parserThreads;
+    private final boolean checkpoint;
+    private final boolean sortMerge;
+
+    private final Path checkDbPath;
+    private final Path compactToPath;
+    private final int checkThreads;
+
+    private final String updateResourceName;
+    private final Path existingDbPath;
+
+    private final Path convertTranscriptsPath;
+    private final Path transcriptsOutPath;
+
+    private final Path genomeIntervalsDbPath;
+    private final Path intervalsOutPath;
+
+    private BuildOptions(ApplicationArguments args) {
+        this.parallelism = parsePositiveInt(args, "parallelism", 1);
+        this.parserThreads = parsePositiveInt(args, "parser-threads", 1);
+        this.checkpoint = args.containsOption("checkpoint");
+        this.sortMerge = args.containsOption("sort-merge") || parallelism > 1 || checkpoint;
+
+        this.checkDbPath = parseOptionalPath(args, "check-db");
+        this.compactToPath = parseOptionalPath(args, "compact-to");
+        this.checkThreads = parsePositiveInt(args, "check-threads", Runtime.getRuntime().availableProcessors());
+
+        this.updateResourceName = parseOptionalValue(args, "update");
+        this.existingDbPath = parseOptionalPath(args, "existing-db");
+        if (updateResourceName != null && existingDbPath == null) {
+            throw new IllegalArgumentException("--update requires the path of the database to update e.g. --existing-db=<path to variants.mv.db>");
+        }
+
+        this.convertTranscriptsPath = parseOptionalPath(args, "convert-transcripts");
+        this.transcriptsOutPath = parseOptionalPath(args, "transcripts-out");
+        if (convertTranscriptsPath != null && transcriptsOutPath == null) {
+            throw new IllegalArgumentException("--convert-transcripts requires the path of the converted file e.g. --transcripts-out=<path>");
+        }
+
+        this.genomeIntervalsDbPath = parseOptionalPath(args, "genome-intervals");
+        this.intervalsOutPath = parseOptionalPath(args, "intervals-out");
+    }
+
+    static BuildOptions parse(ApplicationArguments args) {
+        return new BuildOptions(args);
+    }
+
+    private static String parseOptionalValue(ApplicationArguments args, String optionName) {
+        if (!args.containsOption(optionName)) {
+            return null;
+        }
+        List<String> values = args.getOptionValues(optionName);
+        if (values.isEmpty() || values.get(0).isEmpty()) {
+            throw new IllegalArgumentException(String.format("--%s requires a value e.g. --%s=<value>", optionName, optionName));
+        }
+        return values.get(0);
+    }
+
+    private static Path parseOptionalPath(ApplicationArguments args, String optionName) {
+        String value = parseOptionalValue(args, optionName);
+        return value == null ? null : Paths.get(value);
+    }
+
+    private static int parsePositiveInt(ApplicationArguments args, String optionName, int defaultValue) {
+        String value = parseOptionalValue(args, optionName);
+        if (value == null) {
+            return defaultValue;
+        }
+        int intValue;
+        try {
+            intValue = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("--%s must be a positive integer, but was '%s'", optionName, value), e);
+        }
+        if (intValue < 1) {
+            throw new IllegalArgumentException(String.format("--%s must be a positive integer, but was '%s'", optionName, value));
+        }
+        return intValue;
+    }
+
+    int getParallelism() {
+        return parallelism;
+    }
+
+    int getParserThreads() {
+        return parserThreads;
+    }
+
+    boolean isCheckpoint() {
+        return checkpoint;
+    }
+
+    boolean isSortMerge() {
+        return sortMerge;
+    }
+
+    int getCheckThreads() {
+        return checkThreads;
+    }
+
+    /**
+     * Runs the build step selected by the options. Converting transcripts takes precedence over writing the genome
+     * intervals, then checking a database and then updating a database. Where none of these are selected the variant
+     * database is built from all the allele resources.
+     *
+     * @param outPath         directory the variant database and genome intervals are written to.
+     * @param buildString     build string e.g. 1811_hg19 used to name the output files.
+     * @param alleleResources all the allele resources available for the assembly being built.
+     */
+    void runBuild(Path outPath, String buildString, List<AlleleResource> alleleResources) {
+        if (convertTranscriptsPath != null) {
+            TranscriptDataConvertRunner transcriptDataConvertRunner = new TranscriptDataConvertRunner(convertTranscriptsPath, transcriptsOutPath);
+            transcriptDataConvertRunner.run();
+        } else if (genomeIntervalsDbPath != null) {
+            Path genomeIntervalsPath = intervalsOutPath == null ? outPath.resolve(String.format("%s_genome_intervals.bin", buildString)) : intervalsOutPath;
+            GenomeIntervalFileWriteRunner genomeIntervalFileWriteRunner = new GenomeIntervalFileWriteRunner(genomeIntervalsDbPath, genomeIntervalsPath);
+            genomeIntervalFileWriteRunner.run();
+        } else if (checkDbPath != null) {
+            VariantDatabaseCheckRunner variantDatabaseCheckRunner = new VariantDatabaseCheckRunner(checkDbPath, compactToPath, checkThreads);
+            variantDatabaseCheckRunner.run();
+        } else if (updateResourceName != null) {
+            AlleleResource alleleResource = findAlleleResource(alleleResources, updateResourceName);
+            VariantDatabaseUpdateRunner variantDatabaseUpdateRunner = new VariantDatabaseUpdateRunner(existingDbPath, outPath, buildString, alleleResource, parserThreads);
+            variantDatabaseUpdateRunner.run();
+        } else {
+            VariantDatabaseBuildRunner variantDatabaseBuildRunner = VariantDatabaseBuildRunner.builder(outPath, buildString, alleleResources)
+                    .sortMerge(sortMerge)
+                    .parallelism(parallelism)
+                    .parserThreads(parserThreads)
+                    .checkpoint(checkpoint)
+                    .build();
+            variantDatabaseBuildRunner.run();
+        }
+    }
+
+    static AlleleResource findAlleleResource(List<AlleleResource> alleleResources, String resourceName) {
+        return alleleResources.stream()
+                .filter(alleleResource -> alleleResource.getName().equals(resourceName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No allele resource named '" + resourceName + "'"));
+    }
+
+}
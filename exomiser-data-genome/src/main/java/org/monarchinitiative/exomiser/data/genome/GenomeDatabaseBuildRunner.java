@@ -53,15 +53,21 @@ public GenomeDatabaseBuildRunner(String buildString, Path dataPath, Path outputP
 
     public void run() {
         Path databasePath = outputPath.resolve(String.format("%s_genome", buildString));
-        DataSource dataSource = createDataSource(databasePath);
+        HikariDataSource dataSource = createDataSource(databasePath);
         logger.info("Created database: {}", databasePath);
         //run the Fantom and Ensemble parsers here?
 
         migrateDatabase(dataSource);
+        dataSource.close();
         logger.info("Finished importing genome data");
+
+        // the regulatory features and TADs are pre-compiled so that these can be loaded at runtime without the database
+        Path genomeIntervalsPath = outputPath.resolve(String.format("%s_genome_intervals.bin", buildString));
+        GenomeIntervalFileWriteRunner genomeIntervalFileWriteRunner = new GenomeIntervalFileWriteRunner(databasePath, genomeIntervalsPath);
+        genomeIntervalFileWriteRunner.run();
     }
 
-    private DataSource createDataSource(Path databasePath) {
+    private HikariDataSource createDataSource(Path databasePath) {
         String initSql = "MODE=PostgreSQL;LOG=0;CACHE_SIZE=65536;LOCK_MODE=0;UNDO_LOG=0;MV_STORE=FALSE;";
         String url = String.format("jdbc:h2:file:%s;%s", databasePath.toAbsolutePath(), initSql);
         return DataSourceBuilder.create()
@@ -0,0 +1,89 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.monarchinitiative.exomiser.core.genome.dao.GenomeIntervalFile;
+import org.monarchinitiative.exomiser.core.genome.dao.RegulatoryFeatureDao;
+import org.monarchinitiative.exomiser.core.genome.dao.TadDao;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.model.TopologicalDomain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the regulatory features and TADs from an existing genome database into a pre-compiled
+ * {@link GenomeIntervalFile} so that these can be loaded at runtime without the genome database. The database is
+ * opened read-only and is not modified.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class GenomeIntervalFileWriteRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenomeIntervalFileWriteRunner.class);
+
+    private static final String H2_FILE_EXTENSION = ".h2.db";
+
+    private final Path genomeDatabasePath;
+    private final Path genomeIntervalsPath;
+
+    /**
+     * @param genomeDatabasePath  path of the genome H2 database, with or without the .h2.db extension.
+     * @param genomeIntervalsPath path to write the genome intervals to e.g. 1811_hg19_genome_intervals.bin
+     */
+    public GenomeIntervalFileWriteRunner(Path genomeDatabasePath, Path genomeIntervalsPath) {
+        this.genomeDatabasePath = genomeDatabasePath;
+        this.genomeIntervalsPath = genomeIntervalsPath;
+    }
+
+    public void run() {
+        Path databaseFile = Files.exists(genomeDatabasePath) ? genomeDatabasePath : genomeDatabasePath.resolveSibling(genomeDatabasePath.getFileName() + H2_FILE_EXTENSION);
+        if (!Files.isRegularFile(databaseFile) || !databaseFile.toString().endsWith(H2_FILE_EXTENSION)) {
+            throw new IllegalArgumentException("Genome database " + genomeDatabasePath + " not found - this should be the path of an existing " + H2_FILE_EXTENSION + " file");
+        }
+        try (HikariDataSource dataSource = createDataSource(databaseFile)) {
+            logger.info("Writing genome intervals from {} to {}", databaseFile, genomeIntervalsPath);
+            List<RegulatoryFeature> regulatoryFeatures = new RegulatoryFeatureDao(dataSource).getRegulatoryFeatures();
+            List<TopologicalDomain> topologicalDomains = new TadDao(dataSource).getAllTads();
+            GenomeIntervalFile.write(genomeIntervalsPath, regulatoryFeatures, topologicalDomains);
+            logger.info("Written {} regulatory features and {} TADs", regulatoryFeatures.size(), topologicalDomains.size());
+        }
+    }
+
+    private HikariDataSource createDataSource(Path databaseFile) {
+        //omit the .h2.db extension
+        String databaseFileName = databaseFile.toAbsolutePath().toString();
+        String databasePath = databaseFileName.substring(0, databaseFileName.length() - H2_FILE_EXTENSION.length());
+        String initSql = "MODE=PostgreSQL;SCHEMA=EXOMISER;IFEXISTS=TRUE;ACCESS_MODE_DATA=r;MV_STORE=FALSE;";
+        String url = String.format("jdbc:h2:file:%s;%s", databasePath, initSql);
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username("sa")
+                .build();
+    }
+}
@@ -83,8 +83,8 @@ public void run(ApplicationArguments args) throws Exception {
             //ftp://ftp.ncbi.nih.gov/snp/organisms/human_9606_b150_GRCh37p13/VCF/00-All.vcf.gz
             //ftp://ftp.ncbi.nih.gov/snp/organisms/human_9606_b150_GRCh38p7/VCF/00-All.vcf.gz
 
-            VariantDatabaseBuildRunner variantDatabaseBuildRunner = new VariantDatabaseBuildRunner(outPath, buildString, alleleResources);
-            variantDatabaseBuildRunner.run();
+            BuildOptions buildOptions = BuildOptions.parse(args);
+            buildOptions.runBuild(outPath, buildString, alleleResources);
 
 //            EnsemblEnhancerParser ensemblEnhancerParser = new EnsemblEnhancerParser(dataPath.resolve("genome"), dataPath.resolve("genome"));
 //            ensemblEnhancerParser.download();
@@ -72,8 +72,8 @@ public void run(ApplicationArguments args) throws Exception {
         if (args.getNonOptionArgs().contains("-hg38")) {
             logger.info("Building {}", ASSEMBLY);
 
-            VariantDatabaseBuildRunner variantDatabaseBuildRunner = new VariantDatabaseBuildRunner(outPath, buildString, alleleResources);
-            variantDatabaseBuildRunner.run();
+            BuildOptions buildOptions = BuildOptions.parse(args);
+            buildOptions.runBuild(outPath, buildString, alleleResources);
 
 
 //            EnsemblEnhancerParser ensemblEnhancerParser = new EnsemblEnhancerParser(dataPath.resolve("genome/ensembl_enhancers.tsv"), dataPath.resolve("genome/ensembl_enhancers.pg"));
@@ -0,0 +1,84 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome;
+
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.JannovarDataSerializer;
+import de.charite.compbio.jannovar.data.SerializationException;
+import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataProtoSerialiser;
+import org.monarchinitiative.exomiser.core.genome.jannovar.MappedJannovarData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Converts a Jannovar transcript data file in either the Exomiser protobuf or the original Jannovar serialised format
+ * to the memory-mappable {@link MappedJannovarData} format. The converted file can be used in place of the original
+ * as the transcript file is loaded according to its format.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class TranscriptDataConvertRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptDataConvertRunner.class);
+
+    private final Path transcriptFilePath;
+    private final Path outFilePath;
+
+    /**
+     * @param transcriptFilePath path of the transcript data file to convert.
+     * @param outFilePath        path to write the mapped transcript data to. This must not exist.
+     */
+    public TranscriptDataConvertRunner(Path transcriptFilePath, Path outFilePath) {
+        this.transcriptFilePath = transcriptFilePath;
+        this.outFilePath = outFilePath;
+    }
+
+    public void run() {
+        if (Files.exists(outFilePath)) {
+            throw new IllegalStateException("Mapped transcript data " + outFilePath + " already exists - this must be a new file");
+        }
+        if (MappedJannovarData.isMappedFormat(transcriptFilePath)) {
+            throw new IllegalArgumentException("Transcript data " + transcriptFilePath + " is already in the mapped format");
+        }
+        JannovarData jannovarData = loadJannovarData();
+        MappedJannovarData.save(outFilePath, jannovarData);
+        int numChromosomes = MappedJannovarData.open(outFilePath).getChromosomeIds().size();
+        logger.info("Converted {} transcripts on {} chromosomes from {} to {}", jannovarData.getTmByAccession()
+                .size(), numChromosomes, transcriptFilePath, outFilePath);
+    }
+
+    private JannovarData loadJannovarData() {
+        try {
+            return JannovarDataProtoSerialiser.load(transcriptFilePath);
+        } catch (Exception e) {
+            logger.info("Unable to load {} as protobuf Jannovar data - trying the original Jannovar format", transcriptFilePath);
+        }
+        try {
+            return new JannovarDataSerializer(transcriptFilePath.toString()).load();
+        } catch (SerializationException e) {
+            throw new IllegalArgumentException("Could not load Jannovar data from " + transcriptFilePath, e);
+        }
+    }
+}
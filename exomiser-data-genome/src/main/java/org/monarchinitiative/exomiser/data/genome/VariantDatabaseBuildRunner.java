@@ -25,15 +25,19 @@
 import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
-import org.monarchinitiative.exomiser.data.genome.indexers.AlleleIndexer;
+import org.monarchinitiative.exomiser.data.genome.indexers.ConcurrentAlleleIndexer;
 import org.monarchinitiative.exomiser.data.genome.indexers.MvStoreAlleleIndexer;
 import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
@@ -42,23 +46,54 @@ public class VariantDatabaseBuildRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(VariantDatabaseBuildRunner.class);
 
+    // number of unique alleles held in memory by each sort-merge indexing thread before spilling to disk
+    private static final int SORT_MERGE_RUN_SIZE = 2000000;
+
     private final Path buildPath;
     private final String buildString;
     private final List<AlleleResource> alleleResources;
+    private final boolean sortMerge;
+    private final int parallelism;
+    private final int parserThreads;
+    private final boolean checkpoint;
 
-    public VariantDatabaseBuildRunner(Path buildPath, String buildString, List<AlleleResource> alleleResources) {
-        this.buildPath = buildPath;
-        this.buildString = buildString;
-        this.alleleResources = alleleResources;
+    private VariantDatabaseBuildRunner(Builder builder) {
+        if (builder.checkpoint && !builder.sortMerge) {
+            throw new IllegalArgumentException("Checkpoints are only supported for sort-merge builds");
+        }
+        this.buildPath = builder.buildPath;
+        this.buildString = builder.buildString;
+        this.alleleResources = builder.alleleResources;
+        this.sortMerge = builder.sortMerge;
+        this.parallelism = builder.parallelism;
+        this.parserThreads = builder.parserThreads;
+        this.checkpoint = builder.checkpoint;
+    }
+
+    /**
+     * @param buildPath       directory the variant database is written to.
+     * @param buildString     build string e.g. 1811_hg19 used to name the output files.
+     * @param alleleResources the allele resources to index into the database.
+     * @return a builder for a runner which indexes the resources into a temporary store using a single parser thread,
+     * unless configured otherwise.
+     * @since 11.0.0
+     */
+    public static Builder builder(Path buildPath, String buildString, List<AlleleResource> alleleResources) {
+        return new Builder(buildPath, buildString, alleleResources);
     }
 
     public void run() {
+        if (sortMerge) {
+            runSortMerge();
+            return;
+        }
         MVStore mvStore = new MVStore.Builder()
                 .fileName(buildPath.resolve(buildString + "_variants_temp.mv.db").toString())
                 .compress()
                 .open();
 
-        AlleleIndexer alleleIndexer = new MvStoreAlleleIndexer(mvStore);
+        MvStoreAlleleIndexer alleleIndexer = new MvStoreAlleleIndexer(mvStore);
+        alleleIndexer.setParserThreads(parserThreads);
         alleleResources.forEach(alleleIndexer::index);
 
         MVStore finalStore = new MVStore.Builder()
@@ -78,6 +113,36 @@ public void run() {
         finalStore.close();
     }
 
+    private void runSortMerge() {
+        ConcurrentAlleleIndexer alleleIndexer = new ConcurrentAlleleIndexer(buildPath.resolve(buildString + "_variants_runs"), SORT_MERGE_RUN_SIZE, parallelism, parserThreads);
+        Path finalStorePath = buildPath.resolve(buildString + "_variants.mv.db");
+        if (checkpoint) {
+            alleleIndexer.setCheckpointDirectory(buildPath.resolve(buildString + "_variants_checkpoints"));
+            // a restarted build may have failed part way through writing the final store
+            deleteIfExists(finalStorePath);
+        }
+
+        MVStore finalStore = new MVStore.Builder()
+                .fileName(finalStorePath.toString())
+                .compress()
+                .open();
+        // the merged alleles are written in key order with only a single version each, so no copy is required.
+        MVMap<AlleleKey, AlleleProperties> map = MvStoreUtil.openAlleleMVMap(finalStore);
+        alleleIndexer.index(alleleResources, map);
+        logger.info("Finished writing {} entries to {}", map.size(), finalStore.getFileStore().getFileName());
+        finalStore.close();
+    }
+
+    private void deleteIfExists(Path path) {
+        try {
+            if (Files.deleteIfExists(path)) {
+                logger.info("Deleted incomplete store {}", path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to delete " + path, e);
+        }
+    }
+
     private void copyToNewInstance(MVStore mvStore, MVStore newStore) {
         MVMap<AlleleKey, AlleleProperties> map = mvStore.openMap("alleles", MvStoreUtil.alleleMapBuilder());
 
@@ -94,4 +159,74 @@ private void copyToNewInstance(MVStore mvStore, MVStore newStore) {
         }
         logger.info("Finished copying {} entries to new map", newMap.size());
     }
+
+    /**
+     * @since 11.0.0
+     */
+    public static class Builder {
+
+        private final Path buildPath;
+        private final String buildString;
+        private final List<AlleleResource> alleleResources;
+        private boolean sortMerge = false;
+        private int parallelism = 1;
+        private int parserThreads = 1;
+        private boolean checkpoint = false;
+
+        private Builder(Path buildPath, String buildString, List<AlleleResource> alleleResources) {
+            this.buildPath = Objects.requireNonNull(buildPath);
+            this.buildString = Objects.requireNonNull(buildString);
+            this.alleleResources = Objects.requireNonNull(alleleResources);
+        }
+
+        /**
+         * @param sortMerge if true the alleles will be indexed into sorted runs and merged directly into the final
+         *                  store in key order, rather than via a temporary store.
+         */
+        public Builder sortMerge(boolean sortMerge) {
+            this.sortMerge = sortMerge;
+            return this;
+        }
+
+        /**
+         * @param parallelism number of threads used to parse the resources in sort-merge mode. This is ignored when
+         *                    sortMerge is false as the temporary store only supports a single writer.
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be a positive integer, but was " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param parserThreads number of threads used to parse the lines within each resource file, in either mode.
+         */
+        public Builder parserThreads(int parserThreads) {
+            if (parserThreads < 1) {
+                throw new IllegalArgumentException("parserThreads must be a positive integer, but was " + parserThreads);
+            }
+            this.parserThreads = parserThreads;
+            return this;
+        }
+
+        /**
+         * @param checkpoint if true the sorted runs of each completed resource are kept in the build directory so
+         *                   that a failed or interrupted build can be restarted without re-indexing the resources whose
+         *                   inputs are unchanged. Only supported in sortMerge mode.
+         */
+        public Builder checkpoint(boolean checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if checkpoint is set without sortMerge.
+         */
+        public VariantDatabaseBuildRunner build() {
+            return new VariantDatabaseBuildRunner(this);
+        }
+    }
+
 }
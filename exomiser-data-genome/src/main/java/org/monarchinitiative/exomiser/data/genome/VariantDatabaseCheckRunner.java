@@ -0,0 +1,140 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.indexers.AlleleStoreCompactor;
+import org.monarchinitiative.exomiser.data.genome.indexers.AlleleStoreReport;
+import org.monarchinitiative.exomiser.data.genome.indexers.AlleleStoreValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Validates a completed variant database using the {@link AlleleStoreValidator} and writes the statistics report to a
+ * '_report.txt' file next to the database. An invalid database causes an {@link IllegalStateException}. Where a compacted database path is given, a valid database is also copied
+ * to this path using the {@link AlleleStoreCompactor} and the copy is validated in turn. The existing database is
+ * opened read-only and is not modified.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class VariantDatabaseCheckRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantDatabaseCheckRunner.class);
+
+    private final Path databasePath;
+    private final Path compactedDatabasePath;
+    private final int numThreads;
+
+    /**
+     * @param databasePath          path of the variants.mv.db file to check.
+     * @param compactedDatabasePath path to write the compacted database to. This must not exist. Can be null, in which
+     *                              case the database is only checked.
+     * @param numThreads            number of threads used to scan the database.
+     */
+    public VariantDatabaseCheckRunner(Path databasePath, Path compactedDatabasePath, int numThreads) {
+        this.databasePath = databasePath;
+        this.compactedDatabasePath = compactedDatabasePath;
+        this.numThreads = numThreads;
+    }
+
+    public void run() {
+        if (compactedDatabasePath != null && Files.exists(compactedDatabasePath)) {
+            throw new IllegalStateException("Compacted variant database " + compactedDatabasePath + " already exists - this must be a new file");
+        }
+        MVStore mvStore = openReadOnly(databasePath);
+        try {
+            MVMap<AlleleKey, AlleleProperties> map = MvStoreUtil.openAlleleMVMap(mvStore);
+            AlleleStoreReport report = validate(databasePath, map);
+            if (!report.isValid()) {
+                throw new IllegalStateException("Variant database " + databasePath + " is not valid - see report for details");
+            }
+            if (compactedDatabasePath != null) {
+                compact(map, report);
+            }
+        } finally {
+            mvStore.close();
+        }
+    }
+
+    private void compact(MVMap<AlleleKey, AlleleProperties> map, AlleleStoreReport report) {
+        logger.info("Compacting variant database {} to {}", databasePath, compactedDatabasePath);
+        MVStore compactedStore = new MVStore.Builder()
+                .fileName(compactedDatabasePath.toString())
+                .compress()
+                .open();
+        try {
+            AlleleStoreCompactor.compact(map, compactedStore);
+        } finally {
+            compactedStore.close();
+        }
+
+        MVStore readOnlyCompactedStore = openReadOnly(compactedDatabasePath);
+        try {
+            AlleleStoreReport compactedReport = validate(compactedDatabasePath, MvStoreUtil.openAlleleMVMap(readOnlyCompactedStore));
+            if (compactedReport.getAlleleCount() != report.getAlleleCount()) {
+                throw new IllegalStateException(String.format("Compacted variant database %s contains %d alleles - expected %d", compactedDatabasePath, compactedReport
+                        .getAlleleCount(), report.getAlleleCount()));
+            }
+        } finally {
+            readOnlyCompactedStore.close();
+        }
+    }
+
+    private AlleleStoreReport validate(Path path, MVMap<AlleleKey, AlleleProperties> map) {
+        AlleleStoreValidator validator = new AlleleStoreValidator(numThreads);
+        AlleleStoreReport report = validator.validate(map);
+        String formattedReport = report.formatReport();
+        logger.info("{}{}", System.lineSeparator(), formattedReport);
+        writeReport(path, formattedReport);
+        return report;
+    }
+
+    private void writeReport(Path path, String formattedReport) {
+        String databaseName = path.getFileName().toString().replace(".mv.db", "");
+        Path reportPath = path.resolveSibling(databaseName + "_report.txt");
+        try {
+            Files.write(reportPath, formattedReport.getBytes(StandardCharsets.UTF_8));
+            logger.info("Written report to {}", reportPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write report to " + reportPath, e);
+        }
+    }
+
+    private static MVStore openReadOnly(Path path) {
+        if (!Files.exists(path)) {
+            throw new IllegalArgumentException("Variant database " + path + " does not exist");
+        }
+        return new MVStore.Builder()
+                .fileName(path.toString())
+                .readOnly()
+                .open();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.indexers.DeltaAlleleUpdater;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds a new variant database by applying a new release of a single resource, e.g. ClinVar or dbSNP, to an existing
+ * variant database using the {@link DeltaAlleleUpdater}. The existing database is opened read-only and is not modified.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class VariantDatabaseUpdateRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantDatabaseUpdateRunner.class);
+
+    // number of unique alleles from the new release held in memory before spilling to disk
+    private static final int SORT_MERGE_RUN_SIZE = 2000000;
+
+    private final Path existingDatabasePath;
+    private final Path buildPath;
+    private final String buildString;
+    private final AlleleResource alleleResource;
+    private final int parserThreads;
+
+    public VariantDatabaseUpdateRunner(Path existingDatabasePath, Path buildPath, String buildString, AlleleResource alleleResource, int parserThreads) {
+        this.existingDatabasePath = existingDatabasePath;
+        this.buildPath = buildPath;
+        this.buildString = buildString;
+        this.alleleResource = alleleResource;
+        this.parserThreads = parserThreads;
+    }
+
+    public void run() {
+        Path updatedDatabasePath = buildPath.resolve(buildString + "_variants.mv.db");
+        if (Files.exists(updatedDatabasePath)) {
+            throw new IllegalStateException("Updated variant database " + updatedDatabasePath + " already exists - this must be a new file");
+        }
+        logger.info("Updating variant database {} with '{}' resource to {}", existingDatabasePath, alleleResource.getName(), updatedDatabasePath);
+
+        MVStore existingStore = new MVStore.Builder()
+                .fileName(existingDatabasePath.toString())
+                .readOnly()
+                .open();
+        MVStore updatedStore = new MVStore.Builder()
+                .fileName(updatedDatabasePath.toString())
+                .compress()
+                .open();
+        try {
+            MVMap<AlleleKey, AlleleProperties> existingMap = MvStoreUtil.openAlleleMVMap(existingStore);
+            MVMap<AlleleKey, AlleleProperties> updatedMap = MvStoreUtil.openAlleleMVMap(updatedStore);
+            DeltaAlleleUpdater deltaAlleleUpdater = new DeltaAlleleUpdater(buildPath.resolve(buildString + "_variants_runs"), SORT_MERGE_RUN_SIZE, parserThreads);
+            deltaAlleleUpdater.update(existingMap, alleleResource, updatedMap);
+            logger.info("Finished writing {} entries to {}", updatedMap.size(), updatedDatabasePath);
+        } finally {
+            existingStore.close();
+            updatedStore.close();
+        }
+    }
+}
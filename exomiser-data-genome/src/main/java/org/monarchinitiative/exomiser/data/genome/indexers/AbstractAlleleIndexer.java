@@ -33,6 +33,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicLong;
@@ -45,6 +46,22 @@ public abstract class AbstractAlleleIndexer implements AlleleIndexer {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractAlleleIndexer.class);
 
+    private int parserThreads = 1;
+
+    /**
+     * Sets the number of threads used to parse the lines of each file. With a value greater than 1 a file is read on
+     * the calling thread and blocks of lines are parsed by a pool of workers, with the parsed alleles written in their
+     * original order. Defaults to 1, i.e. reading, parsing and writing all happen on the calling thread.
+     *
+     * @since 11.0.0
+     */
+    public void setParserThreads(int parserThreads) {
+        if (parserThreads <= 0) {
+            throw new IllegalArgumentException("parserThreads must be greater than 0");
+        }
+        this.parserThreads = parserThreads;
+    }
+
     @Override
     public void index(AlleleResource alleleResource) {
         logger.info("Processing '{}' resource", alleleResource.getName());
@@ -55,15 +72,10 @@ public void index(AlleleResource alleleResource) {
         Instant startTime = Instant.now();
         AlleleLogger alleleLogger = new AlleleLogger(startTime);
         for (FileObject fileObject : archiveFileReader.getFileObjects()) {
-            try (InputStream archiveFileInputStream = archiveFileReader.readFileObject(fileObject);
-                 BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(archiveFileInputStream))) {
-                bufferedReader.lines()
-//                        .peek(line -> logger.info("{}", line))
-                        .flatMap(line -> alleleParser.parseLine(line).stream())
-                        .peek(alleleLogger.logCount())
-                        .forEach(this::writeAllele);
-            } catch (IOException e) {
-                logger.error("Error reading archive file {}", fileObject.getName(), e);
+            try {
+                indexFile(archiveFileReader, fileObject, alleleParser, alleleLogger.logCount());
+            } catch (UncheckedIOException e) {
+                logger.error("Error reading archive file {}", fileObject.getName(), e.getCause());
             }
         }
         long seconds = Duration.between(startTime, Instant.now()).getSeconds();
@@ -74,6 +86,29 @@ public void index(AlleleResource alleleResource) {
                 this.count());
     }
 
+    /**
+     * Parses and writes all the alleles from a single file of an archive.
+     *
+     * @param alleleCounter called for each allele parsed, before it is written.
+     * @throws UncheckedIOException if the file could not be read. Some of its alleles may already have been written.
+     */
+    void indexFile(ArchiveFileReader archiveFileReader, FileObject fileObject, AlleleParser alleleParser, Consumer<Allele> alleleCounter) {
+        try (InputStream archiveFileInputStream = archiveFileReader.readFileObject(fileObject);
+             BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(archiveFileInputStream))) {
+            if (parserThreads > 1) {
+                new ParallelLineParser(parserThreads).parse(bufferedReader, alleleParser, alleleCounter.andThen(this::writeAllele));
+            } else {
+                bufferedReader.lines()
+//                        .peek(line -> logger.info("{}", line))
+                        .flatMap(line -> alleleParser.parseLine(line).stream())
+                        .peek(alleleCounter)
+                        .forEach(this::writeAllele);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading archive file " + fileObject.getName(), e);
+        }
+    }
+
     protected abstract void writeAllele(Allele allele);
 
     public abstract long count();
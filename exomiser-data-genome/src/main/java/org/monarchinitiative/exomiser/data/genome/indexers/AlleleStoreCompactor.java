@@ -0,0 +1,94 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a compacted copy of an allele database for read-only use. The alleles are copied in key order so that each
+ * page is filled and neighbouring keys are written next to each other in the file. The new store is then compacted
+ * using the MVStore fill-rate compaction to rewrite any partly-filled chunks, and the chunks are moved to the start of
+ * the file so that it can be truncated to the size of the live data.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class AlleleStoreCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlleleStoreCompactor.class);
+
+    // compaction stops once the live data makes up this percentage of the file
+    private static final int TARGET_FILL_RATE = 95;
+    // maximum number of bytes rewritten by each round of compaction
+    private static final int COMPACTION_WRITE_LIMIT = 16 * 1024 * 1024;
+
+    private AlleleStoreCompactor() {
+        //static utility class - not instantiable
+    }
+
+    /**
+     * Copies the alleles from the source map into the target store and compacts it. The target store should be new
+     * and not opened read-only. It is committed, but not closed.
+     *
+     * @return the number of alleles copied.
+     */
+    public static long compact(MVMap<AlleleKey, AlleleProperties> source, MVStore target) {
+        // no old versions need to be kept for a new store, so that all the space freed by compaction can be reused
+        target.setRetentionTime(0);
+        target.setVersionsToKeep(0);
+
+        MVMap<AlleleKey, AlleleProperties> targetMap = MvStoreUtil.openAlleleMVMap(target);
+        logger.info("Copying {} alleles to {}", source.sizeAsLong(), target.getFileStore().getFileName());
+        long count = 0;
+        Cursor<AlleleKey, AlleleProperties> cursor = source.cursor(null);
+        while (cursor.hasNext()) {
+            AlleleKey key = cursor.next();
+            targetMap.put(key, cursor.getValue());
+            count++;
+            if (count % 10000000 == 0) {
+                logger.info("Written {} alleles", count);
+            }
+        }
+        target.commit();
+
+        long sizeBeforeCompaction = target.getFileStore().size();
+        int fillRate = target.getCurrentFillRate();
+        while (target.compact(TARGET_FILL_RATE, COMPACTION_WRITE_LIMIT)) {
+            target.commit();
+            int newFillRate = target.getCurrentFillRate();
+            logger.debug("Compacted chunks - fill rate now {}%", newFillRate);
+            if (newFillRate <= fillRate) {
+                break;
+            }
+            fillRate = newFillRate;
+        }
+        target.compactMoveChunks();
+        target.commit();
+        logger.info("Finished copying {} alleles - compacted file from {} to {} bytes with a fill rate of {}%", count, sizeBeforeCompaction, target.getFileStore().size(), target.getCurrentFillRate());
+        return count;
+    }
+}
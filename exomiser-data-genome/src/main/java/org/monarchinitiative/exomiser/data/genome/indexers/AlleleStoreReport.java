@@ -0,0 +1,196 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.h2.mvstore.FileStore;
+import org.h2.mvstore.MVStore;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Statistics and errors found by the {@link AlleleStoreValidator}. The store layout values describe how well the file
+ * is laid out for reading - a store written in key order then compacted by the {@link AlleleStoreCompactor} should
+ * have a fill rate of 100% and only a few large chunks.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class AlleleStoreReport {
+
+    private final String fileName;
+    private final long fileSize;
+    private final int fillRate;
+    private final long chunkCount;
+
+    private final long expectedAlleleCount;
+    private final int rangeCount;
+    private final long alleleCount;
+    private final long rsIdCount;
+    private final long clinVarCount;
+    private final long emptyCount;
+    private final long orderingErrorCount;
+    private final long decodingErrorCount;
+    private final Map<String, Long> propertyCounts;
+    private final List<String> errors;
+    private final long elapsedMillis;
+
+    AlleleStoreReport(MVStore mvStore, long expectedAlleleCount, int rangeCount, long alleleCount, long rsIdCount, long clinVarCount, long emptyCount, long orderingErrorCount, long decodingErrorCount, Map<String, Long> propertyCounts, List<String> errors, long elapsedMillis) {
+        FileStore fileStore = mvStore.getFileStore();
+        // in-memory stores have no FileStore
+        this.fileName = fileStore == null ? "" : fileStore.getFileName();
+        this.fileSize = fileStore == null ? 0 : fileStore.size();
+        this.fillRate = mvStore.getCurrentFillRate();
+        this.chunkCount = mvStore.getMetaMap().keySet().stream().filter(key -> key.startsWith("chunk.")).count();
+        this.expectedAlleleCount = expectedAlleleCount;
+        this.rangeCount = rangeCount;
+        this.alleleCount = alleleCount;
+        this.rsIdCount = rsIdCount;
+        this.clinVarCount = clinVarCount;
+        this.emptyCount = emptyCount;
+        this.orderingErrorCount = orderingErrorCount;
+        this.decodingErrorCount = decodingErrorCount;
+        this.propertyCounts = ImmutableMap.copyOf(propertyCounts);
+        this.errors = ImmutableList.copyOf(errors);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return true if every allele in the map could be read, in strictly ascending key order.
+     */
+    public boolean isValid() {
+        return orderingErrorCount == 0 && decodingErrorCount == 0 && alleleCount == expectedAlleleCount;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public int getFillRate() {
+        return fillRate;
+    }
+
+    public long getChunkCount() {
+        return chunkCount;
+    }
+
+    public long getExpectedAlleleCount() {
+        return expectedAlleleCount;
+    }
+
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    public long getAlleleCount() {
+        return alleleCount;
+    }
+
+    public long getRsIdCount() {
+        return rsIdCount;
+    }
+
+    public long getClinVarCount() {
+        return clinVarCount;
+    }
+
+    /**
+     * @return the number of alleles without any data. These should have been removed during the build.
+     */
+    public long getEmptyCount() {
+        return emptyCount;
+    }
+
+    public long getOrderingErrorCount() {
+        return orderingErrorCount;
+    }
+
+    public long getDecodingErrorCount() {
+        return decodingErrorCount;
+    }
+
+    /**
+     * @return the number of alleles with a value for each of the {@link org.monarchinitiative.exomiser.data.genome.model.AlleleProperty}
+     * keys found in the map, in key order.
+     */
+    public Map<String, Long> getPropertyCounts() {
+        return propertyCounts;
+    }
+
+    /**
+     * @return the first errors found. This is limited in size, so use the error counts to find the total.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return a multi-line, human-readable version of the report suitable for logging or writing to a file.
+     */
+    public String formatReport() {
+        StringJoiner report = new StringJoiner(System.lineSeparator());
+        report.add("Allele store: " + fileName);
+        report.add("Status: " + (isValid() ? "VALID" : "INVALID"));
+        report.add(String.format("File size: %d bytes", fileSize));
+        report.add(String.format("Fill rate: %d%%", fillRate));
+        report.add("Chunks: " + chunkCount);
+        report.add(String.format("Alleles: %d scanned of %d in %d ranges in %d ms", alleleCount, expectedAlleleCount, rangeCount, elapsedMillis));
+        report.add("Alleles with rsId: " + rsIdCount);
+        report.add("Alleles with ClinVar: " + clinVarCount);
+        report.add("Alleles without data: " + emptyCount);
+        propertyCounts.forEach((property, count) -> report.add("Alleles with " + property + ": " + count));
+        report.add("Ordering errors: " + orderingErrorCount);
+        report.add("Decoding errors: " + decodingErrorCount);
+        errors.forEach(error -> report.add("ERROR " + error));
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "AlleleStoreReport{" +
+                "fileName='" + fileName + '\'' +
+                ", fileSize=" + fileSize +
+                ", fillRate=" + fillRate +
+                ", chunkCount=" + chunkCount +
+                ", expectedAlleleCount=" + expectedAlleleCount +
+                ", rangeCount=" + rangeCount +
+                ", alleleCount=" + alleleCount +
+                ", rsIdCount=" + rsIdCount +
+                ", clinVarCount=" + clinVarCount +
+                ", emptyCount=" + emptyCount +
+                ", orderingErrorCount=" + orderingErrorCount +
+                ", decodingErrorCount=" + decodingErrorCount +
+                ", propertyCounts=" + propertyCounts +
+                ", errors=" + errors +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
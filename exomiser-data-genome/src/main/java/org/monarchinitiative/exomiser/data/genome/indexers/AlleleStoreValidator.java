@@ -0,0 +1,221 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AlleleKeyDataType;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.InvalidAlleleProtoException;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks a completed allele database by scanning the 'alleles' map in contiguous key ranges on a fixed number of
+ * threads. Each range is checked for strictly ascending key order and that every entry can be decoded, while counting
+ * the alleles with data from each source. The ranges are then checked to join up and cover the whole map.
+ * <p>
+ * The map is only read, so should be opened from a read-only {@link MVStore}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class AlleleStoreValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlleleStoreValidator.class);
+
+    private static final Comparator<AlleleKey> KEY_COMPARATOR = AlleleKeyDataType.INSTANCE::compare;
+
+    // limits the size of the report for a badly broken store
+    private static final int MAX_REPORTED_ERRORS = 100;
+    // the map is split into more ranges than threads so that a dense range does not hold up the whole scan
+    private static final int RANGES_PER_THREAD = 4;
+
+    private final int numThreads;
+
+    public AlleleStoreValidator(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1");
+        }
+        this.numThreads = numThreads;
+    }
+
+    public AlleleStoreReport validate(MVMap<AlleleKey, AlleleProperties> map) {
+        Instant startTime = Instant.now();
+        long expectedAlleleCount = map.sizeAsLong();
+        long[] rangeStarts = splitRanges(expectedAlleleCount, (long) numThreads * RANGES_PER_THREAD);
+        logger.info("Validating {} alleles in {} ranges using {} threads", expectedAlleleCount, rangeStarts.length, numThreads);
+
+        List<RangeStatistics> rangeStatistics = scanRanges(map, rangeStarts, expectedAlleleCount);
+
+        RangeStatistics total = new RangeStatistics();
+        RangeStatistics previous = null;
+        for (RangeStatistics range : rangeStatistics) {
+            if (previous != null && previous.lastKey != null && range.firstKey != null && KEY_COMPARATOR.compare(previous.lastKey, range.firstKey) >= 0) {
+                total.addOrderingError(previous.lastKey, range.firstKey);
+            }
+            total.merge(range);
+            previous = range;
+        }
+        if (total.alleleCount != expectedAlleleCount) {
+            total.addError(String.format("Scanned %d alleles but the map contains %d", total.alleleCount, expectedAlleleCount));
+        }
+
+        long elapsedMillis = Duration.between(startTime, Instant.now()).toMillis();
+        AlleleStoreReport report = new AlleleStoreReport(map.getStore(), expectedAlleleCount, rangeStarts.length, total.alleleCount, total.rsIdCount, total.clinVarCount, total.emptyCount, total.orderingErrorCount, total.decodingErrorCount, total.propertyCounts, total.errors, elapsedMillis);
+        logger.info("Finished validating {} alleles in {} ms - {}", total.alleleCount, elapsedMillis, report.isValid() ? "VALID" : "INVALID");
+        return report;
+    }
+
+    /**
+     * Returns the index of the first entry of each range. The ranges are split by position rather than by key so that
+     * they each have the same number of entries and do not rely on the keys being in order.
+     */
+    private static long[] splitRanges(long size, long maxRanges) {
+        int numRanges = (int) Math.min(size, maxRanges);
+        long[] rangeStarts = new long[numRanges];
+        for (int i = 0; i < numRanges; i++) {
+            rangeStarts[i] = i * size / numRanges;
+        }
+        return rangeStarts;
+    }
+
+    private List<RangeStatistics> scanRanges(MVMap<AlleleKey, AlleleProperties> map, long[] rangeStarts, long size) {
+        ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<RangeStatistics>> futures = new ArrayList<>(rangeStarts.length);
+            for (int i = 0; i < rangeStarts.length; i++) {
+                long start = rangeStarts[i];
+                long end = i + 1 < rangeStarts.length ? rangeStarts[i + 1] : size;
+                futures.add(executorService.submit(() -> scanRange(map, start, end)));
+            }
+            List<RangeStatistics> rangeStatistics = new ArrayList<>(futures.size());
+            for (Future<RangeStatistics> future : futures) {
+                rangeStatistics.add(future.get());
+            }
+            return rangeStatistics;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating alleles", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to validate alleles", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Scans the alleles from the start (inclusive) to the end (exclusive) positions in the map.
+     */
+    private static RangeStatistics scanRange(MVMap<AlleleKey, AlleleProperties> map, long start, long end) {
+        RangeStatistics statistics = new RangeStatistics();
+        AlleleKey previousKey = null;
+        try {
+            Cursor<AlleleKey, AlleleProperties> cursor = map.cursor(null);
+            // skipping is fast as it uses the entry counts of the pages rather than reading the entries
+            cursor.skip(start);
+            for (long position = start; position < end && cursor.hasNext(); position++) {
+                AlleleKey key = cursor.next();
+                if (previousKey == null) {
+                    statistics.firstKey = key;
+                } else if (KEY_COMPARATOR.compare(previousKey, key) >= 0) {
+                    statistics.addOrderingError(previousKey, key);
+                }
+                statistics.count(cursor.getValue());
+                previousKey = key;
+            }
+        } catch (InvalidAlleleProtoException | IllegalStateException e) {
+            // the rest of the range is unreadable as the failure is in the page, not a single entry
+            statistics.decodingErrorCount++;
+            String position = previousKey == null ? "position " + start : toKeyString(previousKey);
+            statistics.addError(String.format("Unable to read alleles following %s - %s", position, e.getMessage()));
+        }
+        statistics.lastKey = previousKey;
+        return statistics;
+    }
+
+    private static String toKeyString(AlleleKey key) {
+        return key.getChr() + "-" + key.getPosition() + "-" + key.getRef() + "-" + key.getAlt();
+    }
+
+    private static class RangeStatistics {
+
+        private AlleleKey firstKey;
+        private AlleleKey lastKey;
+
+        private long alleleCount;
+        private long rsIdCount;
+        private long clinVarCount;
+        private long emptyCount;
+        private long orderingErrorCount;
+        private long decodingErrorCount;
+        private final Map<String, Long> propertyCounts = new TreeMap<>();
+        private final List<String> errors = new ArrayList<>();
+
+        private void count(AlleleProperties properties) {
+            alleleCount++;
+            if (properties == null || properties.equals(AlleleProperties.getDefaultInstance())) {
+                emptyCount++;
+                return;
+            }
+            if (!properties.getRsId().isEmpty()) {
+                rsIdCount++;
+            }
+            if (properties.hasClinVar()) {
+                clinVarCount++;
+            }
+            for (String property : properties.getPropertiesMap().keySet()) {
+                propertyCounts.merge(property, 1L, Long::sum);
+            }
+        }
+
+        private void addOrderingError(AlleleKey previousKey, AlleleKey key) {
+            orderingErrorCount++;
+            addError(String.format("Allele %s is out of order following %s", toKeyString(key), toKeyString(previousKey)));
+        }
+
+        private void addError(String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        private void merge(RangeStatistics other) {
+            alleleCount += other.alleleCount;
+            rsIdCount += other.rsIdCount;
+            clinVarCount += other.clinVarCount;
+            emptyCount += other.emptyCount;
+            orderingErrorCount += other.orderingErrorCount;
+            decodingErrorCount += other.decodingErrorCount;
+            other.propertyCounts.forEach((property, count) -> propertyCounts.merge(property, count, Long::sum));
+            other.errors.forEach(this::addError);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import com.google.common.base.Suppliers;
+import org.apache.commons.vfs2.FileObject;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.archive.AlleleArchive;
+import org.monarchinitiative.exomiser.data.genome.archive.ArchiveFileReader;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
+import org.monarchinitiative.exomiser.data.genome.parsers.AlleleParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Indexes several {@link AlleleResource} concurrently. Each resource, or each file of a zip archive such as dbNSFP, is
+ * decompressed and parsed on its own thread into a separate {@link SortMergeAlleleIndexer}. Once all of these have
+ * finished the sorted runs are merged by a single writer into the destination map in key order.
+ * <p>
+ * Alleles for the same key are merged in resource order, then file order, regardless of which thread finished first,
+ * so the output is identical to indexing the resources one after another. Files from other archive formats, e.g.
+ * tar.gz, are read sequentially within their resource as these cannot be safely read concurrently.
+ * <p>
+ * Each thread holds up to maxRunSize alleles in memory, so the memory required scales with the parallelism.
+ * <p>
+ * If a checkpoint directory is set, the runs of each completed resource, or zip file entry, are kept as a checkpoint
+ * segment along with the checksum of the input archive. A restarted build will re-use any segments whose inputs are
+ * unchanged and only index the remainder. See {@link IndexCheckpoints}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class ConcurrentAlleleIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentAlleleIndexer.class);
+
+    private final Path runDirectory;
+    private final int maxRunSize;
+    private final int parallelism;
+    private final int parserThreads;
+
+    private Path checkpointDirectory = null;
+
+    /**
+     * @param runDirectory directory in which to write the temporary sorted runs
+     * @param maxRunSize   maximum number of unique alleles held in memory by each thread before spilling to disk
+     * @param parallelism  maximum number of files to parse concurrently
+     */
+    public ConcurrentAlleleIndexer(Path runDirectory, int maxRunSize, int parallelism) {
+        this(runDirectory, maxRunSize, parallelism, 1);
+    }
+
+    /**
+     * @param parserThreads number of threads used to parse the lines within each file. See
+     *                      {@link AbstractAlleleIndexer#setParserThreads(int)}
+     */
+    public ConcurrentAlleleIndexer(Path runDirectory, int maxRunSize, int parallelism, int parserThreads) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be greater than 0");
+        }
+        this.runDirectory = runDirectory;
+        this.maxRunSize = maxRunSize;
+        this.parallelism = parallelism;
+        this.parserThreads = parserThreads;
+    }
+
+    /**
+     * Sets the directory in which to keep checkpoint segments. These are not deleted once the build is complete, so
+     * that subsequent builds can also skip any unchanged resources. Defaults to null, i.e. no checkpoints.
+     */
+    public void setCheckpointDirectory(Path checkpointDirectory) {
+        this.checkpointDirectory = checkpointDirectory;
+    }
+
+    /**
+     * Parses all the resources and writes the merged alleles to the destination map in ascending key order.
+     *
+     * @return the number of unique alleles written.
+     */
+    public long index(List<AlleleResource> alleleResources, Map<AlleleKey, AlleleProperties> destination) {
+        List<IndexingTask> tasks = createTasks(alleleResources);
+        logger.info("Indexing {} resources as {} tasks using {} threads", alleleResources.size(), tasks.size(), parallelism);
+        Instant startTime = Instant.now();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        List<Future<SortMergeAlleleIndexer>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (IndexingTask task : tasks) {
+                futures.add(executorService.submit(task::run));
+            }
+            // futures are collected in task order so that the merge order is independent of which task finished first
+            List<SortMergeAlleleIndexer> indexers = new ArrayList<>(tasks.size());
+            for (Future<SortMergeAlleleIndexer> future : futures) {
+                indexers.add(future.get());
+            }
+            logger.info("Parsed all resources in {} sec. Merging...", Duration.between(startTime, Instant.now()).getSeconds());
+            return SortMergeAlleleIndexer.writeTo(indexers, destination);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while indexing resources", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to index resources", e.getCause());
+        } finally {
+            // tasks which have not started are cancelled, but those already running are left to finish so that their
+            // indexer can be closed and the sorted runs deleted, otherwise a failed task leaks the runs of the others.
+            executorService.shutdownNow();
+            awaitTermination(executorService);
+            closeCompletedIndexers(futures);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executorService) {
+        try {
+            while (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for running indexing tasks to finish...");
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while waiting for indexing tasks to finish - sorted runs of unfinished tasks may not be deleted");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeCompletedIndexers(List<Future<SortMergeAlleleIndexer>> futures) {
+        for (Future<SortMergeAlleleIndexer> future : futures) {
+            if (future.isDone() && !future.isCancelled()) {
+                try {
+                    future.get().close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // a failed task closes its own indexer
+                    logger.debug("Indexing task failed", e.getCause());
+                }
+            }
+        }
+    }
+
+    private List<IndexingTask> createTasks(List<AlleleResource> alleleResources) {
+        List<IndexingTask> tasks = new ArrayList<>();
+        for (AlleleResource alleleResource : alleleResources) {
+            AlleleArchive alleleArchive = alleleResource.getAlleleArchive();
+            ArchiveFileReader archiveFileReader = new ArchiveFileReader(alleleArchive);
+            List<FileObject> fileObjects = archiveFileReader.getFileObjects();
+            // the checksum is only calculated when first required, by one of the worker threads
+            Supplier<String> inputChecksum = Suppliers.memoize(() -> IndexCheckpoints.checksum(alleleArchive.getPath()));
+            if ("zip".equals(alleleArchive.getArchiveFileFormat())) {
+                // entries of a zip file can be read independently, but each needs its own parser
+                for (int i = 0; i < fileObjects.size(); i++) {
+                    Path taskRunDirectory = taskRunDirectory(tasks.size(), alleleResource.getName(), i);
+                    tasks.add(new IndexingTask(alleleResource.getName(), archiveFileReader, Collections.singletonList(fileObjects.get(i)), alleleResource
+                            .getAlleleParser()
+                            .newInstance(), taskRunDirectory, inputChecksum));
+                }
+            } else {
+                Path taskRunDirectory = taskRunDirectory(tasks.size(), alleleResource.getName(), 0);
+                tasks.add(new IndexingTask(alleleResource.getName(), archiveFileReader, fileObjects, alleleResource.getAlleleParser(), taskRunDirectory, inputChecksum));
+            }
+        }
+        return tasks;
+    }
+
+    private Path taskRunDirectory(int taskNumber, String resourceName, int segmentNumber) {
+        if (checkpointDirectory == null) {
+            return runDirectory.resolve(String.format("%03d_%s", taskNumber, resourceName));
+        }
+        // checkpoint segments need a stable name, independent of the other resources being built
+        return checkpointDirectory.resolve(resourceName).resolve(String.format("%03d", segmentNumber));
+    }
+
+    private class IndexingTask {
+
+        private final String resourceName;
+        private final ArchiveFileReader archiveFileReader;
+        private final List<FileObject> fileObjects;
+        private final AlleleParser alleleParser;
+        private final Path taskRunDirectory;
+        private final Supplier<String> inputChecksum;
+
+        private IndexingTask(String resourceName, ArchiveFileReader archiveFileReader, List<FileObject> fileObjects, AlleleParser alleleParser, Path taskRunDirectory, Supplier<String> inputChecksum) {
+            this.resourceName = resourceName;
+            this.archiveFileReader = archiveFileReader;
+            this.fileObjects = fileObjects;
+            this.alleleParser = alleleParser;
+            this.taskRunDirectory = taskRunDirectory;
+            this.inputChecksum = inputChecksum;
+        }
+
+        private SortMergeAlleleIndexer run() {
+            if (checkpointDirectory == null) {
+                return index();
+            }
+            String checksum = inputChecksum.get();
+            String parser = alleleParser.getClass().getName();
+            String source = fileObjects.stream().map(fileObject -> fileObject.getName().getBaseName()).collect(joining(","));
+            Optional<SortMergeAlleleIndexer> checkpoint = IndexCheckpoints.load(taskRunDirectory, checksum, parser, source);
+            if (checkpoint.isPresent()) {
+                logger.info("Skipping '{}' task - inputs unchanged since checkpoint {}", resourceName, taskRunDirectory);
+                return checkpoint.get();
+            }
+            IndexCheckpoints.clear(taskRunDirectory);
+            SortMergeAlleleIndexer indexer = index();
+            IndexCheckpoints.save(taskRunDirectory, checksum, parser, source, indexer);
+            return indexer;
+        }
+
+        private SortMergeAlleleIndexer index() {
+            Instant startTime = Instant.now();
+            SortMergeAlleleIndexer indexer = new SortMergeAlleleIndexer(taskRunDirectory, maxRunSize);
+            indexer.setParserThreads(parserThreads);
+            AtomicLong counter = new AtomicLong();
+            try {
+                for (FileObject fileObject : fileObjects) {
+                    indexer.indexFile(archiveFileReader, fileObject, alleleParser, allele -> counter.incrementAndGet());
+                }
+            } catch (RuntimeException e) {
+                // a partially indexed task is discarded so that it is never saved as a checkpoint or merged
+                indexer.close();
+                throw e;
+            }
+            logger.info("Finished '{}' task - processed {} alleles from {} files in {} sec", resourceName, counter.get(), fileObjects
+                    .size(), Duration.between(startTime, Instant.now()).getSeconds());
+            return indexer;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import org.h2.mvstore.MVMap;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AlleleKeyDataType;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResourceFields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Applies a new release of a single {@link AlleleResource}, e.g. a monthly ClinVar release, to an existing allele
+ * database without re-indexing all the other resources.
+ * <p>
+ * The new release is indexed into sorted runs using a {@link SortMergeAlleleIndexer}, then merge-joined with the
+ * existing map which is read in key order. For each existing allele the fields owned by the resource are removed using
+ * {@link AlleleResourceFields#strip}, then the properties from the new release, if any, are merged in using
+ * {@link AlleleConverter#mergeProperties}. Alleles left without any data are dropped. Both inputs are in key order so
+ * the output is written to the destination strictly in key order, producing a compact new store.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class DeltaAlleleUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeltaAlleleUpdater.class);
+
+    private static final Comparator<AlleleKey> KEY_COMPARATOR = AlleleKeyDataType.INSTANCE::compare;
+
+    private final Path runDirectory;
+    private final int maxRunSize;
+    private final int parserThreads;
+
+    /**
+     * @param runDirectory  directory in which to write the temporary sorted runs of the new release
+     * @param maxRunSize    maximum number of unique alleles to hold in memory before spilling a run to disk
+     * @param parserThreads number of threads used to parse the lines within each resource file
+     */
+    public DeltaAlleleUpdater(Path runDirectory, int maxRunSize, int parserThreads) {
+        this.runDirectory = runDirectory;
+        this.maxRunSize = maxRunSize;
+        this.parserThreads = parserThreads;
+    }
+
+    /**
+     * Writes the existing alleles, updated with the new release of the resource, to the destination. The existing map
+     * is not modified.
+     *
+     * @param existing    map of the current allele database.
+     * @param release     the new release of the resource.
+     * @param destination map to write the updated alleles to. This should be empty and in a different store to the
+     *                    existing map.
+     * @return the number of alleles written to the destination.
+     */
+    public long update(MVMap<AlleleKey, AlleleProperties> existing, AlleleResource release, Map<AlleleKey, AlleleProperties> destination) {
+        AlleleResourceFields resourceFields = AlleleResourceFields.forResource(release.getName());
+        logger.info("Updating {} existing alleles with new '{}' release owning {}", existing.size(), release.getName(), resourceFields);
+        SortMergeAlleleIndexer releaseIndexer = new SortMergeAlleleIndexer(runDirectory, maxRunSize);
+        try {
+            releaseIndexer.setParserThreads(parserThreads);
+            releaseIndexer.index(release);
+            return update(existing, releaseIndexer, resourceFields, destination);
+        } finally {
+            releaseIndexer.close();
+        }
+    }
+
+    long update(MVMap<AlleleKey, AlleleProperties> existing, SortMergeAlleleIndexer releaseIndexer, AlleleResourceFields resourceFields, Map<AlleleKey, AlleleProperties> destination) {
+        DeltaMerger deltaMerger = new DeltaMerger(existing.entrySet().iterator(), resourceFields, destination);
+        SortMergeAlleleIndexer.mergeRuns(Collections.singletonList(releaseIndexer), deltaMerger::mergeReleaseAllele);
+        deltaMerger.writeRemainingExisting();
+        logger.info("Finished update - written {} alleles: {} retained, {} updated, {} added, {} removed",
+                deltaMerger.written, deltaMerger.retained, deltaMerger.updated, deltaMerger.added, deltaMerger.removed);
+        return deltaMerger.written;
+    }
+
+    /**
+     * Merge-join of the existing alleles (pulled from an iterator) with the new release alleles (pushed from the run
+     * merge), both of which are in ascending key order.
+     */
+    private static class DeltaMerger {
+
+        private final Iterator<Map.Entry<AlleleKey, AlleleProperties>> existingIterator;
+        private final AlleleResourceFields resourceFields;
+        private final Map<AlleleKey, AlleleProperties> destination;
+
+        private Map.Entry<AlleleKey, AlleleProperties> currentExisting;
+
+        private long written;
+        private long retained;
+        private long updated;
+        private long added;
+        private long removed;
+
+        private DeltaMerger(Iterator<Map.Entry<AlleleKey, AlleleProperties>> existingIterator, AlleleResourceFields resourceFields, Map<AlleleKey, AlleleProperties> destination) {
+            this.existingIterator = existingIterator;
+            this.resourceFields = resourceFields;
+            this.destination = destination;
+            this.currentExisting = nextExisting();
+        }
+
+        private Map.Entry<AlleleKey, AlleleProperties> nextExisting() {
+            return existingIterator.hasNext() ? existingIterator.next() : null;
+        }
+
+        private void mergeReleaseAllele(AlleleKey key, AlleleProperties releaseProperties) {
+            // write out all the existing alleles preceding this one, which are not in the new release
+            while (currentExisting != null && KEY_COMPARATOR.compare(currentExisting.getKey(), key) < 0) {
+                writeStrippedExisting(currentExisting);
+                currentExisting = nextExisting();
+            }
+            if (currentExisting != null && KEY_COMPARATOR.compare(currentExisting.getKey(), key) == 0) {
+                AlleleProperties stripped = resourceFields.strip(currentExisting.getValue());
+                write(key, AlleleConverter.mergeProperties(stripped, releaseProperties));
+                updated++;
+                currentExisting = nextExisting();
+            } else {
+                write(key, releaseProperties);
+                added++;
+            }
+        }
+
+        private void writeRemainingExisting() {
+            while (currentExisting != null) {
+                writeStrippedExisting(currentExisting);
+                currentExisting = nextExisting();
+            }
+        }
+
+        private void writeStrippedExisting(Map.Entry<AlleleKey, AlleleProperties> entry) {
+            AlleleProperties stripped = resourceFields.strip(entry.getValue());
+            if (stripped.equals(AlleleProperties.getDefaultInstance())) {
+                // the allele was only present in the previous release of this resource
+                removed++;
+                return;
+            }
+            write(entry.getKey(), stripped);
+            retained++;
+        }
+
+        private void write(AlleleKey key, AlleleProperties properties) {
+            destination.put(key, properties);
+            written++;
+            if (written % 10000000 == 0) {
+                logger.info("Written {} alleles", written);
+            }
+        }
+    }
+}
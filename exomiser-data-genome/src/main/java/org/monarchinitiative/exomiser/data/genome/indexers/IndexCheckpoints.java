@@ -0,0 +1,164 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Persists the sorted runs of completed indexing segments so that an interrupted build can be restarted without
+ * re-parsing the resources which had already been indexed. Each segment, i.e. a resource or a single file of a zip
+ * archive, has its own directory containing its runs and a manifest. The manifest records the checksum of the input
+ * archive, the parser and the run files, and is only written once all the runs are complete. A segment is
+ * only re-used if its manifest exists and matches the current inputs, otherwise the directory is cleared and the segment
+ * re-indexed.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+class IndexCheckpoints {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexCheckpoints.class);
+
+    static final String MANIFEST_FILE_NAME = "segment.properties";
+
+    private static final String CHECKSUM = "inputChecksum";
+    private static final String PARSER = "parser";
+    private static final String SOURCE = "source";
+    private static final String COUNT = "count";
+    private static final String RUNS = "runs";
+
+    private IndexCheckpoints() {
+        //static utility class
+    }
+
+    /**
+     * @return the SHA-256 checksum of the input file as a hex string.
+     */
+    static String checksum(Path inputFile) {
+        try {
+            return com.google.common.io.Files.asByteSource(inputFile.toFile()).hash(Hashing.sha256()).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to calculate checksum of " + inputFile, e);
+        }
+    }
+
+    /**
+     * Loads a completed segment, if the manifest matches the supplied inputs and all of its runs are present.
+     */
+    static Optional<SortMergeAlleleIndexer> load(Path segmentDirectory, String inputChecksum, String parser, String source) {
+        Path manifestFile = segmentDirectory.resolve(MANIFEST_FILE_NAME);
+        if (!Files.isRegularFile(manifestFile)) {
+            return Optional.empty();
+        }
+        Properties manifest = new Properties();
+        try (InputStream inputStream = Files.newInputStream(manifestFile)) {
+            manifest.load(inputStream);
+        } catch (IOException e) {
+            logger.warn("Unable to read checkpoint manifest {}", manifestFile, e);
+            return Optional.empty();
+        }
+        if (!inputChecksum.equals(manifest.getProperty(CHECKSUM)) || !parser.equals(manifest.getProperty(PARSER)) || !source
+                .equals(manifest.getProperty(SOURCE))) {
+            logger.info("Checkpoint {} does not match the current inputs", segmentDirectory);
+            return Optional.empty();
+        }
+        List<Path> runFiles = new ArrayList<>();
+        String runs = manifest.getProperty(RUNS, "");
+        for (String runFileName : runs.isEmpty() ? new String[0] : runs.split(",")) {
+            Path runFile = segmentDirectory.resolve(runFileName);
+            if (!Files.isRegularFile(runFile)) {
+                logger.warn("Checkpoint {} is missing run {}", segmentDirectory, runFileName);
+                return Optional.empty();
+            }
+            runFiles.add(runFile);
+        }
+        long count = Long.parseLong(manifest.getProperty(COUNT, "0"));
+        return Optional.of(SortMergeAlleleIndexer.fromRuns(segmentDirectory, runFiles, count));
+    }
+
+    /**
+     * Writes the manifest for a completed segment. This is written to a temporary file which is then moved into place
+     * so that a partially written manifest will never be read.
+     */
+    static void save(Path segmentDirectory, String inputChecksum, String parser, String source, SortMergeAlleleIndexer indexer) {
+        List<Path> runFiles = indexer.checkpointRuns();
+        List<String> runFileNames = new ArrayList<>(runFiles.size());
+        for (Path runFile : runFiles) {
+            runFileNames.add(segmentDirectory.relativize(runFile).toString());
+        }
+        Properties manifest = new Properties();
+        manifest.setProperty(CHECKSUM, inputChecksum);
+        manifest.setProperty(PARSER, parser);
+        manifest.setProperty(SOURCE, source);
+        manifest.setProperty(COUNT, String.valueOf(indexer.count()));
+        manifest.setProperty(RUNS, String.join(",", runFileNames));
+        try {
+            Files.createDirectories(segmentDirectory);
+            Path tempManifest = Files.createTempFile(segmentDirectory, MANIFEST_FILE_NAME, ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempManifest)) {
+                manifest.store(outputStream, "Exomiser allele index checkpoint");
+            }
+            Files.move(tempManifest, segmentDirectory.resolve(MANIFEST_FILE_NAME), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write checkpoint manifest to " + segmentDirectory, e);
+        }
+        logger.info("Checkpointed {} alleles in {} runs to {}", indexer.count(), runFiles.size(), segmentDirectory);
+    }
+
+    /**
+     * Deletes any incomplete or out-of-date segment so that it can be re-indexed.
+     */
+    static void clear(Path segmentDirectory) {
+        if (!Files.exists(segmentDirectory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(segmentDirectory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .filter(path -> !path.equals(segmentDirectory))
+                    .forEach(IndexCheckpoints::delete);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to clear checkpoint " + segmentDirectory, e);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to delete " + path, e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import com.google.common.collect.ImmutableList;
+import org.monarchinitiative.exomiser.data.genome.model.Allele;
+import org.monarchinitiative.exomiser.data.genome.parsers.AlleleParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Pipelined line parser for the allele indexers. The calling thread reads (and so decompresses) the input, slicing it
+ * into blocks of lines which are parsed by a pool of worker threads. The parsed alleles are passed to the sink on the
+ * calling thread in the same order as the input lines, so the sink does not need to be thread-safe and the output is
+ * identical to parsing the lines sequentially.
+ * <p>
+ * Each worker uses its own parser from {@link AlleleParser#newInstance()}. Header lines, i.e. those starting with '#',
+ * are not included in the blocks, instead each block carries the header lines read before it. These are replayed to a
+ * worker's parser whenever it receives a block with different headers, so that stateful parsers such as the
+ * {@link org.monarchinitiative.exomiser.data.genome.parsers.DbNsfpAlleleParser} see the column header before parsing
+ * any lines.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+class ParallelLineParser {
+
+    private static final int LINES_PER_BLOCK = 10000;
+
+    private final int numThreads;
+    private final int maxPendingBlocks;
+
+    ParallelLineParser(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("numThreads must be greater than 0");
+        }
+        this.numThreads = numThreads;
+        // enough to keep all the workers busy while the sink catches up, without reading the whole file into memory
+        this.maxPendingBlocks = numThreads * 4;
+    }
+
+    void parse(BufferedReader reader, AlleleParser alleleParser, Consumer<Allele> sink) throws IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        ThreadLocal<BlockParser> blockParsers = ThreadLocal.withInitial(() -> new BlockParser(alleleParser.newInstance()));
+        Deque<Future<List<Allele>>> pendingBlocks = new ArrayDeque<>(maxPendingBlocks);
+        try {
+            // all the blocks following a run of header lines share the same list of headers
+            List<String> headerLines = ImmutableList.of();
+            List<String> newHeaderLines = new ArrayList<>();
+            List<String> lines = new ArrayList<>(LINES_PER_BLOCK);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    if (!lines.isEmpty()) {
+                        // lines read so far must be parsed using the previous headers
+                        submit(new Block(headerLines, lines), executorService, blockParsers, pendingBlocks, sink);
+                        lines = new ArrayList<>(LINES_PER_BLOCK);
+                    }
+                    newHeaderLines.add(line);
+                } else {
+                    if (!newHeaderLines.isEmpty()) {
+                        headerLines = ImmutableList.<String>builder().addAll(headerLines).addAll(newHeaderLines).build();
+                        newHeaderLines.clear();
+                    }
+                    lines.add(line);
+                    if (lines.size() == LINES_PER_BLOCK) {
+                        submit(new Block(headerLines, lines), executorService, blockParsers, pendingBlocks, sink);
+                        lines = new ArrayList<>(LINES_PER_BLOCK);
+                    }
+                }
+            }
+            submit(new Block(headerLines, lines), executorService, blockParsers, pendingBlocks, sink);
+            while (!pendingBlocks.isEmpty()) {
+                drainNext(pendingBlocks, sink);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void submit(Block block, ExecutorService executorService, ThreadLocal<BlockParser> blockParsers, Deque<Future<List<Allele>>> pendingBlocks, Consumer<Allele> sink) {
+        if (block.lines.isEmpty()) {
+            return;
+        }
+        while (pendingBlocks.size() >= maxPendingBlocks) {
+            drainNext(pendingBlocks, sink);
+        }
+        pendingBlocks.addLast(executorService.submit(() -> blockParsers.get().parse(block)));
+    }
+
+    private void drainNext(Deque<Future<List<Allele>>> pendingBlocks, Consumer<Allele> sink) {
+        try {
+            List<Allele> alleles = pendingBlocks.removeFirst().get();
+            alleles.forEach(sink);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing alleles", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to parse alleles", e.getCause());
+        }
+    }
+
+    private static class Block {
+
+        private final List<String> headerLines;
+        private final List<String> lines;
+
+        private Block(List<String> headerLines, List<String> lines) {
+            this.headerLines = headerLines;
+            this.lines = lines;
+        }
+    }
+
+    private static class BlockParser {
+
+        private final AlleleParser alleleParser;
+        private List<String> currentHeaderLines = ImmutableList.of();
+
+        private BlockParser(AlleleParser alleleParser) {
+            this.alleleParser = alleleParser;
+        }
+
+        private List<Allele> parse(Block block) {
+            if (block.headerLines != currentHeaderLines) {
+                // header lines do not produce alleles, they only set up the parser state
+                block.headerLines.forEach(alleleParser::parseLine);
+                currentHeaderLines = block.headerLines;
+            }
+            List<Allele> alleles = new ArrayList<>();
+            for (String line : block.lines) {
+                alleles.addAll(alleleParser.parseLine(line));
+            }
+            return alleles;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import org.h2.mvstore.MVMap;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AlleleKeyDataType;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.model.Allele;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * External sort-merge {@link AlleleIndexer}. Rather than performing a random read-merge-write into an MVStore for every
+ * allele, alleles are buffered in memory in key order and spilled to disk as sorted runs once the buffer is full. Once
+ * all the resources have been indexed the runs are k-way merged and written to the destination map strictly in key
+ * order using {@link #writeTo(Map)}.
+ * <p>
+ * Properties for identical keys are combined using {@link AlleleConverter#mergeProperties} in the order in which the
+ * alleles were written, so the output is identical to that of the {@link MvStoreAlleleIndexer}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class SortMergeAlleleIndexer extends AbstractAlleleIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SortMergeAlleleIndexer.class);
+
+    private static final Comparator<AlleleKey> KEY_COMPARATOR = AlleleKeyDataType.INSTANCE::compare;
+
+    private final Path runDirectory;
+    private final int maxRunSize;
+
+    private final List<Path> runFiles = new ArrayList<>();
+    private TreeMap<AlleleKey, AlleleProperties> buffer = new TreeMap<>(KEY_COMPARATOR);
+    private long count;
+    // checkpointed runs are persisted between builds so are not deleted on close
+    private boolean retainRuns = false;
+
+    /**
+     * @param runDirectory directory in which to write the temporary sorted runs
+     * @param maxRunSize   maximum number of unique alleles to hold in memory before spilling a run to disk
+     */
+    public SortMergeAlleleIndexer(Path runDirectory, int maxRunSize) {
+        if (maxRunSize <= 0) {
+            throw new IllegalArgumentException("maxRunSize must be greater than 0");
+        }
+        this.runDirectory = runDirectory;
+        this.maxRunSize = maxRunSize;
+    }
+
+    @Override
+    protected void writeAllele(Allele allele) {
+        AlleleKey key = AlleleConverter.toAlleleKey(allele);
+        AlleleProperties properties = AlleleConverter.toAlleleProperties(allele);
+        buffer.merge(key, properties, AlleleConverter::mergeProperties);
+        count++;
+        if (buffer.size() >= maxRunSize) {
+            spillRun();
+        }
+    }
+
+    /**
+     * @return the number of alleles written to this indexer. Duplicate alleles are only merged when the runs are
+     * written out, so this will be greater than or equal to the number of unique alleles.
+     */
+    @Override
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Re-creates an indexer from the runs of a previously checkpointed indexer. The runs will not be deleted on close.
+     *
+     * @param runFiles the complete, sorted runs in the order in which they were written.
+     * @param count    the number of alleles originally written to the runs.
+     */
+    static SortMergeAlleleIndexer fromRuns(Path runDirectory, List<Path> runFiles, long count) {
+        SortMergeAlleleIndexer indexer = new SortMergeAlleleIndexer(runDirectory, Integer.MAX_VALUE);
+        indexer.runFiles.addAll(runFiles);
+        indexer.count = count;
+        indexer.retainRuns = true;
+        return indexer;
+    }
+
+    /**
+     * Spills any buffered alleles to disk and marks the runs to be retained on close so that they can be persisted as
+     * a checkpoint and later re-loaded using {@link #fromRuns(Path, List, long)}.
+     *
+     * @return all the runs written by this indexer, in the order in which they were written.
+     */
+    List<Path> checkpointRuns() {
+        spillRun();
+        retainRuns = true;
+        return new ArrayList<>(runFiles);
+    }
+
+    /**
+     * @return the number of sorted runs spilled to disk so far.
+     */
+    public int numRuns() {
+        return runFiles.size();
+    }
+
+    private void spillRun() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(runDirectory);
+            Path runFile = Files.createTempFile(runDirectory, "alleles_run_", ".pb");
+            logger.debug("Writing run of {} alleles to {}", buffer.size(), runFile);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (OutputStream outputStream = new DeflaterOutputStream(new BufferedOutputStream(Files.newOutputStream(runFile)), deflater)) {
+                for (Map.Entry<AlleleKey, AlleleProperties> entry : buffer.entrySet()) {
+                    entry.getKey().writeDelimitedTo(outputStream);
+                    entry.getValue().writeDelimitedTo(outputStream);
+                }
+            } finally {
+                deflater.end();
+            }
+            runFiles.add(runFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write sorted allele run to " + runDirectory, e);
+        }
+        buffer = new TreeMap<>(KEY_COMPARATOR);
+    }
+
+    /**
+     * Merges all the runs written so far and writes the merged alleles to the destination in ascending key order. For
+     * an {@link MVMap} this means all writes are appends, which avoids the random write and compaction overheads of
+     * updating the map in place.
+     *
+     * @param destination map to write the merged alleles to.
+     * @return the number of unique alleles written.
+     */
+    public long writeTo(Map<AlleleKey, AlleleProperties> destination) {
+        return writeTo(Collections.singletonList(this), destination);
+    }
+
+    /**
+     * Merges the runs of several indexers into the destination in ascending key order. Properties for identical keys
+     * are merged in the order of the indexers in the list, then the order in which they were written to each indexer.
+     * This allows separate resources to be indexed concurrently, with a single writer for the final merge stage.
+     *
+     * @param indexers    indexers to merge, in the order in which their properties should be applied.
+     * @param destination map to write the merged alleles to.
+     * @return the number of unique alleles written.
+     */
+    public static long writeTo(List<SortMergeAlleleIndexer> indexers, Map<AlleleKey, AlleleProperties> destination) {
+        return mergeRuns(indexers, destination::put);
+    }
+
+    /**
+     * Merges the runs of several indexers, passing each unique allele to the consumer in ascending key order. This is
+     * the streaming equivalent of {@link #writeTo(List, Map)} for callers which need to combine the merged alleles
+     * with another sorted source before writing them.
+     *
+     * @param indexers indexers to merge, in the order in which their properties should be applied.
+     * @param consumer called once for each unique allele in ascending key order.
+     * @return the number of unique alleles passed to the consumer.
+     * @since 11.0.0
+     */
+    public static long mergeRuns(List<SortMergeAlleleIndexer> indexers, BiConsumer<AlleleKey, AlleleProperties> consumer) {
+        // runs are numbered in order so that properties for equal keys are merged in the order they were written
+        List<Path> allRunFiles = new ArrayList<>();
+        long alleleCount = 0;
+        for (SortMergeAlleleIndexer indexer : indexers) {
+            indexer.spillRun();
+            allRunFiles.addAll(indexer.runFiles);
+            alleleCount += indexer.count;
+        }
+        logger.info("Merging {} sorted runs containing {} alleles", allRunFiles.size(), alleleCount);
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, allRunFiles.size()), Comparator.comparing(RunReader::currentKey, KEY_COMPARATOR)
+                .thenComparingInt(RunReader::runIndex));
+        List<RunReader> readers = new ArrayList<>(allRunFiles.size());
+        long written = 0;
+        try {
+            for (int i = 0; i < allRunFiles.size(); i++) {
+                RunReader reader = new RunReader(i, allRunFiles.get(i));
+                readers.add(reader);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                AlleleKey key = reader.currentKey();
+                AlleleProperties properties = reader.currentProperties();
+                advanceAndRequeue(reader, queue);
+                while (!queue.isEmpty() && KEY_COMPARATOR.compare(queue.peek().currentKey(), key) == 0) {
+                    RunReader duplicate = queue.poll();
+                    properties = AlleleConverter.mergeProperties(properties, duplicate.currentProperties());
+                    advanceAndRequeue(duplicate, queue);
+                }
+                consumer.accept(key, properties);
+                written++;
+                if (written % 10000000 == 0) {
+                    logger.info("Written {} alleles", written);
+                }
+            }
+        } finally {
+            readers.forEach(RunReader::close);
+        }
+        logger.info("Finished merging - written {} unique alleles", written);
+        return written;
+    }
+
+    private static void advanceAndRequeue(RunReader reader, PriorityQueue<RunReader> queue) {
+        if (reader.advance()) {
+            queue.add(reader);
+        }
+    }
+
+    /**
+     * Deletes any temporary run files, unless these have been checkpointed.
+     */
+    @Override
+    public void close() {
+        if (!retainRuns) {
+            deleteRuns();
+        }
+        runFiles.clear();
+        buffer.clear();
+    }
+
+    private void deleteRuns() {
+        for (Path runFile : runFiles) {
+            try {
+                Files.deleteIfExists(runFile);
+            } catch (IOException e) {
+                logger.warn("Unable to delete run file {}", runFile, e);
+            }
+        }
+    }
+
+    private static class RunReader {
+
+        private final int runIndex;
+        private final InputStream inputStream;
+        private AlleleKey currentKey;
+        private AlleleProperties currentProperties;
+
+        private RunReader(int runIndex, Path runFile) {
+            this.runIndex = runIndex;
+            try {
+                this.inputStream = new BufferedInputStream(new InflaterInputStream(Files.newInputStream(runFile)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to open sorted allele run " + runFile, e);
+            }
+        }
+
+        private boolean advance() {
+            try {
+                // returns null at the end of the stream
+                currentKey = AlleleKey.parseDelimitedFrom(inputStream);
+                currentProperties = currentKey == null ? null : AlleleProperties.parseDelimitedFrom(inputStream);
+                return currentKey != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read sorted allele run " + runIndex, e);
+            }
+        }
+
+        private int runIndex() {
+            return runIndex;
+        }
+
+        private AlleleKey currentKey() {
+            return currentKey;
+        }
+
+        private AlleleProperties currentProperties() {
+            return currentProperties;
+        }
+
+        private void close() {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                logger.warn("Unable to close run {}", runIndex, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.model;
+
+import com.google.common.collect.ImmutableSet;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.monarchinitiative.exomiser.data.genome.model.AlleleProperty.*;
+
+/**
+ * The {@link AlleleProperties} fields written by a single {@link AlleleResource}. These are used to remove the data
+ * from a previous release of a resource from an existing allele database before the new release is applied.
+ *
+ * Note that the rsId is not owned by any resource as it is shared by several of them. Existing rsIds are retained and
+ * will only be set from a new release where the allele had no rsId.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class AlleleResourceFields {
+
+    private final Set<AlleleProperty> properties;
+    private final boolean clinVar;
+
+    private AlleleResourceFields(Set<AlleleProperty> properties, boolean clinVar) {
+        this.properties = ImmutableSet.copyOf(properties);
+        this.clinVar = clinVar;
+    }
+
+    public static AlleleResourceFields of(Set<AlleleProperty> properties, boolean clinVar) {
+        Objects.requireNonNull(properties);
+        return new AlleleResourceFields(properties, clinVar);
+    }
+
+    /**
+     * Returns the fields for one of the named allele resources defined in the Hg19Config and Hg38Config e.g.
+     * 'hg19.clinvar' or 'hg38.gnomad-exome'. The assembly prefix is optional.
+     *
+     * @throws IllegalArgumentException if the resource name is not recognised
+     */
+    public static AlleleResourceFields forResource(String resourceName) {
+        String resourceId = resourceName.substring(resourceName.lastIndexOf('.') + 1);
+        switch (resourceId) {
+            case "clinvar":
+                return of(EnumSet.noneOf(AlleleProperty.class), true);
+            case "dbsnp":
+                return of(EnumSet.of(KG), false);
+            case "topmed":
+                return of(EnumSet.of(TOPMED), false);
+            case "uk10k":
+                return of(EnumSet.of(UK10K), false);
+            case "esp":
+                return of(EnumSet.range(ESP_EA, ESP_ALL), false);
+            case "exac":
+                return of(EnumSet.range(EXAC_AFR, EXAC_SAS), false);
+            case "gnomad-exome":
+                return of(EnumSet.range(GNOMAD_E_AFR, GNOMAD_E_SAS), false);
+            case "gnomad-genome":
+                return of(EnumSet.range(GNOMAD_G_AFR, GNOMAD_G_OTH), false);
+            case "dbnsfp":
+                return of(PATHOGENIC_PROPERTIES, false);
+            default:
+                throw new IllegalArgumentException("Unrecognised allele resource '" + resourceName + "'");
+        }
+    }
+
+    public Set<AlleleProperty> getProperties() {
+        return properties;
+    }
+
+    public boolean includesClinVar() {
+        return clinVar;
+    }
+
+    /**
+     * @return a copy of the input with all the fields owned by this resource removed. This will be the default
+     * instance if the allele had no rsId and only had data from this resource.
+     */
+    public AlleleProperties strip(AlleleProperties alleleProperties) {
+        AlleleProperties.Builder builder = alleleProperties.toBuilder();
+        for (AlleleProperty property : properties) {
+            builder.removeProperties(property.toString());
+        }
+        if (clinVar) {
+            builder.clearClinVar();
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AlleleResourceFields that = (AlleleResourceFields) o;
+        return clinVar == that.clinVar &&
+                Objects.equals(properties, that.properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(properties, clinVar);
+    }
+
+    @Override
+    public String toString() {
+        return "AlleleResourceFields{" +
+                "properties=" + properties +
+                ", clinVar=" + clinVar +
+                '}';
+    }
+}
@@ -32,4 +32,16 @@ public interface AlleleParser {
 
     List<Allele> parseLine(String line);
 
+    /**
+     * Returns a parser which can be used independently of this instance, for example to parse another file on a
+     * different thread. Stateless parsers can simply return themselves, which is the default behaviour. Parsers holding
+     * per-file state, such as column positions read from a header line, must override this to return a new instance.
+     *
+     * @return a parser which shares no mutable state with this instance.
+     * @since 11.0.0
+     */
+    default AlleleParser newInstance() {
+        return this;
+    }
+
 }
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.data.genome.parsers;
 
+import org.monarchinitiative.exomiser.core.genome.FieldTokeniser;
 import org.monarchinitiative.exomiser.data.genome.model.Allele;
 import org.monarchinitiative.exomiser.data.genome.model.AlleleProperty;
 import org.slf4j.Logger;
@@ -37,6 +38,7 @@ public class DbNsfpAlleleParser implements AlleleParser {
     private static final String EMPTY_VALUE = ".";
 
     private final DbNsfpColumnIndex columnIndex;
+    // dbNSFP has hundreds of columns of which only a handful are read, so these are not split into Strings
 
     //these fields are mutable as they are re-set each time a new chromosome is parsed.
     private int chrIndex;
@@ -55,6 +57,15 @@ public DbNsfpAlleleParser(DbNsfpColumnIndex columnIndex) {
         this.columnIndex = columnIndex;
     }
 
+    /**
+     * The column positions are set from the header of each file, so each concurrently parsed file requires its own
+     * instance.
+     */
+    @Override
+    public AlleleParser newInstance() {
+        return new DbNsfpAlleleParser(columnIndex);
+    }
+
     @Override
     public List<Allele> parseLine(String line) {
         if (line.startsWith("#")) {
@@ -62,8 +73,7 @@ public List<Allele> parseLine(String line) {
             parseColumnIndex(line);
             return Collections.emptyList();
         }
-        String[] fields = line.split("\t");
-
+        FieldTokeniser fields = FieldTokeniser.tabDelimited().tokenise(line);
         return parseAllele(fields);
     }
 
@@ -92,15 +102,15 @@ private void parseColumnIndex(String header) {
         this.revelScorePos = index.get(columnIndex.getRevelScoreHeader());
     }
 
-    private List<Allele> parseAllele(String[] fields) {
-        byte chr = ChromosomeParser.parseChr(fields[chrIndex]);
+    private List<Allele> parseAllele(FieldTokeniser fields) {
+        byte chr = ChromosomeParser.parseChr(fields.getString(chrIndex));
         if (chr == 0) {
             return Collections.emptyList();
         }
-        int pos = Integer.parseInt(fields[posIndex]);
-        String rsId = RsIdParser.parseRsId(fields[rsPos]);
-        String ref = fields[refPos];
-        String alt = fields[altPos];
+        int pos = fields.getInt(posIndex);
+        String rsId = RsIdParser.parseRsId(fields.getString(rsPos));
+        String ref = fields.getString(refPos);
+        String alt = fields.getString(altPos);
 
         Map<AlleleProperty, Float> pathScores = parsePathScores(fields);
 
@@ -114,20 +124,23 @@ private List<Allele> parseAllele(String[] fields) {
         return Collections.singletonList(allele);
     }
 
-    private Map<AlleleProperty, Float> parsePathScores(String[] fields) {
+    private Map<AlleleProperty, Float> parsePathScores(FieldTokeniser fields) {
         Map<AlleleProperty, Float> values = new EnumMap<>(AlleleProperty.class);
-        parseSift(values, AlleleProperty.SIFT, fields[siftPos]);
-        parsePolyPhen(values, AlleleProperty.POLYPHEN, fields[polyPhen2HvarPos]);
-        parseMutationTaster(values, AlleleProperty.MUT_TASTER, fields[mTasterScorePos], fields[mTasterPredPos]);
-        parseValue(values, AlleleProperty.REVEL, fields[revelScorePos]);
+        parseSift(fields, values, AlleleProperty.SIFT, siftPos);
+        parsePolyPhen(fields, values, AlleleProperty.POLYPHEN, polyPhen2HvarPos);
+        parseMutationTaster(fields, values, AlleleProperty.MUT_TASTER, mTasterScorePos, mTasterPredPos);
+        parseValue(fields, values, AlleleProperty.REVEL, revelScorePos);
         return values;
     }
 
     //    24	SIFT_score: SIFT score (SIFTori). Scores range from 0 to 1. The smaller the score the
     //    more likely the SNP has damaging effect.
     //    Multiple scores separated by ";", corresponding to Ensembl_proteinid.
-    private Map<AlleleProperty, Float> parseSift(Map<AlleleProperty, Float> values, AlleleProperty key, String field) {
-        String[] transcriptPredictions = field.split(";");
+    private Map<AlleleProperty, Float> parseSift(FieldTokeniser fields, Map<AlleleProperty, Float> values, AlleleProperty key, int fieldPos) {
+        if (!fields.fieldContains(fieldPos, ';')) {
+            return parseValue(fields, values, key, fieldPos);
+        }
+        String[] transcriptPredictions = fields.getString(fieldPos).split(";");
         if (transcriptPredictions.length == 1) {
             return parseValue(values, key, transcriptPredictions[0]);
         }
@@ -149,8 +162,11 @@ private Map<AlleleProperty, Float> parseSift(Map<AlleleProperty, Float> values,
     //    33	Polyphen2_HVAR_score: Polyphen2 score based on HumVar, i.e. hvar_prob.
     //    The score ranges from 0 to 1.
     //    Multiple entries separated by ";", corresponding to Uniprot_acc_Polyphen2.
-    private Map<AlleleProperty, Float> parsePolyPhen(Map<AlleleProperty, Float> values, AlleleProperty key, String field) {
-        String[] transcriptPredictions = field.split(";");
+    private Map<AlleleProperty, Float> parsePolyPhen(FieldTokeniser fields, Map<AlleleProperty, Float> values, AlleleProperty key, int fieldPos) {
+        if (!fields.fieldContains(fieldPos, ';')) {
+            return parseValue(fields, values, key, fieldPos);
+        }
+        String[] transcriptPredictions = fields.getString(fieldPos).split(";");
         if (transcriptPredictions.length == 1) {
             return parseValue(values, key, transcriptPredictions[0]);
         }
@@ -167,6 +183,13 @@ private Map<AlleleProperty, Float> parsePolyPhen(Map<AlleleProperty, Float> valu
     //    likely the SNP has damaging effect. "REVEL scores are freely available for non-commercial use.
     //    For other uses, please contact Weiva Sieh" (weiva.sieh@mssm.edu)
 
+    private Map<AlleleProperty, Float> parseValue(FieldTokeniser fields, Map<AlleleProperty, Float> values, AlleleProperty key, int fieldPos) {
+        if (!fields.fieldEquals(fieldPos, EMPTY_VALUE)) {
+            values.put(key, fields.getFloat(fieldPos));
+        }
+        return values;
+    }
+
     private Map<AlleleProperty, Float> parseValue(Map<AlleleProperty, Float> values, AlleleProperty key, String value) {
         if (!EMPTY_VALUE.equals(value)) {
             values.put(key, Float.valueOf(value));
@@ -188,7 +211,7 @@ private float getMaxValue(String[] transcriptPredictions) {
     }
 
 
-    private Map<AlleleProperty, Float> parseMutationTaster(Map<AlleleProperty, Float> values, AlleleProperty key, String scoreFields, String predFields) {
+    private Map<AlleleProperty, Float> parseMutationTaster(FieldTokeniser fields, Map<AlleleProperty, Float> values, AlleleProperty key, int scorePos, int predPos) {
 //        MutationTaster_score: MutationTaster p-value (MTori), ranges from 0 to 1.
 //        Multiple scores are separated by ";". Information on corresponding transcript(s) can
 //        be found by querying http://www.mutationtaster.org/ChrPos.html
@@ -197,8 +220,11 @@ private Map<AlleleProperty, Float> parseMutationTaster(Map<AlleleProperty, Float
 //                "D" ("disease_causing"), "N" ("polymorphism") or "P" ("polymorphism_automatic"). The
 //        score cutoff between "D" and "N" is 0.5 for MTnew and 0.31713 for the rankscore.
 
-        String[] scores = scoreFields.split(";");
-        String[] predictions = predFields.split(";");
+        if (fields.fieldEquals(scorePos, EMPTY_VALUE)) {
+            return values;
+        }
+        String[] scores = fields.getString(scorePos).split(";");
+        String[] predictions = fields.getString(predPos).split(";");
         if (scores.length == predictions.length) {
             float maxValue = 0;
             for (int i = 0; i < scores.length; i++) {
@@ -20,13 +20,13 @@
 
 package org.monarchinitiative.exomiser.data.genome.parsers;
 
+import org.monarchinitiative.exomiser.core.genome.FieldTokeniser;
 import org.monarchinitiative.exomiser.data.genome.model.Allele;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.StringJoiner;
 
 /**
  * Parser to extract {@link org.monarchinitiative.exomiser.data.genome.model.Allele} objects from ESP with Hg38
@@ -48,35 +48,31 @@ public List<Allele> parseLine(String line) {
         if (line == null || line.startsWith(COMMENT_CHAR)) {
             return Collections.emptyList();
         }
-        String[] fields = line.split("\t");
+        FieldTokeniser fields = FieldTokeniser.tabDelimited().tokenise(line);
         //No, this isn't the most efficient way of doing this, but it saves writing a whole new parser
-        String hg38PosLine = createHg38PosLine(fields);
+        String hg38PosLine = createHg38PosLine(line, fields);
 
         return espAlleleParser.parseLine(hg38PosLine);
     }
 
-    private String createHg38PosLine(String[] fields) {
+    private String createHg38PosLine(String line, FieldTokeniser fields) {
         //##INFO=<ID=GRCh38_POSITION,Number=.,Type=String,Description="GRCh38 chromosomal postion liftover from the original GRCh37 chromosomal position.
         // A value of -1 means the GRCh37 position can not be mapped to the GRCh38 build.">
-        String hg38ChrPos = parseHg38PositionFromInfoField(fields[7]);
+        String hg38ChrPos = parseHg38PositionFromInfoField(fields.getString(7));
 
         if (hg38ChrPos.equals(UNMAPPABLE_POS)) {
-            logger.debug("Position not mapped to Hg38: {} {} {} {} {} {}", fields[0], fields[1], fields[2], fields[3], fields[4], fields[7]);
+            logger.debug("Position not mapped to Hg38: {} {} {} {} {} {}", fields.get(0), fields.get(1), fields.get(2), fields.get(3), fields.get(4), fields.get(7));
             return COMMENT_CHAR;
         }
 
-        //GRCh38_POSITION=17:156203
-        String[] chrPos = hg38ChrPos.split(":");
-
-        StringJoiner stringJoiner = new StringJoiner("\t");
-        stringJoiner.add(chrPos[0]);
-        stringJoiner.add(chrPos[1]);
-
-        for (int i = 2; i < fields.length; i++) {
-            stringJoiner.add(fields[i]);
-        }
-
-        return stringJoiner.toString();
+        //GRCh38_POSITION=17:156203 replaces the first two columns, the remainder of the line is copied verbatim
+        int colon = hg38ChrPos.indexOf(':');
+        return new StringBuilder(line.length() + hg38ChrPos.length())
+                .append(hg38ChrPos, 0, colon)
+                .append('\t')
+                .append(hg38ChrPos, colon + 1, hg38ChrPos.length())
+                .append(line, fields.fieldEnd(1), line.length())
+                .toString();
     }
 
     private String parseHg38PositionFromInfoField(String info) {
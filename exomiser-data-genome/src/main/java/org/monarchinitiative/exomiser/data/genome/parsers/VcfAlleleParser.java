@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.data.genome.parsers;
 
+import org.monarchinitiative.exomiser.core.genome.FieldTokeniser;
 import org.monarchinitiative.exomiser.core.model.AllelePosition;
 import org.monarchinitiative.exomiser.data.genome.model.Allele;
 import org.slf4j.Logger;
@@ -41,13 +42,14 @@ public List<Allele> parseLine(String line) {
             // comment line.
             return Collections.emptyList();
         }
-        String[] fields = line.split("\t");
+        // the default newInstance() shares this parser between threads, so each line gets its own tokeniser
+        FieldTokeniser fields = FieldTokeniser.tabDelimited().tokenise(line);
         List<Allele> alleles = parseAlleles(fields);
 
         if (hasNoInfoField(fields) || alleles.isEmpty()) {
             return alleles;
         }
-        String info = fields[7];
+        String info = fields.getString(7);
 
         try {
             return parseInfoField(alleles, info);
@@ -58,26 +60,26 @@ public List<Allele> parseLine(String line) {
         return alleles;
     }
 
-    private boolean hasNoInfoField(String[] fields) {
-        return fields.length <= 7;
+    private boolean hasNoInfoField(FieldTokeniser fields) {
+        return fields.size() <= 7 || fields.fieldLength(7) == 0;
     }
 
     abstract List<Allele> parseInfoField(List<Allele> alleles, String info);
 
-    private List<Allele> parseAlleles(String[] fields) {
+    private List<Allele> parseAlleles(FieldTokeniser fields) {
 
-        byte chr = ChromosomeParser.parseChr(fields[0]);
-        if (chr == 0 || !unfilteredOrPassed(fields[6])) {
+        byte chr = ChromosomeParser.parseChr(fields.getString(0));
+        if (chr == 0 || !unfilteredOrPassed(fields)) {
             return Collections.emptyList();
         }
 
-        int pos = Integer.parseInt(fields[1]);
+        int pos = fields.getInt(1);
         //A dbSNP rsID such as rs101432848. In rare cases may be multiple e.g., rs200118651;rs202059104
-        String rsId = RsIdParser.parseRsId(fields[2]);
+        String rsId = RsIdParser.parseRsId(fields.getString(2));
         //Uppercasing shouldn't be necessary acccording to the VCF standard,
         //but occasionally one sees VCF files with lower case for part of the
         //sequences, e.g., to show indels.
-        String ref = fields[3].toUpperCase();
+        String ref = fields.getString(3).toUpperCase();
 
         //dbSNP has introduced the concept of multiple minor alleles on the
         //same VCF line with their frequencies reported in same order in the
@@ -85,7 +87,7 @@ private List<Allele> parseAlleles(String[] fields) {
         //and move the dbSNP freq parsing to here. Not ideal as ESP processing
         //also goes through this method but does not use the CAF field so
         //should be skipped
-        String[] alts = fields[4].toUpperCase().split(",");
+        String[] alts = fields.getString(4).toUpperCase().split(",");
 
         List<Allele> alleles = new ArrayList<>();
         for (int i = 0; i < alts.length; i++) {
@@ -96,8 +98,8 @@ private List<Allele> parseAlleles(String[] fields) {
         return alleles;
     }
 
-    private boolean unfilteredOrPassed(String passField) {
-        return ".".equals(passField) || "PASS".equals(passField);
+    private boolean unfilteredOrPassed(FieldTokeniser fields) {
+        return fields.fieldEquals(6, ".") || fields.fieldEquals(6, "PASS");
     }
 
     private Allele makeAllele(byte chr, int pos, String ref, String alt) {
@@ -0,0 +1,116 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class BuildOptionsTest {
+
+    private static BuildOptions parse(String... args) {
+        return BuildOptions.parse(new DefaultApplicationArguments(args));
+    }
+
+    @Test
+    public void defaults() {
+        BuildOptions instance = parse("-hg19");
+        assertThat(instance.getParallelism(), equalTo(1));
+        assertThat(instance.getParserThreads(), equalTo(1));
+        assertThat(instance.isCheckpoint(), is(false));
+        assertThat(instance.isSortMerge(), is(false));
+        assertThat(instance.getCheckThreads(), equalTo(Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Test
+    public void parallelismImpliesSortMerge() {
+        BuildOptions instance = parse("-hg19", "--parallelism=4", "--parser-threads=2");
+        assertThat(instance.getParallelism(), equalTo(4));
+        assertThat(instance.getParserThreads(), equalTo(2));
+        assertThat(instance.isSortMerge(), is(true));
+    }
+
+    @Test
+    public void checkpointImpliesSortMerge() {
+        BuildOptions instance = parse("-hg19", "--checkpoint");
+        assertThat(instance.isCheckpoint(), is(true));
+        assertThat(instance.isSortMerge(), is(true));
+    }
+
+    @Test
+    public void checkThreads() {
+        BuildOptions instance = parse("-hg19", "--check-db=variants.mv.db", "--check-threads=3");
+        assertThat(instance.getCheckThreads(), equalTo(3));
+    }
+
+    @Test
+    public void throwsExceptionWhenIntegerOptionIsNotANumber() {
+        assertThrows(IllegalArgumentException.class, () -> parse("--parallelism=wibble"));
+    }
+
+    @Test
+    public void throwsExceptionWhenIntegerOptionIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> parse("--parallelism=0"));
+        assertThrows(IllegalArgumentException.class, () -> parse("--parser-threads=-1"));
+        assertThrows(IllegalArgumentException.class, () -> parse("--check-threads=0"));
+    }
+
+    @Test
+    public void throwsExceptionWhenIntegerOptionHasNoValue() {
+        assertThrows(IllegalArgumentException.class, () -> parse("--parser-threads"));
+    }
+
+    @Test
+    public void throwsExceptionWhenUpdateHasNoExistingDatabase() {
+        assertThrows(IllegalArgumentException.class, () -> parse("--update=hg19.dbsnp"));
+    }
+
+    @Test
+    public void throwsExceptionWhenConvertTranscriptsHasNoOutputPath() {
+        assertThrows(IllegalArgumentException.class, () -> parse("--convert-transcripts=hg19_transcripts_ensembl.ser"));
+    }
+
+    @Test
+    public void findAlleleResource() {
+        AlleleResource dbSnp = new AlleleResource("hg19.dbsnp", null, null);
+        AlleleResource clinVar = new AlleleResource("hg19.clinvar", null, null);
+        List<AlleleResource> alleleResources = ImmutableList.of(dbSnp, clinVar);
+
+        assertThat(BuildOptions.findAlleleResource(alleleResources, "hg19.clinvar"), equalTo(clinVar));
+    }
+
+    @Test
+    public void findAlleleResourceThrowsExceptionForUnknownResource() {
+        List<AlleleResource> alleleResources = ImmutableList.of(new AlleleResource("hg19.dbsnp", null, null));
+        assertThrows(IllegalArgumentException.class, () -> BuildOptions.findAlleleResource(alleleResources, "hg19.wibble"));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.monarchinitiative.exomiser.core.genome.dao.GenomeIntervalFile;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature.FeatureType;
+import org.monarchinitiative.exomiser.core.model.TopologicalDomain;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class GenomeIntervalFileWriteRunnerTest {
+
+    private static final String BUILD_STRING = "1811_hg19";
+
+    private static final ImmutableList<RegulatoryFeature> REGULATORY_FEATURES = ImmutableList.of(
+            new RegulatoryFeature(1, 1000, 2000, FeatureType.FANTOM_PERMISSIVE),
+            new RegulatoryFeature(1, 3000, 4000, FeatureType.ENHANCER),
+            new RegulatoryFeature(2, 5000, 6000, FeatureType.PROMOTER)
+    );
+
+    private static final ImmutableList<TopologicalDomain> TADS = ImmutableList.of(
+            new TopologicalDomain(1, 770137, 1250137, ImmutableMap.of("ISG15", 9636, "TNFRSF4", 7293)),
+            new TopologicalDomain(2, 10000, 20000, ImmutableMap.of("GENE2", 2222))
+    );
+
+    /**
+     * Builds a genome database from the minimal import files, writing the genome intervals file.
+     */
+    private Path buildGenomeDatabase(Path tempDir) throws IOException {
+        Path dataPath = Files.createDirectory(tempDir.resolve("data"));
+        Files.write(dataPath.resolve("tad.pg"), ImmutableList.of(
+                "1|770137|1250137|9636|ISG15",
+                "1|770137|1250137|7293|TNFRSF4",
+                "2|10000|20000|2222|GENE2"
+        ));
+        Files.write(dataPath.resolve("ensembl_enhancers.pg"), ImmutableList.of(
+                "1|3000|4000|Enhancer",
+                "2|5000|6000|Promoter",
+                "2|7000|8000|Wibble"
+        ));
+        Files.write(dataPath.resolve("fantom_enhancers.pg"), ImmutableList.of(
+                "1|1000|2000|FANTOM permissive"
+        ));
+        Path outPath = Files.createDirectory(tempDir.resolve("out"));
+        GenomeDatabaseBuildRunner genomeDatabaseBuildRunner = new GenomeDatabaseBuildRunner(BUILD_STRING, dataPath, outPath);
+        genomeDatabaseBuildRunner.run();
+        return outPath;
+    }
+
+    private void assertContainsTestIntervals(Path genomeIntervalsPath) {
+        GenomeIntervalFile genomeIntervalFile = GenomeIntervalFile.load(genomeIntervalsPath);
+        assertThat(genomeIntervalFile.getRegulatoryFeatures(), equalTo(REGULATORY_FEATURES));
+        assertThat(genomeIntervalFile.getTopologicallyAssociatedDomains(), equalTo(TADS));
+    }
+
+    @Test
+    public void genomeDatabaseBuildWritesGenomeIntervals(@TempDir Path tempDir) throws Exception {
+        Path outPath = buildGenomeDatabase(tempDir);
+
+        assertThat(Files.exists(outPath.resolve(BUILD_STRING + "_genome.h2.db")), equalTo(true));
+        assertContainsTestIntervals(outPath.resolve(BUILD_STRING + "_genome_intervals.bin"));
+    }
+
+    @Test
+    public void writesGenomeIntervalsFromExistingDatabase(@TempDir Path tempDir) throws Exception {
+        Path outPath = buildGenomeDatabase(tempDir);
+        Path genomeIntervalsPath = tempDir.resolve("intervals.bin");
+
+        GenomeIntervalFileWriteRunner instance = new GenomeIntervalFileWriteRunner(outPath.resolve(BUILD_STRING + "_genome"), genomeIntervalsPath);
+        instance.run();
+
+        assertContainsTestIntervals(genomeIntervalsPath);
+    }
+
+    @Test
+    public void buildOptionWritesGenomeIntervalsFromExistingDatabase(@TempDir Path tempDir) throws Exception {
+        Path outPath = buildGenomeDatabase(tempDir);
+        Path genomeIntervalsPath = outPath.resolve(BUILD_STRING + "_genome_intervals.bin");
+        Files.delete(genomeIntervalsPath);
+
+        String[] args = {"-hg19", "--genome-intervals=" + outPath.resolve(BUILD_STRING + "_genome.h2.db")};
+        BuildOptions buildOptions = BuildOptions.parse(new DefaultApplicationArguments(args));
+        buildOptions.runBuild(outPath, BUILD_STRING, ImmutableList.of());
+
+        assertContainsTestIntervals(genomeIntervalsPath);
+    }
+
+    @Test
+    public void throwsExceptionWhenDatabaseDoesNotExist(@TempDir Path tempDir) {
+        GenomeIntervalFileWriteRunner instance = new GenomeIntervalFileWriteRunner(tempDir.resolve("wibble_genome.h2.db"), tempDir.resolve("intervals.bin"));
+        assertThrows(IllegalArgumentException.class, instance::run);
+        assertThat(Files.exists(tempDir.resolve("intervals.bin")), equalTo(false));
+    }
+}
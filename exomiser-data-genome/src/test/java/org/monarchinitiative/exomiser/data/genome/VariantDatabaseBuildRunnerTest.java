@@ -0,0 +1,68 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class VariantDatabaseBuildRunnerTest {
+
+    private static VariantDatabaseBuildRunner.Builder builder() {
+        return VariantDatabaseBuildRunner.builder(Paths.get("target"), "1811_hg19", ImmutableList.of());
+    }
+
+    @Test
+    public void builderDefaults() {
+        builder().build();
+    }
+
+    @Test
+    public void builderSortMergeWithCheckpoint() {
+        builder().sortMerge(true).parallelism(4).parserThreads(2).checkpoint(true).build();
+    }
+
+    @Test
+    public void builderThrowsExceptionForCheckpointWithoutSortMerge() {
+        assertThrows(IllegalArgumentException.class, () -> builder().checkpoint(true).build());
+    }
+
+    @Test
+    public void builderThrowsExceptionForNonPositiveParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> builder().parallelism(0));
+    }
+
+    @Test
+    public void builderThrowsExceptionForNonPositiveParserThreads() {
+        assertThrows(IllegalArgumentException.class, () -> builder().parserThreads(-1));
+    }
+
+    @Test
+    public void builderThrowsExceptionForNullBuildPath() {
+        assertThrows(NullPointerException.class, () -> VariantDatabaseBuildRunner.builder(null, "1811_hg19", ImmutableList.of()));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.model.Allele;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleProperty;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class AlleleStoreCompactorTest {
+
+    @Test
+    public void compactCopiesAllAllelesInKeyOrder(@TempDir Path tempDir) {
+        Path sourcePath = tempDir.resolve("source.mv.db");
+        MVStore sourceStore = new MVStore.Builder().fileName(sourcePath.toString()).open();
+        MvStoreAlleleIndexer indexer = new MvStoreAlleleIndexer(sourceStore);
+        // write randomly ordered alleles in several commits so that the source has many partly-filled chunks
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            Allele allele = new Allele(1 + random.nextInt(22), 1 + random.nextInt(1000000), "A", "G");
+            allele.addValue(AlleleProperty.KG, random.nextFloat());
+            indexer.writeAllele(allele);
+            if (i % 500 == 0) {
+                sourceStore.commit();
+            }
+        }
+        MVMap<AlleleKey, AlleleProperties> sourceMap = MvStoreUtil.openAlleleMVMap(sourceStore);
+        Map<AlleleKey, AlleleProperties> expected = new LinkedHashMap<>(sourceMap);
+
+        Path targetPath = tempDir.resolve("target.mv.db");
+        MVStore targetStore = new MVStore.Builder().fileName(targetPath.toString()).compress().open();
+        long copied = AlleleStoreCompactor.compact(sourceMap, targetStore);
+        targetStore.close();
+        sourceStore.close();
+
+        assertThat(copied, equalTo((long) expected.size()));
+
+        MVStore compactedStore = new MVStore.Builder().fileName(targetPath.toString()).readOnly().open();
+        MVMap<AlleleKey, AlleleProperties> compactedMap = MvStoreUtil.openAlleleMVMap(compactedStore);
+        assertThat(new LinkedHashMap<>(compactedMap), equalTo(expected));
+        assertThat(new ArrayList<>(compactedMap.keySet()), equalTo(new ArrayList<>(expected.keySet())));
+        assertThat(new AlleleStoreValidator(2).validate(compactedMap).isValid(), is(true));
+        compactedStore.close();
+    }
+
+    @Test
+    public void compactEmptyMap(@TempDir Path tempDir) {
+        MVStore sourceStore = new MVStore.Builder().open();
+        MVMap<AlleleKey, AlleleProperties> sourceMap = MvStoreUtil.openAlleleMVMap(sourceStore);
+
+        MVStore targetStore = new MVStore.Builder().fileName(tempDir.resolve("target.mv.db").toString()).open();
+        long copied = AlleleStoreCompactor.compact(sourceMap, targetStore);
+
+        assertThat(copied, equalTo(0L));
+        assertThat(MvStoreUtil.openAlleleMVMap(targetStore).isEmpty(), is(true));
+        targetStore.close();
+    }
+}
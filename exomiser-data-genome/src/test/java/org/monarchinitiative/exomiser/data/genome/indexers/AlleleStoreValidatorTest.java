@@ -0,0 +1,183 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.WriteBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AlleleKeyDataType;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AllelePropertiesDataType;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.ClinVarData;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.model.Allele;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleProperty;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class AlleleStoreValidatorTest {
+
+    private static List<Allele> alleles(int numAlleles) {
+        List<Allele> alleles = new ArrayList<>();
+        for (int i = 1; i <= numAlleles; i++) {
+            Allele allele = new Allele(1 + i % 3, i * 100, "A", "T");
+            if (i % 2 == 0) {
+                allele.setRsId("rs" + i);
+            }
+            allele.addValue(AlleleProperty.KG, 0.1f);
+            if (i % 5 == 0) {
+                allele.addValue(AlleleProperty.TOPMED, 0.2f);
+                allele.setClinVarData(ClinVarData.builder().alleleId(String.valueOf(i)).primaryInterpretation(ClinVarData.ClinSig.BENIGN).build());
+            }
+            alleles.add(allele);
+        }
+        return alleles;
+    }
+
+    private MVMap<AlleleKey, AlleleProperties> index(List<Allele> alleles) {
+        MVStore mvStore = new MVStore.Builder().open();
+        MvStoreAlleleIndexer indexer = new MvStoreAlleleIndexer(mvStore);
+        alleles.forEach(indexer::writeAllele);
+        return MvStoreUtil.openAlleleMVMap(mvStore);
+    }
+
+    @Test
+    public void validStore() {
+        MVMap<AlleleKey, AlleleProperties> map = index(alleles(100));
+
+        AlleleStoreReport report = new AlleleStoreValidator(4).validate(map);
+
+        assertThat(report.isValid(), is(true));
+        assertThat(report.getExpectedAlleleCount(), equalTo(100L));
+        assertThat(report.getAlleleCount(), equalTo(100L));
+        assertThat(report.getRangeCount(), equalTo(16));
+        assertThat(report.getRsIdCount(), equalTo(50L));
+        assertThat(report.getClinVarCount(), equalTo(20L));
+        assertThat(report.getEmptyCount(), equalTo(0L));
+        assertThat(report.getPropertyCounts().get("KG"), equalTo(100L));
+        assertThat(report.getPropertyCounts().get("TOPMED"), equalTo(20L));
+        assertThat(report.getErrors().isEmpty(), is(true));
+    }
+
+    @Test
+    public void resultsIndependentOfNumberOfThreads() {
+        MVMap<AlleleKey, AlleleProperties> map = index(alleles(1000));
+
+        AlleleStoreReport singleThreaded = new AlleleStoreValidator(1).validate(map);
+        AlleleStoreReport multiThreaded = new AlleleStoreValidator(8).validate(map);
+
+        assertThat(multiThreaded.isValid(), is(true));
+        assertThat(multiThreaded.getAlleleCount(), equalTo(singleThreaded.getAlleleCount()));
+        assertThat(multiThreaded.getRsIdCount(), equalTo(singleThreaded.getRsIdCount()));
+        assertThat(multiThreaded.getClinVarCount(), equalTo(singleThreaded.getClinVarCount()));
+        assertThat(multiThreaded.getPropertyCounts(), equalTo(singleThreaded.getPropertyCounts()));
+    }
+
+    @Test
+    public void emptyStore() {
+        MVMap<AlleleKey, AlleleProperties> map = index(new ArrayList<>());
+
+        AlleleStoreReport report = new AlleleStoreValidator(4).validate(map);
+
+        assertThat(report.isValid(), is(true));
+        assertThat(report.getAlleleCount(), equalTo(0L));
+        assertThat(report.getRangeCount(), equalTo(0));
+    }
+
+    @Test
+    public void countsAllelesWithoutData() {
+        MVMap<AlleleKey, AlleleProperties> map = index(alleles(10));
+        map.put(AlleleConverter.toAlleleKey(new Allele(5, 12345, "A", "C")), AlleleProperties.getDefaultInstance());
+
+        AlleleStoreReport report = new AlleleStoreValidator(2).validate(map);
+
+        assertThat(report.isValid(), is(true));
+        assertThat(report.getEmptyCount(), equalTo(1L));
+    }
+
+    @Test
+    public void keysOutOfOrder(@TempDir Path tempDir) {
+        Path storePath = tempDir.resolve("out_of_order.mv.db");
+        // write the keys in reverse order
+        AlleleKeyDataType reverseKeyDataType = new AlleleKeyDataType() {
+            @Override
+            public int compare(Object a, Object b) {
+                return super.compare(b, a);
+            }
+        };
+        MVStore writeStore = new MVStore.Builder().fileName(storePath.toString()).open();
+        MVMap<AlleleKey, AlleleProperties> reversedMap = writeStore.openMap("alleles", new MVMap.Builder<AlleleKey, AlleleProperties>()
+                .keyType(reverseKeyDataType)
+                .valueType(AllelePropertiesDataType.INSTANCE));
+        alleles(10).forEach(allele -> reversedMap.put(AlleleConverter.toAlleleKey(allele), AlleleConverter.toAlleleProperties(allele)));
+        writeStore.close();
+
+        MVStore readStore = new MVStore.Builder().fileName(storePath.toString()).readOnly().open();
+        AlleleStoreReport report = new AlleleStoreValidator(1).validate(MvStoreUtil.openAlleleMVMap(readStore));
+        readStore.close();
+
+        assertThat(report.isValid(), is(false));
+        assertThat(report.getOrderingErrorCount(), equalTo(9L));
+    }
+
+    @Test
+    public void undecodableValues(@TempDir Path tempDir) {
+        Path storePath = tempDir.resolve("undecodable.mv.db");
+        // a length-delimited field claiming more bytes than are present
+        AllelePropertiesDataType truncatedValueDataType = new AllelePropertiesDataType() {
+            @Override
+            public void write(WriteBuffer buff, Object obj) {
+                byte[] data = {0x12, 0x7F, 0x01};
+                buff.putVarInt(data.length).put(data);
+            }
+        };
+        MVStore writeStore = new MVStore.Builder().fileName(storePath.toString()).open();
+        MVMap<AlleleKey, AlleleProperties> brokenMap = writeStore.openMap("alleles", new MVMap.Builder<AlleleKey, AlleleProperties>()
+                .keyType(AlleleKeyDataType.INSTANCE)
+                .valueType(truncatedValueDataType));
+        // enough alleles for the map to have several leaf pages, otherwise the values are read when the map is opened
+        alleles(2000).forEach(allele -> brokenMap.put(AlleleConverter.toAlleleKey(allele), AlleleConverter.toAlleleProperties(allele)));
+        writeStore.close();
+
+        MVStore readStore = new MVStore.Builder().fileName(storePath.toString()).readOnly().open();
+        AlleleStoreReport report = new AlleleStoreValidator(1).validate(MvStoreUtil.openAlleleMVMap(readStore));
+        readStore.close();
+
+        assertThat(report.isValid(), is(false));
+        // every leaf page is unreadable
+        assertThat(report.getDecodingErrorCount(), equalTo((long) report.getRangeCount()));
+        assertThat(report.getAlleleCount(), equalTo(0L));
+    }
+}
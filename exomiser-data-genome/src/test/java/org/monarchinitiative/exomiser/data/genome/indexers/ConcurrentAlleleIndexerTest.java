@@ -0,0 +1,241 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.archive.AlleleArchive;
+import org.monarchinitiative.exomiser.data.genome.archive.TabixAlleleArchive;
+import org.monarchinitiative.exomiser.data.genome.model.Allele;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleProperty;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
+import org.monarchinitiative.exomiser.data.genome.parsers.AlleleParser;
+import org.monarchinitiative.exomiser.data.genome.parsers.DbSnpAlleleParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class ConcurrentAlleleIndexerTest {
+
+    private final AlleleArchive dbsnpArchive = new TabixAlleleArchive(Paths.get("src/test/resources/test_first_ten_dbsnp.vcf.gz"));
+
+    private List<AlleleResource> testResources() {
+        AlleleResource dbSnpResource = new AlleleResource("dbsnp", dbsnpArchive, new DbSnpAlleleParser());
+        // a second resource for the same alleles, adding a new property and a different rsId which should be ignored
+        DbSnpAlleleParser dbSnpAlleleParser = new DbSnpAlleleParser();
+        AlleleParser overlappingParser = line -> {
+            List<Allele> alleles = dbSnpAlleleParser.parseLine(line);
+            for (Allele allele : alleles) {
+                allele.setRsId("rs0");
+                allele.addValue(AlleleProperty.KG, 0.5f);
+            }
+            return alleles;
+        };
+        AlleleResource overlappingResource = new AlleleResource("overlapping", dbsnpArchive, overlappingParser);
+        return ImmutableList.of(dbSnpResource, overlappingResource);
+    }
+
+    private Map<AlleleKey, AlleleProperties> indexSequentially(List<AlleleResource> alleleResources) {
+        MVStore mvStore = new MVStore.Builder().open();
+        MvStoreAlleleIndexer mvStoreAlleleIndexer = new MvStoreAlleleIndexer(mvStore);
+        alleleResources.forEach(mvStoreAlleleIndexer::index);
+        return new LinkedHashMap<>(MvStoreUtil.openAlleleMVMap(mvStore));
+    }
+
+    @Test
+    public void throwsExceptionWithNonPositiveParallelism(@TempDir Path tempDir) {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentAlleleIndexer(tempDir, 10, 0));
+    }
+
+    @Test
+    public void concurrentIndexingMatchesSequentialIndexing(@TempDir Path tempDir) throws Exception {
+        List<AlleleResource> alleleResources = testResources();
+        Map<AlleleKey, AlleleProperties> expected = indexSequentially(alleleResources);
+
+        ConcurrentAlleleIndexer instance = new ConcurrentAlleleIndexer(tempDir, 3, 4);
+        Map<AlleleKey, AlleleProperties> results = new LinkedHashMap<>();
+        long written = instance.index(alleleResources, results);
+
+        assertThat(written, equalTo((long) expected.size()));
+        assertThat(results, equalTo(expected));
+        assertThat(new ArrayList<>(results.keySet()), equalTo(new ArrayList<>(expected.keySet())));
+        results.values().forEach(properties -> assertThat(properties.getRsId().equals("rs0"), equalTo(false)));
+    }
+
+    @Test
+    public void removesRunFilesOnCompletion(@TempDir Path tempDir) throws Exception {
+        ConcurrentAlleleIndexer instance = new ConcurrentAlleleIndexer(tempDir, 1, 2);
+        instance.index(testResources(), new LinkedHashMap<>());
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            assertThat(files.filter(Files::isRegularFile).collect(toList()).size(), equalTo(0));
+        }
+    }
+
+    @Test
+    public void removesRunFilesOfCompletedTasksWhenAnotherTaskFails(@TempDir Path tempDir) throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        AlleleParser failingParser = line -> {
+            failed.countDown();
+            throw new IllegalStateException("Unable to parse line");
+        };
+        // this task is still running when the failure is reported, so it finishes after the indexer has given up
+        DbSnpAlleleParser dbSnpAlleleParser = new DbSnpAlleleParser();
+        AtomicInteger slowParserLines = new AtomicInteger();
+        AlleleParser slowParser = line -> {
+            Uninterruptibles.awaitUninterruptibly(failed);
+            Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+            if (!line.startsWith("#")) {
+                slowParserLines.incrementAndGet();
+            }
+            return dbSnpAlleleParser.parseLine(line);
+        };
+        List<AlleleResource> alleleResources = ImmutableList.of(
+                new AlleleResource("failing", dbsnpArchive, failingParser),
+                new AlleleResource("slow", dbsnpArchive, slowParser)
+        );
+
+        ConcurrentAlleleIndexer instance = new ConcurrentAlleleIndexer(tempDir, 1, 2);
+        assertThrows(IllegalStateException.class, () -> instance.index(alleleResources, new LinkedHashMap<>()));
+        // the running task was allowed to finish before its runs were deleted
+        assertThat(slowParserLines.get(), equalTo(10));
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            assertThat(files.filter(Files::isRegularFile).collect(toList()).size(), equalTo(0));
+        }
+    }
+
+    private Map<AlleleKey, AlleleProperties> indexWithCheckpoints(Path tempDir, Path checkpointDir, List<AlleleResource> alleleResources) {
+        ConcurrentAlleleIndexer instance = new ConcurrentAlleleIndexer(tempDir.resolve("runs"), 3, 2);
+        instance.setCheckpointDirectory(checkpointDir);
+        Map<AlleleKey, AlleleProperties> results = new LinkedHashMap<>();
+        instance.index(alleleResources, results);
+        return results;
+    }
+
+    private Map<Path, FileTime> listFiles(Path directory) throws IOException {
+        Map<Path, FileTime> files = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.filter(Files::isRegularFile).sorted().collect(toList())) {
+                files.put(path, Files.getLastModifiedTime(path));
+            }
+        }
+        return files;
+    }
+
+    @Test
+    public void checkpointedIndexingMatchesSequentialIndexing(@TempDir Path tempDir) throws Exception {
+        List<AlleleResource> alleleResources = testResources();
+        Map<AlleleKey, AlleleProperties> expected = indexSequentially(alleleResources);
+
+        Path checkpointDir = tempDir.resolve("checkpoints");
+        Map<AlleleKey, AlleleProperties> results = indexWithCheckpoints(tempDir, checkpointDir, alleleResources);
+
+        assertThat(results, equalTo(expected));
+        assertThat(new ArrayList<>(results.keySet()), equalTo(new ArrayList<>(expected.keySet())));
+        assertThat(Files.isRegularFile(checkpointDir.resolve("dbsnp/000").resolve(IndexCheckpoints.MANIFEST_FILE_NAME)), equalTo(true));
+        assertThat(Files.isRegularFile(checkpointDir.resolve("overlapping/000").resolve(IndexCheckpoints.MANIFEST_FILE_NAME)), equalTo(true));
+    }
+
+    @Test
+    public void restartReusesCheckpointsWithUnchangedInputs(@TempDir Path tempDir) throws Exception {
+        List<AlleleResource> alleleResources = testResources();
+        Path checkpointDir = tempDir.resolve("checkpoints");
+        Map<AlleleKey, AlleleProperties> firstResults = indexWithCheckpoints(tempDir, checkpointDir, alleleResources);
+        Map<Path, FileTime> checkpointFiles = listFiles(checkpointDir);
+
+        Map<AlleleKey, AlleleProperties> secondResults = indexWithCheckpoints(tempDir, checkpointDir, alleleResources);
+
+        assertThat(secondResults, equalTo(firstResults));
+        // nothing was re-indexed
+        assertThat(listFiles(checkpointDir), equalTo(checkpointFiles));
+    }
+
+    @Test
+    public void restartReindexesIncompleteSegment(@TempDir Path tempDir) throws Exception {
+        List<AlleleResource> alleleResources = testResources();
+        Path checkpointDir = tempDir.resolve("checkpoints");
+        Map<AlleleKey, AlleleProperties> firstResults = indexWithCheckpoints(tempDir, checkpointDir, alleleResources);
+        // simulate a failure before the segment was completed
+        Files.delete(checkpointDir.resolve("overlapping/000").resolve(IndexCheckpoints.MANIFEST_FILE_NAME));
+
+        Map<AlleleKey, AlleleProperties> secondResults = indexWithCheckpoints(tempDir, checkpointDir, alleleResources);
+
+        assertThat(secondResults, equalTo(firstResults));
+        assertThat(Files.isRegularFile(checkpointDir.resolve("overlapping/000").resolve(IndexCheckpoints.MANIFEST_FILE_NAME)), equalTo(true));
+    }
+
+    @Test
+    public void unreadableInputIsNotSavedAsCheckpoint(@TempDir Path tempDir) throws Exception {
+        Path archivePath = tempDir.resolve("dbsnp.vcf.gz");
+        byte[] archiveBytes = Files.readAllBytes(Paths.get("src/test/resources/test_first_ten_dbsnp.vcf.gz"));
+        Files.write(archivePath, Arrays.copyOf(archiveBytes, archiveBytes.length / 2));
+        List<AlleleResource> alleleResources = ImmutableList.of(new AlleleResource("dbsnp", new TabixAlleleArchive(archivePath), new DbSnpAlleleParser()));
+        Path checkpointDir = tempDir.resolve("checkpoints");
+
+        assertThrows(IllegalStateException.class, () -> indexWithCheckpoints(tempDir, checkpointDir, alleleResources));
+        assertThat(Files.exists(checkpointDir.resolve("dbsnp/000").resolve(IndexCheckpoints.MANIFEST_FILE_NAME)), equalTo(false));
+    }
+
+    @Test
+    public void restartReindexesChangedInputs(@TempDir Path tempDir) throws Exception {
+        Path archivePath = tempDir.resolve("dbsnp.vcf.gz");
+        Files.copy(Paths.get("src/test/resources/test_first_ten_dbsnp.vcf.gz"), archivePath);
+        List<AlleleResource> alleleResources = ImmutableList.of(new AlleleResource("dbsnp", new TabixAlleleArchive(archivePath), new DbSnpAlleleParser()));
+        Path checkpointDir = tempDir.resolve("checkpoints");
+
+        Map<AlleleKey, AlleleProperties> firstResults = indexWithCheckpoints(tempDir, checkpointDir, alleleResources);
+        assertThat(firstResults.isEmpty(), equalTo(false));
+
+        Files.copy(Paths.get("src/test/resources/test_empty.vcf.gz"), archivePath, StandardCopyOption.REPLACE_EXISTING);
+        Map<AlleleKey, AlleleProperties> secondResults = indexWithCheckpoints(tempDir, checkpointDir, alleleResources);
+
+        assertThat(secondResults.isEmpty(), equalTo(true));
+    }
+}
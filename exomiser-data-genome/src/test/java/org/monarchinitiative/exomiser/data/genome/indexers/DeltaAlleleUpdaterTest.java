@@ -0,0 +1,182 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.ClinVarData;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.model.Allele;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleProperty;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResourceFields;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class DeltaAlleleUpdaterTest {
+
+    private static Allele frequencyAllele(int chr, int pos, String ref, String alt, String rsId, float freq) {
+        Allele allele = new Allele(chr, pos, ref, alt);
+        allele.setRsId(rsId);
+        allele.addValue(AlleleProperty.KG, freq);
+        return allele;
+    }
+
+    private static Allele clinVarAllele(int chr, int pos, String ref, String alt, String rsId, ClinVarData.ClinSig clinSig) {
+        Allele allele = new Allele(chr, pos, ref, alt);
+        allele.setRsId(rsId);
+        allele.setClinVarData(ClinVarData.builder().alleleId(chr + "-" + pos).primaryInterpretation(clinSig).build());
+        return allele;
+    }
+
+    private MVMap<AlleleKey, AlleleProperties> index(List<Allele> alleles) {
+        MVStore mvStore = new MVStore.Builder().open();
+        MvStoreAlleleIndexer indexer = new MvStoreAlleleIndexer(mvStore);
+        alleles.forEach(indexer::writeAllele);
+        return MvStoreUtil.openAlleleMVMap(mvStore);
+    }
+
+    private Map<AlleleKey, AlleleProperties> update(Path tempDir, int maxRunSize, MVMap<AlleleKey, AlleleProperties> existing, List<Allele> release, String resourceName) {
+        SortMergeAlleleIndexer releaseIndexer = new SortMergeAlleleIndexer(tempDir, maxRunSize);
+        release.forEach(releaseIndexer::writeAllele);
+        Map<AlleleKey, AlleleProperties> results = new LinkedHashMap<>();
+        DeltaAlleleUpdater instance = new DeltaAlleleUpdater(tempDir, maxRunSize, 1);
+        instance.update(existing, releaseIndexer, AlleleResourceFields.forResource(resourceName), results);
+        releaseIndexer.close();
+        return results;
+    }
+
+    private final List<Allele> frequencyAlleles = Arrays.asList(
+            frequencyAllele(1, 12345, "A", "T", "rs12345", 0.1f),
+            frequencyAllele(1, 23456, "C", "G", "rs23456", 0.2f),
+            frequencyAllele(2, 12345, "G", "C", "", 0.3f),
+            frequencyAllele(3, 12345, "T", "A", "rs32345", 0.4f)
+    );
+
+    private final List<Allele> oldClinVarAlleles = Arrays.asList(
+            // shares key with a frequency allele and stays in the new release
+            clinVarAllele(1, 12345, "A", "T", "rs12345", ClinVarData.ClinSig.LIKELY_PATHOGENIC),
+            // only in ClinVar and is removed from the new release
+            clinVarAllele(1, 15000, "A", "AT", "", ClinVarData.ClinSig.PATHOGENIC),
+            // shares key with a frequency allele and is removed from the new release
+            clinVarAllele(2, 12345, "G", "C", "", ClinVarData.ClinSig.BENIGN)
+    );
+
+    private final List<Allele> newClinVarAlleles = Arrays.asList(
+            clinVarAllele(1, 12345, "A", "T", "rs12345", ClinVarData.ClinSig.PATHOGENIC),
+            // new allele only in ClinVar
+            clinVarAllele(1, 20000, "G", "T", "rs20000", ClinVarData.ClinSig.UNCERTAIN_SIGNIFICANCE),
+            // new ClinVar entry for an existing frequency allele
+            clinVarAllele(3, 12345, "T", "A", "", ClinVarData.ClinSig.BENIGN),
+            // new allele after all the existing ones
+            clinVarAllele(4, 12345, "T", "A", "", ClinVarData.ClinSig.PATHOGENIC)
+    );
+
+    private List<Allele> concat(List<Allele> first, List<Allele> second) {
+        List<Allele> alleles = new ArrayList<>(first);
+        alleles.addAll(second);
+        return alleles;
+    }
+
+    @Test
+    public void updateMatchesFullRebuild(@TempDir Path tempDir) {
+        MVMap<AlleleKey, AlleleProperties> existing = index(concat(frequencyAlleles, oldClinVarAlleles));
+        Map<AlleleKey, AlleleProperties> expected = new LinkedHashMap<>(index(concat(frequencyAlleles, newClinVarAlleles)));
+
+        Map<AlleleKey, AlleleProperties> results = update(tempDir, 100, existing, newClinVarAlleles, "hg19.clinvar");
+
+        assertThat(results, equalTo(expected));
+        // written in key order
+        assertThat(new ArrayList<>(results.keySet()), equalTo(new ArrayList<>(expected.keySet())));
+    }
+
+    @Test
+    public void updateWithMultipleRunsMatchesFullRebuild(@TempDir Path tempDir) {
+        MVMap<AlleleKey, AlleleProperties> existing = index(concat(frequencyAlleles, oldClinVarAlleles));
+        Map<AlleleKey, AlleleProperties> expected = new LinkedHashMap<>(index(concat(frequencyAlleles, newClinVarAlleles)));
+
+        Map<AlleleKey, AlleleProperties> results = update(tempDir, 1, existing, newClinVarAlleles, "hg19.clinvar");
+
+        assertThat(results, equalTo(expected));
+        assertThat(new ArrayList<>(results.keySet()), equalTo(new ArrayList<>(expected.keySet())));
+    }
+
+    @Test
+    public void updateDoesNotModifyExisting(@TempDir Path tempDir) {
+        MVMap<AlleleKey, AlleleProperties> existing = index(concat(frequencyAlleles, oldClinVarAlleles));
+        Map<AlleleKey, AlleleProperties> original = new LinkedHashMap<>(existing);
+
+        update(tempDir, 100, existing, newClinVarAlleles, "hg19.clinvar");
+
+        assertThat(new LinkedHashMap<>(existing), equalTo(original));
+    }
+
+    @Test
+    public void updateFrequencyResourceRetainsOtherData(@TempDir Path tempDir) {
+        MVMap<AlleleKey, AlleleProperties> existing = index(concat(frequencyAlleles, oldClinVarAlleles));
+        List<Allele> newFrequencyAlleles = Arrays.asList(
+                frequencyAllele(1, 12345, "A", "T", "rs12345", 0.15f),
+                frequencyAllele(3, 12345, "T", "A", "rs32345", 0.45f)
+        );
+
+        Map<AlleleKey, AlleleProperties> results = update(tempDir, 100, existing, newFrequencyAlleles, "hg19.dbsnp");
+
+        // 1-23456 is not in the new release so loses its KG frequency, but keeps the rsId as this is shared with other
+        // resources. 2-12345 loses its KG frequency but keeps the ClinVar data.
+        Allele rsIdOnlyAllele = new Allele(1, 23456, "C", "G");
+        rsIdOnlyAllele.setRsId("rs23456");
+        List<Allele> expectedAlleles = concat(oldClinVarAlleles, newFrequencyAlleles);
+        expectedAlleles.add(rsIdOnlyAllele);
+        Map<AlleleKey, AlleleProperties> expected = new LinkedHashMap<>(index(expectedAlleles));
+        assertThat(results, equalTo(expected));
+        // rsIds not owned by the resource are retained
+        AlleleKey key = AlleleConverter.toAlleleKey(new Allele(1, 12345, "A", "T"));
+        assertThat(results.get(key).getRsId(), equalTo("rs12345"));
+        assertThat(results.get(key).getPropertiesMap().get("KG"), equalTo(0.15f));
+        assertThat(results.get(key).getClinVar().getPrimaryInterpretation(), equalTo(existing.get(key).getClinVar().getPrimaryInterpretation()));
+    }
+
+    @Test
+    public void emptyReleaseRemovesAllResourceData(@TempDir Path tempDir) {
+        MVMap<AlleleKey, AlleleProperties> existing = index(concat(frequencyAlleles, oldClinVarAlleles));
+        Map<AlleleKey, AlleleProperties> expected = new LinkedHashMap<>(index(frequencyAlleles));
+
+        Map<AlleleKey, AlleleProperties> results = update(tempDir, 100, existing, new ArrayList<>(), "hg19.clinvar");
+
+        assertThat(results, equalTo(expected));
+    }
+}
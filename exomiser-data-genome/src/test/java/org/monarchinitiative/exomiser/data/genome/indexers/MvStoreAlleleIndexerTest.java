@@ -448,4 +448,22 @@ private AlleleProperties getAlleleProperties(MVMap<AlleleKey, AlleleProperties>
         logger.info("{}-{}-{}-{} {{} {}}", chr, pos, ref, alt, lastProperties.getRsId(), lastProperties.getPropertiesMap());
         return lastProperties;
     }
+
+    @Test
+    public void processWithParserThreadsMatchesSingleThread() throws Exception {
+        AlleleArchive dbsnpArchive = new TabixAlleleArchive(Paths.get("src/test/resources/test_first_ten_dbsnp.vcf.gz"));
+        AlleleResource dbSnpResource = new AlleleResource("test_first_ten_dbsnp", dbsnpArchive, new DbSnpAlleleParser());
+
+        MVStore expectedStore = newMvStore();
+        MvStoreAlleleIndexer expected = new MvStoreAlleleIndexer(expectedStore);
+        expected.index(dbSnpResource);
+
+        MVStore mvStore = newMvStore();
+        MvStoreAlleleIndexer instance = new MvStoreAlleleIndexer(mvStore);
+        instance.setParserThreads(4);
+        instance.index(dbSnpResource);
+
+        assertThat(instance.count(), equalTo(expected.count()));
+        assertThat(new HashMap<>(MvStoreUtil.openAlleleMVMap(mvStore)), equalTo(new HashMap<>(MvStoreUtil.openAlleleMVMap(expectedStore))));
+    }
 }
\ No newline at end of file
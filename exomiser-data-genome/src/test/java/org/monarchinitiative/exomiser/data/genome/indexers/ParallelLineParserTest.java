@@ -0,0 +1,145 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.data.genome.model.Allele;
+import org.monarchinitiative.exomiser.data.genome.parsers.AlleleParser;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class ParallelLineParserTest {
+
+    private static final AlleleParser POSITION_PARSER = line -> {
+        if (line.startsWith("#")) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(new Allele(1, Integer.parseInt(line), "A", "T"));
+    };
+
+    /**
+     * Stateful parser, similar to the DbNsfpAlleleParser, which requires a header line to be parsed before the data lines.
+     */
+    private static class ChrHeaderParser implements AlleleParser {
+
+        private int chr = -1;
+
+        @Override
+        public List<Allele> parseLine(String line) {
+            if (line.startsWith("#chr=")) {
+                chr = Integer.parseInt(line.substring(5));
+                return Collections.emptyList();
+            }
+            if (chr == -1) {
+                throw new IllegalStateException("Header not parsed");
+            }
+            return Collections.singletonList(new Allele(chr, Integer.parseInt(line), "A", "T"));
+        }
+
+        @Override
+        public AlleleParser newInstance() {
+            return new ChrHeaderParser();
+        }
+    }
+
+    private BufferedReader reader(String input) {
+        return new BufferedReader(new StringReader(input));
+    }
+
+    private List<Allele> parseSequentially(String input, AlleleParser alleleParser) {
+        List<Allele> alleles = new ArrayList<>();
+        reader(input).lines().forEach(line -> alleles.addAll(alleleParser.parseLine(line)));
+        return alleles;
+    }
+
+    private List<Allele> parseInParallel(String input, AlleleParser alleleParser, int numThreads) throws Exception {
+        List<Allele> alleles = new ArrayList<>();
+        new ParallelLineParser(numThreads).parse(reader(input), alleleParser, alleles::add);
+        return alleles;
+    }
+
+    private String positionLines(int start, int end) {
+        StringJoiner stringJoiner = new StringJoiner("\n", "", "\n");
+        for (int i = start; i < end; i++) {
+            stringJoiner.add(String.valueOf(i));
+        }
+        return stringJoiner.toString();
+    }
+
+    @Test
+    public void throwsExceptionWithNonPositiveNumThreads() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelLineParser(0));
+    }
+
+    @Test
+    public void emptyInput() throws Exception {
+        assertThat(parseInParallel("", POSITION_PARSER, 4), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    public void parsedAllelesAreInInputOrder() throws Exception {
+        String input = "#header\n" + positionLines(1, 55555);
+        List<Allele> expected = parseSequentially(input, POSITION_PARSER);
+        List<Allele> alleles = parseInParallel(input, POSITION_PARSER, 4);
+        assertThat(alleles.size(), equalTo(55554));
+        assertThat(alleles, equalTo(expected));
+    }
+
+    @Test
+    public void statefulParserHeadersAreReplayedToEachWorker() throws Exception {
+        String input = "#chr=1\n" + positionLines(1, 25000) + "#chr=2\n" + positionLines(1, 25000);
+        List<Allele> expected = parseSequentially(input, new ChrHeaderParser());
+        List<Allele> alleles = parseInParallel(input, new ChrHeaderParser(), 4);
+        assertThat(alleles, equalTo(expected));
+        assertThat(alleles.get(0).getChr(), equalTo(1));
+        assertThat(alleles.get(alleles.size() - 1).getChr(), equalTo(2));
+    }
+
+    @Test
+    public void consecutiveHeaderLinesAreAllReplayedToEachWorker() throws Exception {
+        String input = "#chr=1\n#chr=2\n#chr=3\n" + positionLines(1, 25000) + "#chr=5\n#chr=4\n" + positionLines(1, 25000);
+        List<Allele> expected = parseSequentially(input, new ChrHeaderParser());
+        List<Allele> alleles = parseInParallel(input, new ChrHeaderParser(), 4);
+        assertThat(alleles, equalTo(expected));
+        assertThat(alleles.get(0).getChr(), equalTo(3));
+        assertThat(alleles.get(alleles.size() - 1).getChr(), equalTo(4));
+    }
+
+    @Test
+    public void parserExceptionIsPropagated() {
+        AlleleParser failingParser = line -> {
+            throw new IllegalArgumentException("Bad line " + line);
+        };
+        assertThrows(IllegalStateException.class, () -> parseInParallel(positionLines(1, 10), failingParser, 2));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome.indexers;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.archive.AlleleArchive;
+import org.monarchinitiative.exomiser.data.genome.archive.TabixAlleleArchive;
+import org.monarchinitiative.exomiser.data.genome.model.Allele;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleProperty;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
+import org.monarchinitiative.exomiser.data.genome.parsers.DbSnpAlleleParser;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class SortMergeAlleleIndexerTest {
+
+    private List<Allele> testAlleles() {
+        List<Allele> alleles = new ArrayList<>();
+
+        Allele allele = new Allele(2, 12345, "A", "T");
+        allele.addValue(AlleleProperty.KG, 0.0023f);
+        alleles.add(allele);
+
+        Allele otherAllele = new Allele(1, 54321, "C", "G");
+        otherAllele.setRsId("rs54321");
+        alleles.add(otherAllele);
+
+        Allele dupAlleleRsId = new Allele(2, 12345, "A", "T");
+        dupAlleleRsId.setRsId("rs12345");
+        dupAlleleRsId.addValue(AlleleProperty.EXAC_AFR, 0.12f);
+        alleles.add(dupAlleleRsId);
+
+        Allele firstAllele = new Allele(1, 12345, "A", "T");
+        alleles.add(firstAllele);
+
+        Allele dupAlleleNewRsId = new Allele(2, 12345, "A", "T");
+        dupAlleleNewRsId.setRsId("rs99999");
+        dupAlleleNewRsId.addValue(AlleleProperty.KG, 0.5f);
+        alleles.add(dupAlleleNewRsId);
+
+        return alleles;
+    }
+
+    private Map<AlleleKey, AlleleProperties> writeToMvStoreIndexer(List<Allele> alleles) {
+        MVStore mvStore = new MVStore.Builder().open();
+        MvStoreAlleleIndexer mvStoreAlleleIndexer = new MvStoreAlleleIndexer(mvStore);
+        alleles.forEach(mvStoreAlleleIndexer::writeAllele);
+        return new LinkedHashMap<>(MvStoreUtil.openAlleleMVMap(mvStore));
+    }
+
+    private Map<AlleleKey, AlleleProperties> writeToSortMergeIndexer(Path tempDir, int maxRunSize, List<Allele> alleles) {
+        SortMergeAlleleIndexer instance = new SortMergeAlleleIndexer(tempDir, maxRunSize);
+        alleles.forEach(instance::writeAllele);
+        Map<AlleleKey, AlleleProperties> results = new LinkedHashMap<>();
+        instance.writeTo(results);
+        instance.close();
+        return results;
+    }
+
+    @Test
+    public void throwsExceptionWithNonPositiveRunSize(@TempDir Path tempDir) {
+        assertThrows(IllegalArgumentException.class, () -> new SortMergeAlleleIndexer(tempDir, 0));
+    }
+
+    @Test
+    public void countIsNumberOfAllelesWritten(@TempDir Path tempDir) {
+        SortMergeAlleleIndexer instance = new SortMergeAlleleIndexer(tempDir, 10);
+        testAlleles().forEach(instance::writeAllele);
+        assertThat(instance.count(), equalTo(5L));
+        assertThat(instance.numRuns(), equalTo(0));
+    }
+
+    @Test
+    public void singleRunMatchesMvStoreAlleleIndexer(@TempDir Path tempDir) {
+        List<Allele> alleles = testAlleles();
+        Map<AlleleKey, AlleleProperties> expected = writeToMvStoreIndexer(alleles);
+        Map<AlleleKey, AlleleProperties> results = writeToSortMergeIndexer(tempDir, 100, alleles);
+
+        assertThat(results, equalTo(expected));
+        // written in key order
+        assertThat(new ArrayList<>(results.keySet()), equalTo(new ArrayList<>(expected.keySet())));
+    }
+
+    @Test
+    public void multipleRunsMatchMvStoreAlleleIndexer(@TempDir Path tempDir) {
+        List<Allele> alleles = testAlleles();
+        Map<AlleleKey, AlleleProperties> expected = writeToMvStoreIndexer(alleles);
+        // forces each allele into its own run so that duplicates are merged across runs
+        Map<AlleleKey, AlleleProperties> results = writeToSortMergeIndexer(tempDir, 1, alleles);
+
+        assertThat(results, equalTo(expected));
+        assertThat(new ArrayList<>(results.keySet()), equalTo(new ArrayList<>(expected.keySet())));
+    }
+
+    @Test
+    public void mergedRsIdIsFirstNonEmptyRsId(@TempDir Path tempDir) {
+        Map<AlleleKey, AlleleProperties> results = writeToSortMergeIndexer(tempDir, 1, testAlleles());
+        AlleleKey key = AlleleConverter.toAlleleKey(new Allele(2, 12345, "A", "T"));
+        assertThat(results.get(key).getRsId(), equalTo("rs12345"));
+        assertThat(results.get(key).getPropertiesMap().get(AlleleProperty.KG.toString()), equalTo(0.5f));
+    }
+
+    @Test
+    public void closeDeletesRunFiles(@TempDir Path tempDir) throws Exception {
+        SortMergeAlleleIndexer instance = new SortMergeAlleleIndexer(tempDir, 1);
+        testAlleles().forEach(instance::writeAllele);
+        assertThat(instance.numRuns(), equalTo(5));
+        instance.close();
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.collect(toList()).size(), equalTo(0));
+        }
+    }
+
+    @Test
+    public void indexResourceAndWriteToMvStore(@TempDir Path tempDir) {
+        AlleleArchive dbsnpArchive = new TabixAlleleArchive(Paths.get("src/test/resources/test_first_ten_dbsnp.vcf.gz"));
+        AlleleResource dbSnpResource = new AlleleResource("test_first_ten_dbsnp", dbsnpArchive, new DbSnpAlleleParser());
+
+        MVStore expectedStore = new MVStore.Builder().open();
+        new MvStoreAlleleIndexer(expectedStore).index(dbSnpResource);
+        MVMap<AlleleKey, AlleleProperties> expected = MvStoreUtil.openAlleleMVMap(expectedStore);
+
+        SortMergeAlleleIndexer instance = new SortMergeAlleleIndexer(tempDir.resolve("runs"), 3);
+        instance.index(dbSnpResource);
+        MVStore mvStore = new MVStore.Builder().open();
+        MVMap<AlleleKey, AlleleProperties> map = MvStoreUtil.openAlleleMVMap(mvStore);
+        long written = instance.writeTo(map);
+        instance.close();
+
+        assertThat(written, equalTo((long) expected.size()));
+        assertThat(new LinkedHashMap<>(map), equalTo(new LinkedHashMap<>(expected)));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.genome.model;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.ClinVar;
+
+import java.util.EnumSet;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class AlleleResourceFieldsTest {
+
+    private final AlleleProperties properties = AlleleProperties.newBuilder()
+            .setRsId("rs12345")
+            .putProperties("KG", 0.02f)
+            .putProperties("EXAC_AFR", 0.01f)
+            .putProperties("SIFT", 0.001f)
+            .setClinVar(ClinVar.newBuilder().setAlleleId("54321").setPrimaryInterpretation(ClinVar.ClinSig.PATHOGENIC))
+            .build();
+
+    @Test
+    public void forClinVarResource() {
+        AlleleResourceFields instance = AlleleResourceFields.forResource("hg19.clinvar");
+        assertThat(instance.includesClinVar(), equalTo(true));
+        assertThat(instance.getProperties().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void forResourceWithoutAssemblyPrefix() {
+        assertThat(AlleleResourceFields.forResource("dbsnp"), equalTo(AlleleResourceFields.of(EnumSet.of(AlleleProperty.KG), false)));
+    }
+
+    @Test
+    public void forGnomadExomeResource() {
+        AlleleResourceFields instance = AlleleResourceFields.forResource("hg38.gnomad-exome");
+        assertThat(instance.includesClinVar(), equalTo(false));
+        assertThat(instance.getProperties(), equalTo(EnumSet.range(AlleleProperty.GNOMAD_E_AFR, AlleleProperty.GNOMAD_E_SAS)));
+    }
+
+    @Test
+    public void forDbNsfpResource() {
+        assertThat(AlleleResourceFields.forResource("hg19.dbnsfp").getProperties(), equalTo(AlleleProperty.PATHOGENIC_PROPERTIES));
+    }
+
+    @Test
+    public void throwsExceptionForUnknownResource() {
+        assertThrows(IllegalArgumentException.class, () -> AlleleResourceFields.forResource("hg19.wibble"));
+    }
+
+    @Test
+    public void stripClinVar() {
+        AlleleProperties expected = properties.toBuilder().clearClinVar().build();
+        assertThat(AlleleResourceFields.forResource("clinvar").strip(properties), equalTo(expected));
+    }
+
+    @Test
+    public void stripFrequencies() {
+        AlleleProperties expected = properties.toBuilder().removeProperties("KG").build();
+        assertThat(AlleleResourceFields.forResource("dbsnp").strip(properties), equalTo(expected));
+    }
+
+    @Test
+    public void stripRetainsRsId() {
+        AlleleResourceFields instance = AlleleResourceFields.of(EnumSet.allOf(AlleleProperty.class), true);
+        AlleleProperties expected = AlleleProperties.newBuilder().setRsId("rs12345").build();
+        assertThat(instance.strip(properties), equalTo(expected));
+    }
+
+    @Test
+    public void stripOnlyOwnedDataReturnsDefaultInstance() {
+        AlleleProperties clinVarOnly = AlleleProperties.newBuilder()
+                .setClinVar(ClinVar.newBuilder().setAlleleId("54321"))
+                .build();
+        assertThat(AlleleResourceFields.forResource("clinvar").strip(clinVarOnly), equalTo(AlleleProperties.getDefaultInstance()));
+    }
+}
@@ -29,6 +29,8 @@
 import java.util.StringJoiner;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.monarchinitiative.exomiser.data.genome.model.AlleleProperty.*;
 
@@ -57,6 +59,14 @@ private void assertParseLineEqualsExpected(DbNsfpColumnIndex columnIndex, String
         }
     }
 
+    @Test
+    public void newInstanceDoesNotShareColumnState() throws Exception {
+        DbNsfpAlleleParser instance = new DbNsfpAlleleParser(DbNsfpColumnIndex.HG19);
+        AlleleParser newInstance = instance.newInstance();
+        assertThat(newInstance, not(sameInstance(instance)));
+        assertThat(newInstance, equalTo(instance));
+    }
+
     @Test
     public void parseChrZero() throws Exception {
         String line = lineBuilder().chr19("0").pos19("11").ref("A").alt("T").build();
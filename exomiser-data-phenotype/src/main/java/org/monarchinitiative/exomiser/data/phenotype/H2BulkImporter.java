@@ -0,0 +1,99 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.phenotype;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Bulk loads the parsed resource files into the H2 phenotype database. The tables are created without any secondary
+ * indexes and loaded using CSVREAD in a single large transaction with the undo log and transaction log disabled. Once
+ * all the data is in place, the indexes are built, the table statistics are updated and the database is compacted.
+ * <p>
+ * The index creation is the last of the migrations, so it will only be run once the tables have been loaded.
+ * Compaction is done by shutting down the database, so no other connections should be using it when
+ * {@link #importData(Map)} is called.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class H2BulkImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(H2BulkImporter.class);
+
+    static final String SCHEMA = "EXOMISER";
+
+    private final DataSource h2DataSource;
+
+    public H2BulkImporter(DataSource h2DataSource) {
+        this.h2DataSource = h2DataSource;
+    }
+
+    /**
+     * Creates and loads the exomiser schema from the files in the import.path, then analyses and compacts the
+     * database.
+     *
+     * @param propertyPlaceHolders the Flyway placeholders used in the migrations, including the import.path
+     */
+    public void importData(Map<String, String> propertyPlaceHolders) {
+        Instant start = Instant.now();
+        migrate(propertyPlaceHolders);
+        logger.info("Loaded and indexed database in {} sec", Duration.between(start, Instant.now()).getSeconds());
+
+        Instant compactStart = Instant.now();
+        analyseAndCompact();
+        logger.info("Analysed and compacted database in {} sec", Duration.between(compactStart, Instant.now()).getSeconds());
+    }
+
+    private void migrate(Map<String, String> propertyPlaceHolders) {
+        logger.info("Migrating exomiser H2 database...");
+        Flyway h2Flyway = new Flyway();
+        h2Flyway.setDataSource(h2DataSource);
+        h2Flyway.setSchemas(SCHEMA);
+        h2Flyway.setLocations("migration/common", "migration/h2");
+        h2Flyway.setPlaceholders(propertyPlaceHolders);
+        //run all the inserts in one transaction rather than committing after each table
+        h2Flyway.setGroup(true);
+        h2Flyway.clean();
+        h2Flyway.migrate();
+    }
+
+    private void analyseAndCompact() {
+        logger.info("Analysing and compacting exomiser H2 database...");
+        try (Connection connection = h2DataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            //update the selectivity statistics used by the query planner now that the indexes are in place
+            statement.execute("ANALYZE");
+            //closes the database, rewriting it without any free space left over from the load
+            statement.execute("SHUTDOWN COMPACT");
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Unable to analyse and compact H2 database", ex);
+        }
+    }
+}
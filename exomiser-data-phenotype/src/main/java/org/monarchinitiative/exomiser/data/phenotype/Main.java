@@ -20,13 +20,13 @@
 
 package org.monarchinitiative.exomiser.data.phenotype;
 
-import org.flywaydb.core.Flyway;
 import org.monarchinitiative.exomiser.data.phenotype.config.AppConfig;
 import org.monarchinitiative.exomiser.data.phenotype.config.DataSourceConfig;
 import org.monarchinitiative.exomiser.data.phenotype.config.ResourceConfig;
 import org.monarchinitiative.exomiser.data.phenotype.resources.Resource;
 import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceDownloadHandler;
 import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceExtractionHandler;
+import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceGroupScheduler;
 import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceParserHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,37 +68,21 @@ public void run(ApplicationArguments applicationArguments) {
 
         Set<Resource> externalResources = resourceConfig.resources();
 
-        //Download the Resources
-        boolean downloadResources = appConfig.downloadResources();
-        if (downloadResources) {
-            //download and unzip the necessary input files
-            logger.info("Downloading required flatfiles...");
-            ResourceDownloadHandler.downloadResources(externalResources, downloadPath);
-        } else {
-            logger.info("Skipping download of external resource files.");
-        }
         //Path for processing the downloaded files to prepare them for parsing (i.e. unzip, untar)
         Path proccessPath = appConfig.processPath();
 
-        //Extract the Resources
+        boolean downloadResources = appConfig.downloadResources();
         boolean extractResources = appConfig.extractResources();
-        if (extractResources) {
-            //process the downloaded files to prepare them for parsing (i.e. unzip, untar)
-            logger.info("Extracting required flatfiles...");
-            ResourceExtractionHandler.extractResources(externalResources, downloadPath, proccessPath);
-        } else {
-            logger.info("Skipping extraction of external resource files.");
-        }
-
-        //Parse the Resources
         boolean parseResources = appConfig.parseResources();
-        if (parseResources) {
-            //parse the file and output to the project output dir.
-            logger.info("Parsing resource files...");
-            ResourceParserHandler.parseResources(externalResources, proccessPath, dataPath);
 
+        int resourceThreads = appConfig.resourceThreads();
+        if (resourceThreads > 1) {
+            //run the download, extract and parse steps for independent resources concurrently
+            logger.info("Processing resource files using {} threads...", resourceThreads);
+            ResourceGroupScheduler resourceGroupScheduler = new ResourceGroupScheduler(resourceThreads, downloadPath, proccessPath, dataPath);
+            resourceGroupScheduler.processResources(externalResources, downloadResources, extractResources, parseResources);
         } else {
-            logger.info("Skipping parsing of external resource files.");
+            processResourcesSequentially(externalResources, downloadPath, proccessPath, dataPath, downloadResources, extractResources, parseResources);
         }
 
         logger.info("Statuses for external resources:");
@@ -115,20 +99,40 @@ public void run(ApplicationArguments applicationArguments) {
         boolean migrateH2 = appConfig.migrateH2();
         if (migrateH2) {
             DataSource h2DataSource = dataSourceConfig.exomiserH2DataSource();
-            migrateH2Database(h2DataSource, propertyPlaceHolders);
+            H2BulkImporter h2BulkImporter = new H2BulkImporter(h2DataSource);
+            h2BulkImporter.importData(propertyPlaceHolders);
         } else {
             logger.info("Skipping migration of H2 database.");
         }
     }
 
-    private static void migrateH2Database(DataSource h2DataSource, Map<String, String> propertyPlaceHolders) {
-        logger.info("Migrating exomiser H2 database...");
-        Flyway h2Flyway = new Flyway();
-        h2Flyway.setDataSource(h2DataSource);
-        h2Flyway.setSchemas("EXOMISER");
-        h2Flyway.setLocations("migration/common", "migration/h2");
-        h2Flyway.setPlaceholders(propertyPlaceHolders);
-        h2Flyway.clean();
-        h2Flyway.migrate();
+    private static void processResourcesSequentially(Set<Resource> externalResources, Path downloadPath, Path proccessPath, Path dataPath, boolean downloadResources, boolean extractResources, boolean parseResources) {
+        //Download the Resources
+        if (downloadResources) {
+            //download and unzip the necessary input files
+            logger.info("Downloading required flatfiles...");
+            ResourceDownloadHandler.downloadResources(externalResources, downloadPath);
+        } else {
+            logger.info("Skipping download of external resource files.");
+        }
+
+        //Extract the Resources
+        if (extractResources) {
+            //process the downloaded files to prepare them for parsing (i.e. unzip, untar)
+            logger.info("Extracting required flatfiles...");
+            ResourceExtractionHandler.extractResources(externalResources, downloadPath, proccessPath);
+        } else {
+            logger.info("Skipping extraction of external resource files.");
+        }
+
+        //Parse the Resources
+        if (parseResources) {
+            //parse the file and output to the project output dir.
+            logger.info("Parsing resource files...");
+            ResourceParserHandler.parseResources(externalResources, proccessPath, dataPath);
+
+        } else {
+            logger.info("Skipping parsing of external resource files.");
+        }
     }
 }
@@ -136,6 +136,18 @@ public boolean parseResources() {
         return parse;
     }
 
+    /**
+     * Number of threads used to download, extract and parse the resources. A value greater than one enables the
+     * dependency-aware {@link org.monarchinitiative.exomiser.data.phenotype.resources.ResourceGroupScheduler} in place
+     * of the sequential download, extract and parse phases.
+     */
+    @Bean
+    public int resourceThreads() {
+        int resourceThreads = Integer.parseInt(env.getProperty("resourceThreads", "1"));
+        logger.info("Setting application to process resources using {} thread(s)", resourceThreads);
+        return resourceThreads;
+    }
+
     @Bean
     public boolean migrateH2() {
         boolean migrateH2 = Boolean.parseBoolean(env.getProperty("migrateH2"));
@@ -26,9 +26,16 @@
 
 package org.monarchinitiative.exomiser.data.phenotype.parsers;
 
+import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceOperationStatus;
+import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceTaskScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
 /**
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
@@ -36,6 +43,40 @@ public abstract class AbstractResourceGroupParser implements ResourceGroupParser
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private int numThreads = 1;
+
+    @Override
+    public void setNumThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be 1 or greater, but was " + numThreads);
+        }
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * @return a new {@link ResourceTaskScheduler} using the configured number of threads.
+     * @since 11.0.0
+     */
+    protected ResourceTaskScheduler newTaskScheduler() {
+        return new ResourceTaskScheduler(numThreads);
+    }
+
+    /**
+     * Runs the tasks, blocking until they have all completed or been skipped.
+     *
+     * @throws IllegalStateException if any of the tasks did not complete successfully.
+     * @since 11.0.0
+     */
+    protected void runTasks(String resourceGroupName, ResourceTaskScheduler taskScheduler) {
+        Map<String, ResourceOperationStatus> taskStatuses = taskScheduler.run();
+        List<String> failedTasks = taskStatuses.entrySet().stream()
+                .filter(entry -> entry.getValue() != ResourceOperationStatus.SUCCESS)
+                .map(Map.Entry::getKey)
+                .collect(toList());
+        if (!failedTasks.isEmpty()) {
+            throw new IllegalStateException("Unable to parse " + resourceGroupName + " resources - tasks " + failedTasks + " did not complete successfully: " + taskStatuses);
+        }
+    }
 
     protected void logResourceMissing(String resourceGroupName, Class<? extends ResourceParser> clazz) {
         logger.error("MISSING RESOURCE for {} data required by {} - check this is defined in resource configuration class.", resourceGroupName, clazz);
@@ -29,6 +29,7 @@
 import org.monarchinitiative.exomiser.data.phenotype.resources.Resource;
 import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceGroup;
 import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceOperationStatus;
+import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceTaskScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -48,6 +49,9 @@ public class OmimResourceGroupParser extends AbstractResourceGroupParser {
 
     private static final Logger logger = LoggerFactory.getLogger(OmimResourceGroupParser.class);
 
+    private static final String MIM2GENE_TASK = "mim2gene";
+    private static final String DISEASE_INHERITANCE_TASK = "diseaseInheritance";
+
     private Resource morbidMapResource;
     private Resource mim2geneResource;
     private Resource hpoPhenotypeAnnotations;
@@ -65,19 +69,28 @@ public void parseResources(ResourceGroup resourceGroup, Path inDir, Path outDir)
         }
 
         Map<Integer, Set<Integer>> mim2geneMap = new HashMap<>();
-        //first parseResource the mim2gene file
-        MimToGeneParser mimParser = new MimToGeneParser(mim2geneMap);
-        mimParser.parseResource(mim2geneResource, inDir, outDir);
-
         //Need to make the cache for the morbidmap resourceParser
         DiseaseInheritanceCache diseaseInheritanceCache = new DiseaseInheritanceCache();
-        diseaseInheritanceCache.parseResource(hpoPhenotypeAnnotations, inDir, outDir);
-        if (!diseaseInheritanceCache.isEmpty()) {
-            hpoPhenotypeAnnotations.setParseStatus(ResourceOperationStatus.SUCCESS);
-        }
-        //make the MimList which morbid map will populate
-        MorbidMapParser morbidParser = new MorbidMapParser(diseaseInheritanceCache, mim2geneMap);
-        morbidParser.parseResource(morbidMapResource, inDir, outDir);
+
+        //the mim2gene file and the disease inheritance cache are independent of each other so can be parsed
+        //concurrently, but the morbidmap parser needs both of them
+        ResourceTaskScheduler taskScheduler = newTaskScheduler()
+                .addTask(MIM2GENE_TASK, () -> {
+                    MimToGeneParser mimParser = new MimToGeneParser(mim2geneMap);
+                    mimParser.parseResource(mim2geneResource, inDir, outDir);
+                })
+                .addTask(DISEASE_INHERITANCE_TASK, () -> {
+                    diseaseInheritanceCache.parseResource(hpoPhenotypeAnnotations, inDir, outDir);
+                    if (!diseaseInheritanceCache.isEmpty()) {
+                        hpoPhenotypeAnnotations.setParseStatus(ResourceOperationStatus.SUCCESS);
+                    }
+                })
+                .addTask("morbidMap", () -> {
+                    //make the MimList which morbid map will populate
+                    MorbidMapParser morbidParser = new MorbidMapParser(diseaseInheritanceCache, mim2geneMap);
+                    morbidParser.parseResource(morbidMapResource, inDir, outDir);
+                }, MIM2GENE_TASK, DISEASE_INHERITANCE_TASK);
+        runTasks(resourceGroup.getName(), taskScheduler);
     }
 
     @Override
@@ -28,6 +28,7 @@
 
 import org.monarchinitiative.exomiser.data.phenotype.resources.Resource;
 import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceGroup;
+import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceTaskScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -46,6 +47,10 @@ public class OntologyResourceGroupParser extends AbstractResourceGroupParser imp
 
     private static final Logger logger = LoggerFactory.getLogger(OntologyResourceGroupParser.class);
 
+    private static final String HP_TASK = "hp";
+    private static final String MP_TASK = "mp";
+    private static final String ZP_TASK = "zp";
+
     private Resource hpResource;
     private Resource mpResource;
     private Resource zpResource;
@@ -66,26 +71,37 @@ public void parseResources(ResourceGroup resourceGroup, Path inDir, Path outDir)
         }
 
         Map<String, String> hpId2termMap = new HashMap<>();
-        HPOOntologyFileParser hpoOntologyFileParser = new HPOOntologyFileParser(hpId2termMap);
-        hpoOntologyFileParser.parseResource(hpResource, inDir, outDir);
-
-        HPHPMapperParser hphpMapperParser = new HPHPMapperParser(hpId2termMap);
-        hphpMapperParser.parseResource(hpHpResource, inDir, outDir);
-
         Map<String, String> mpId2termMap = new HashMap<>();
-        MPOntologyFileParser mpOntologyFileParser = new MPOntologyFileParser(mpId2termMap);
-        mpOntologyFileParser.parseResource(mpResource, inDir, outDir);
-
-        HPMPMapperParser hpmpMapperParser = new HPMPMapperParser(hpId2termMap, mpId2termMap);
-        hpmpMapperParser.parseResource(hpMpResource, inDir, outDir);
-
         Map<String, String> zpId2termMap = new HashMap<>();
-        ZPOntologyFileParser zpOntologyFileParser = new ZPOntologyFileParser(zpId2termMap);
-        zpOntologyFileParser.parseResource(zpResource, inDir, outDir);
-
-        HPZPMapperParser hpzpMapperParser = new HPZPMapperParser(hpId2termMap, zpId2termMap);
-        hpzpMapperParser.parseResource(hpZpResource, inDir, outDir);
 
+        //the ontologies are independent of each other, but each mapping file needs both of the ontologies it maps
+        //between to have been parsed first
+        ResourceTaskScheduler taskScheduler = newTaskScheduler()
+                .addTask(HP_TASK, () -> {
+                    HPOOntologyFileParser hpoOntologyFileParser = new HPOOntologyFileParser(hpId2termMap);
+                    hpoOntologyFileParser.parseResource(hpResource, inDir, outDir);
+                })
+                .addTask(MP_TASK, () -> {
+                    MPOntologyFileParser mpOntologyFileParser = new MPOntologyFileParser(mpId2termMap);
+                    mpOntologyFileParser.parseResource(mpResource, inDir, outDir);
+                })
+                .addTask(ZP_TASK, () -> {
+                    ZPOntologyFileParser zpOntologyFileParser = new ZPOntologyFileParser(zpId2termMap);
+                    zpOntologyFileParser.parseResource(zpResource, inDir, outDir);
+                })
+                .addTask("hpHp", () -> {
+                    HPHPMapperParser hphpMapperParser = new HPHPMapperParser(hpId2termMap);
+                    hphpMapperParser.parseResource(hpHpResource, inDir, outDir);
+                }, HP_TASK)
+                .addTask("hpMp", () -> {
+                    HPMPMapperParser hpmpMapperParser = new HPMPMapperParser(hpId2termMap, mpId2termMap);
+                    hpmpMapperParser.parseResource(hpMpResource, inDir, outDir);
+                }, HP_TASK, MP_TASK)
+                .addTask("hpZp", () -> {
+                    HPZPMapperParser hpzpMapperParser = new HPZPMapperParser(hpId2termMap, zpId2termMap);
+                    hpzpMapperParser.parseResource(hpZpResource, inDir, outDir);
+                }, HP_TASK, ZP_TASK);
+        runTasks(resourceGroup.getName(), taskScheduler);
     }
 
     @Override
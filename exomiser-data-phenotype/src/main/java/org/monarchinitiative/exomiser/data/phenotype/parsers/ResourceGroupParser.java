@@ -57,4 +57,15 @@ public interface ResourceGroupParser {
      * @return false if any resource is missing.
      */
     boolean requiredResourcesPresent(ResourceGroup resourceGroup);
+
+    /**
+     * Sets the maximum number of threads used to parse the resources of the group. Implementations which parse their
+     * resources sequentially can ignore this.
+     *
+     * @param numThreads the maximum number of threads
+     * @since 11.0.0
+     */
+    default void setNumThreads(int numThreads) {
+        // parsed sequentially by default
+    }
 }
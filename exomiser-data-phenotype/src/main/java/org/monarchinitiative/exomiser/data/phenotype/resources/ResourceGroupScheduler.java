@@ -0,0 +1,134 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.phenotype.resources;
+
+import org.monarchinitiative.exomiser.data.phenotype.parsers.MetaDataParser;
+import org.monarchinitiative.exomiser.data.phenotype.parsers.ResourceGroupParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Downloads, extracts and parses the resources concurrently rather than as strictly sequential phases. Each resource
+ * is extracted as soon as it has been downloaded and each {@link ResourceGroup} is parsed as soon as all of its member
+ * resources have been extracted, so independent groups such as the mouse, fish and ontology resources are processed
+ * concurrently. Resources which are not part of a group are parsed individually. The MetaData resource is parsed last
+ * as it reports the versions of all the other resources.
+ * <p>
+ * The work is carried out using the same download, extraction and parsing methods as the sequential
+ * {@link ResourceDownloadHandler}, {@link ResourceExtractionHandler} and {@link ResourceParserHandler}, so the resource
+ * URLs can equally point to a local file or HTTP stand-in for testing.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class ResourceGroupScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceGroupScheduler.class);
+
+    private final int numThreads;
+    private final Path downloadPath;
+    private final Path processPath;
+    private final Path dataPath;
+
+    public ResourceGroupScheduler(int numThreads, Path downloadPath, Path processPath, Path dataPath) {
+        this.numThreads = numThreads;
+        this.downloadPath = downloadPath;
+        this.processPath = processPath;
+        this.dataPath = dataPath;
+    }
+
+    /**
+     * Runs the requested operations on the resources, blocking until all have completed.
+     *
+     * @return the status of each scheduled task, keyed by the task name.
+     */
+    public Map<String, ResourceOperationStatus> processResources(Collection<Resource> resources, boolean download, boolean extract, boolean parse) {
+        ResourceTaskScheduler scheduler = new ResourceTaskScheduler(numThreads);
+
+        Map<Resource, List<String>> preparationTasks = new HashMap<>();
+        for (Resource resource : resources) {
+            List<String> resourceTasks = new ArrayList<>();
+            if (download) {
+                String downloadTask = "download:" + resource.getName();
+                scheduler.addTask(downloadTask, () -> ResourceDownloadHandler.downloadResource(resource, downloadPath));
+                resourceTasks.add(downloadTask);
+            }
+            if (extract) {
+                String extractTask = "extract:" + resource.getName();
+                scheduler.addTask(extractTask, () -> ResourceExtractionHandler.extractResource(resource, downloadPath, processPath), resourceTasks);
+                resourceTasks = Collections.singletonList(extractTask);
+            }
+            preparationTasks.put(resource, resourceTasks);
+        }
+
+        if (parse) {
+            addParseTasks(scheduler, resources, preparationTasks);
+        }
+
+        Map<String, ResourceOperationStatus> taskStatuses = scheduler.run();
+        logger.info("Finished processing {} resources with the following task statuses: {}", resources.size(), taskStatuses);
+        return taskStatuses;
+    }
+
+    private void addParseTasks(ResourceTaskScheduler scheduler, Collection<Resource> resources, Map<Resource, List<String>> preparationTasks) {
+        Map<Class<? extends ResourceGroupParser>, ResourceGroup> resourceGroups = new LinkedHashMap<>();
+        Resource metaDataResource = null;
+        List<String> parseTasks = new ArrayList<>();
+
+        for (Resource resource : resources) {
+            Class<? extends ResourceGroupParser> resourceGroupParserClass = resource.getResourceGroupParserClass();
+            if (MetaDataParser.class.equals(resource.getParserClass())) {
+                metaDataResource = resource;
+            } else if (resourceGroupParserClass == null) {
+                String parseTask = "parse:" + resource.getName();
+                scheduler.addTask(parseTask, () -> ResourceParserHandler.parseResource(resource, processPath, dataPath), preparationTasks
+                        .get(resource));
+                parseTasks.add(parseTask);
+            } else {
+                resourceGroups.computeIfAbsent(resourceGroupParserClass, parserClass -> new ResourceGroup(resource.getResourceGroupName(), parserClass))
+                        .addResource(resource);
+            }
+        }
+
+        for (ResourceGroup resourceGroup : resourceGroups.values()) {
+            List<String> groupDependencies = new ArrayList<>();
+            for (Resource resource : resources) {
+                if (resourceGroup.getParserClass().equals(resource.getResourceGroupParserClass())) {
+                    groupDependencies.addAll(preparationTasks.get(resource));
+                }
+            }
+            String parseTask = "parse-group:" + resourceGroup.getName();
+            scheduler.addTask(parseTask, () -> ResourceParserHandler.parseResourceGroup(resourceGroup, processPath, dataPath, numThreads), groupDependencies);
+            parseTasks.add(parseTask);
+        }
+
+        if (metaDataResource != null) {
+            //the metadata needs 'parsing' after all the other resources as they might have had their version set when
+            //downloaded or parsed
+            Resource metaData = metaDataResource;
+            List<String> metaDataDependencies = new ArrayList<>(parseTasks);
+            metaDataDependencies.addAll(preparationTasks.get(metaData));
+            scheduler.addTask("parse:" + metaData.getName(), () -> ResourceParserHandler.parseMetaData(metaData, resources, dataPath), metaDataDependencies);
+        }
+    }
+}
@@ -124,6 +124,16 @@ public static void parseResource(Resource resource, Path inDir, Path outDir) {
     }
 
     public static void parseResourceGroup(ResourceGroup resourceGroup, Path inDir, Path outDir) {
+        parseResourceGroup(resourceGroup, inDir, outDir, 1);
+    }
+
+    /**
+     * Parses the resources of the group using up to numThreads threads. Any exception thrown by the
+     * {@link ResourceGroupParser} is propagated to the caller.
+     *
+     * @since 11.0.0
+     */
+    public static void parseResourceGroup(ResourceGroup resourceGroup, Path inDir, Path outDir, int numThreads) {
         try {
             logger.info("Parsing resourceGroup: {} with parser: {}", resourceGroup.getName(), resourceGroup.getParserClass());
             if (resourceGroup.getParserClass() == null) {
@@ -132,6 +142,7 @@ public static void parseResourceGroup(ResourceGroup resourceGroup, Path inDir, P
             //We ought to be doing this with a more type-safe configuration. Like in config.ResourceConfig for instance 
             Class<? extends ResourceGroupParser> resourceGroupParserClass = resourceGroup.getParserClass();
             ResourceGroupParser resourceGroupParser = resourceGroupParserClass.newInstance();
+            resourceGroupParser.setNumThreads(numThreads);
             //now do the actual parsing
             resourceGroupParser.parseResources(resourceGroup, inDir, outDir);
         } catch (InstantiationException | IllegalAccessException ex) {
@@ -146,7 +157,7 @@ public static void parseResourceGroup(ResourceGroup resourceGroup, Path inDir, P
      * @param externalResources
      * @param outPath
      */
-    private static void parseMetaData(Resource metaDataResource, Iterable<Resource> externalResources, Path outPath) {
+    static void parseMetaData(Resource metaDataResource, Iterable<Resource> externalResources, Path outPath) {
 
         logger.info("Handling resource: {}", metaDataResource.getName());
 
@@ -0,0 +1,148 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.phenotype.resources;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs a set of named tasks on a fixed pool of threads, starting each task as soon as all of the tasks it depends on
+ * have completed. Tasks with no shared dependencies therefore run concurrently, whereas a task consuming the output of
+ * another, for example the {@code MorbidMapParser} using the {@code DiseaseInheritanceCache}, waits for its inputs.
+ * <p>
+ * Dependencies must be added before the tasks which depend on them, so the task graph cannot contain cycles. A task
+ * which throws an exception is reported as {@link ResourceOperationStatus#FAILURE} and any tasks depending on it,
+ * directly or transitively, are not run and are reported as {@link ResourceOperationStatus#UNTRIED}. Independent
+ * branches of the graph are unaffected by the failure.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+public class ResourceTaskScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceTaskScheduler.class);
+
+    private final int numThreads;
+    private final Map<String, ScheduledTask> tasks = new LinkedHashMap<>();
+
+    public ResourceTaskScheduler(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be 1 or greater, but was " + numThreads);
+        }
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Adds a task to be run once all of the named dependencies have completed successfully.
+     *
+     * @param name         unique name of the task
+     * @param task         the work to be done
+     * @param dependencies names of previously added tasks which must complete before this task is started
+     * @return this scheduler
+     */
+    public ResourceTaskScheduler addTask(String name, Runnable task, String... dependencies) {
+        return addTask(name, task, Arrays.asList(dependencies));
+    }
+
+    public ResourceTaskScheduler addTask(String name, Runnable task, Collection<String> dependencies) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(task);
+        if (tasks.containsKey(name)) {
+            throw new IllegalArgumentException("A task named " + name + " has already been added");
+        }
+        for (String dependency : dependencies) {
+            if (!tasks.containsKey(dependency)) {
+                throw new IllegalArgumentException("Task " + name + " depends on unknown task " + dependency + " - dependencies must be added before their dependents");
+            }
+        }
+        tasks.put(name, new ScheduledTask(name, task, new ArrayList<>(dependencies)));
+        return this;
+    }
+
+    public boolean containsTask(String name) {
+        return tasks.containsKey(name);
+    }
+
+    /**
+     * Runs all the added tasks, blocking until they have all completed or been skipped.
+     *
+     * @return the status of each task, in the order in which they were added.
+     */
+    public Map<String, ResourceOperationStatus> run() {
+        logger.info("Running {} tasks using {} threads", tasks.size(), numThreads);
+        ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        try {
+            Map<String, CompletableFuture<ResourceOperationStatus>> futures = new LinkedHashMap<>();
+            for (ScheduledTask scheduledTask : tasks.values()) {
+                List<CompletableFuture<ResourceOperationStatus>> dependencyFutures = new ArrayList<>();
+                for (String dependency : scheduledTask.dependencies) {
+                    dependencyFutures.add(futures.get(dependency));
+                }
+                CompletableFuture<ResourceOperationStatus> future = CompletableFuture
+                        .allOf(dependencyFutures.toArray(new CompletableFuture[0]))
+                        .thenApplyAsync(ignored -> runWhenDependenciesSucceeded(scheduledTask, dependencyFutures), executorService);
+                futures.put(scheduledTask.name, future);
+            }
+
+            Map<String, ResourceOperationStatus> statuses = new LinkedHashMap<>();
+            futures.forEach((name, future) -> statuses.put(name, future.join()));
+            return statuses;
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private ResourceOperationStatus runWhenDependenciesSucceeded(ScheduledTask scheduledTask, List<CompletableFuture<ResourceOperationStatus>> dependencyFutures) {
+        for (CompletableFuture<ResourceOperationStatus> dependencyFuture : dependencyFutures) {
+            // dependencies are complete at this point, so this will not block
+            if (dependencyFuture.join() != ResourceOperationStatus.SUCCESS) {
+                logger.error("Not running task {} as one or more of its dependencies {} did not complete successfully", scheduledTask.name, scheduledTask.dependencies);
+                return ResourceOperationStatus.UNTRIED;
+            }
+        }
+        logger.debug("Starting task {}", scheduledTask.name);
+        try {
+            scheduledTask.task.run();
+        } catch (RuntimeException ex) {
+            logger.error("Task {} failed", scheduledTask.name, ex);
+            return ResourceOperationStatus.FAILURE;
+        }
+        logger.debug("Finished task {}", scheduledTask.name);
+        return ResourceOperationStatus.SUCCESS;
+    }
+
+    private static class ScheduledTask {
+
+        private final String name;
+        private final Runnable task;
+        private final List<String> dependencies;
+
+        private ScheduledTask(String name, Runnable task, List<String> dependencies) {
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+    }
+}
@@ -1,3 +1,3 @@
-INSERT INTO hpo SELECT *
-                FROM CSVREAD('${import.path}/hpo.pg', 'lcname|id|prefname',
-                             'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
+INSERT INTO hpo DIRECT SELECT *
+                       FROM CSVREAD('${import.path}/hpo.pg', 'lcname|id|prefname',
+                                    'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
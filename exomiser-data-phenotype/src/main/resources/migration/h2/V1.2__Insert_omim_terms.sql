@@ -1,3 +1,3 @@
-INSERT INTO omim_terms SELECT *
-                       FROM CSVREAD('${import.path}/omimTerms.pg', 'omim_disease_id|omim_terms',
-                                    'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
\ No newline at end of file
+INSERT INTO omim_terms DIRECT SELECT *
+                              FROM CSVREAD('${import.path}/omimTerms.pg', 'omim_disease_id|omim_terms',
+                                           'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
\ No newline at end of file
@@ -1,3 +1,3 @@
-INSERT INTO disease_hp SELECT *
-                       FROM CSVREAD('${import.path}/diseaseHp.pg', 'disease_id|hp_id',
-                                    'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
\ No newline at end of file
+INSERT INTO disease_hp DIRECT SELECT *
+                              FROM CSVREAD('${import.path}/diseaseHp.pg', 'disease_id|hp_id',
+                                           'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
\ No newline at end of file
@@ -1,3 +1,3 @@
-INSERT INTO mp SELECT *
-               FROM CSVREAD('${import.path}/mp.pg', 'mp_id|mp_term',
-                            'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
+INSERT INTO mp DIRECT SELECT *
+                      FROM CSVREAD('${import.path}/mp.pg', 'mp_id|mp_term',
+                                   'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
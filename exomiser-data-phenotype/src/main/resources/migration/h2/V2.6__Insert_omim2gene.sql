@@ -1,5 +1,5 @@
-INSERT INTO omim2gene SELECT *
-                      FROM CSVREAD('${import.path}/omim2gene.pg',
-                                   'mimdiseaseid|mimdiseasename|cytoband|mimgeneid|entrezgeneid|genesymbol|seriesid',
-                                   'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
+INSERT INTO omim2gene DIRECT SELECT *
+                             FROM CSVREAD('${import.path}/omim2gene.pg',
+                                          'mimdiseaseid|mimdiseasename|cytoband|mimgeneid|entrezgeneid|genesymbol|seriesid',
+                                          'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
 
@@ -1,4 +1,4 @@
-INSERT INTO metadata SELECT *
-                     FROM CSVREAD('${import.path}/metadata.pg', 'resource|version',
-                                  'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
+INSERT INTO metadata DIRECT SELECT *
+                            FROM CSVREAD('${import.path}/metadata.pg', 'resource|version',
+                                         'charset=UTF-8 fieldDelimiter='' fieldSeparator=| nullString=NULL');
 
@@ -0,0 +1,95 @@
+--
+-- Secondary indexes and constraints for the exomiser schema. These are created after all the tables have been bulk
+-- loaded as building an index in one pass over the loaded data is far quicker than updating it for every inserted row.
+--
+
+CREATE INDEX hpoidx
+  ON hpo (id);
+
+--
+-- TOC entry 1860 (class 2606 OID 16454)
+-- Name: omim2gene_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+-- ALTER TABLE ONLY omim2gene
+ALTER TABLE omim2gene
+  ADD CONSTRAINT omim2gene_pkey PRIMARY KEY (mimdiseaseid, seriesid);
+
+--
+-- TOC entry 1858 (class 2606 OID 16456)
+-- Name: omim_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+--ALTER TABLE disease
+--    ADD CONSTRAINT omim_pkey PRIMARY KEY (gene_id, disease_id, omim_gene_id);
+
+CREATE INDEX disease1
+  ON disease (gene_id, disease_id);
+
+--
+-- TOC entry 1862 (class 2606 OID 16458)
+-- Name: phenoseries_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE phenoseries
+  ADD CONSTRAINT phenoseries_pkey PRIMARY KEY (seriesid);
+
+--
+-- TOC entry 1864 (class 2606 OID 16460)
+-- Name: variant_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+--
+
+CREATE INDEX hp_id
+  ON hp_mp_mappings (hp_id);
+
+CREATE INDEX hp_id2
+  ON hp_hp_mappings (hp_id);
+
+CREATE INDEX hp_id3
+  ON hp_zp_mappings (hp_id);
+
+--
+-- TOC entry 1853 (class 1259 OID 16469)
+-- Name: human_gene_symbol; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX human_gene_symbol
+  ON human2mouse_orthologs (human_gene_symbol);
+
+CREATE INDEX entrez_id
+  ON human2mouse_orthologs (entrez_id);
+--
+-- TOC entry 1851 (class 1259 OID 16470)
+-- Name: human_gene_symbol_2; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX human_gene_symbol_2
+  ON human2fish_orthologs (human_gene_symbol);
+CREATE INDEX entrez_id_2
+  ON human2fish_orthologs (entrez_id);
+
+--
+-- TOC entry 1854 (class 1259 OID 16471)
+-- Name: mgi_gene_id; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX mgi_gene_id
+  ON human2mouse_orthologs (mgi_gene_id);
+
+--
+-- TOC entry 1852 (class 1259 OID 16475)
+-- Name: zfin_gene_id; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX zfin_gene_id
+  ON human2fish_orthologs (zfin_gene_id);
+
+
+CREATE INDEX mgi_gene_id_4
+  ON mgi_mp (mgi_gene_id);
+CREATE INDEX zfin_gene_id_4
+  ON zfin_zp (zfin_gene_id);
+CREATE INDEX disease_id_3
+  ON disease_hp (disease_id);
@@ -0,0 +1,8 @@
+--
+-- Flyway callback run on the migration connection before any of the migrations. These bulk-load settings are also
+-- set in the JDBC URL, but are repeated here so that the import stays fast if the URL is changed. With the group
+-- setting of the H2BulkImporter all the tables are loaded in a single transaction, which with the undo log disabled
+-- doesn't need to keep a copy of the inserted rows.
+--
+SET UNDO_LOG 0;
+SET LOG 0;
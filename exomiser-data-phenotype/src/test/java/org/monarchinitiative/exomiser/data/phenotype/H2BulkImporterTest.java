@@ -0,0 +1,107 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.phenotype;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class H2BulkImporterTest {
+
+    private static final List<String> IMPORT_FILES = Arrays.asList("diseaseHp.pg", "entrez2sym.pg", "fishZp.pg",
+            "hpHpmapping.pg", "hpMpMapping.pg", "hpZpMapping.pg", "hpo.pg", "human2fishOrthologs.pg",
+            "human2mouseOrthologs.pg", "metadata.pg", "mouseMp.pg", "mp.pg", "omim.pg", "omim2gene.pg", "omimTerms.pg",
+            "orphanet.pg", "phenoseries.pg", "zp.pg");
+
+    private static DriverManagerDataSource h2DataSource(Path dbPath) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:file:" + dbPath.toAbsolutePath() + ";MODE=PostgreSQL;MV_STORE=FALSE");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        return dataSource;
+    }
+
+    private static int countRows(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM EXOMISER." + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    @Test
+    public void testImportDataLoadsTablesThenBuildsIndexes(@TempDir Path tempDir) throws Exception {
+        Path importPath = Files.createDirectory(tempDir.resolve("import"));
+        for (String importFile : IMPORT_FILES) {
+            Files.createFile(importPath.resolve(importFile));
+        }
+        Files.write(importPath.resolve("hpo.pg"), Arrays.asList(
+                "seizure|HP:0001250|Seizure",
+                "microcephaly|HP:0000252|Microcephaly"));
+        Files.write(importPath.resolve("hpHpmapping.pg"), Arrays.asList(
+                "1|HP:0001250|Seizure|HP:0001250|Seizure|1.0|5.0|2.23|HP:0001250|Seizure",
+                "2|HP:0001250|Seizure|HP:0000252|Microcephaly|0.2|1.2|0.49|HP:0000118|Phenotypic abnormality",
+                "3|HP:0000252|Microcephaly|HP:0000252|Microcephaly|1.0|4.0|2.0|HP:0000252|Microcephaly"));
+        Files.write(importPath.resolve("metadata.pg"), Collections.singletonList("HPO|2018-03-08"));
+
+        Path dbPath = tempDir.resolve("exomiser-phenotype");
+        DriverManagerDataSource dataSource = h2DataSource(dbPath);
+        Map<String, String> propertyPlaceHolders = new HashMap<>();
+        propertyPlaceHolders.put("import.path", importPath.toAbsolutePath().toString());
+
+        H2BulkImporter instance = new H2BulkImporter(dataSource);
+        instance.importData(propertyPlaceHolders);
+
+        //the database is shut down after compaction, so this will re-open it
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            assertThat(countRows(statement, "hpo"), equalTo(2));
+            assertThat(countRows(statement, "hp_hp_mappings"), equalTo(3));
+            assertThat(countRows(statement, "metadata"), equalTo(1));
+            assertThat(countRows(statement, "hp_mp_mappings"), equalTo(0));
+
+            Set<String> indexNames = new HashSet<>();
+            try (ResultSet resultSet = statement.executeQuery("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'EXOMISER'")) {
+                while (resultSet.next()) {
+                    indexNames.add(resultSet.getString(1));
+                }
+            }
+            assertThat(indexNames, hasItems("HPOIDX", "HP_ID", "HP_ID2", "HP_ID3", "DISEASE1", "ENTREZ_ID", "DISEASE_ID_3"));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.phenotype.parsers;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceGroup;
+import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceTaskScheduler;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class AbstractResourceGroupParserTest {
+
+    private static class TestResourceGroupParser extends AbstractResourceGroupParser {
+
+        private final List<String> completedTasks = new ArrayList<>();
+
+        @Override
+        public void parseResources(ResourceGroup resourceGroup, Path inDir, Path outDir) {
+            ResourceTaskScheduler taskScheduler = newTaskScheduler()
+                    .addTask("a", () -> completedTasks.add("a"))
+                    .addTask("b", () -> {
+                        throw new IllegalArgumentException("Unable to parse b");
+                    })
+                    .addTask("c", () -> completedTasks.add("c"), "b");
+            runTasks(resourceGroup.getName(), taskScheduler);
+        }
+
+        @Override
+        public boolean requiredResourcesPresent(ResourceGroup resourceGroup) {
+            return true;
+        }
+    }
+
+    @Test
+    public void testZeroThreadsThrowsException() {
+        TestResourceGroupParser instance = new TestResourceGroupParser();
+        assertThrows(IllegalArgumentException.class, () -> instance.setNumThreads(0));
+    }
+
+    @Test
+    public void testFailedTaskIsPropagated() {
+        TestResourceGroupParser instance = new TestResourceGroupParser();
+        instance.setNumThreads(2);
+        ResourceGroup resourceGroup = new ResourceGroup("test", TestResourceGroupParser.class);
+        assertThrows(IllegalStateException.class, () -> instance.parseResources(resourceGroup, null, null));
+        // the independent task is still run, but not the dependent one
+        assertThat(instance.completedTasks, equalTo(Collections.singletonList("a")));
+    }
+}
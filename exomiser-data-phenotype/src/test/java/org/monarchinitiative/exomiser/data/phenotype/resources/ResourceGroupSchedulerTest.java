@@ -0,0 +1,129 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.phenotype.resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.monarchinitiative.exomiser.data.phenotype.parsers.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Runs the resource pipeline against the local test data files using file URLs in place of the real download servers.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class ResourceGroupSchedulerTest {
+
+    private static final Path TEST_DATA_DIR = Paths.get("src/test/resources/data");
+
+    private static Resource omimGroupResource(String name, String fileName, Class<? extends ResourceParser> parserClass) {
+        Resource resource = new Resource(name);
+        resource.setUrl(TEST_DATA_DIR.toUri().toString());
+        resource.setRemoteFileName(fileName);
+        resource.setVersion("");
+        resource.setExtractedFileName(fileName);
+        resource.setExtractionScheme("copy");
+        resource.setParserClass(parserClass);
+        resource.setParsedFileName(name + ".pg");
+        resource.setResourceGroupName(OmimResourceGroupParser.NAME);
+        resource.setResourceGroupParserClass(OmimResourceGroupParser.class);
+        return resource;
+    }
+
+    private static Resource metaDataResource() {
+        Resource resource = new Resource("MetaData");
+        resource.setUrl("");
+        resource.setRemoteFileName("");
+        resource.setVersion("");
+        resource.setExtractedFileName("");
+        resource.setExtractionScheme("");
+        resource.setParsedFileName("metadata.pg");
+        resource.setParserClass(MetaDataParser.class);
+        resource.setResourceGroupName("");
+        resource.setResourceGroupParserClass(null);
+        return resource;
+    }
+
+    @Test
+    public void testProcessResources(@TempDir Path tempDir) throws IOException {
+        Path downloadPath = Files.createDirectory(tempDir.resolve("download"));
+        Path processPath = tempDir.resolve("extracted");
+        Path dataPath = Files.createDirectory(tempDir.resolve("data"));
+
+        Resource mim2gene = omimGroupResource("OMIM_mim2gene", "mim2gene.txt", MimToGeneParser.class);
+        Resource phenotypeAnnotations = omimGroupResource("HPO_phenotype_annotations", "phenotype_annotation_test.tab", DiseaseInheritanceCache.class);
+        Resource morbidMap = omimGroupResource("OMIM_morbidmap", "morbidmap", MorbidMapParser.class);
+        Resource metaData = metaDataResource();
+        List<Resource> resources = Arrays.asList(metaData, morbidMap, mim2gene, phenotypeAnnotations);
+
+        ResourceGroupScheduler instance = new ResourceGroupScheduler(4, downloadPath, processPath, dataPath);
+        Map<String, ResourceOperationStatus> taskStatuses = instance.processResources(resources, true, true, true);
+
+        assertThat(taskStatuses.values(), everyItem(equalTo(ResourceOperationStatus.SUCCESS)));
+        assertThat(taskStatuses.containsKey("parse-group:" + OmimResourceGroupParser.NAME), is(true));
+        assertThat(taskStatuses.containsKey("parse:MetaData"), is(true));
+
+        for (Resource resource : Arrays.asList(mim2gene, phenotypeAnnotations, morbidMap)) {
+            assertThat(resource.getName(), resource.getDownloadStatus(), equalTo(ResourceOperationStatus.SUCCESS));
+            assertThat(resource.getName(), resource.getExtractStatus(), equalTo(ResourceOperationStatus.SUCCESS));
+            assertThat(resource.getName(), resource.getParseStatus(), equalTo(ResourceOperationStatus.SUCCESS));
+            assertThat(Files.exists(downloadPath.resolve(resource.getRemoteFileName())), is(true));
+        }
+        assertThat(Files.exists(dataPath.resolve(morbidMap.getParsedFileName())), is(true));
+
+        assertThat(metaData.getParseStatus(), equalTo(ResourceOperationStatus.SUCCESS));
+        List<String> metaDataLines = Files.readAllLines(dataPath.resolve("metadata.pg"));
+        assertThat(metaDataLines.size(), equalTo(resources.size()));
+    }
+
+    @Test
+    public void testProcessResourcesMissingRemoteFileReportsDownloadFailure(@TempDir Path tempDir) throws IOException {
+        Path downloadPath = Files.createDirectory(tempDir.resolve("download"));
+        Path processPath = tempDir.resolve("extracted");
+        Path dataPath = Files.createDirectory(tempDir.resolve("data"));
+
+        Resource missing = omimGroupResource("OMIM_morbidmap", "not_a_real_file", MorbidMapParser.class);
+        missing.setResourceGroupName("");
+        missing.setResourceGroupParserClass(null);
+        Resource metaData = metaDataResource();
+
+        ResourceGroupScheduler instance = new ResourceGroupScheduler(2, downloadPath, processPath, dataPath);
+        instance.processResources(Arrays.asList(missing, metaData), true, true, false);
+
+        assertThat(missing.getDownloadStatus(), equalTo(ResourceOperationStatus.FAILURE));
+        assertThat(missing.getParseStatus(), equalTo(ResourceOperationStatus.UNTRIED));
+        assertThat(metaData.getExtractStatus(), equalTo(ResourceOperationStatus.SUCCESS));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.monarchinitiative.exomiser.data.phenotype.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class ResourceTaskSchedulerTest {
+
+    @Test
+    public void testZeroThreadsThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new ResourceTaskScheduler(0));
+    }
+
+    @Test
+    public void testUnknownDependencyThrowsException() {
+        ResourceTaskScheduler instance = new ResourceTaskScheduler(1);
+        assertThrows(IllegalArgumentException.class, () -> instance.addTask("b", () -> {}, "a"));
+    }
+
+    @Test
+    public void testDuplicateTaskNameThrowsException() {
+        ResourceTaskScheduler instance = new ResourceTaskScheduler(1);
+        instance.addTask("a", () -> {});
+        assertThrows(IllegalArgumentException.class, () -> instance.addTask("a", () -> {}));
+    }
+
+    @Test
+    public void testRunNoTasks() {
+        ResourceTaskScheduler instance = new ResourceTaskScheduler(2);
+        assertThat(instance.run(), equalTo(Collections.emptyMap()));
+    }
+
+    @Test
+    public void testDependentTasksRunAfterTheirDependencies() {
+        List<String> completed = Collections.synchronizedList(new ArrayList<>());
+        ResourceTaskScheduler instance = new ResourceTaskScheduler(4)
+                .addTask("hp", () -> completed.add("hp"))
+                .addTask("mp", () -> completed.add("mp"))
+                .addTask("hpMp", () -> completed.add("hpMp"), "hp", "mp")
+                .addTask("metadata", () -> completed.add("metadata"), "hpMp");
+
+        Map<String, ResourceOperationStatus> statuses = instance.run();
+
+        assertThat(statuses.values(), everyItem(equalTo(ResourceOperationStatus.SUCCESS)));
+        assertThat(completed.size(), equalTo(4));
+        assertThat(completed.indexOf("hpMp") > completed.indexOf("hp"), is(true));
+        assertThat(completed.indexOf("hpMp") > completed.indexOf("mp"), is(true));
+        assertThat(completed.indexOf("metadata"), equalTo(3));
+    }
+
+    @Test
+    public void testIndependentTasksRunConcurrently() {
+        //each task waits for the other to start, so this will only complete if they are run at the same time
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Runnable awaitOther = () -> {
+            bothStarted.countDown();
+            try {
+                if (!bothStarted.await(10, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Tasks were not run concurrently");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        };
+        ResourceTaskScheduler instance = new ResourceTaskScheduler(2)
+                .addTask("mouse", awaitOther)
+                .addTask("fish", awaitOther);
+
+        Map<String, ResourceOperationStatus> statuses = instance.run();
+
+        assertThat(statuses.get("mouse"), equalTo(ResourceOperationStatus.SUCCESS));
+        assertThat(statuses.get("fish"), equalTo(ResourceOperationStatus.SUCCESS));
+    }
+
+    @Test
+    public void testFailedTaskSkipsDependentsButNotIndependentTasks() {
+        List<String> completed = Collections.synchronizedList(new ArrayList<>());
+        ResourceTaskScheduler instance = new ResourceTaskScheduler(2)
+                .addTask("download", () -> {
+                    throw new IllegalStateException("Server unavailable");
+                })
+                .addTask("extract", () -> completed.add("extract"), "download")
+                .addTask("parse", () -> completed.add("parse"), "extract")
+                .addTask("independent", () -> completed.add("independent"));
+
+        Map<String, ResourceOperationStatus> statuses = instance.run();
+
+        Map<String, ResourceOperationStatus> expected = new LinkedHashMap<>();
+        expected.put("download", ResourceOperationStatus.FAILURE);
+        expected.put("extract", ResourceOperationStatus.UNTRIED);
+        expected.put("parse", ResourceOperationStatus.UNTRIED);
+        expected.put("independent", ResourceOperationStatus.SUCCESS);
+        assertThat(statuses, equalTo(expected));
+        assertThat(completed, equalTo(Collections.singletonList("independent")));
+    }
+}
@@ -20,6 +20,10 @@
 
 package org.monarchinitiative.exomiser.rest.prioritiser.api;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneIdentifier;
@@ -30,6 +34,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -37,10 +42,11 @@
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -57,14 +63,28 @@ public class PrioritiserController {
 
     private final PriorityFactory priorityFactory;
     private final Map<Integer, GeneIdentifier> geneIdentifiers;
-
+    // Prioritiser.prioritise does not alter the genes so these can be shared between requests
+    private final List<Gene> allGenes;
+    private final Cache<ResultsKey, List<PriorityResult>> resultsCache;
+
+    /**
+     * @param maxCachedResults maximum number of prioritiser results to cache, set using the
+     *                         exomiser.prioritiser.max-cached-results property. Use 0 to disable the cache.
+     */
     @Autowired
-    public PrioritiserController(PriorityFactory priorityFactory, GenomeAnalysisService hg38GenomeAnalysisService) {
+    public PrioritiserController(PriorityFactory priorityFactory, GenomeAnalysisService hg38GenomeAnalysisService, @Value("${exomiser.prioritiser.max-cached-results:1000}") int maxCachedResults) {
         this.priorityFactory = priorityFactory;
+        this.resultsCache = CacheBuilder.newBuilder()
+                .maximumSize(maxCachedResults)
+                .recordStats()
+                .build();
         this.geneIdentifiers = hg38GenomeAnalysisService.getKnownGeneIdentifiers().stream()
                 .filter(GeneIdentifier::hasEntrezId)
                 .collect(toImmutableMap(GeneIdentifier::getEntrezIdAsInteger, Function.identity()));
         logger.info("Created GeneIdentifier cache with {} entries", geneIdentifiers.size());
+        this.allGenes = geneIdentifiers.values().stream()
+                .map(Gene::new)
+                .collect(toImmutableList());
     }
 
     @GetMapping(value = "about")
@@ -87,10 +107,11 @@ public PrioritiserResultSet prioritise(@RequestParam(value = "phenotypes") List<
 
         Instant start = Instant.now();
 
-        Prioritiser prioritiser = parsePrioritiser(prioritiserName, prioritiserParams);
-        List<String> uniquePhenotypes = phenotypes.stream().distinct().collect(toImmutableList());
-        List<Gene> genes = makeGenesFromIdentifiers(genesIds);
-        List<PriorityResult> results = runLimitAndCollectResults(prioritiser, uniquePhenotypes, genes, limit);
+        //the order of the input phenotypes does not affect the results, so sort them to increase the cache hit rate.
+        //This is only used as the cache key, the prioritiser is run using the phenotypes as requested.
+        List<String> uniquePhenotypes = phenotypes.stream().map(String::trim).distinct().sorted().collect(toImmutableList());
+        ResultsKey resultsKey = new ResultsKey(uniquePhenotypes, ImmutableList.copyOf(genesIds), prioritiserName, prioritiserParams, limit);
+        List<PriorityResult> results = getCachedResults(resultsKey, phenotypes);
 
         Instant end = Instant.now();
         Duration duration = Duration.between(start, end);
@@ -105,6 +126,20 @@ public PrioritiserResultSet prioritise(@RequestParam(value = "phenotypes") List<
         return new PrioritiserResultSet(params, duration.toMillis(), results);
     }
 
+    private List<PriorityResult> getCachedResults(ResultsKey resultsKey, List<String> phenotypes) {
+        try {
+            List<PriorityResult> results = resultsCache.get(resultsKey, () -> {
+                Prioritiser prioritiser = parsePrioritiser(resultsKey.prioritiserName, resultsKey.prioritiserParams);
+                List<Gene> genes = makeGenesFromIdentifiers(resultsKey.geneIds);
+                return runLimitAndCollectResults(prioritiser, phenotypes, genes, resultsKey.limit);
+            });
+            logger.debug("Results cache {}", resultsCache.stats());
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to prioritise genes", e.getCause());
+        }
+    }
+
     private Prioritiser parsePrioritiser(String prioritiserName, String prioritiserParams) {
         switch(prioritiserName) {
             case "phenix":
@@ -124,10 +159,7 @@ private List<Gene> makeGenesFromIdentifiers(List<Integer> genesIds) {
         if (genesIds.isEmpty()) {
             logger.info("Gene identifiers not specified - will compare against all known genes.");
             //If not specified, we'll assume they want to use the whole genome. Should save people a lot of typing.
-            //n.b. Gene is mutable so these can't be cached and returned.
-            return geneIdentifiers.values().parallelStream()
-                    .map(Gene::new)
-                    .collect(toImmutableList());
+            return allGenes;
         }
         // This is a hack - really the Prioritiser should only work on GeneIds, but currently this isn't possible as
         // OmimPrioritiser uses some properties of Gene
@@ -141,13 +173,50 @@ private GeneIdentifier unrecognisedGeneIdentifier(Integer id) {
     }
 
     private List<PriorityResult> runLimitAndCollectResults(Prioritiser prioritiser, List<String> phenotypes, List<Gene> genes, int limit) {
-        Stream<PriorityResult> resultsStream = prioritiser.prioritise(phenotypes, genes)
-                .sorted(Comparator.naturalOrder());
-        logger.info("Finished {}", prioritiser.getPriorityType());
+        Stream<PriorityResult> resultsStream = prioritiser.prioritise(phenotypes, genes);
+        List<PriorityResult> results;
         if (limit == 0) {
-            return resultsStream.collect(toImmutableList());
+            results = resultsStream.sorted().collect(toImmutableList());
+        } else {
+            //only the top results are required so there is no need to sort the whole genome
+            results = ImmutableList.copyOf(Ordering.natural().leastOf(resultsStream.iterator(), limit));
+        }
+        logger.info("Finished {}", prioritiser.getPriorityType());
+        return results;
+    }
+
+    private static final class ResultsKey {
+
+        private final List<String> phenotypes;
+        private final List<Integer> geneIds;
+        private final String prioritiserName;
+        private final String prioritiserParams;
+        private final int limit;
+
+        private ResultsKey(List<String> phenotypes, List<Integer> geneIds, String prioritiserName, String prioritiserParams, int limit) {
+            this.phenotypes = phenotypes;
+            this.geneIds = geneIds;
+            this.prioritiserName = prioritiserName;
+            this.prioritiserParams = prioritiserParams;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ResultsKey that = (ResultsKey) o;
+            return limit == that.limit &&
+                    Objects.equals(phenotypes, that.phenotypes) &&
+                    Objects.equals(geneIds, that.geneIds) &&
+                    Objects.equals(prioritiserName, that.prioritiserName) &&
+                    Objects.equals(prioritiserParams, that.prioritiserParams);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(phenotypes, geneIds, prioritiserName, prioritiserParams, limit);
         }
-        return resultsStream.limit(limit).collect(toImmutableList());
     }
 
 }
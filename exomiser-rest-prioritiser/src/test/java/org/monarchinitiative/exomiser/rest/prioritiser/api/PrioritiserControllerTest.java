@@ -0,0 +1,159 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.rest.prioritiser.api;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneIdentifier;
+import org.monarchinitiative.exomiser.core.prioritisers.HiPhivePriority;
+import org.monarchinitiative.exomiser.core.prioritisers.HiPhivePriorityResult;
+import org.monarchinitiative.exomiser.core.prioritisers.PriorityFactory;
+import org.monarchinitiative.exomiser.core.prioritisers.PriorityResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class PrioritiserControllerTest {
+
+    private static final Map<String, Double> GENE_SCORES = ImmutableMap.of("GENE1", 0.5, "GENE2", 0.9, "GENE3", 0.7);
+
+    private final PriorityFactory priorityFactory = mock(PriorityFactory.class);
+    private final GenomeAnalysisService genomeAnalysisService = mock(GenomeAnalysisService.class);
+    // the phenotypes passed to the prioritiser on each run
+    private final List<List<String>> prioritisedPhenotypes = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        when(genomeAnalysisService.getKnownGeneIdentifiers()).thenReturn(ImmutableSet.of(
+                geneIdentifier("GENE1", "1"),
+                geneIdentifier("GENE2", "2"),
+                geneIdentifier("GENE3", "3")
+        ));
+        HiPhivePriority hiPhivePriority = mock(HiPhivePriority.class);
+        when(hiPhivePriority.prioritise(anyList(), anyList())).thenAnswer(invocation -> {
+            List<String> phenotypes = invocation.getArgument(0);
+            List<Gene> genes = invocation.getArgument(1);
+            prioritisedPhenotypes.add(phenotypes);
+            return genes.stream()
+                    .map(gene -> new HiPhivePriorityResult(gene.getEntrezGeneID(), gene.getGeneSymbol(), GENE_SCORES.get(gene
+                            .getGeneSymbol()), ImmutableList.of(), ImmutableList.of(), ImmutableList.of(), 0, false));
+        });
+        when(priorityFactory.makeHiPhivePrioritiser(any())).thenReturn(hiPhivePriority);
+    }
+
+    private static GeneIdentifier geneIdentifier(String geneSymbol, String entrezId) {
+        return GeneIdentifier.builder().geneSymbol(geneSymbol).geneId(entrezId).entrezId(entrezId).build();
+    }
+
+    private static List<String> geneSymbols(PrioritiserResultSet prioritiserResultSet) {
+        return prioritiserResultSet.getResults().stream().map(PriorityResult::getGeneSymbol).collect(toList());
+    }
+
+    private static PrioritiserResultSet prioritise(PrioritiserController instance, List<String> phenotypes, int limit) {
+        return instance.prioritise(phenotypes, ImmutableList.of(), "hiphive", "", limit);
+    }
+
+    @Test
+    public void prioritiserIsRunWithRequestedPhenotypes() {
+        PrioritiserController instance = new PrioritiserController(priorityFactory, genomeAnalysisService, 10);
+        List<String> phenotypes = ImmutableList.of("HP:0000002", " HP:0000001", "HP:0000002");
+
+        prioritise(instance, phenotypes, 0);
+
+        assertThat(prioritisedPhenotypes, equalTo(ImmutableList.of(phenotypes)));
+    }
+
+    @Test
+    public void cacheKeyIgnoresPhenotypeOrderAndDuplicates() {
+        PrioritiserController instance = new PrioritiserController(priorityFactory, genomeAnalysisService, 10);
+
+        PrioritiserResultSet first = prioritise(instance, ImmutableList.of("HP:0000001", "HP:0000002"), 0);
+        PrioritiserResultSet second = prioritise(instance, ImmutableList.of("HP:0000002", "HP:0000001", " HP:0000001"), 0);
+
+        assertThat(prioritisedPhenotypes.size(), equalTo(1));
+        assertThat(second.getResults(), equalTo(first.getResults()));
+    }
+
+    @Test
+    public void differentPhenotypesAreNotCacheHits() {
+        PrioritiserController instance = new PrioritiserController(priorityFactory, genomeAnalysisService, 10);
+
+        prioritise(instance, ImmutableList.of("HP:0000001"), 0);
+        prioritise(instance, ImmutableList.of("HP:0000002"), 0);
+
+        assertThat(prioritisedPhenotypes.size(), equalTo(2));
+    }
+
+    @Test
+    public void differentLimitsAreNotCacheHits() {
+        PrioritiserController instance = new PrioritiserController(priorityFactory, genomeAnalysisService, 10);
+
+        prioritise(instance, ImmutableList.of("HP:0000001"), 0);
+        prioritise(instance, ImmutableList.of("HP:0000001"), 1);
+
+        assertThat(prioritisedPhenotypes.size(), equalTo(2));
+    }
+
+    @Test
+    public void zeroMaxCachedResultsDisablesCache() {
+        PrioritiserController instance = new PrioritiserController(priorityFactory, genomeAnalysisService, 0);
+
+        prioritise(instance, ImmutableList.of("HP:0000001"), 0);
+        prioritise(instance, ImmutableList.of("HP:0000001"), 0);
+
+        assertThat(prioritisedPhenotypes.size(), equalTo(2));
+    }
+
+    @Test
+    public void noLimitReturnsAllGenesSortedByScore() {
+        PrioritiserController instance = new PrioritiserController(priorityFactory, genomeAnalysisService, 10);
+
+        PrioritiserResultSet results = prioritise(instance, ImmutableList.of("HP:0000001"), 0);
+
+        assertThat(geneSymbols(results), equalTo(ImmutableList.of("GENE2", "GENE3", "GENE1")));
+    }
+
+    @Test
+    public void limitReturnsTopScoringGenesSortedByScore() {
+        PrioritiserController instance = new PrioritiserController(priorityFactory, genomeAnalysisService, 10);
+
+        PrioritiserResultSet results = prioritise(instance, ImmutableList.of("HP:0000001"), 2);
+
+        assertThat(geneSymbols(results), equalTo(ImmutableList.of("GENE2", "GENE3")));
+    }
+}
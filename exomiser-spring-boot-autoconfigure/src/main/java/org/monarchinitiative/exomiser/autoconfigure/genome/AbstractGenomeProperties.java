@@ -44,6 +44,10 @@ public abstract class AbstractGenomeProperties implements GenomeProperties {
     private String remmPath = "";
     private String localFrequencyPath = "";
 
+    //Optional variant annotation cache - disabled by default
+    private long annotationCacheSize = 0;
+    private String annotationCachePath = "";
+
     @Override
     public Path getDataDirectory() {
         return dataDirectory;
@@ -125,4 +129,20 @@ public void setLocalFrequencyPath(String localFrequencyPath) {
         this.localFrequencyPath = localFrequencyPath;
     }
 
+    public long getAnnotationCacheSize() {
+        return annotationCacheSize;
+    }
+
+    public void setAnnotationCacheSize(long annotationCacheSize) {
+        this.annotationCacheSize = annotationCacheSize;
+    }
+
+    public String getAnnotationCachePath() {
+        return annotationCachePath;
+    }
+
+    public void setAnnotationCachePath(String annotationCachePath) {
+        this.annotationCachePath = annotationCachePath;
+    }
+
 }
@@ -23,6 +23,7 @@
 import de.charite.compbio.jannovar.data.JannovarData;
 import org.h2.mvstore.MVStore;
 import org.monarchinitiative.exomiser.core.genome.*;
+import org.monarchinitiative.exomiser.core.genome.dao.GenomeIntervalFile;
 import org.monarchinitiative.exomiser.core.genome.dao.RegulatoryFeatureDao;
 import org.monarchinitiative.exomiser.core.genome.dao.TabixDataSource;
 import org.monarchinitiative.exomiser.core.genome.dao.TadDao;
@@ -33,7 +34,9 @@
 
 import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * Acts as a manual version of Spring component discovery and DI. This is required as there can be more than one
@@ -49,7 +52,9 @@ public abstract class GenomeAnalysisServiceConfigurer implements GenomeAnalysisS
 
     private final GenomeProperties genomeProperties;
 
+    //only one of these will be present, with the genomeIntervalFile preferred when available
     protected final DataSource dataSource;
+    protected final GenomeIntervalFile genomeIntervalFile;
     protected final JannovarData jannovarData;
     protected final MVStore mvStore;
 
@@ -59,12 +64,16 @@ public abstract class GenomeAnalysisServiceConfigurer implements GenomeAnalysisS
     protected final TabixDataSource caddIndelTabixDataSource;
     protected final TabixDataSource remmTabixDataSource;
 
+    //Optional cache of annotations shared by all analyses run against this assembly
+    protected final VariantAnnotationCache variantAnnotationCache;
+
     public GenomeAnalysisServiceConfigurer(GenomeProperties genomeProperties, Path exomiserDataDirectory) {
         this.genomeProperties = genomeProperties;
         logger.debug("Loading data sources for {} {} {}", genomeProperties.getDataVersion(), genomeProperties.getAssembly(), genomeProperties.getTranscriptSource());
         GenomeDataSources genomeDataSources = GenomeDataSources.from(genomeProperties, exomiserDataDirectory);
         GenomeDataSourceLoader genomeDataSourceLoader = GenomeDataSourceLoader.load(genomeDataSources);
         this.dataSource = genomeDataSourceLoader.getGenomeDataSource();
+        this.genomeIntervalFile = genomeDataSourceLoader.getGenomeIntervalFile().orElse(null);
         this.jannovarData = genomeDataSourceLoader.getJannovarData();
         this.mvStore = genomeDataSourceLoader.getMvStore();
 
@@ -72,20 +81,53 @@ public GenomeAnalysisServiceConfigurer(GenomeProperties genomeProperties, Path e
         this.caddSnvTabixDataSource = genomeDataSourceLoader.getCaddSnvTabixDataSource();
         this.caddIndelTabixDataSource = genomeDataSourceLoader.getCaddIndelTabixDataSource();
         this.remmTabixDataSource = genomeDataSourceLoader.getRemmTabixDataSource();
+
+        this.variantAnnotationCache = loadVariantAnnotationCache(genomeProperties);
+    }
+
+    private static VariantAnnotationCache loadVariantAnnotationCache(GenomeProperties genomeProperties) {
+        if (genomeProperties.getAnnotationCacheSize() <= 0) {
+            return null;
+        }
+        logger.debug("Using variant annotation cache of up to {} entries", genomeProperties.getAnnotationCacheSize());
+        VariantAnnotationCache cache = new VariantAnnotationCache(genomeProperties.getAnnotationCacheSize(), genomeProperties.getDataVersion(), genomeProperties
+                .getAssembly(), genomeProperties.getTranscriptSource().name());
+        String cachePath = genomeProperties.getAnnotationCachePath();
+        if (!cachePath.isEmpty() && Files.exists(Paths.get(cachePath))) {
+            cache.readFrom(Paths.get(cachePath));
+        }
+        return cache;
     }
 
     /**
-     * Only one instance of an MVStore can access the store on disk at a time in a single JVM. This prevents tests failing
-     * when the store hasn't been properly closed.
+     * Persists the contents of the variant annotation cache so that these can be re-used after a restart, then closes
+     * the MVStore. Only one instance of an MVStore can access the store on disk at a time in a single JVM. This prevents
+     * tests failing when the store hasn't been properly closed. A bean may only have one destroy method, so both are
+     * done here, with the store closed even if writing the cache fails.
      */
     @PreDestroy
-    public void closeMvStore() {
-        mvStore.close();
+    public void shutdown() {
+        try {
+            writeVariantAnnotationCache();
+        } finally {
+            mvStore.close();
+        }
+    }
+
+    private void writeVariantAnnotationCache() {
+        String cachePath = genomeProperties.getAnnotationCachePath();
+        if (variantAnnotationCache != null && !cachePath.isEmpty()) {
+            variantAnnotationCache.writeTo(Paths.get(cachePath));
+        }
     }
 
     protected VariantAnnotator buildVariantAnnotator() {
         ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex = genomeDataService().getRegulatoryRegionIndex();
-        return new JannovarVariantAnnotator(genomeProperties.getAssembly(), jannovarData, regulatoryRegionIndex);
+        VariantAnnotator jannovarVariantAnnotator = new JannovarVariantAnnotator(genomeProperties.getAssembly(), jannovarData, regulatoryRegionIndex);
+        if (variantAnnotationCache != null) {
+            return new CachingVariantAnnotator(genomeProperties.getAssembly(), jannovarVariantAnnotator, variantAnnotationCache);
+        }
+        return jannovarVariantAnnotator;
     }
 
     protected VariantFactory buildVariantFactory() {
@@ -104,9 +146,12 @@ protected VariantDataService buildVariantDataService() {
     }
 
     protected GenomeDataService buildGenomeDataService() {
+        GeneFactory geneFactory = new GeneFactory(jannovarData);
+        if (genomeIntervalFile != null) {
+            return new GenomeIntervalDataService(geneFactory, genomeIntervalFile);
+        }
         RegulatoryFeatureDao regulatoryFeatureDao = new RegulatoryFeatureDao(dataSource);
         TadDao tadDao = new TadDao(dataSource);
-        GeneFactory geneFactory = new GeneFactory(jannovarData);
         return new GenomeDataServiceImpl(geneFactory, regulatoryFeatureDao, tadDao);
     }
 
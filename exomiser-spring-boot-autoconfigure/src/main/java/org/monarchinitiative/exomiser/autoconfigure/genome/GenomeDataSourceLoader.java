@@ -23,6 +23,7 @@
 import de.charite.compbio.jannovar.data.JannovarData;
 import org.h2.mvstore.MVStore;
 import org.monarchinitiative.exomiser.core.genome.dao.ErrorThrowingTabixDataSource;
+import org.monarchinitiative.exomiser.core.genome.dao.GenomeIntervalFile;
 import org.monarchinitiative.exomiser.core.genome.dao.TabixDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +41,8 @@ public class GenomeDataSourceLoader {
     private static final Logger logger = LoggerFactory.getLogger(GenomeDataSourceLoader.class);
 
     private final DataSource dataSource;
+    //null if the regulatory features and TADs are to be loaded from the dataSource
+    private final GenomeIntervalFile genomeIntervalFile;
     private final JannovarData jannovarData;
     private final MVStore mvStore;
 
@@ -55,6 +58,7 @@ public static GenomeDataSourceLoader load(GenomeDataSources genomeDataSources) {
 
     private GenomeDataSourceLoader(GenomeDataSources genomeDataSources) {
         this.dataSource = genomeDataSources.getGenomeDataSource();
+        this.genomeIntervalFile = genomeDataSources.getGenomeIntervalsPath().map(GenomeIntervalFile::load).orElse(null);
 
         Path transcriptFilePath = genomeDataSources.getTranscriptFilePath();
         logger.debug("Loading transcript data from {}", transcriptFilePath);
@@ -86,6 +90,10 @@ public DataSource getGenomeDataSource() {
         return dataSource;
     }
 
+    public Optional<GenomeIntervalFile> getGenomeIntervalFile() {
+        return Optional.ofNullable(genomeIntervalFile);
+    }
+
     public JannovarData getJannovarData() {
         return jannovarData;
     }
@@ -116,6 +124,7 @@ public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         GenomeDataSourceLoader that = (GenomeDataSourceLoader) o;
         return Objects.equals(dataSource, that.dataSource) &&
+                Objects.equals(genomeIntervalFile, that.genomeIntervalFile) &&
                 Objects.equals(jannovarData, that.jannovarData) &&
                 Objects.equals(mvStore, that.mvStore) &&
                 Objects.equals(localFrequencyTabixDataSource, that.localFrequencyTabixDataSource) &&
@@ -126,7 +135,7 @@ public boolean equals(Object o) {
 
     @Override
     public int hashCode() {
-        return Objects.hash(dataSource, jannovarData, mvStore, localFrequencyTabixDataSource, caddSnvTabixDataSource, caddIndelTabixDataSource, remmTabixDataSource);
+        return Objects.hash(dataSource, genomeIntervalFile, jannovarData, mvStore, localFrequencyTabixDataSource, caddSnvTabixDataSource, caddIndelTabixDataSource, remmTabixDataSource);
     }
 
 }
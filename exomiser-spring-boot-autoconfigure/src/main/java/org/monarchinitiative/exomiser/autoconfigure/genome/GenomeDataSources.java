@@ -26,6 +26,7 @@
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
 import java.util.Optional;
@@ -45,6 +46,7 @@ public class GenomeDataSources {
     private Path transcriptFilePath;
     private Path mvStorePath;
     private DataSource genomeDataSource;
+    private Path genomeIntervalsPath;
 
     // Tabix files
     private Path localFrequencyPath;
@@ -69,22 +71,30 @@ public static GenomeDataSources from(GenomeProperties genomeProperties, Path exo
 
         Path transcriptFilePath = buildTranscriptPath(genomeProperties, genomeDataResolver);
         Path mvStoreFilePath = buildMvStorePath(genomeDataResolver);
-        DataSource genomeDataSource = buildGenomeDataSource(genomeProperties, genomeDataResolver);
 
         Path localFreqPath = resolvePathOrNullIfEmpty(genomeProperties.getLocalFrequencyPath(), genomeDataResolver);
         Path caddSnvPath = resolvePathOrNullIfEmpty(genomeProperties.getCaddSnvPath(), genomeDataResolver);
         Path caddIndelPath = resolvePathOrNullIfEmpty(genomeProperties.getCaddInDelPath(), genomeDataResolver);
         Path remmPath = resolvePathOrNullIfEmpty(genomeProperties.getRemmPath(), genomeDataResolver);
 
-        return GenomeDataSources.builder()
+        Builder builder = GenomeDataSources.builder()
                 .transcriptFilePath(transcriptFilePath)
                 .mvStorePath(mvStoreFilePath)
-                .genomeDataSource(genomeDataSource)
                 .localFrequencyPath(localFreqPath)
                 .caddSnvPath(caddSnvPath)
                 .caddIndelPath(caddIndelPath)
-                .remmPath(remmPath)
-                .build();
+                .remmPath(remmPath);
+
+        //the genome database is only needed for the regulatory features and TADs, so isn't opened if these have been
+        //pre-compiled into an interval file
+        Path genomeIntervalsPath = buildGenomeIntervalsPath(genomeDataResolver);
+        if (Files.exists(genomeIntervalsPath)) {
+            logger.debug("Using genome intervals file {} in place of the genome database", genomeIntervalsPath);
+            builder.genomeIntervalsPath(genomeIntervalsPath);
+        } else {
+            builder.genomeDataSource(buildGenomeDataSource(genomeProperties, genomeDataResolver));
+        }
+        return builder.build();
     }
 
     private static Path buildTranscriptPath(GenomeProperties genomeProperties, GenomeDataResolver genomeDataResolver) {
@@ -100,6 +110,11 @@ private static Path buildMvStorePath(GenomeDataResolver genomeDataResolver) {
         return genomeDataResolver.resolveAbsoluteResourcePath(mvStoreFileName);
     }
 
+    private static Path buildGenomeIntervalsPath(GenomeDataResolver genomeDataResolver) {
+        String genomeIntervalsFileName = String.format("%s_genome_intervals.bin", genomeDataResolver.getVersionAssemblyPrefix());
+        return genomeDataResolver.resolveAbsoluteResourcePath(genomeIntervalsFileName);
+    }
+
     private static DataSource buildGenomeDataSource(GenomeProperties genomeProperties, GenomeDataResolver genomeDataResolver) {
         logger.debug("{}", genomeProperties.getDatasource());
         //omit the .h2.db extensions
@@ -130,6 +145,7 @@ private GenomeDataSources(Builder builder) {
         this.transcriptFilePath = builder.transcriptFilePath;
         this.genomeDataSource = builder.genomeDataSource;
         this.mvStorePath = builder.mvStorePath;
+        this.genomeIntervalsPath = builder.genomeIntervalsPath;
 
         this.localFrequencyPath = builder.localFrequencyPath;
         this.caddSnvPath = builder.caddSnvPath;
@@ -145,10 +161,22 @@ public Path getMvStorePath() {
         return mvStorePath;
     }
 
+    /**
+     * @return the genome database, or null if the regulatory features and TADs are to be loaded from the
+     * {@link #getGenomeIntervalsPath()} instead.
+     */
     public DataSource getGenomeDataSource() {
         return genomeDataSource;
     }
 
+    /**
+     * Optional full system path to the pre-compiled regulatory feature and TAD interval file. When present this is
+     * used in place of the genome database.
+     */
+    public Optional<Path> getGenomeIntervalsPath() {
+        return Optional.ofNullable(genomeIntervalsPath);
+    }
+
     public Optional<Path> getLocalFrequencyPath() {
         return Optional.ofNullable(localFrequencyPath);
     }
@@ -177,6 +205,7 @@ public boolean equals(Object o) {
         return Objects.equals(transcriptFilePath, that.transcriptFilePath) &&
                 Objects.equals(mvStorePath, that.mvStorePath) &&
                 Objects.equals(genomeDataSource, that.genomeDataSource) &&
+                Objects.equals(genomeIntervalsPath, that.genomeIntervalsPath) &&
                 Objects.equals(localFrequencyPath, that.localFrequencyPath) &&
                 Objects.equals(caddSnvPath, that.caddSnvPath) &&
                 Objects.equals(caddIndelPath, that.caddIndelPath) &&
@@ -185,7 +214,7 @@ public boolean equals(Object o) {
 
     @Override
     public int hashCode() {
-        return Objects.hash(transcriptFilePath, mvStorePath, genomeDataSource, localFrequencyPath, caddSnvPath, caddIndelPath, remmPath);
+        return Objects.hash(transcriptFilePath, mvStorePath, genomeDataSource, genomeIntervalsPath, localFrequencyPath, caddSnvPath, caddIndelPath, remmPath);
     }
 
     @Override
@@ -194,6 +223,7 @@ public String toString() {
                 "transcriptFilePath=" + transcriptFilePath +
                 ", mvStorePath=" + mvStorePath +
                 ", genomeDataSource=" + genomeDataSource +
+                ", genomeIntervalsPath=" + genomeIntervalsPath +
                 ", localFrequencyPath=" + localFrequencyPath +
                 ", caddSnvPath=" + caddSnvPath +
                 ", caddIndelPath=" + caddIndelPath +
@@ -212,6 +242,7 @@ public static class Builder {
         private DataSource genomeDataSource;
 
         //These are all expected to be null as they are optional data sources
+        private Path genomeIntervalsPath = null;
         private Path localFrequencyPath = null;
         private Path caddSnvPath = null;
         private Path caddIndelPath = null;
@@ -235,6 +266,15 @@ public Builder genomeDataSource(DataSource genomeDataSource) {
             return this;
         }
 
+        /**
+         * Optional full system path to the pre-compiled regulatory feature and TAD interval file. If this is set the
+         * genome database is not required.
+         */
+        public Builder genomeIntervalsPath(Path genomeIntervalsPath) {
+            this.genomeIntervalsPath = genomeIntervalsPath;
+            return this;
+        }
+
         /**
          * Optional full system path to local frequency .tsv.gz and .tsv.gz.tbi file pair.
          */
@@ -274,7 +314,9 @@ public Builder remmPath(Path remmPath) {
         public GenomeDataSources build() {
             Objects.requireNonNull(transcriptFilePath);
             Objects.requireNonNull(mvStorePath);
-            Objects.requireNonNull(genomeDataSource);
+            if (genomeIntervalsPath == null) {
+                Objects.requireNonNull(genomeDataSource);
+            }
             return new GenomeDataSources(this);
         }
     }
@@ -72,4 +72,13 @@ interface GenomeProperties {
     public String getLocalFrequencyPath();
 
     public void setLocalFrequencyPath(String localFrequencyPath);
+
+    //Optional cross-analysis variant annotation cache
+    public long getAnnotationCacheSize();
+
+    public void setAnnotationCacheSize(long annotationCacheSize);
+
+    public String getAnnotationCachePath();
+
+    public void setAnnotationCachePath(String annotationCachePath);
 }
@@ -25,6 +25,7 @@
 import de.charite.compbio.jannovar.data.SerializationException;
 import org.monarchinitiative.exomiser.autoconfigure.ExomiserAutoConfigurationException;
 import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataProtoSerialiser;
+import org.monarchinitiative.exomiser.core.genome.jannovar.MappedJannovarData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +43,11 @@ private JannovarDataSourceLoader() {
     }
 
     public static JannovarData loadJannovarData(Path transcriptFilePath){
+        //the uncompressed mapped format is the fastest to load, but has the largest file-size. All the transcripts are
+        //still decoded eagerly as the Jannovar annotator requires the complete JannovarData
+        if (MappedJannovarData.isMappedFormat(transcriptFilePath)) {
+            return MappedJannovarData.load(transcriptFilePath);
+        }
         //first try loading the file using the new protobuf-based format (larger file-size, but faster load-time)
         try {
             return JannovarDataProtoSerialiser.load(transcriptFilePath);
@@ -0,0 +1,100 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.phenotype;
+
+import org.monarchinitiative.exomiser.autoconfigure.ExomiserAutoConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Copies the contents of a file-based H2 database into a named in-memory H2 database. This is done by dumping the
+ * source database to a compressed SQL script and running this against the in-memory database, so no changes are made to
+ * the original file. The in-memory database is created with DB_CLOSE_DELAY=-1 so that it remains available for the
+ * lifetime of the JVM, regardless of how many pooled connections are open, and with MULTI_THREADED=TRUE so that the
+ * pooled connections can query it concurrently. These settings only take effect when the database is created.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 11.0.0
+ */
+class InMemoryPhenotypeDatabaseLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryPhenotypeDatabaseLoader.class);
+
+    private InMemoryPhenotypeDatabaseLoader() {
+        //un-instantiable utility class
+    }
+
+    /**
+     * @param fileJdbcUrl   JDBC URL of the source file-based database
+     * @param inMemoryDbName name of the in-memory database to create or replace
+     * @param schema        schema which will be used by the pooled connections. This is created if not present in the
+     *                      source database so that connections specifying it will not fail.
+     * @return the JDBC URL of the loaded in-memory database, excluding any connection settings.
+     */
+    static String loadInMemory(String fileJdbcUrl, String inMemoryDbName, String schema) {
+        String inMemoryJdbcUrl = String.format("jdbc:h2:mem:%s", inMemoryDbName);
+        logger.info("Loading phenotype database into memory as {}...", inMemoryJdbcUrl);
+        Instant start = Instant.now();
+        Path scriptFile = null;
+        try {
+            scriptFile = Files.createTempFile(inMemoryDbName, ".sql.gz");
+            String scriptPath = scriptFile.toAbsolutePath().toString().replace("'", "''");
+            try (Connection connection = DriverManager.getConnection(fileJdbcUrl, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute(String.format("SCRIPT TO '%s' COMPRESSION GZIP", scriptPath));
+            }
+            try (Connection connection = DriverManager.getConnection(inMemoryJdbcUrl + ";DB_CLOSE_DELAY=-1;MULTI_THREADED=TRUE", "sa", "");
+                 Statement statement = connection.createStatement()) {
+                // in case a database of the same name has already been loaded in this JVM
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute(String.format("RUNSCRIPT FROM '%s' COMPRESSION GZIP", scriptPath));
+                statement.execute(String.format("CREATE SCHEMA IF NOT EXISTS %s", schema));
+            }
+        } catch (IOException | SQLException e) {
+            throw new ExomiserAutoConfigurationException("Unable to load phenotype database into memory", e);
+        } finally {
+            deleteQuietly(scriptFile);
+        }
+        logger.info("Loaded phenotype database into memory in {} ms", Duration.between(start, Instant.now()).toMillis());
+        return inMemoryJdbcUrl;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Unable to delete temporary file {}", path, e);
+        }
+    }
+}
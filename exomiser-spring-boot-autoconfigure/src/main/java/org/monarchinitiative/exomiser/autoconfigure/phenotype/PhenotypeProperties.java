@@ -40,9 +40,14 @@ public class PhenotypeProperties {
     @NestedConfigurationProperty
     private DataSourceProperties datasource = new DataSourceProperties();
 
+    //loads a read-only copy of the phenotype database into memory on startup. This uses more RAM, but removes the
+    //disk and connection-pool bottleneck for multi-threaded use.
+    private boolean inMemory = false;
+
     //Random walk matrix for hiPhive and exomeWalker
     // pre 10.0.0. the randomWalkFileName ended with a .gz extension
     // this was changed to use an MVStore with a .mv extension in version 10.0.0
+    // a memory-mapped flat file with a .mmap extension can be used from version 11.0.0
     private String randomWalkFileName = "rw_string_9_05.mv";
     private String randomWalkIndexFileName = "rw_string_9_05_id2index.gz";
     private boolean randomWalkPreload = false;
@@ -76,6 +81,14 @@ public void setDatasource(DataSourceProperties dataSourceProperties) {
         this.datasource = dataSourceProperties;
     }
 
+    public boolean isInMemory() {
+        return inMemory;
+    }
+
+    public void setInMemory(boolean inMemory) {
+        this.inMemory = inMemory;
+    }
+
     public String getRandomWalkFileName() {
         return randomWalkFileName;
     }
@@ -129,6 +142,7 @@ public String toString() {
         return "PhenotypeProperties{" +
                 "dataVersion='" + dataVersion + '\'' +
                 ", datasource=" + datasource +
+                ", inMemory=" + inMemory +
                 ", randomWalkFileName='" + randomWalkFileName + '\'' +
                 ", randomWalkIndexFileName='" + randomWalkIndexFileName + '\'' +
                 ", phenixDataDir='" + phenixDataDir + '\'' +
@@ -61,6 +61,8 @@ public class PrioritiserAutoConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(PrioritiserAutoConfiguration.class);
 
+    private static final String PHENOTYPE_SCHEMA = "EXOMISER";
+
     private final PhenotypeProperties phenotypeProperties;
     private final Path phenotypeDataDirectory;
 
@@ -168,6 +170,10 @@ public DataMatrix randomWalkMatrix() {
             Path randomWalkIndexFilePath = phenotypeDataDirectory().resolve(randomWalkIndexFileNameValue);
             return DataMatrixIO.loadInMemoryDataMatrixFromFile(randomWalkFilePath.toString(), randomWalkIndexFilePath.toString(), true);
         }
+        if (randomWalkFileNameValue.endsWith(".mmap")) {
+            logger.info("Loading memory-mapped random-walk matrix from {}", randomWalkFilePath);
+            return DataMatrixIO.loadMappedDataMatrix(randomWalkFilePath);
+        }
         if (phenotypeProperties.isRandomWalkPreload()) {
             logger.info("Pre-loading in-memory random-walk matrix from {}", randomWalkFilePath);
             return DataMatrixIO.loadInMemoryDataMatrix(randomWalkFilePath);
@@ -188,17 +194,25 @@ private HikariConfig phenotypeDataSourceConfig() {
 
         Path dbPath = phenotypeDataDirectory().resolve(dbFileName);
 
-        String startUpArgs = ";MODE=PostgreSQL;SCHEMA=EXOMISER;DATABASE_TO_UPPER=FALSE;IFEXISTS=TRUE;AUTO_RECONNECT=TRUE;ACCESS_MODE_DATA=r;";
+        String startUpArgs = String.format(";MODE=PostgreSQL;SCHEMA=%s;DATABASE_TO_UPPER=FALSE;IFEXISTS=TRUE;AUTO_RECONNECT=TRUE;ACCESS_MODE_DATA=r;", PHENOTYPE_SCHEMA);
 
         String jdbcUrl = String.format("jdbc:h2:file:%s%s", dbPath.toAbsolutePath(), startUpArgs);
 
         HikariConfig config = new HikariConfig();
         config.setDriverClassName("org.h2.Driver");
-        config.setJdbcUrl(jdbcUrl);
         config.setUsername("sa");
         config.setPassword("");
-        config.setMaximumPoolSize(3);
         config.setPoolName(String.format("exomiser-phenotype-%s", version));
+        if (phenotypeProperties.isInMemory()) {
+            //the in-memory copy is not limited by disk access, so allow a connection per thread
+            String inMemoryUrl = InMemoryPhenotypeDatabaseLoader.loadInMemory(jdbcUrl, config.getPoolName(), PHENOTYPE_SCHEMA);
+            config.setJdbcUrl(String.format("%s;MODE=PostgreSQL;SCHEMA=%s;DATABASE_TO_UPPER=FALSE;", inMemoryUrl, PHENOTYPE_SCHEMA));
+            config.setReadOnly(true);
+            config.setMaximumPoolSize(Runtime.getRuntime().availableProcessors());
+        } else {
+            config.setJdbcUrl(jdbcUrl);
+            config.setMaximumPoolSize(3);
+        }
         logger.debug("Set up {} pool {} connections from {}", config.getPoolName(), config.getMaximumPoolSize(), config.getJdbcUrl());
         return config;
     }
@@ -61,6 +61,14 @@ public void genomeAnalysisService() throws Exception {
         assertThat(context.getBean("hg19localFrequencyDao"), instanceOf(LocalFrequencyDao.class));
     }
 
+    @Test
+    public void variantAnnotatorWithAnnotationCache() throws Exception {
+
+        load(EmptyConfiguration.class, TEST_DATA_ENV, "exomiser.hg19.data-version=1710", "exomiser.hg19.annotation-cache-size=1000");
+
+        assertThat(context.getBean("hg19variantAnnotator"), instanceOf(CachingVariantAnnotator.class));
+    }
+
     @Configuration
     @ImportAutoConfiguration(value = Hg19GenomeAnalysisServiceAutoConfiguration.class)
     protected static class EmptyConfiguration {}
@@ -23,10 +23,14 @@
 import de.charite.compbio.jannovar.data.JannovarData;
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.exomiser.autoconfigure.ExomiserAutoConfigurationException;
+import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataProtoSerialiser;
+import org.monarchinitiative.exomiser.core.genome.jannovar.MappedJannovarData;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -50,6 +54,19 @@ public void loadsNewFormatData() {
         assertThat(jannovarData, instanceOf(JannovarData.class) );
     }
 
+    @Test
+    public void loadsMappedFormatData() throws Exception {
+        Path protoDataPath = Paths.get("src/test/resources/data/1710_hg19/1710_hg19_transcripts_ensembl_new_format.ser");
+        JannovarData protoData = JannovarDataProtoSerialiser.load(protoDataPath);
+
+        Path jannovarDataPath = Files.createTempFile("exomiser_test", ".ser");
+        jannovarDataPath.toFile().deleteOnExit();
+        MappedJannovarData.save(jannovarDataPath, protoData);
+
+        JannovarData jannovarData = JannovarDataSourceLoader.loadJannovarData(jannovarDataPath);
+        assertThat(jannovarData.getTmByAccession(), equalTo(protoData.getTmByAccession()));
+    }
+
     @Test
     public void cannotLoadData() {
         Path jannovarDataPath = Paths.get("src/test/resources/data/1710_hg19/wibble.ser");
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.autoconfigure.phenotype;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.exomiser.autoconfigure.AbstractAutoConfigurationTest;
@@ -35,9 +36,12 @@
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
 
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -161,6 +165,31 @@ public void randomWalkMatrixCanBeOverriden() {
         assertThat(dataMatrix, not(nullValue()));
     }
 
+    @Test
+    public void phenotypeDataSourceDefault() throws Exception {
+        load(EmptyConfiguration.class, TEST_DATA_ENV, DATA_VERSION);
+        HikariDataSource dataSource = (HikariDataSource) context.getBean("phenotypeDataSource");
+        assertThat(dataSource.getJdbcUrl(), startsWith("jdbc:h2:file:"));
+        assertThat(dataSource.getMaximumPoolSize(), equalTo(3));
+    }
+
+    @Test
+    public void phenotypeDataSourceInMemory() throws Exception {
+        load(EmptyConfiguration.class, TEST_DATA_ENV, DATA_VERSION, "exomiser.phenotype.in-memory=true");
+        HikariDataSource dataSource = (HikariDataSource) context.getBean("phenotypeDataSource");
+        assertThat(dataSource.getJdbcUrl(), startsWith("jdbc:h2:mem:"));
+        assertThat(dataSource.isReadOnly(), equalTo(true));
+        try (Connection connection = dataSource.getConnection();
+             ResultSet resultSet = connection.createStatement().executeQuery("SELECT 1")) {
+            assertThat(resultSet.next(), equalTo(true));
+        }
+        try (Connection connection = dataSource.getConnection();
+             ResultSet resultSet = connection.createStatement().executeQuery("SELECT VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE NAME = 'MULTI_THREADED'")) {
+            assertThat(resultSet.next(), equalTo(true));
+            assertThat(resultSet.getString(1), equalTo("1"));
+        }
+    }
+
     @Configuration
     @ImportAutoConfiguration(PrioritiserAutoConfiguration.class)
     protected static class EmptyConfiguration {
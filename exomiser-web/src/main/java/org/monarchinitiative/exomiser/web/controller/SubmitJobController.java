@@ -159,11 +159,11 @@ public String submit(
         }
 
         Analysis analysis = buildAnalysis(vcfPath, pedPath, proband, phenotypes, geneticInterval, minimumQuality, removeDbSnp, keepOffTarget, keepNonPathogenic, modeOfInheritance, frequency, makeGenesToKeep(genesToFilter), prioritiser);
-        AnalysisResults analysisResults = exomiser.run(analysis);
+        try (AnalysisResults analysisResults = exomiser.run(analysis)) {
+//            writeResultsToFile(analysisId, analysis, analysisResults);
 
-//        writeResultsToFile(analysisId, analysis, analysisResults);
-
-        buildResultsModel(model, analysis, analysisResults);
+            buildResultsModel(model, analysis, analysisResults);
+        }
         logger.info("Returning {} results to user", vcfPath.getFileName());
         cleanUpSampleFiles(vcfPath, pedPath);
         return "results";